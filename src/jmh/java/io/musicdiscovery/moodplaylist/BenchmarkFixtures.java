@@ -0,0 +1,100 @@
+package io.musicdiscovery.moodplaylist;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.musicdiscovery.moodplaylist.config.PortMetrics;
+
+/**
+ * Fixtures shared by the benchmarks.
+ * 
+ * <p>
+ * Components are created the way Spring would create them: through their
+ * constructor, with their {@code @Value} fields set to the defaults of
+ * {@code application.yaml} and their {@code @PostConstruct} method invoked.
+ * </p>
+ */
+public final class BenchmarkFixtures {
+
+	/**
+	 * A Spotify track search response for ten tracks, as returned by
+	 * {@code GET /v1/search?type=track&limit=10}.
+	 */
+	public static final String SEARCH_RESPONSE = "/spotify/search-tracks.json";
+
+	private BenchmarkFixtures() {
+	}
+
+	/**
+	 * Returns an {@link ObjectMapper} configured like the one of the Jackson codecs
+	 * used by WebFlux.
+	 * 
+	 * @return the {@link ObjectMapper}
+	 */
+	public static ObjectMapper objectMapper() {
+		return Jackson2ObjectMapperBuilder.json().build();
+	}
+
+	/**
+	 * Reads a classpath resource.
+	 * 
+	 * @param name the absolute name of the resource
+	 * @return the content of the resource
+	 */
+	public static byte[] resource(String name) {
+		try (InputStream in = BenchmarkFixtures.class.getResourceAsStream(name)) {
+			if (in == null) {
+				throw new IllegalArgumentException("Resource not found: " + name);
+			}
+			return in.readAllBytes();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Returns the given number of distinct Spotify track URIs.
+	 * 
+	 * @param count the number of tracks
+	 * @return the track URIs
+	 */
+	public static List<String> trackUris(int count) {
+		return IntStream.range(0, count)
+				.mapToObj(i -> "spotify:track:%022d".formatted(i * 7919L)).toList();
+	}
+
+	/**
+	 * Creates the {@link PortMetrics} timing the ports.
+	 * 
+	 * @param meterRegistry the registry the timers are registered with
+	 * @return the {@link PortMetrics}
+	 */
+	public static PortMetrics portMetrics(MeterRegistry meterRegistry) {
+		PortMetrics portMetrics = new PortMetrics(meterRegistry);
+		ReflectionTestUtils.setField(portMetrics, "minimumExpected", Duration.ofMillis(1));
+		ReflectionTestUtils.setField(portMetrics, "maximumExpected", Duration.ofSeconds(30));
+		return portMetrics;
+	}
+
+	/**
+	 * Invokes the {@code @PostConstruct} method of a component.
+	 * 
+	 * @param <T>       the type of the component
+	 * @param component the component to initialize
+	 * @return the component
+	 */
+	public static <T> T initialized(T component) {
+		ReflectionTestUtils.invokeMethod(component, "init");
+		return component;
+	}
+}
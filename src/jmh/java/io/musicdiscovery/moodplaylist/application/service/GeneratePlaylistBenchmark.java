@@ -0,0 +1,173 @@
+package io.musicdiscovery.moodplaylist.application.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import io.musicdiscovery.moodplaylist.BenchmarkFixtures;
+import io.musicdiscovery.moodplaylist.application.port.output.PlaylistPersistencePort;
+import io.musicdiscovery.moodplaylist.application.port.output.PrewarmPlaylistSourcePort;
+import io.musicdiscovery.moodplaylist.config.PortMetrics;
+import io.musicdiscovery.moodplaylist.domain.model.Playlist;
+import io.musicdiscovery.moodplaylist.domain.model.enums.Mood;
+import io.musicdiscovery.moodplaylist.infrastructure.adapters.output.client.spotify.SpotifyAccessTokenManager;
+import io.musicdiscovery.moodplaylist.infrastructure.adapters.output.client.spotify.SpotifyPlaylistServiceAdapter;
+import io.musicdiscovery.moodplaylist.infrastructure.adapters.output.client.spotify.SpotifySearchResponseDecoder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Measures
+ * {@link PlaylistApplicationService#generatePlaylist(Mood, int, String)} and
+ * {@link PlaylistApplicationService#streamPlaylist(Mood, int, String)} end to
+ * end, for anonymous listeners, against in-process stubs of Spotify and
+ * MongoDB.
+ * 
+ * <p>
+ * The {@link SpotifyPlaylistServiceAdapter} and the
+ * {@link SpotifyAccessTokenManager} are the real ones, but their
+ * {@link WebClient} answers every request from memory with a recorded search
+ * response, so each call pays for the request, the decoding of the response and
+ * its mapping. The playlist cache and the resilience decorators are left out, as
+ * they would serve every call but the first one from memory, and the pre-warm
+ * pool and the listener history are disabled. Playlists are saved to an
+ * in-memory {@link PlaylistPersistencePort}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xms1g")
+public class GeneratePlaylistBenchmark {
+
+	private static final byte[] TOKEN_RESPONSE = """
+			{"access_token":"BQDv6u0benchmark","token_type":"Bearer","expires_in":3600}
+			""".getBytes(StandardCharsets.UTF_8);
+
+	private SpotifyAccessTokenManager tokenManager;
+	private PlaylistApplicationService service;
+
+	@Setup
+	public void setUp() {
+		PrometheusMeterRegistry meterRegistry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+		PortMetrics portMetrics = BenchmarkFixtures.portMetrics(meterRegistry);
+		byte[] searchResponse = BenchmarkFixtures.resource(BenchmarkFixtures.SEARCH_RESPONSE);
+		ExchangeFunction spotify = request -> Mono.just(ClientResponse.create(HttpStatus.OK)
+				.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+				.body(Flux.just(DefaultDataBufferFactory.sharedInstance
+						.wrap(request.url().getPath().endsWith("/token") ? TOKEN_RESPONSE : searchResponse)))
+				.build());
+		WebClient webClient = WebClient.builder().baseUrl("https://api.spotify.com").exchangeFunction(spotify)
+				.build();
+
+		tokenManager = new SpotifyAccessTokenManager(webClient, meterRegistry, portMetrics);
+		ReflectionTestUtils.setField(tokenManager, "clientId", "benchmark");
+		ReflectionTestUtils.setField(tokenManager, "clientSecret", "benchmark");
+		ReflectionTestUtils.setField(tokenManager, "tokenUrl", "https://accounts.spotify.com/api/token");
+		ReflectionTestUtils.setField(tokenManager, "refreshBeforeExpiry", Duration.ofSeconds(60));
+		ReflectionTestUtils.setField(tokenManager, "retryDelay", Duration.ofSeconds(5));
+		BenchmarkFixtures.initialized(tokenManager);
+
+		SpotifySearchResponseDecoder searchResponseDecoder = new SpotifySearchResponseDecoder(
+				BenchmarkFixtures.objectMapper());
+		SpotifyPlaylistServiceAdapter spotifyAdapter = new SpotifyPlaylistServiceAdapter(webClient, tokenManager,
+				searchResponseDecoder, meterRegistry, portMetrics);
+		ReflectionTestUtils.setField(spotifyAdapter, "pageSize", 50);
+		ReflectionTestUtils.setField(spotifyAdapter, "searchConcurrency", 4);
+		BenchmarkFixtures.initialized(spotifyAdapter);
+		PlaylistPrewarmPool prewarmPool = new PlaylistPrewarmPool(new PrewarmPlaylistSourcePort() {
+
+			@Override
+			public boolean isAvailable() {
+				return true;
+			}
+
+			@Override
+			public Mono<Playlist> generatePlaylist(Mood mood, int length, int offset) {
+				return spotifyAdapter.generatePlaylist(mood, length, offset);
+			}
+		}, meterRegistry);
+		service = new PlaylistApplicationService(spotifyAdapter, new InMemoryPlaylistPersistence(), null, prewarmPool,
+				meterRegistry, portMetrics);
+		ReflectionTestUtils.setField(service, "batchConcurrency", 4);
+		ReflectionTestUtils.setField(service, "maxPageSize", 100);
+		ReflectionTestUtils.setField(service, "defaultLength", 10);
+		ReflectionTestUtils.setField(service, "maxLength", 500);
+		BenchmarkFixtures.initialized(service);
+	}
+
+	@TearDown
+	public void tearDown() {
+		ReflectionTestUtils.invokeMethod(tokenManager, "shutdown");
+	}
+
+	@Benchmark
+	public Playlist generatePlaylist() {
+		return service.generatePlaylist(Mood.HAPPY, 10, null).block();
+	}
+
+	@Benchmark
+	public List<String> streamPlaylist() {
+		return service.streamPlaylist(Mood.HAPPY, 10, null).collectList().block();
+	}
+
+	/**
+	 * Assigns an identifier to every saved playlist and keeps nothing.
+	 */
+	private static final class InMemoryPlaylistPersistence implements PlaylistPersistencePort {
+
+		private final AtomicLong ids = new AtomicLong();
+
+		@Override
+		public Mono<Playlist> save(Playlist playlist) {
+			return Mono.fromSupplier(() -> stored(playlist));
+		}
+
+		@Override
+		public Flux<Playlist> saveAll(List<Playlist> playlists) {
+			return Flux.fromIterable(playlists).map(this::stored);
+		}
+
+		@Override
+		public Mono<Playlist> findById(String id) {
+			return Mono.empty();
+		}
+
+		@Override
+		public Flux<Playlist> findByMood(Mood mood, String after, int limit) {
+			return Flux.empty();
+		}
+
+		@Override
+		public Flux<Playlist> findLatestPerMood(int limit) {
+			return Flux.empty();
+		}
+
+		private Playlist stored(Playlist playlist) {
+			return new Playlist("%024x".formatted(ids.incrementAndGet()), playlist.getMood(),
+					playlist.getTrackUris());
+		}
+	}
+}
@@ -0,0 +1,72 @@
+package io.musicdiscovery.moodplaylist.application.service;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import io.musicdiscovery.moodplaylist.domain.model.BlendedTrack;
+import io.musicdiscovery.moodplaylist.domain.model.enums.Mood;
+import reactor.core.publisher.Flux;
+
+/**
+ * Measures the cost of blending moods with a {@link WeightedInterleave} when
+ * their candidates are already in memory, as when they are cached.
+ *
+ * <p>
+ * {@code singleMood} streams {@code length} tracks of one mood, the baseline of
+ * a single-mood playlist, while {@code blend} interleaves {@code moods} moods
+ * weighted 5, 3 and 2, whose candidates overlap by a tenth so that duplicates
+ * are skipped.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xms1g")
+public class WeightedInterleaveBenchmark {
+
+	private static final Mood[] MOODS = { Mood.HAPPY, Mood.EXERCISE, Mood.RELAXED };
+	private static final int[] WEIGHTS = { 5, 3, 2 };
+
+	@Param({ "2", "3" })
+	private int moods;
+
+	@Param({ "100" })
+	private int length;
+
+	private final Map<Mood, List<String>> candidates = new EnumMap<>(Mood.class);
+	private final Map<Mood, Integer> weights = new EnumMap<>(Mood.class);
+
+	@Setup
+	public void setUp() {
+		for (int mood = 0; mood < moods; mood++) {
+			int first = mood * length * 9 / 10;
+			candidates.put(MOODS[mood], IntStream.range(first, first + length)
+					.mapToObj(track -> "spotify:track:" + track).toList());
+			weights.put(MOODS[mood], WEIGHTS[mood]);
+		}
+	}
+
+	@Benchmark
+	public List<String> singleMood() {
+		return Flux.fromIterable(candidates.get(Mood.HAPPY)).take(length).collectList().block();
+	}
+
+	@Benchmark
+	public List<BlendedTrack> blend() {
+		return new WeightedInterleave(weights, mood -> Flux.fromIterable(candidates.get(mood)), length).collectList()
+				.block();
+	}
+}
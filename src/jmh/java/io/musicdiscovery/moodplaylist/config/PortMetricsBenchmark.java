@@ -0,0 +1,63 @@
+package io.musicdiscovery.moodplaylist.config;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import io.musicdiscovery.moodplaylist.BenchmarkFixtures;
+import io.musicdiscovery.moodplaylist.config.PortMetrics.PortTimer;
+import io.musicdiscovery.moodplaylist.domain.model.enums.Mood;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Measures the overhead {@link PortMetrics} adds to a port call, by timing the
+ * same trivial {@link Mono} and {@link Flux} with and without a
+ * {@link PortTimer}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xms1g")
+public class PortMetricsBenchmark {
+
+	private final Mono<Integer> mono = Mono.fromSupplier(() -> 1).map(value -> value + 1);
+	private final Flux<Integer> flux = Flux.range(0, 10).map(value -> value + 1);
+
+	private PortTimer timer;
+
+	@Setup
+	public void setUp() {
+		timer = BenchmarkFixtures.portMetrics(new PrometheusMeterRegistry(PrometheusConfig.DEFAULT))
+				.timer("benchmark", "call");
+	}
+
+	@Benchmark
+	public Integer mono() {
+		return mono.block();
+	}
+
+	@Benchmark
+	public Integer timedMono() {
+		return timer.time(Mood.HAPPY, mono).block();
+	}
+
+	@Benchmark
+	public Integer flux() {
+		return flux.blockLast();
+	}
+
+	@Benchmark
+	public Integer timedFlux() {
+		return timer.time(Mood.HAPPY, flux).blockLast();
+	}
+}
@@ -0,0 +1,60 @@
+package io.musicdiscovery.moodplaylist.infrastructure.adapters.input.rest.mapper;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import io.musicdiscovery.moodplaylist.BenchmarkFixtures;
+import io.musicdiscovery.moodplaylist.domain.model.Playlist;
+import io.musicdiscovery.moodplaylist.domain.model.PlaylistGenerationResult;
+import io.musicdiscovery.moodplaylist.domain.model.enums.Mood;
+import io.musicdiscovery.moodplaylist.infrastructure.adapters.input.rest.model.response.PlaylistBatchItemResponse;
+import io.musicdiscovery.moodplaylist.infrastructure.adapters.input.rest.model.response.PlaylistResponse;
+import io.musicdiscovery.moodplaylist.infrastructure.adapters.input.rest.model.response.PlaylistTrackResponse;
+
+/**
+ * Measures the mappings of the {@link PlaylistRestMapper} on the response path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xms1g")
+public class PlaylistRestMapperBenchmark {
+
+	@Param({ "10", "50" })
+	private int tracks;
+
+	private PlaylistRestMapper mapper;
+	private Playlist playlist;
+	private PlaylistGenerationResult result;
+
+	@Setup
+	public void setUp() {
+		mapper = new PlaylistRestMapperImpl();
+		playlist = new Playlist("66f1c2a9e4b0a1b2c3d4e5f6", Mood.HAPPY, BenchmarkFixtures.trackUris(tracks));
+		result = PlaylistGenerationResult.success(playlist);
+	}
+
+	@Benchmark
+	public PlaylistResponse toPlaylistResponse() {
+		return mapper.toPlaylistResponse(playlist);
+	}
+
+	@Benchmark
+	public PlaylistBatchItemResponse toPlaylistBatchItemResponse() {
+		return mapper.toPlaylistBatchItemResponse(result);
+	}
+
+	@Benchmark
+	public PlaylistTrackResponse toPlaylistTrackResponse() {
+		return mapper.toPlaylistTrackResponse(Mood.HAPPY, 3, playlist.getTrackUris().get(3));
+	}
+}
@@ -0,0 +1,46 @@
+package io.musicdiscovery.moodplaylist.infrastructure.adapters.input.rest.model.response;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import io.musicdiscovery.moodplaylist.BenchmarkFixtures;
+import io.musicdiscovery.moodplaylist.domain.model.enums.Mood;
+
+/**
+ * Measures the JSON serialization of a {@link PlaylistResponse}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xms1g")
+public class PlaylistResponseSerializationBenchmark {
+
+	@Param({ "10", "50" })
+	private int tracks;
+
+	private ObjectWriter writer;
+	private PlaylistResponse response;
+
+	@Setup
+	public void setUp() {
+		writer = BenchmarkFixtures.objectMapper().writerFor(PlaylistResponse.class);
+		response = new PlaylistResponse("66f1c2a9e4b0a1b2c3d4e5f6", Mood.HAPPY, BenchmarkFixtures.trackUris(tracks));
+	}
+
+	@Benchmark
+	public byte[] serialize() throws JsonProcessingException {
+		return writer.writeValueAsBytes(response);
+	}
+}
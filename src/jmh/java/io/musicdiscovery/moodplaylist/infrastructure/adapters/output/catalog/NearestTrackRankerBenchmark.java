@@ -0,0 +1,86 @@
+package io.musicdiscovery.moodplaylist.infrastructure.adapters.output.catalog;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import io.musicdiscovery.moodplaylist.domain.model.enums.Mood;
+
+/**
+ * Measures the ranking of the {@code k} tracks nearest to a mood, a full scan
+ * of the catalog, with the Vector API and the scalar kernel, on one thread or
+ * on every core.
+ * 
+ * <p>
+ * The catalog is mapped from a temporary directory and its pages are loaded by
+ * the warm-up iterations, so the scan runs from memory. Divide the catalog size
+ * by the time per operation to get the throughput in tracks per second.
+ * </p>
+ * 
+ * <p>
+ * The vector kernel is only compiled with the {@code vector} profile, so run
+ * it with {@code mvn -Pjmh,vector verify}; without it the {@code vector}
+ * trials fail.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = { "-Xms1g", "--add-modules", "jdk.incubator.vector" })
+public class NearestTrackRankerBenchmark {
+
+	@Param({ "1000000", "10000000" })
+	private long tracks;
+
+	@Param({ "vector", "scalar" })
+	private String kernel;
+
+	@Param({ "1", "0" })
+	private int parallelism;
+
+	@Param({ "500" })
+	private int k;
+
+	private Path directory;
+	private TrackCatalog catalog;
+	private ForkJoinPool pool;
+	private NearestTrackRanker ranker;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		directory = TrackCatalogFixtures.catalog(tracks, TrackCatalogSegmentWriter.MAX_CAPACITY / 8);
+		catalog = TrackCatalog.open(directory);
+		pool = parallelism == 0 ? ForkJoinPool.commonPool() : new ForkJoinPool(parallelism);
+		DistanceKernel distanceKernel = "vector".equals(kernel)
+				? DistanceKernel.vector().orElseThrow(
+						() -> new IllegalStateException("The vector kernel is only compiled with -Pvector"))
+				: new ScalarDistanceKernel();
+		ranker = new NearestTrackRanker(distanceKernel, pool, 1 << 18);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		if (pool != ForkJoinPool.commonPool()) {
+			pool.shutdown();
+		}
+		TrackCatalogFixtures.delete(directory);
+	}
+
+	@Benchmark
+	public TrackRanking rank() {
+		return ranker.rank(catalog, Mood.HAPPY, k);
+	}
+}
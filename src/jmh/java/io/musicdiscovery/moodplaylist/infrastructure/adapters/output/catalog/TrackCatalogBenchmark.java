@@ -0,0 +1,62 @@
+package io.musicdiscovery.moodplaylist.infrastructure.adapters.output.catalog;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import io.musicdiscovery.moodplaylist.domain.model.enums.Mood;
+
+/**
+ * Measures the local track catalog: drawing a playlist of {@code length}
+ * tracks for a mood, and opening the catalog, i.e. mapping its segments.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xms1g")
+public class TrackCatalogBenchmark {
+
+	@Param({ "1000000" })
+	private long tracks;
+
+	@Param({ "10" })
+	private int length;
+
+	private Path directory;
+	private TrackCatalog catalog;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		directory = TrackCatalogFixtures.catalog(tracks, 250_000);
+		catalog = TrackCatalog.open(directory);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		TrackCatalogFixtures.delete(directory);
+	}
+
+	@Benchmark
+	public List<String> sample() {
+		return catalog.sample(Mood.HAPPY, length, 2, ThreadLocalRandom.current());
+	}
+
+	@Benchmark
+	public TrackCatalog open() throws IOException {
+		return TrackCatalog.open(directory);
+	}
+}
@@ -0,0 +1,71 @@
+package io.musicdiscovery.moodplaylist.infrastructure.adapters.output.catalog;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+import org.springframework.util.FileSystemUtils;
+
+/**
+ * Synthetic track catalogs for the catalog benchmarks.
+ */
+final class TrackCatalogFixtures {
+
+	private static final byte[] ALPHABET = "0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ"
+			.getBytes();
+
+	private TrackCatalogFixtures() {
+	}
+
+	/**
+	 * Writes a catalog of random tracks, with uniformly distributed audio
+	 * features and 50,000 artists, directly as segment files.
+	 * 
+	 * @param tracks        the number of tracks
+	 * @param segmentTracks the maximum number of tracks of a segment
+	 * @return the catalog directory, to be deleted with {@link #delete(Path)}
+	 */
+	static Path catalog(long tracks, int segmentTracks) {
+		try {
+			Path directory = Files.createTempDirectory("track-catalog");
+			SplittableRandom random = new SplittableRandom(42);
+			TrackCatalogSegmentWriter writer = new TrackCatalogSegmentWriter(segmentTracks);
+			byte[] id = new byte[TrackCatalogSegment.ID_LENGTH];
+			float[] features = new float[AudioFeature.values().length];
+			List<String> segments = new ArrayList<>();
+			for (long track = 0; track < tracks; track++) {
+				for (int i = 0; i < id.length; i++) {
+					id[i] = ALPHABET[random.nextInt(ALPHABET.length)];
+				}
+				for (AudioFeature feature : AudioFeature.values()) {
+					features[feature.ordinal()] = feature == AudioFeature.TEMPO ? 60 + 140 * (float) random.nextDouble()
+							: (float) random.nextDouble();
+				}
+				writer.add(id, random.nextInt(50_000), features);
+				if (writer.isFull() || track == tracks - 1) {
+					String name = String.format(Locale.ROOT, "segment-%06d.bin", segments.size());
+					writer.write(directory.resolve(name));
+					segments.add(name);
+					writer.clear();
+				}
+			}
+			new TrackCatalogManifest("synthetic", 0, 0, segments.size(), segments).write(directory);
+			return directory;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	static void delete(Path directory) {
+		try {
+			FileSystemUtils.deleteRecursively(directory);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
@@ -0,0 +1,87 @@
+package io.musicdiscovery.moodplaylist.infrastructure.adapters.output.client.spotify;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.musicdiscovery.moodplaylist.BenchmarkFixtures;
+import io.musicdiscovery.moodplaylist.infrastructure.adapters.output.client.spotify.model.response.SpotifyRecommendationsResponse;
+import reactor.core.publisher.Flux;
+
+/**
+ * Measures the deserialization of a Spotify track search response.
+ * 
+ * <p>
+ * {@code objectMapper} reads the whole payload from a byte array, while
+ * {@code decoder} goes through the {@link Jackson2JsonDecoder} used by
+ * {@code bodyToMono}, with the payload split into buffers of
+ * {@code chunkSize} bytes the way it arrives from the network.
+ * {@code streamingDecoder} streams the same buffers through the
+ * {@link SpotifySearchResponseDecoder} used by the adapter, which only extracts
+ * the track URIs; compare its {@code gc.alloc.rate.norm} with the one of
+ * {@code decoder}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xms1g")
+public class SpotifyResponseDeserializationBenchmark {
+
+	private static final ResolvableType RESPONSE_TYPE = ResolvableType
+			.forClass(SpotifyRecommendationsResponse.class);
+
+	@Param({ "8192" })
+	private int chunkSize;
+
+	private ObjectMapper objectMapper;
+	private Jackson2JsonDecoder decoder;
+	private SpotifySearchResponseDecoder streamingDecoder;
+	private byte[] payload;
+
+	@Setup
+	public void setUp() {
+		objectMapper = BenchmarkFixtures.objectMapper();
+		decoder = new Jackson2JsonDecoder(objectMapper);
+		streamingDecoder = new SpotifySearchResponseDecoder(objectMapper);
+		payload = BenchmarkFixtures.resource(BenchmarkFixtures.SEARCH_RESPONSE);
+	}
+
+	@Benchmark
+	public SpotifyRecommendationsResponse objectMapper() throws Exception {
+		return objectMapper.readValue(payload, SpotifyRecommendationsResponse.class);
+	}
+
+	@Benchmark
+	public Object decoder() {
+		return decoder.decodeToMono(chunks(), RESPONSE_TYPE, MediaType.APPLICATION_JSON, null).block();
+	}
+
+	@Benchmark
+	public List<String> streamingDecoder() {
+		return streamingDecoder.decode(chunks()).collectList().block();
+	}
+
+	private Flux<DataBuffer> chunks() {
+		return Flux.range(0, (payload.length + chunkSize - 1) / chunkSize)
+				.map(i -> DefaultDataBufferFactory.sharedInstance.wrap(ByteBuffer.wrap(payload, i * chunkSize,
+						Math.min(chunkSize, payload.length - i * chunkSize))));
+	}
+}
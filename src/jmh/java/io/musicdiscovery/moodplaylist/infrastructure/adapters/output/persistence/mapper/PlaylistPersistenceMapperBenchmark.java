@@ -0,0 +1,53 @@
+package io.musicdiscovery.moodplaylist.infrastructure.adapters.output.persistence.mapper;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import io.musicdiscovery.moodplaylist.BenchmarkFixtures;
+import io.musicdiscovery.moodplaylist.domain.model.Playlist;
+import io.musicdiscovery.moodplaylist.domain.model.enums.Mood;
+import io.musicdiscovery.moodplaylist.infrastructure.adapters.output.persistence.entity.PlaylistEntity;
+
+/**
+ * Measures both directions of the {@link PlaylistPersistenceMapper}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xms1g")
+public class PlaylistPersistenceMapperBenchmark {
+
+	@Param({ "10", "50" })
+	private int tracks;
+
+	private PlaylistPersistenceMapper mapper;
+	private Playlist playlist;
+	private PlaylistEntity entity;
+
+	@Setup
+	public void setUp() {
+		mapper = new PlaylistPersistenceMapperImpl();
+		playlist = new Playlist(null, Mood.HAPPY, BenchmarkFixtures.trackUris(tracks));
+		entity = mapper.toPlaylistEntity(playlist);
+		entity.setId("66f1c2a9e4b0a1b2c3d4e5f6");
+	}
+
+	@Benchmark
+	public PlaylistEntity toPlaylistEntity() {
+		return mapper.toPlaylistEntity(playlist);
+	}
+
+	@Benchmark
+	public Playlist toPlaylist() {
+		return mapper.toPlaylist(entity);
+	}
+}
@@ -0,0 +1,79 @@
+package io.musicdiscovery.moodplaylist.load;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.bson.types.ObjectId;
+
+import io.musicdiscovery.moodplaylist.application.port.output.PlaylistPersistencePort;
+import io.musicdiscovery.moodplaylist.domain.exception.InvalidCursorException;
+import io.musicdiscovery.moodplaylist.domain.model.Playlist;
+import io.musicdiscovery.moodplaylist.domain.model.enums.Mood;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * In-memory stand-in for the MongoDB {@link PlaylistPersistencePort}.
+ * 
+ * <p>
+ * Playlists are kept per mood, ordered by an increasing identifier, so that the
+ * history and latest-playlist reads, and the stale fallback of the Spotify
+ * adapter, behave like they do against MongoDB. Identical playlists are not
+ * deduplicated, and nothing is ever evicted: the store is meant to live for a
+ * single load test run.
+ * </p>
+ */
+final class InMemoryPlaylistPersistence implements PlaylistPersistencePort {
+
+	private final Map<Mood, ConcurrentSkipListMap<String, Playlist>> playlists = new ConcurrentHashMap<>();
+	private final Map<String, Playlist> byId = new ConcurrentHashMap<>();
+	private final AtomicLong sequence = new AtomicLong();
+
+	@Override
+	public Mono<Playlist> save(Playlist playlist) {
+		return Mono.fromSupplier(() -> store(playlist));
+	}
+
+	@Override
+	public Flux<Playlist> saveAll(List<Playlist> playlists) {
+		return Flux.fromIterable(playlists).map(this::store);
+	}
+
+	@Override
+	public Mono<Playlist> findById(String id) {
+		return Mono.justOrEmpty(byId.get(id));
+	}
+
+	@Override
+	public Flux<Playlist> findByMood(Mood mood, String after, int limit) {
+		if (after != null && !ObjectId.isValid(after)) {
+			return Flux.error(new InvalidCursorException("Invalid cursor: " + after));
+		}
+		return Flux.defer(() -> {
+			ConcurrentSkipListMap<String, Playlist> stored = playlists.get(mood);
+			if (stored == null) {
+				return Flux.empty();
+			}
+			return Flux.fromIterable((after == null ? stored : stored.tailMap(after, false)).values())
+					.take(limit);
+		});
+	}
+
+	@Override
+	public Flux<Playlist> findLatestPerMood(int limit) {
+		return Flux.fromArray(Mood.values()).concatMap(mood -> findByMood(mood, null, limit));
+	}
+
+	private Playlist store(Playlist playlist) {
+		String id = "%024x".formatted(sequence.incrementAndGet());
+		Playlist stored = new Playlist(id, playlist.getMood(), List.copyOf(playlist.getTrackUris()));
+		playlists.computeIfAbsent(playlist.getMood(),
+				mood -> new ConcurrentSkipListMap<>(Comparator.<String>reverseOrder())).put(id, stored);
+		byId.put(id, stored);
+		return stored;
+	}
+}
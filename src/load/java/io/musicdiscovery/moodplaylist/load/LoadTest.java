@@ -0,0 +1,133 @@
+package io.musicdiscovery.moodplaylist.load;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.ResourcePropertySource;
+
+import io.micrometer.core.instrument.Metrics;
+import io.musicdiscovery.moodplaylist.PlaylistServiceApplication;
+import io.musicdiscovery.moodplaylist.application.port.output.PlaylistPersistencePort;
+import io.musicdiscovery.moodplaylist.config.ReactorSchedulerMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Offline end-to-end load test of the service.
+ * 
+ * <p>
+ * The test starts a {@link SpotifyStub}, starts the service in-process against
+ * it, with the {@link InMemoryPlaylistPersistence} in place of MongoDB, drives
+ * it with the {@link OpenModelLoadGenerator} and checks the results against the
+ * service level objectives. The process exits with status 1 when an objective
+ * is missed, so that {@code mvn -Pload verify} fails.
+ * </p>
+ * 
+ * <p>
+ * The settings are the {@code load.*} properties of
+ * {@code load-test.properties}, which can be overridden with command-line
+ * arguments such as {@code --load.rate=500}. The other arguments are passed to
+ * the service. The service runs with its own configuration, except for the
+ * client quotas, which are disabled since all the load comes from a single
+ * client. Most generations are then served by the Spotify cache and the
+ * pre-warm pool; to drive every generation to the stub, run with
+ * {@code --spotify.cache.enabled=false --playlist.prewarm.enabled=false}.
+ * </p>
+ */
+@Slf4j
+public final class LoadTest {
+
+	private static final String SEARCH_RESPONSE = "spotify/search-tracks.json";
+
+	private LoadTest() {
+	}
+
+	/**
+	 * Runs the load test.
+	 * 
+	 * @param args {@code --name=value} overrides of the load test settings and of
+	 *             the service properties
+	 * @throws Exception if the load test cannot be run
+	 */
+	public static void main(String[] args) throws Exception {
+		StandardEnvironment environment = new StandardEnvironment();
+		environment.setConversionService(new ApplicationConversionService());
+		SimpleCommandLinePropertySource arguments = new SimpleCommandLinePropertySource(args);
+		environment.getPropertySources().addFirst(arguments);
+		environment.getPropertySources().addLast(new ResourcePropertySource(new ClassPathResource("load-test.properties")));
+		LoadTestSettings settings = LoadTestSettings.from(environment);
+
+		List<String> violations;
+		try (SpotifyStub spotify = new SpotifyStub(settings,
+				new ClassPathResource(SEARCH_RESPONSE).getContentAsByteArray())) {
+			spotify.start();
+			ConfigurableApplicationContext context = startService(serviceArguments(args, arguments, spotify));
+			try {
+				String baseUrl = "http://localhost:%s%s/playlists".formatted(
+						context.getEnvironment().getProperty("local.server.port"),
+						context.getEnvironment().getProperty("spring.webflux.base-path", ""));
+				LoadTestResult result = new OpenModelLoadGenerator(settings, baseUrl).run();
+				log.info("{}\n  spotify   {} searches, {} failed with 500, {} throttled with 429", result.report(),
+						spotify.searches(), spotify.errors(), spotify.throttled());
+				violations = result.violations();
+			} finally {
+				SpringApplication.exit(context);
+			}
+		}
+		if (violations.isEmpty()) {
+			log.info("All service level objectives met");
+			System.exit(0);
+		}
+		violations.forEach(violation -> log.error("Service level objective missed: {}", violation));
+		System.exit(1);
+	}
+
+	/**
+	 * Starts the service with the in-memory persistence registered as the primary
+	 * {@link PlaylistPersistencePort}.
+	 */
+	private static ConfigurableApplicationContext startService(String[] args) {
+		ReactorSchedulerMetrics.install(Metrics.globalRegistry);
+		return new SpringApplicationBuilder(PlaylistServiceApplication.class)
+				.initializers(context -> ((GenericApplicationContext) context).registerBean(
+						"inMemoryPlaylistPersistence", PlaylistPersistencePort.class,
+						InMemoryPlaylistPersistence::new, definition -> definition.setPrimary(true)))
+				.run(args);
+	}
+
+	/**
+	 * Returns the arguments of the service: the ones given on the command line,
+	 * and the defaults of the load test for the properties they do not set.
+	 */
+	private static String[] serviceArguments(String[] args, SimpleCommandLinePropertySource arguments,
+			SpotifyStub spotify) {
+		Map<String, String> defaults = new LinkedHashMap<>();
+		defaults.put("server.port", "0");
+		defaults.put("spotify.api-base-url", spotify.baseUrl());
+		defaults.put("spotify.token-url", spotify.baseUrl() + "/api/token");
+		defaults.put("spotify.client-id", "load-test");
+		defaults.put("spotify.client-secret", "load-test");
+		defaults.put("spotify.http-client.http2-enabled", "false");
+		defaults.put("playlist.quota.enabled", "false");
+		defaults.put("mongo.data-base-user-name", "load-test");
+		defaults.put("mongo.data-base-user-password", "load-test");
+		defaults.put("mongo.data-base-host", "localhost");
+		defaults.put("mongo.data-base-name", "load-test");
+		defaults.put("mongo.indexes.required", "false");
+		defaults.put("logging.level.reactor.netty.http.client", "info");
+		defaults.put("logging.level.org.mongodb.driver", "error");
+		return Stream.concat(
+				defaults.entrySet().stream().filter(entry -> !arguments.containsProperty(entry.getKey()))
+						.map(entry -> "--" + entry.getKey() + "=" + entry.getValue()),
+				Stream.of(args)).toArray(String[]::new);
+	}
+}
@@ -0,0 +1,107 @@
+package io.musicdiscovery.moodplaylist.load;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Results of the measurement window of a load test run.
+ * 
+ * @param settings  the settings of the run
+ * @param scheduled the number of requests scheduled during the measurement
+ * @param statuses  the number of responses per HTTP status
+ * @param failures  the number of requests that timed out or failed without a
+ *                  response
+ * @param latencies the latencies of the responses, in microseconds
+ */
+record LoadTestResult(LoadTestSettings settings, long scheduled, Map<Integer, Long> statuses, long failures,
+		Histogram latencies) {
+
+	/**
+	 * Returns the number of requests answered with a 2xx status.
+	 * 
+	 * @return the number of successful requests
+	 */
+	long successful() {
+		return statuses.entrySet().stream().filter(entry -> entry.getKey() / 100 == 2)
+				.mapToLong(Map.Entry::getValue).sum();
+	}
+
+	/**
+	 * Returns the successful requests per second over the measurement window.
+	 * 
+	 * @return the successful throughput
+	 */
+	double throughput() {
+		return successful() / (settings.duration().toMillis() / 1000d);
+	}
+
+	/**
+	 * Returns the ratio of scheduled requests that did not succeed.
+	 * 
+	 * @return the error ratio
+	 */
+	double errorRatio() {
+		return scheduled == 0 ? 0 : (double) (scheduled - successful()) / scheduled;
+	}
+
+	/**
+	 * Returns the latency at the given percentile.
+	 * 
+	 * @param percentile the percentile, between 0 and 100
+	 * @return the latency
+	 */
+	Duration latency(double percentile) {
+		return Duration.ofNanos(latencies.getValueAtPercentile(percentile) * 1000);
+	}
+
+	/**
+	 * Checks the results against the service level objectives of the settings.
+	 * 
+	 * @return the objectives that were missed, empty if all were met
+	 */
+	List<String> violations() {
+		List<String> violations = new ArrayList<>();
+		double minThroughput = settings.rate() * settings.minThroughputRatio();
+		if (throughput() < minThroughput) {
+			violations.add("throughput %.1f/s < %.1f/s".formatted(throughput(), minThroughput));
+		}
+		if (errorRatio() > settings.maxErrorRatio()) {
+			violations.add("error ratio %.4f > %.4f".formatted(errorRatio(), settings.maxErrorRatio()));
+		}
+		checkLatency(violations, "p50", 50, settings.p50());
+		checkLatency(violations, "p99", 99, settings.p99());
+		checkLatency(violations, "p999", 99.9, settings.p999());
+		return violations;
+	}
+
+	/**
+	 * Formats the results as a human-readable report.
+	 * 
+	 * @return the report
+	 */
+	String report() {
+		return """
+				Load test results over %s
+				  offered   %.1f requests/s, %d scheduled
+				  succeeded %d (%.1f/s), statuses %s, failed without response %d, error ratio %.4f
+				  latency   p50 %s, p90 %s, p99 %s, p999 %s, max %s""".formatted(settings.duration(),
+				settings.rate(), scheduled, successful(), throughput(), statuses, failures, errorRatio(),
+				millis(latency(50)), millis(latency(90)), millis(latency(99)), millis(latency(99.9)),
+				millis(latency(100)));
+	}
+
+	private void checkLatency(List<String> violations, String name, double percentile, Duration objective) {
+		Duration actual = latency(percentile);
+		if (actual.compareTo(objective) > 0) {
+			violations.add("%s %s > %s".formatted(name, millis(actual), millis(objective)));
+		}
+	}
+
+	private static String millis(Duration duration) {
+		return "%.1fms".formatted(duration.toNanos() / 1e6);
+	}
+}
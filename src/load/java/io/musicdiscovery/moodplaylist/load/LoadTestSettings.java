@@ -0,0 +1,74 @@
+package io.musicdiscovery.moodplaylist.load;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.core.env.Environment;
+
+import io.musicdiscovery.moodplaylist.domain.model.enums.Mood;
+
+/**
+ * Settings of a load test run, read from the {@code load.*} properties.
+ * 
+ * @param rate                   the offered load, in requests per second
+ * @param poissonArrivals        whether the requests arrive as a Poisson
+ *                               process rather than at a constant interval
+ * @param warmup                 the duration of the warm-up, excluded from the
+ *                               results
+ * @param duration               the duration of the measurement
+ * @param moods                  the moods requested, in turn
+ * @param length                 the number of tracks of the playlists requested
+ * @param timeout                the time after which a request is counted as
+ *                               failed
+ * @param maxConnections         the maximum number of connections to the
+ *                               service
+ * @param spotifyLatency         the base latency of the Spotify stub
+ * @param spotifyLatencyJitter   the random latency added to the base latency
+ * @param spotifyErrorRate       the ratio of searches failed with a 500
+ * @param spotifyThrottleInterval the interval of the 429 bursts, or zero for
+ *                               none
+ * @param spotifyThrottleDuration the duration of each 429 burst
+ * @param spotifyRetryAfter      the {@code Retry-After} of the 429 responses
+ * @param minThroughputRatio     the minimum ratio of the offered load that must
+ *                               be answered successfully
+ * @param maxErrorRatio          the maximum ratio of failed requests
+ * @param p50                    the maximum median latency
+ * @param p99                    the maximum 99th percentile latency
+ * @param p999                   the maximum 99.9th percentile latency
+ */
+record LoadTestSettings(double rate, boolean poissonArrivals, Duration warmup, Duration duration, List<Mood> moods,
+		int length, Duration timeout, int maxConnections, Duration spotifyLatency, Duration spotifyLatencyJitter,
+		double spotifyErrorRate, Duration spotifyThrottleInterval, Duration spotifyThrottleDuration,
+		Duration spotifyRetryAfter, double minThroughputRatio, double maxErrorRatio, Duration p50, Duration p99,
+		Duration p999) {
+
+	/**
+	 * Reads the settings from the given environment.
+	 * 
+	 * @param environment the environment holding the {@code load.*} properties
+	 * @return the settings
+	 */
+	static LoadTestSettings from(Environment environment) {
+		return new LoadTestSettings(environment.getRequiredProperty("load.rate", Double.class),
+				"poisson".equalsIgnoreCase(environment.getRequiredProperty("load.arrivals")),
+				environment.getRequiredProperty("load.warmup", Duration.class),
+				environment.getRequiredProperty("load.duration", Duration.class),
+				Arrays.stream(environment.getRequiredProperty("load.moods", String[].class)).map(String::trim)
+						.map(Mood::valueOf).toList(),
+				environment.getRequiredProperty("load.length", Integer.class),
+				environment.getRequiredProperty("load.timeout", Duration.class),
+				environment.getRequiredProperty("load.max-connections", Integer.class),
+				environment.getRequiredProperty("load.spotify.latency", Duration.class),
+				environment.getRequiredProperty("load.spotify.latency-jitter", Duration.class),
+				environment.getRequiredProperty("load.spotify.error-rate", Double.class),
+				environment.getRequiredProperty("load.spotify.throttle-interval", Duration.class),
+				environment.getRequiredProperty("load.spotify.throttle-duration", Duration.class),
+				environment.getRequiredProperty("load.spotify.retry-after", Duration.class),
+				environment.getRequiredProperty("load.slo.min-throughput-ratio", Double.class),
+				environment.getRequiredProperty("load.slo.max-error-ratio", Double.class),
+				environment.getRequiredProperty("load.slo.p50", Duration.class),
+				environment.getRequiredProperty("load.slo.p99", Duration.class),
+				environment.getRequiredProperty("load.slo.p999", Duration.class));
+	}
+}
@@ -0,0 +1,131 @@
+package io.musicdiscovery.moodplaylist.load;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import io.musicdiscovery.moodplaylist.domain.model.enums.Mood;
+import lombok.extern.slf4j.Slf4j;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Drives an open-model load against {@code GET /playlists/mood/{mood}}.
+ * 
+ * <p>
+ * Requests are started on a schedule that does not depend on the responses:
+ * at a constant interval, or with exponentially distributed gaps for Poisson
+ * arrivals, at {@code load.rate} requests per second on average. The latency of
+ * a request is measured from the instant it was scheduled to be sent, not from
+ * the instant it actually was, so a service that falls behind is not hidden by
+ * coordinated omission.
+ * </p>
+ * 
+ * <p>
+ * Only the requests scheduled after the warm-up are recorded. A request that
+ * has not completed within {@code load.timeout}, or that fails without a
+ * response, is counted as failed and is not part of the latency histogram.
+ * </p>
+ */
+@Slf4j
+final class OpenModelLoadGenerator {
+
+	private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+	private final LoadTestSettings settings;
+	private final WebClient webClient;
+	private final ConnectionProvider connectionProvider;
+	private final Histogram latencies = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+	private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+	private final LongAdder failures = new LongAdder();
+	private final LongAdder scheduled = new LongAdder();
+	private final AtomicInteger inFlight = new AtomicInteger();
+
+	/**
+	 * Creates a generator sending its requests to the given base URL.
+	 * 
+	 * @param settings the settings of the run
+	 * @param baseUrl  the base URL of the playlist endpoints, e.g.
+	 *                 {@code http://localhost:8081/mood-playlist-service/playlists}
+	 */
+	OpenModelLoadGenerator(LoadTestSettings settings, String baseUrl) {
+		this.settings = settings;
+		this.connectionProvider = ConnectionProvider.builder("load").maxConnections(settings.maxConnections())
+				.pendingAcquireMaxCount(-1).build();
+		this.webClient = WebClient.builder().baseUrl(baseUrl)
+				.clientConnector(new ReactorClientHttpConnector(HttpClient.create(connectionProvider))).build();
+	}
+
+	/**
+	 * Runs the warm-up and the measurement, then waits for the requests still in
+	 * flight.
+	 * 
+	 * @return the results of the measurement
+	 */
+	LoadTestResult run() {
+		long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / settings.rate());
+		long start = System.nanoTime();
+		long measureFrom = start + settings.warmup().toNanos();
+		long end = measureFrom + settings.duration().toNanos();
+		log.info("Offering {} requests/s ({} arrivals) for {} after a warm-up of {}", settings.rate(),
+				settings.poissonArrivals() ? "Poisson" : "constant", settings.duration(), settings.warmup());
+		long next = start;
+		int sent = 0;
+		while (next < end) {
+			long delay = next - System.nanoTime();
+			if (delay > 0) {
+				LockSupport.parkNanos(delay);
+				continue;
+			}
+			Mood mood = settings.moods().get(sent++ % settings.moods().size());
+			send(mood, next, next >= measureFrom);
+			next += settings.poissonArrivals()
+					? (long) (-Math.log(1 - ThreadLocalRandom.current().nextDouble()) * intervalNanos)
+					: intervalNanos;
+		}
+		awaitInFlight();
+		connectionProvider.disposeLater().block();
+		return new LoadTestResult(settings, scheduled.sum(), new TreeMap<>(statuses.entrySet().stream()
+				.collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().sum()))),
+				failures.sum(), latencies.copy());
+	}
+
+	private void send(Mood mood, long intendedNanos, boolean measured) {
+		if (measured) {
+			scheduled.increment();
+		}
+		inFlight.incrementAndGet();
+		webClient.get().uri("/mood/{mood}?length={length}", mood, settings.length()).exchangeToMono(response -> response.releaseBody()
+				.thenReturn(response.statusCode().value())).timeout(settings.timeout())
+				.doFinally(signal -> inFlight.decrementAndGet()).subscribe(status -> {
+					if (measured) {
+						long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedNanos);
+						latencies.recordValue(Math.min(micros, MAX_LATENCY_MICROS));
+						statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+					}
+				}, error -> {
+					if (measured) {
+						failures.increment();
+					}
+				});
+	}
+
+	private void awaitInFlight() {
+		long deadline = System.nanoTime() + settings.timeout().plus(Duration.ofSeconds(1)).toNanos();
+		while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+			LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+		}
+	}
+}
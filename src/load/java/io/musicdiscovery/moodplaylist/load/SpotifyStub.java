@@ -0,0 +1,130 @@
+package io.musicdiscovery.moodplaylist.load;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+
+/**
+ * Local stand-in for the Spotify accounts service and Web API.
+ * 
+ * <p>
+ * Token requests always succeed. Searches are answered with a recorded search
+ * response after {@code load.spotify.latency} plus a random jitter of up to
+ * {@code load.spotify.latency-jitter}; a ratio {@code load.spotify.error-rate}
+ * of them fails with a 500. During the last
+ * {@code load.spotify.throttle-duration} of every
+ * {@code load.spotify.throttle-interval}, every search is answered with a 429
+ * carrying {@code load.spotify.retry-after}, like Spotify does when its rate
+ * limit is exceeded.
+ * </p>
+ */
+@Slf4j
+final class SpotifyStub implements AutoCloseable {
+
+	private static final String TOKEN_RESPONSE = """
+			{"access_token":"BQDv6u0load","token_type":"Bearer","expires_in":3600}
+			""";
+
+	private final LoadTestSettings settings;
+	private final byte[] searchResponse;
+	private final MockWebServer server = new MockWebServer();
+	private final LongAdder searches = new LongAdder();
+	private final LongAdder errors = new LongAdder();
+	private final LongAdder throttled = new LongAdder();
+	private long startNanos;
+
+	SpotifyStub(LoadTestSettings settings, byte[] searchResponse) {
+		this.settings = settings;
+		this.searchResponse = searchResponse;
+	}
+
+	/**
+	 * Starts the stub on a free local port.
+	 * 
+	 * @throws IOException if the server cannot be started
+	 */
+	void start() throws IOException {
+		server.setDispatcher(new Dispatcher() {
+
+			@Override
+			public MockResponse dispatch(RecordedRequest request) {
+				return respond(request);
+			}
+		});
+		startNanos = System.nanoTime();
+		server.start();
+		log.info("Spotify stub listening on {}", baseUrl());
+	}
+
+	/**
+	 * Returns the base URL of the stub, without a trailing slash.
+	 * 
+	 * @return the base URL
+	 */
+	String baseUrl() {
+		String url = server.url("/").toString();
+		return url.substring(0, url.length() - 1);
+	}
+
+	long searches() {
+		return searches.sum();
+	}
+
+	long errors() {
+		return errors.sum();
+	}
+
+	long throttled() {
+		return throttled.sum();
+	}
+
+	@Override
+	public void close() throws IOException {
+		server.shutdown();
+	}
+
+	private MockResponse respond(RecordedRequest request) {
+		if (request.getPath() != null && request.getPath().startsWith("/api/token")) {
+			return json(TOKEN_RESPONSE.getBytes());
+		}
+		searches.increment();
+		if (isThrottling()) {
+			throttled.increment();
+			return new MockResponse().setResponseCode(429).setHeader(HttpHeaders.RETRY_AFTER,
+					Math.max(1, settings.spotifyRetryAfter().toSeconds()));
+		}
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		long latency = settings.spotifyLatency().toMillis()
+				+ random.nextLong(settings.spotifyLatencyJitter().toMillis() + 1);
+		if (random.nextDouble() < settings.spotifyErrorRate()) {
+			errors.increment();
+			return new MockResponse().setResponseCode(500).setHeadersDelay(latency, TimeUnit.MILLISECONDS);
+		}
+		return json(searchResponse).setHeadersDelay(latency, TimeUnit.MILLISECONDS);
+	}
+
+	private boolean isThrottling() {
+		long interval = settings.spotifyThrottleInterval().toNanos();
+		if (interval <= 0) {
+			return false;
+		}
+		long elapsed = (System.nanoTime() - startNanos) % interval;
+		return elapsed >= interval - settings.spotifyThrottleDuration().toNanos();
+	}
+
+	private static MockResponse json(byte[] body) {
+		return new MockResponse().setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+				.setBody(new Buffer().write(body));
+	}
+}
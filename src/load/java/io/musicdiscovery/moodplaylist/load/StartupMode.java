@@ -0,0 +1,31 @@
+package io.musicdiscovery.moodplaylist.load;
+
+/**
+ * The ways the {@link StartupTest} starts the service.
+ */
+enum StartupMode {
+
+	/**
+	 * The executable jar on the JVM, as in the default image of the
+	 * {@code Dockerfile}.
+	 */
+	JVM,
+
+	/**
+	 * The executable jar on the JVM with the initialization generated by Spring
+	 * AOT, enabled with {@code -Dspring.aot.enabled=true}. The jar must be built
+	 * with the {@code native} profile.
+	 */
+	AOT,
+
+	/**
+	 * The extracted jar on the JVM with an AppCDS archive recorded by a training
+	 * run, as in the {@code cds} image of the {@code Dockerfile}.
+	 */
+	CDS,
+
+	/**
+	 * The native executable built with the {@code native} profile.
+	 */
+	NATIVE
+}
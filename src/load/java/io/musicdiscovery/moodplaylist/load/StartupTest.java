@@ -0,0 +1,303 @@
+package io.musicdiscovery.moodplaylist.load;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.ResourcePropertySource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Offline startup test of the service.
+ * 
+ * <p>
+ * The test starts a {@link SpotifyStub} answering at once, then starts the
+ * service as a separate process, in every {@link StartupMode} of
+ * {@code startup.modes} in turn, and measures how long it takes from the start
+ * of the process to the end of the first successful response: a playlist
+ * streamed through Spotify, which also loads the code serving requests, not
+ * only the one starting the context. Once the first response is received, the
+ * resident set size of the process and its peak are read from {@code /proc},
+ * so they are only reported on Linux. The process is then stopped and the next
+ * run started.
+ * </p>
+ * 
+ * <p>
+ * The settings are the {@code startup.*} properties of
+ * {@code startup-test.properties}, which can be overridden with command-line
+ * arguments such as {@code --startup.runs=10}. The other arguments are passed
+ * to the service. No MongoDB is needed: the streamed playlist is saved in the
+ * background, and the failure to save it does not affect the response. The
+ * results are logged and written to {@code startup-result.json} in
+ * {@code startup.directory}, along with the logs of every run.
+ * </p>
+ */
+@Slf4j
+public final class StartupTest {
+
+	private static final String SEARCH_RESPONSE = "spotify/search-tracks.json";
+
+	private static final String PLAYLISTS_PATH = "/mood-playlist-service/playlists";
+
+	private static final String CDS_ARCHIVE = "application.jsa";
+
+	private static final String CDS_APPLICATION = "application";
+
+	private final StartupTestSettings settings;
+	private final String[] args;
+	private final SimpleCommandLinePropertySource arguments;
+	private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+	private StartupTest(StartupTestSettings settings, String[] args, SimpleCommandLinePropertySource arguments) {
+		this.settings = settings;
+		this.args = args;
+		this.arguments = arguments;
+	}
+
+	/**
+	 * Runs the startup test.
+	 * 
+	 * @param args {@code --name=value} overrides of the startup test settings and
+	 *             of the service properties
+	 * @throws Exception if the startup test cannot be run
+	 */
+	public static void main(String[] args) throws Exception {
+		StandardEnvironment environment = new StandardEnvironment();
+		environment.setConversionService(new ApplicationConversionService());
+		SimpleCommandLinePropertySource arguments = new SimpleCommandLinePropertySource(args);
+		environment.getPropertySources().addFirst(arguments);
+		environment.getPropertySources()
+				.addLast(new ResourcePropertySource(new ClassPathResource("startup-test.properties")));
+		environment.getPropertySources()
+				.addLast(new ResourcePropertySource(new ClassPathResource("load-test.properties")));
+		StartupTestSettings settings = StartupTestSettings.from(environment);
+
+		List<StartupTestResult> results = new ArrayList<>();
+		try (SpotifyStub spotify = new SpotifyStub(LoadTestSettings.from(environment),
+				new ClassPathResource(SEARCH_RESPONSE).getContentAsByteArray())) {
+			spotify.start();
+			StartupTest test = new StartupTest(settings, args, arguments);
+			Files.createDirectories(settings.directory());
+			for (StartupMode mode : settings.modes()) {
+				results.add(test.run(mode, spotify));
+			}
+		}
+		results.forEach(result -> log.info("Startup test results of {}", result.report()));
+		Path report = settings.directory().resolve("startup-result.json");
+		new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(report.toFile(),
+				results.stream().map(StartupTestResult::toMap).toList());
+		log.info("Results written to {}", report);
+		System.exit(0);
+	}
+
+	/**
+	 * Starts the service in the given mode, for the warm-up runs and then for the
+	 * measured ones.
+	 */
+	private StartupTestResult run(StartupMode mode, SpotifyStub spotify) throws Exception {
+		List<String> command = command(mode, spotify);
+		List<StartupTestResult.Sample> samples = new ArrayList<>();
+		for (int run = 1; run <= settings.warmupRuns() + settings.runs(); run++) {
+			boolean warmup = run <= settings.warmupRuns();
+			String name = warmup ? "warmup-" + run : "run-" + (run - settings.warmupRuns());
+			StartupTestResult.Sample sample = measure(command, spotify,
+					settings.directory().resolve(mode.name().toLowerCase() + "-" + name + ".log"));
+			log.info("{} {}: first response after {}ms, rss {}MiB, peak rss {}MiB", mode.name().toLowerCase(), name,
+					sample.timeToFirstRequest().toMillis(), sample.rss() >> 20, sample.peakRss() >> 20);
+			if (!warmup) {
+				samples.add(sample);
+			}
+		}
+		return new StartupTestResult(mode, samples);
+	}
+
+	/**
+	 * Returns the command starting the service in the given mode, without the
+	 * arguments of the service.
+	 */
+	private List<String> command(StartupMode mode, SpotifyStub spotify) throws Exception {
+		List<String> command = new ArrayList<>();
+		if (mode == StartupMode.NATIVE) {
+			command.add(settings.executable().toAbsolutePath().toString());
+			return command;
+		}
+		command.add(settings.java());
+		command.addAll(settings.jvmOptions());
+		switch (mode) {
+		case AOT -> command.add("-Dspring.aot.enabled=true");
+		case CDS -> command.add("-XX:SharedArchiveFile=" + recordCdsArchive(spotify));
+		default -> {
+		}
+		}
+		command.add("-jar");
+		command.add(mode == StartupMode.CDS ? cdsJar().toString() : settings.jar().toAbsolutePath().toString());
+		return command;
+	}
+
+	/**
+	 * Extracts the jar and records the AppCDS archive of its classes with a
+	 * training run exiting once the context is refreshed, as the {@code cds}
+	 * image of the {@code Dockerfile} does.
+	 * 
+	 * @return the path of the archive
+	 */
+	private Path recordCdsArchive(SpotifyStub spotify) throws Exception {
+		Path directory = settings.directory().resolve("cds").toAbsolutePath();
+		Path archive = directory.resolve(CDS_ARCHIVE);
+		Files.deleteIfExists(archive);
+		execute(List.of(settings.java(), "-Djarmode=tools", "-jar", settings.jar().toAbsolutePath().toString(),
+				"extract", "--force", "--destination", directory.resolve(CDS_APPLICATION).toString()),
+				directory.resolveSibling("cds-extract.log"));
+		List<String> training = new ArrayList<>();
+		training.add(settings.java());
+		training.addAll(settings.jvmOptions());
+		training.addAll(List.of("-XX:ArchiveClassesAtExit=" + archive, "-Dspring.context.exit=onRefresh", "-jar",
+				cdsJar().toString()));
+		training.addAll(serviceArguments(spotify, freePort()));
+		execute(training, directory.resolveSibling("cds-training.log"));
+		if (!Files.exists(archive)) {
+			throw new IllegalStateException("The training run did not record " + archive);
+		}
+		return archive;
+	}
+
+	private Path cdsJar() {
+		return settings.directory().resolve("cds").resolve(CDS_APPLICATION).resolve(settings.jar().getFileName())
+				.toAbsolutePath();
+	}
+
+	/**
+	 * Starts the service, waits for the first successful response and measures
+	 * the process, then stops it.
+	 */
+	private StartupTestResult.Sample measure(List<String> command, SpotifyStub spotify, Path logFile)
+			throws Exception {
+		int port = freePort();
+		URI uri = URI.create("http://localhost:%d%s/mood/%s/stream?length=%d"
+				.formatted(port, PLAYLISTS_PATH, settings.mood(), settings.length()));
+		long start = System.nanoTime();
+		Process process = new ProcessBuilder(Stream.concat(command.stream(), serviceArguments(spotify, port).stream())
+				.toList()).redirectErrorStream(true).redirectOutput(logFile.toFile()).start();
+		try {
+			Duration timeToFirstRequest = awaitFirstResponse(process, uri, start, logFile);
+			Map<String, Long> status = processStatus(process.pid());
+			return new StartupTestResult.Sample(timeToFirstRequest, status.getOrDefault("VmRSS", -1L),
+					status.getOrDefault("VmHWM", -1L));
+		} finally {
+			process.destroy();
+			if (!process.waitFor(30, TimeUnit.SECONDS)) {
+				process.destroyForcibly().waitFor();
+			}
+		}
+	}
+
+	/**
+	 * Sends the first request until it succeeds.
+	 * 
+	 * @return the time from the start of the process to the end of the response
+	 */
+	private Duration awaitFirstResponse(Process process, URI uri, long start, Path logFile) throws Exception {
+		HttpRequest request = HttpRequest.newBuilder(uri).timeout(settings.timeout())
+				.header("Accept", "application/x-ndjson").build();
+		long deadline = start + settings.timeout().toNanos();
+		String failure = "no response";
+		while (System.nanoTime() < deadline) {
+			if (!process.isAlive()) {
+				throw new IllegalStateException(
+						"The service exited with status %d, see %s".formatted(process.exitValue(), logFile));
+			}
+			try {
+				HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+				if (response.statusCode() == 200 && !response.body().isBlank()) {
+					return Duration.ofNanos(System.nanoTime() - start);
+				}
+				failure = "status " + response.statusCode();
+			} catch (IOException e) {
+				failure = e.toString();
+			}
+			Thread.sleep(settings.pollInterval());
+		}
+		throw new IllegalStateException(
+				"No successful response within %s, last %s, see %s".formatted(settings.timeout(), failure, logFile));
+	}
+
+	/**
+	 * Returns the arguments of the service: the ones given on the command line,
+	 * and the defaults of the startup test for the properties they do not set.
+	 */
+	private List<String> serviceArguments(SpotifyStub spotify, int port) {
+		Map<String, String> defaults = new LinkedHashMap<>();
+		defaults.put("server.port", String.valueOf(port));
+		defaults.put("spotify.api-base-url", spotify.baseUrl());
+		defaults.put("spotify.token-url", spotify.baseUrl() + "/api/token");
+		defaults.put("spotify.client-id", "startup-test");
+		defaults.put("spotify.client-secret", "startup-test");
+		defaults.put("spotify.http-client.http2-enabled", "false");
+		defaults.put("mongo.indexes.required", "false");
+		defaults.put("logging.level.reactor.netty.http.client", "info");
+		defaults.put("logging.level.org.mongodb.driver", "error");
+		return Stream.concat(
+				defaults.entrySet().stream().filter(entry -> !arguments.containsProperty(entry.getKey()))
+						.map(entry -> "--" + entry.getKey() + "=" + entry.getValue()),
+				Stream.of(args)).toList();
+	}
+
+	/**
+	 * Runs a command to completion, failing if it does not succeed.
+	 */
+	private void execute(List<String> command, Path logFile) throws Exception {
+		Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(logFile.toFile())
+				.start();
+		if (!process.waitFor(settings.timeout().toMillis(), TimeUnit.MILLISECONDS)) {
+			process.destroyForcibly().waitFor();
+			throw new IllegalStateException("%s timed out, see %s".formatted(command, logFile));
+		}
+		if (process.exitValue() != 0) {
+			throw new IllegalStateException(
+					"%s exited with status %d, see %s".formatted(command, process.exitValue(), logFile));
+		}
+	}
+
+	/**
+	 * Reads the memory sizes of {@code /proc/<pid>/status}, in bytes, keyed by
+	 * name; empty when the file cannot be read, as on other systems than Linux.
+	 */
+	private static Map<String, Long> processStatus(long pid) {
+		Map<String, Long> status = new LinkedHashMap<>();
+		try (Stream<String> lines = Files.lines(Path.of("/proc", String.valueOf(pid), "status"))) {
+			lines.filter(line -> line.endsWith(" kB")).forEach(line -> {
+				String[] fields = line.split("\\s+");
+				status.put(fields[0].substring(0, fields[0].length() - 1), Long.parseLong(fields[1]) * 1024);
+			});
+		} catch (IOException e) {
+			log.warn("Cannot read the memory of process {}: {}", pid, e.toString());
+		}
+		return status;
+	}
+
+	private static int freePort() throws IOException {
+		try (ServerSocket socket = new ServerSocket(0)) {
+			return socket.getLocalPort();
+		}
+	}
+}
@@ -0,0 +1,97 @@
+package io.musicdiscovery.moodplaylist.load;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * Results of the measured runs of one {@link StartupMode}.
+ * 
+ * @param mode    the way the service was started
+ * @param samples the measurements of every run, in order
+ */
+record StartupTestResult(StartupMode mode, List<Sample> samples) {
+
+	private static final long MIB = 1024 * 1024;
+
+	/**
+	 * The measurements of a single run.
+	 * 
+	 * @param timeToFirstRequest the time from the start of the process to the
+	 *                           end of the first successful response
+	 * @param rss                the resident set size of the process once the
+	 *                           first response was received, in bytes, or -1
+	 *                           when unknown
+	 * @param peakRss            the peak resident set size of the process up
+	 *                           to then, in bytes, or -1 when unknown
+	 */
+	record Sample(Duration timeToFirstRequest, long rss, long peakRss) {
+	}
+
+	/**
+	 * Formats the results as a human-readable report.
+	 * 
+	 * @return the report
+	 */
+	String report() {
+		return """
+				%s, %d runs
+				  first request %s
+				  rss           %s
+				  peak rss      %s""".formatted(mode.name().toLowerCase(), samples.size(),
+				summary(StartupTestResult::millis, "ms"), summary(StartupTestResult::rssMiB, "MiB"),
+				summary(StartupTestResult::peakRssMiB, "MiB"));
+	}
+
+	/**
+	 * Returns the results as a map of the median, minimum and maximum of every
+	 * measurement, in milliseconds and MiB, to be written as JSON.
+	 * 
+	 * @return the results
+	 */
+	Map<String, Object> toMap() {
+		Map<String, Object> result = new LinkedHashMap<>();
+		result.put("mode", mode.name().toLowerCase());
+		result.put("runs", samples.size());
+		result.put("timeToFirstRequestMs", statistics(StartupTestResult::millis));
+		result.put("rssMiB", statistics(StartupTestResult::rssMiB));
+		result.put("peakRssMiB", statistics(StartupTestResult::peakRssMiB));
+		return result;
+	}
+
+	private String summary(ToLongFunction<Sample> measurement, String unit) {
+		Map<String, Long> statistics = statistics(measurement);
+		if (statistics.get("min") < 0) {
+			return "n/a";
+		}
+		return "median %d%s, min %d%s, max %d%s".formatted(statistics.get("median"), unit, statistics.get("min"),
+				unit, statistics.get("max"), unit);
+	}
+
+	private Map<String, Long> statistics(ToLongFunction<Sample> measurement) {
+		long[] values = samples.stream().mapToLong(measurement).sorted().toArray();
+		Map<String, Long> statistics = new LinkedHashMap<>();
+		statistics.put("median", values[values.length / 2]);
+		statistics.put("min", values[0]);
+		statistics.put("max", values[values.length - 1]);
+		return statistics;
+	}
+
+	private static long millis(Sample sample) {
+		return sample.timeToFirstRequest().toMillis();
+	}
+
+	private static long rssMiB(Sample sample) {
+		return toMiB(sample.rss());
+	}
+
+	private static long peakRssMiB(Sample sample) {
+		return toMiB(sample.peakRss());
+	}
+
+	private static long toMiB(long bytes) {
+		return bytes < 0 ? -1 : bytes / MIB;
+	}
+}
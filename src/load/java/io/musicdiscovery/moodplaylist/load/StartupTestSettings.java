@@ -0,0 +1,58 @@
+package io.musicdiscovery.moodplaylist.load;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.core.env.Environment;
+
+import io.musicdiscovery.moodplaylist.domain.model.enums.Mood;
+
+/**
+ * Settings of a startup test run, read from the {@code startup.*} properties.
+ * 
+ * @param modes        the ways the service is started, measured in turn
+ * @param warmupRuns   the number of unmeasured runs of every mode
+ * @param runs         the number of measured runs of every mode
+ * @param jar          the executable jar of the service
+ * @param executable   the native executable of the service
+ * @param java         the {@code java} launcher of the JVM modes
+ * @param jvmOptions   the options of the JVM modes
+ * @param directory    the directory of the logs, the CDS archive and the
+ *                     results
+ * @param mood         the mood of the first request
+ * @param length       the number of tracks of the first request
+ * @param timeout      the time after which a run that has not answered the
+ *                     first request fails
+ * @param pollInterval the interval between two attempts at the first request
+ */
+record StartupTestSettings(List<StartupMode> modes, int warmupRuns, int runs, Path jar, Path executable, String java,
+		List<String> jvmOptions, Path directory, Mood mood, int length, Duration timeout, Duration pollInterval) {
+
+	/**
+	 * Reads the settings from the given environment.
+	 * 
+	 * @param environment the environment holding the {@code startup.*}
+	 *                    properties
+	 * @return the settings
+	 */
+	static StartupTestSettings from(Environment environment) {
+		return new StartupTestSettings(
+				Arrays.stream(environment.getRequiredProperty("startup.modes", String[].class)).map(String::trim)
+						.map(mode -> StartupMode.valueOf(mode.toUpperCase(Locale.ROOT))).toList(),
+				environment.getRequiredProperty("startup.warmup-runs", Integer.class),
+				environment.getRequiredProperty("startup.runs", Integer.class),
+				Path.of(environment.getRequiredProperty("startup.jar")),
+				Path.of(environment.getRequiredProperty("startup.executable")),
+				environment.getRequiredProperty("startup.java"),
+				Arrays.stream(environment.getProperty("startup.jvm-options", "").trim().split("\\s+"))
+						.filter(option -> !option.isEmpty()).toList(),
+				Path.of(environment.getRequiredProperty("startup.directory")),
+				environment.getRequiredProperty("startup.mood", Mood.class),
+				environment.getRequiredProperty("startup.length", Integer.class),
+				environment.getRequiredProperty("startup.timeout", Duration.class),
+				environment.getRequiredProperty("startup.poll-interval", Duration.class));
+	}
+}
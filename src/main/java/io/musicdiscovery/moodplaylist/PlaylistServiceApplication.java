@@ -2,6 +2,11 @@ package io.musicdiscovery.moodplaylist;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import io.micrometer.core.instrument.Metrics;
+import io.musicdiscovery.moodplaylist.config.NativeRuntimeHints;
+import io.musicdiscovery.moodplaylist.config.ReactorSchedulerMetrics;
 
 /**
  * Main entry point for the Playlist Service Application. This class serves as
@@ -12,6 +17,8 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  * component scanning, and configuration of Spring Boot. The
  * {@code scanBasePackages} attribute is set to "io.musicdiscovery.moodplaylist"
  * to ensure that Spring scans the correct package for beans and components.
+ * The {@code @ImportRuntimeHints} annotation adds the {@link NativeRuntimeHints}
+ * to the native image built with the {@code native} Maven profile.
  * 
  * <p>
  * Example usage:
@@ -32,6 +39,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  * @see SpringBootApplication
  */
 @SpringBootApplication(scanBasePackages = "io.musicdiscovery.moodplaylist")
+@ImportRuntimeHints(NativeRuntimeHints.class)
 public class PlaylistServiceApplication {
 
 	/**
@@ -39,9 +47,16 @@ public class PlaylistServiceApplication {
 	 * {@link SpringApplication#run(Class, String...)} to bootstrap the application
 	 * using the specified configuration.
 	 * 
+	 * <p>
+	 * The Reactor scheduler metrics are installed first, on the global registry
+	 * the auto-configured registries are added to, so that the schedulers created
+	 * while the context starts are monitored too.
+	 * </p>
+	 * 
 	 * @param args command-line arguments passed to the application at startup
 	 */
 	public static void main(String[] args) {
+		ReactorSchedulerMetrics.install(Metrics.globalRegistry);
 		SpringApplication.run(PlaylistServiceApplication.class, args);
 	}
 }
\ No newline at end of file
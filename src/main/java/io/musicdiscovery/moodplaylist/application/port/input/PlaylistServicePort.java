@@ -1,7 +1,13 @@
 package io.musicdiscovery.moodplaylist.application.port.input;
 
+import java.util.List;
+
+import io.musicdiscovery.moodplaylist.domain.model.BlendedTrack;
+import io.musicdiscovery.moodplaylist.domain.model.MoodWeight;
 import io.musicdiscovery.moodplaylist.domain.model.Playlist;
+import io.musicdiscovery.moodplaylist.domain.model.PlaylistGenerationResult;
 import io.musicdiscovery.moodplaylist.domain.model.enums.Mood;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
@@ -21,6 +27,7 @@ import reactor.core.publisher.Mono;
  * </p>
  * 
  * @see Playlist
+ * @see PlaylistGenerationResult
  * @see Mood
  */
 public interface PlaylistServicePort {
@@ -35,10 +42,100 @@ public interface PlaylistServicePort {
 	 * to the user's mood.
 	 * </p>
 	 * 
-	 * @param mood the mood of the user to generate the playlist for
+	 * <p>
+	 * When a listener is given, the tracks it has already been served are
+	 * avoided where possible and the tracks of the playlist are added to its
+	 * history.
+	 * </p>
+	 * 
+	 * @param mood       the mood of the user to generate the playlist for
+	 * @param length     the number of tracks requested
+	 * @param listenerId the identifier of the listener, or {@code null} for an
+	 *                   anonymous request
 	 * @return a {@link Mono} emitting the generated {@link Playlist} based on the
 	 *         mood
 	 */
-	Mono<Playlist> generatePlaylist(Mood mood);
+	Mono<Playlist> generatePlaylist(Mood mood, int length, String listenerId);
+
+	/**
+	 * Generates one playlist for each of the specified moods.
+	 * 
+	 * <p>
+	 * The moods are processed concurrently and the results are emitted in the
+	 * order of the given list. Each result reports its own success or failure, so
+	 * a failing mood does not fail the whole batch.
+	 * </p>
+	 * 
+	 * @param moods the moods to generate playlists for
+	 * @return a {@link Flux} emitting one {@link PlaylistGenerationResult} per
+	 *         requested mood
+	 */
+	Flux<PlaylistGenerationResult> generatePlaylists(List<Mood> moods);
+
+	/**
+	 * Streams the tracks of a playlist generated for the specified user mood.
+	 * 
+	 * <p>
+	 * Track URIs are emitted as soon as they are available instead of once the
+	 * whole playlist has been generated and persisted: tracks fetched from the
+	 * external service are emitted page by page, as the pages arrive. The playlist is persisted
+	 * in the background once all of its tracks have been emitted. A listener is
+	 * handled as by {@link #generatePlaylist(Mood, int, String)}.
+	 * </p>
+	 * 
+	 * @param mood       the mood of the user to generate the playlist for
+	 * @param length     the number of tracks requested
+	 * @param listenerId the identifier of the listener, or {@code null} for an
+	 *                   anonymous request
+	 * @return a {@link Flux} emitting the track URIs of the playlist in order
+	 */
+	Flux<String> streamPlaylist(Mood mood, int length, String listenerId);
+
+	/**
+	 * Streams a playlist blending the playlists of several moods.
+	 * 
+	 * <p>
+	 * Each track is drawn for one of the given moods, in proportion to their
+	 * weights, and appears only once in the playlist. Tracks are emitted as soon
+	 * as they are available. A blended playlist is not persisted, since it has
+	 * no single mood.
+	 * </p>
+	 * 
+	 * @param components the moods of the blend and their relative weights
+	 * @param length     the number of tracks requested
+	 * @return a {@link Flux} emitting the tracks of the playlist in order, each
+	 *         with the mood it was drawn for
+	 */
+	Flux<BlendedTrack> blendPlaylist(List<MoodWeight> components, int length);
+
+	/**
+	 * Retrieves a stored playlist by its identifier.
+	 * 
+	 * @param id the identifier of the playlist
+	 * @return a {@link Mono} emitting the {@link Playlist}
+	 * @throws io.musicdiscovery.moodplaylist.domain.exception.PlaylistNotFoundException
+	 *         signalled if no playlist has this identifier
+	 */
+	Mono<Playlist> getPlaylist(String id);
+
+	/**
+	 * Retrieves one page of the playlists generated for a mood, most recently
+	 * generated first.
+	 * 
+	 * @param mood  the mood of the playlists
+	 * @param after the identifier of the last playlist of the previous page, or
+	 *              {@code null} for the first page
+	 * @param limit the maximum number of playlists in the page
+	 * @return a {@link Flux} emitting the playlists of the page
+	 */
+	Flux<Playlist> getPlaylistHistory(Mood mood, String after, int limit);
+
+	/**
+	 * Retrieves the latest playlists generated for every mood.
+	 * 
+	 * @param limit the maximum number of playlists per mood
+	 * @return a {@link Flux} emitting the latest playlists, mood by mood
+	 */
+	Flux<Playlist> getLatestPlaylists(int limit);
 
 }
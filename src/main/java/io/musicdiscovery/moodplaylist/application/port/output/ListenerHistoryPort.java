@@ -0,0 +1,46 @@
+package io.musicdiscovery.moodplaylist.application.port.output;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Port interface for the history of the tracks served to each listener.
+ * 
+ * <p>
+ * The history is used to avoid serving a listener the same tracks again. It is
+ * approximate by design: an implementation may keep a compact probabilistic
+ * summary instead of the tracks themselves, and may forget old tracks, so a
+ * track may be reported as heard although it was not, but a track recently
+ * recorded is always reported as heard.
+ * </p>
+ * 
+ * <p>
+ * This interface is part of the output port in the hexagonal (ports and
+ * adapters) architecture and follows the principles of reactive programming
+ * using {@link Mono}.
+ * </p>
+ */
+public interface ListenerHistoryPort {
+
+	/**
+	 * Finds the tracks a listener has already heard.
+	 * 
+	 * @param listenerId the identifier of the listener
+	 * @return a {@link Mono} emitting a predicate telling whether a track URI was
+	 *         served to the listener, which never matches for a listener without
+	 *         history
+	 */
+	Mono<Predicate<String>> findHeardTracks(String listenerId);
+
+	/**
+	 * Records the tracks served to a listener.
+	 * 
+	 * @param listenerId the identifier of the listener
+	 * @param trackUris  the URIs of the tracks served
+	 * @return a {@link Mono} completing once the history is stored
+	 */
+	Mono<Void> recordHeardTracks(String listenerId, List<String> trackUris);
+
+}
@@ -1,12 +1,16 @@
 package io.musicdiscovery.moodplaylist.application.port.output;
 
+import java.util.List;
+
 import io.musicdiscovery.moodplaylist.domain.model.Playlist;
+import io.musicdiscovery.moodplaylist.domain.model.enums.Mood;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
  * Port interface for persisting playlists in the application's hexagonal
  * architecture. This interface defines the contract for saving {@link Playlist}
- * objects to a persistence layer.
+ * objects to a persistence layer and reading them back.
  * 
  * <p>
  * This interface is part of the output port in the hexagonal (ports and
@@ -39,4 +43,52 @@ public interface PlaylistPersistencePort {
 	 */
 	Mono<Playlist> save(Playlist playlist);
 
+	/**
+	 * Persists the given playlists in the storage system in a single bulk write.
+	 * 
+	 * @param playlists the {@link Playlist} objects to be saved
+	 * @return a {@link Flux} emitting the saved {@link Playlist} objects in the
+	 *         order they were given
+	 */
+	Flux<Playlist> saveAll(List<Playlist> playlists);
+
+	/**
+	 * Finds a stored playlist by its identifier.
+	 * 
+	 * @param id the identifier of the playlist
+	 * @return a {@link Mono} emitting the {@link Playlist}, or completing empty if
+	 *         no playlist has this identifier
+	 */
+	Mono<Playlist> findById(String id);
+
+	/**
+	 * Finds one page of the stored playlists of a mood, most recently generated
+	 * first.
+	 * 
+	 * <p>
+	 * Pages are addressed with a cursor instead of an offset: the cursor is the
+	 * identifier of the last playlist of the previous page, and the page holds
+	 * the playlists generated before it. Reading a page therefore costs the same
+	 * whatever its depth in the history.
+	 * </p>
+	 * 
+	 * @param mood  the mood of the playlists
+	 * @param after the identifier of the last playlist of the previous page, or
+	 *              {@code null} for the first page
+	 * @param limit the maximum number of playlists in the page
+	 * @return a {@link Flux} emitting the playlists of the page
+	 * @throws io.musicdiscovery.moodplaylist.domain.exception.InvalidCursorException
+	 *         signalled if the cursor is not the identifier of a stored playlist
+	 */
+	Flux<Playlist> findByMood(Mood mood, String after, int limit);
+
+	/**
+	 * Finds the most recently generated stored playlists of every mood.
+	 * 
+	 * @param limit the maximum number of playlists per mood
+	 * @return a {@link Flux} emitting, mood by mood, the latest playlists of each
+	 *         mood, most recently generated first
+	 */
+	Flux<Playlist> findLatestPerMood(int limit);
+
 }
@@ -0,0 +1,52 @@
+package io.musicdiscovery.moodplaylist.application.port.output;
+
+import io.musicdiscovery.moodplaylist.domain.model.Playlist;
+import io.musicdiscovery.moodplaylist.domain.model.enums.Mood;
+import reactor.core.publisher.Mono;
+
+/**
+ * Port interface for the upstream source of the pre-generated playlists.
+ * 
+ * <p>
+ * Unlike the {@link SpotifyPlaylistServicePort} injected into the application
+ * services, which may serve playlists from a cache or a local catalog, this
+ * port reaches the external music service, so that the pre-generated
+ * playlists are fresh ones.
+ * </p>
+ * 
+ * <p>
+ * This interface is part of the output port in the hexagonal (ports and
+ * adapters) architecture and follows the principles of reactive programming
+ * using {@link Mono}.
+ * </p>
+ */
+public interface PrewarmPlaylistSourcePort {
+
+	/**
+	 * Tells whether pre-generating playlists saves upstream calls, which is not
+	 * the case when playlists are served without calling the external service.
+	 * 
+	 * @return {@code true} if playlists should be pre-generated
+	 */
+	boolean isAvailable();
+
+	/**
+	 * Generates a playlist from the results of the external service starting at
+	 * the given offset, so that successive playlists of a mood can differ.
+	 * 
+	 * <p>
+	 * A freshly generated playlist has no identifier. A previously stored
+	 * playlist served in its place while the external service is unavailable
+	 * keeps the identifier it was stored with.
+	 * </p>
+	 * 
+	 * @param mood   the mood of the playlist
+	 * @param length the number of tracks requested
+	 * @param offset the index of the first result to draw tracks from, lowered
+	 *               if needed so that the results stay within the limits of the
+	 *               external service
+	 * @return a {@link Mono} emitting the generated {@link Playlist}
+	 */
+	Mono<Playlist> generatePlaylist(Mood mood, int length, int offset);
+
+}
@@ -2,6 +2,7 @@ package io.musicdiscovery.moodplaylist.application.port.output;
 
 import io.musicdiscovery.moodplaylist.domain.model.Playlist;
 import io.musicdiscovery.moodplaylist.domain.model.enums.Mood;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
@@ -36,9 +37,40 @@ public interface SpotifyPlaylistServicePort {
 	 * query the Spotify API to create a playlist that aligns with the user's mood.
 	 * </p>
 	 * 
-	 * @param mood the mood of the user, used to generate an appropriate playlist
+	 * <p>
+	 * The playlist holds distinct tracks, at most {@code length} of them. It may
+	 * be shorter when the external service does not return enough distinct
+	 * tracks for the mood.
+	 * </p>
+	 * 
+	 * <p>
+	 * A freshly generated playlist has no identifier. An implementation serving a
+	 * previously stored playlist in its place, for instance while the external
+	 * service is unavailable, returns it with the identifier it was stored with.
+	 * </p>
+	 * 
+	 * @param mood   the mood of the user, used to generate an appropriate playlist
+	 * @param length the number of tracks requested
 	 * @return a {@link Mono} emitting the generated {@link Playlist} based on the
 	 *         mood
 	 */
-	Mono<Playlist> generatePlaylist(Mood mood);
+	Mono<Playlist> generatePlaylist(Mood mood, int length);
+
+	/**
+	 * Streams the track URIs of a playlist for the specified user mood.
+	 * 
+	 * <p>
+	 * Implementations able to produce tracks incrementally should emit each track
+	 * URI as soon as it is available. The default implementation emits the tracks
+	 * of {@link #generatePlaylist(Mood, int)} once the whole playlist is
+	 * generated.
+	 * </p>
+	 * 
+	 * @param mood   the mood of the user, used to generate an appropriate playlist
+	 * @param length the number of tracks requested
+	 * @return a {@link Flux} emitting the track URIs of the playlist in order
+	 */
+	default Flux<String> streamTrackUris(Mood mood, int length) {
+		return generatePlaylist(mood, length).flatMapIterable(Playlist::getTrackUris);
+	}
 }
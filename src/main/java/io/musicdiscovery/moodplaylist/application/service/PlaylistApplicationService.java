@@ -1,13 +1,32 @@
 package io.musicdiscovery.moodplaylist.application.service;
 
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import io.musicdiscovery.moodplaylist.application.port.input.PlaylistServicePort;
+import io.musicdiscovery.moodplaylist.application.port.output.ListenerHistoryPort;
 import io.musicdiscovery.moodplaylist.application.port.output.PlaylistPersistencePort;
 import io.musicdiscovery.moodplaylist.application.port.output.SpotifyPlaylistServicePort;
+import io.musicdiscovery.moodplaylist.config.PortMetrics;
+import io.musicdiscovery.moodplaylist.config.PortMetrics.PortTimer;
+import io.musicdiscovery.moodplaylist.domain.exception.PlaylistNotFoundException;
+import io.musicdiscovery.moodplaylist.domain.model.BlendedTrack;
+import io.musicdiscovery.moodplaylist.domain.model.MoodWeight;
 import io.musicdiscovery.moodplaylist.domain.model.Playlist;
+import io.musicdiscovery.moodplaylist.domain.model.PlaylistGenerationResult;
 import io.musicdiscovery.moodplaylist.domain.model.enums.Mood;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
@@ -30,6 +49,39 @@ import reactor.core.publisher.Mono;
  * </p>
  * 
  * <p>
+ * Concurrent requests for the same mood are coalesced: they share a single
+ * generation and persistence instead of each starting their own, see
+ * {@link RequestCoalescer}. Playlists are taken from the
+ * {@link PlaylistPrewarmPool} when it has one available, avoiding the upstream
+ * call altogether.
+ * </p>
+ * 
+ * <p>
+ * The length of a playlist is requested by the caller and bounded by
+ * {@code playlist.length.max}. The pre-warm pool only holds playlists of the
+ * default length {@code playlist.length.default}, so playlists of any other
+ * length are always generated upstream.
+ * </p>
+ * 
+ * <p>
+ * When {@code playlist.listener-history.enabled} is set and the caller
+ * identifies the listener, the tracks already served to the listener are
+ * avoided: {@code playlist.listener-history.candidate-factor} times the
+ * requested number of candidates are fetched, at most
+ * {@code spotify.search.max-results} since Spotify serves no more results per
+ * search, the tracks of the
+ * {@link ListenerHistoryPort} are moved after the others, and the playlist is
+ * recorded in the history in the background. These requests are not coalesced
+ * since their playlists differ per listener. If the history cannot be read,
+ * the playlist is generated without it.
+ * </p>
+ * 
+ * <p>
+ * Every operation of the {@link PlaylistServicePort} is timed through
+ * {@link PortMetrics} with {@code port=playlist}.
+ * </p>
+ * 
+ * <p>
  * The {@code @Service} annotation indicates that this class is a Spring-managed
  * service, and the {@code @RequiredArgsConstructor} annotation generates a
  * constructor for the required final fields.
@@ -40,30 +92,410 @@ import reactor.core.publisher.Mono;
  * @see PlaylistServicePort
  * @see SpotifyPlaylistServicePort
  * @see PlaylistPersistencePort
+ * @see ListenerHistoryPort
  */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class PlaylistApplicationService implements PlaylistServicePort {
 
 	private final SpotifyPlaylistServicePort spotifyPlaylistServicePort;
 	private final PlaylistPersistencePort playlistRepositoryPort;
+	private final ListenerHistoryPort listenerHistoryPort;
+	private final PlaylistPrewarmPool playlistPrewarmPool;
+	private final MeterRegistry meterRegistry;
+	private final PortMetrics portMetrics;
+
+	@Value("${playlist.batch.concurrency:4}")
+	private int batchConcurrency;
+
+	@Value("${playlist.read.max-page-size:100}")
+	private int maxPageSize;
+
+	@Value("${playlist.length.default:10}")
+	private int defaultLength;
+
+	@Value("${playlist.length.max:500}")
+	private int maxLength;
+
+	@Value("${playlist.listener-history.enabled:false}")
+	private boolean listenerHistoryEnabled;
+
+	@Value("${playlist.listener-history.candidate-factor:3}")
+	private int candidateFactor;
+
+	@Value("${spotify.search.max-results:1000}")
+	private int maxSearchResults;
+
+	private RequestCoalescer<GenerationKey, Playlist> generationCoalescer;
+	private PortTimer generateTimer;
+	private PortTimer generateBatchTimer;
+	private PortTimer streamTimer;
+	private PortTimer blendTimer;
+	private PortTimer getTimer;
+	private PortTimer historyTimer;
+	private PortTimer latestTimer;
+
+	/**
+	 * Creates the coalescer shared by concurrent playlist generations and the
+	 * timers of the port operations.
+	 */
+	@PostConstruct
+	void init() {
+		generationCoalescer = new RequestCoalescer<>(meterRegistry, "playlist.generate");
+		generateTimer = portMetrics.timer("playlist", "generate");
+		generateBatchTimer = portMetrics.timer("playlist", "generate_batch");
+		streamTimer = portMetrics.timer("playlist", "stream");
+		blendTimer = portMetrics.timer("playlist", "blend");
+		getTimer = portMetrics.timer("playlist", "get");
+		historyTimer = portMetrics.timer("playlist", "history");
+		latestTimer = portMetrics.timer("playlist", "latest");
+	}
 
 	/**
 	 * Generates a playlist based on the user's mood by interacting with the Spotify
 	 * API and then saves the playlist to the persistence layer.
 	 * 
 	 * <p>
-	 * This method calls the {@link SpotifyPlaylistServicePort} to generate a
-	 * playlist based on the provided {@link Mood}, and then persists it using
-	 * {@link PlaylistPersistencePort}.
+	 * This method takes a pre-generated playlist from the
+	 * {@link PlaylistPrewarmPool} or, when the pool is empty, calls the
+	 * {@link SpotifyPlaylistServicePort} to generate a playlist based on the
+	 * provided {@link Mood}, and then persists it using
+	 * {@link PlaylistPersistencePort}. Callers asking for the same mood and
+	 * length while a generation is in flight receive the result of that
+	 * generation, unless a listener is given.
 	 * </p>
 	 * 
-	 * @param mood the mood of the user for which the playlist will be generated
+	 * @param mood       the mood of the user for which the playlist will be
+	 *                   generated
+	 * @param length     the number of tracks requested, bounded by
+	 *                   {@code playlist.length.max}
+	 * @param listenerId the identifier of the listener, or {@code null}
 	 * @return a {@link Mono} emitting the generated and saved {@link Playlist}
 	 */
 	@Override
-	public Mono<Playlist> generatePlaylist(Mood mood) {
-		return spotifyPlaylistServicePort.generatePlaylist(mood).flatMap(playlistRepositoryPort::save);
+	public Mono<Playlist> generatePlaylist(Mood mood, int length, String listenerId) {
+		GenerationKey key = new GenerationKey(mood, playlistLength(length));
+		if (hasHistory(listenerId)) {
+			return generateTimer.time(mood, listenerPlaylist(key.mood(), key.length(), listenerId)
+					.flatMap(playlistRepositoryPort::save));
+		}
+		return generateTimer.time(mood, generationCoalescer.execute(key,
+				() -> candidatePlaylist(key.mood(), key.length()).flatMap(playlistRepositoryPort::save)));
+	}
+
+	/**
+	 * Generates one playlist for each of the specified moods and saves them with a
+	 * single bulk write.
+	 * 
+	 * <p>
+	 * Every playlist has the default length {@code playlist.length.default}. At
+	 * most {@code playlist.batch.concurrency} playlists are generated at the
+	 * same time. A mood whose generation fails is reported as a failed
+	 * {@link PlaylistGenerationResult} without affecting the others; the
+	 * successfully generated playlists are then persisted together through
+	 * {@link PlaylistPersistencePort#saveAll(List)}.
+	 * </p>
+	 * 
+	 * @param moods the moods to generate playlists for
+	 * @return a {@link Flux} emitting one {@link PlaylistGenerationResult} per
+	 *         requested mood, in the order of the given list
+	 */
+	@Override
+	public Flux<PlaylistGenerationResult> generatePlaylists(List<Mood> moods) {
+		return generateBatchTimer.time(null, Flux.fromIterable(moods)
+				.flatMapSequential(mood -> candidatePlaylist(mood, defaultLength).map(PlaylistGenerationResult::success)
+						.defaultIfEmpty(PlaylistGenerationResult.failure(mood, "No playlist was generated"))
+						.onErrorResume(error -> Mono.just(PlaylistGenerationResult.failure(mood, error.getMessage()))),
+						batchConcurrency)
+				.collectList().flatMapMany(this::saveSuccessful));
+	}
+
+	/**
+	 * Streams the tracks of a playlist generated for the user's mood and persists
+	 * the playlist off the critical path.
+	 * 
+	 * <p>
+	 * Tracks come from the {@link PlaylistPrewarmPool} when it has a playlist
+	 * available, otherwise from
+	 * {@link SpotifyPlaylistServicePort#streamTrackUris(Mood, int)}. Each track is
+	 * emitted as soon as it is available; once the stream completes, the
+	 * playlist is saved in the background through the
+	 * {@link PlaylistPersistencePort}. A stream cancelled by the client is not
+	 * persisted.
+	 * </p>
+	 * 
+	 * @param mood       the mood of the user for which the playlist will be
+	 *                   generated
+	 * @param length     the number of tracks requested, bounded by
+	 *                   {@code playlist.length.max}
+	 * @param listenerId the identifier of the listener, or {@code null}
+	 * @return a {@link Flux} emitting the track URIs of the playlist in order
+	 */
+	@Override
+	public Flux<String> streamPlaylist(Mood mood, int length, String listenerId) {
+		int tracks = playlistLength(length);
+		boolean history = hasHistory(listenerId);
+		return streamTimer.time(mood, Flux.defer(() -> {
+			List<String> trackUris = new ArrayList<>(tracks);
+			Flux<String> streamed = history
+					? heardTracks(listenerId).flatMapMany(
+							heard -> unheardFirst(candidateTracks(mood, candidateLength(tracks)), heard, tracks))
+					: candidateTracks(mood, tracks);
+			return streamed.doOnNext(trackUris::add).doOnComplete(() -> {
+				saveInBackground(new Playlist(null, mood, trackUris));
+				if (history) {
+					recordInBackground(listenerId, trackUris);
+				}
+			});
+		}));
+	}
+
+	/**
+	 * Streams a playlist blending the playlists of several moods.
+	 * 
+	 * <p>
+	 * The candidates of every mood are the tracks of a playlist of the requested
+	 * length, taken from the {@link PlaylistPrewarmPool} or the
+	 * {@link SpotifyPlaylistServicePort} exactly as for a single mood, so a blend
+	 * reuses the playlists already cached for its moods and fetches the missing
+	 * ones concurrently. They are merged by a {@link WeightedInterleave}, which
+	 * emits the tracks as they arrive, in the proportions of the weights and
+	 * without duplicates. The weights of a mood given several times are added
+	 * up and components without a positive weight are ignored.
+	 * </p>
+	 * 
+	 * @param components the moods of the blend and their relative weights
+	 * @param length     the number of tracks requested, bounded by
+	 *                   {@code playlist.length.max}
+	 * @return a {@link Flux} emitting the tracks of the playlist in order
+	 */
+	@Override
+	public Flux<BlendedTrack> blendPlaylist(List<MoodWeight> components, int length) {
+		int tracks = playlistLength(length);
+		Map<Mood, Integer> weights = new EnumMap<>(Mood.class);
+		for (MoodWeight component : components) {
+			if (component.getWeight() > 0) {
+				weights.merge(component.getMood(), component.getWeight(), Integer::sum);
+			}
+		}
+		return blendTimer.time(null, new WeightedInterleave(weights, mood -> candidateTracks(mood, tracks), tracks));
+	}
+
+	/**
+	 * Retrieves a stored playlist by its identifier.
+	 * 
+	 * @param id the identifier of the playlist
+	 * @return a {@link Mono} emitting the {@link Playlist}, or signalling a
+	 *         {@link PlaylistNotFoundException} if none has this identifier
+	 */
+	@Override
+	public Mono<Playlist> getPlaylist(String id) {
+		return getTimer.time(null, playlistRepositoryPort.findById(id)
+				.switchIfEmpty(Mono.error(() -> new PlaylistNotFoundException("Playlist not found: " + id))));
+	}
+
+	/**
+	 * Retrieves one page of the playlists generated for a mood, most recently
+	 * generated first.
+	 * 
+	 * <p>
+	 * The page size is bounded by {@code playlist.read.max-page-size}.
+	 * </p>
+	 * 
+	 * @param mood  the mood of the playlists
+	 * @param after the identifier of the last playlist of the previous page, or
+	 *              {@code null} for the first page
+	 * @param limit the maximum number of playlists in the page
+	 * @return a {@link Flux} emitting the playlists of the page
+	 */
+	@Override
+	public Flux<Playlist> getPlaylistHistory(Mood mood, String after, int limit) {
+		return historyTimer.time(mood, playlistRepositoryPort.findByMood(mood, after, pageSize(limit)));
+	}
+
+	/**
+	 * Retrieves the latest playlists generated for every mood.
+	 * 
+	 * <p>
+	 * The number of playlists per mood is bounded by
+	 * {@code playlist.read.max-page-size}.
+	 * </p>
+	 * 
+	 * @param limit the maximum number of playlists per mood
+	 * @return a {@link Flux} emitting the latest playlists, mood by mood
+	 */
+	@Override
+	public Flux<Playlist> getLatestPlaylists(int limit) {
+		return latestTimer.time(null, playlistRepositoryPort.findLatestPerMood(pageSize(limit)));
+	}
+
+	private int pageSize(int limit) {
+		return Math.max(1, Math.min(limit, maxPageSize));
+	}
+
+	private int playlistLength(int length) {
+		return Math.max(1, Math.min(length, maxLength));
+	}
+
+	/**
+	 * Returns the number of candidates fetched for a playlist of a listener,
+	 * bounded by the number of results a search can return.
+	 */
+	private int candidateLength(int length) {
+		return Math.min(length * candidateFactor, Math.max(length, maxSearchResults));
+	}
+
+	/**
+	 * Returns a pre-generated playlist from the {@link PlaylistPrewarmPool}, or
+	 * generates one through the {@link SpotifyPlaylistServicePort} when the pool is
+	 * empty or the length is not the default one.
+	 * 
+	 * @param mood   the mood of the playlist
+	 * @param length the number of tracks requested
+	 * @return a {@link Mono} emitting the unsaved {@link Playlist}
+	 */
+	private Mono<Playlist> candidatePlaylist(Mood mood, int length) {
+		return pooledPlaylist(mood, length)
+				.switchIfEmpty(Mono.defer(() -> spotifyPlaylistServicePort.generatePlaylist(mood, length)));
+	}
+
+	private Mono<Playlist> pooledPlaylist(Mood mood, int length) {
+		return length == defaultLength ? playlistPrewarmPool.take(mood) : Mono.empty();
+	}
+
+	/**
+	 * Streams the tracks of a pre-generated playlist from the
+	 * {@link PlaylistPrewarmPool}, or of one streamed by the
+	 * {@link SpotifyPlaylistServicePort} when there is none.
+	 */
+	private Flux<String> candidateTracks(Mood mood, int length) {
+		return pooledPlaylist(mood, length).flatMapIterable(Playlist::getTrackUris)
+				.switchIfEmpty(Flux.defer(() -> spotifyPlaylistServicePort.streamTrackUris(mood, length)));
+	}
+
+	private boolean hasHistory(String listenerId) {
+		return listenerHistoryEnabled && listenerId != null && !listenerId.isBlank();
+	}
+
+	/**
+	 * Generates an unsaved playlist for a listener, preferring the tracks it has
+	 * not heard yet, and records it in the history of the listener.
+	 * 
+	 * @param mood       the mood of the playlist
+	 * @param length     the number of tracks requested
+	 * @param listenerId the identifier of the listener
+	 * @return a {@link Mono} emitting the unsaved {@link Playlist}
+	 */
+	private Mono<Playlist> listenerPlaylist(Mood mood, int length, String listenerId) {
+		return heardTracks(listenerId)
+				.flatMap(heard -> unheardFirst(
+						candidatePlaylist(mood, candidateLength(length)).flatMapIterable(Playlist::getTrackUris),
+						heard, length).collectList())
+				.map(trackUris -> new Playlist(null, mood, trackUris))
+				.doOnNext(playlist -> recordInBackground(listenerId, playlist.getTrackUris()));
+	}
+
+	/**
+	 * Returns the tracks already served to a listener, or none if its history
+	 * cannot be read.
+	 */
+	private Mono<Predicate<String>> heardTracks(String listenerId) {
+		return listenerHistoryPort.findHeardTracks(listenerId).onErrorResume(error -> {
+			log.warn("Could not read the history of listener {}: {}", listenerId, error.getMessage());
+			return Mono.just(trackUri -> false);
+		});
+	}
+
+	/**
+	 * Selects {@code length} candidates, in order, taking the unheard ones first
+	 * and completing with the heard ones when there are too few.
+	 * 
+	 * <p>
+	 * The candidates are consumed only until {@code length} unheard tracks have
+	 * been found, so the unheard tracks are emitted as the candidates arrive and
+	 * only the heard ones are held back.
+	 * </p>
+	 * 
+	 * @param candidates the candidate track URIs
+	 * @param heard      tells whether the listener has heard a track
+	 * @param length     the number of tracks requested
+	 * @return a {@link Flux} emitting at most {@code length} track URIs
+	 */
+	private static Flux<String> unheardFirst(Flux<String> candidates, Predicate<String> heard, int length) {
+		return Flux.defer(() -> {
+			List<String> heardCandidates = new ArrayList<>();
+			return candidates.filter(trackUri -> {
+				if (heard.test(trackUri)) {
+					heardCandidates.add(trackUri);
+					return false;
+				}
+				return true;
+			}).take(length).concatWith(Flux.defer(() -> Flux.fromIterable(heardCandidates))).take(length);
+		});
+	}
+
+	/**
+	 * Persists the given playlist without making the caller wait for it.
+	 * 
+	 * @param playlist the playlist to be saved
+	 */
+	private void saveInBackground(Playlist playlist) {
+		playlistRepositoryPort.save(playlist).subscribe(
+				saved -> log.debug("Persisted streamed {} playlist {}", saved.getMood(), saved.getId()),
+				error -> log.warn("Could not persist streamed {} playlist: {}", playlist.getMood(),
+						error.getMessage()));
+	}
+
+	/**
+	 * Records the tracks served to a listener without making the caller wait
+	 * for it.
+	 * 
+	 * @param listenerId the identifier of the listener
+	 * @param trackUris  the URIs of the tracks served
+	 */
+	private void recordInBackground(String listenerId, List<String> trackUris) {
+		listenerHistoryPort.recordHeardTracks(listenerId, trackUris).subscribe(null,
+				error -> log.warn("Could not record the history of listener {}: {}", listenerId,
+						error.getMessage()));
+	}
+
+	/**
+	 * Persists the playlists of the successful results in one bulk write and
+	 * replaces them with their saved counterparts.
+	 * 
+	 * <p>
+	 * If the bulk write fails, every successful result is reported as failed with
+	 * the persistence error.
+	 * </p>
+	 * 
+	 * @param results the generation results of the batch
+	 * @return a {@link Flux} emitting the final results in their original order
+	 */
+	private Flux<PlaylistGenerationResult> saveSuccessful(List<PlaylistGenerationResult> results) {
+		List<Playlist> generated = results.stream().filter(PlaylistGenerationResult::isSuccessful)
+				.map(PlaylistGenerationResult::getPlaylist).toList();
+		if (generated.isEmpty()) {
+			return Flux.fromIterable(results);
+		}
+		return playlistRepositoryPort.saveAll(generated).collectList().map(saved -> {
+			Iterator<Playlist> savedPlaylists = saved.iterator();
+			List<PlaylistGenerationResult> merged = new ArrayList<>(results.size());
+			for (PlaylistGenerationResult result : results) {
+				merged.add(result.isSuccessful() ? PlaylistGenerationResult.success(savedPlaylists.next()) : result);
+			}
+			return merged;
+		}).onErrorResume(error -> Mono.just(results.stream()
+				.map(result -> result.isSuccessful()
+						? PlaylistGenerationResult.failure(result.getMood(), error.getMessage())
+						: result)
+				.toList())).flatMapMany(Flux::fromIterable);
+	}
+
+	/**
+	 * Identifies the generations that can be coalesced.
+	 */
+	private record GenerationKey(Mood mood, int length) {
 	}
 
 }
\ No newline at end of file
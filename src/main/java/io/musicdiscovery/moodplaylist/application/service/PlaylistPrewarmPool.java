@@ -0,0 +1,275 @@
+package io.musicdiscovery.moodplaylist.application.service;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.musicdiscovery.moodplaylist.application.port.output.PrewarmPlaylistSourcePort;
+import io.musicdiscovery.moodplaylist.application.port.output.SpotifyPlaylistServicePort;
+import io.musicdiscovery.moodplaylist.domain.model.Playlist;
+import io.musicdiscovery.moodplaylist.domain.model.enums.Mood;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Keeps a pool of pre-generated candidate playlists for every {@link Mood}, so
+ * that playlist generation can be served without an upstream call.
+ * 
+ * <p>
+ * The target depth of each pool adapts to demand: every
+ * {@code playlist.prewarm.tick-interval} the request rate observed for a mood
+ * is folded into an exponentially weighted moving average (EWMA), and the pool
+ * is sized to cover {@code playlist.prewarm.horizon} of that rate, bounded by
+ * {@code playlist.prewarm.min-size} and {@code playlist.prewarm.max-size}.
+ * Moods nobody asks for therefore cost no upstream calls.
+ * </p>
+ * 
+ * <p>
+ * Pools are refilled in the background with playlists of the default length
+ * {@code playlist.length.default}, straight from the
+ * {@link PrewarmPlaylistSourcePort} rather than from the
+ * {@link SpotifyPlaylistServicePort}, so that they hold freshly generated
+ * playlists instead of copies of the Spotify cache. Every refill draws its
+ * tracks from a random offset between {@code 0} and
+ * {@code playlist.prewarm.max-offset} in the upstream results, so that the
+ * pooled playlists of a mood differ from each other. Stale playlists served in
+ * place of a failed call, which keep the identifier they were stored with, are
+ * not pooled. Refills are rate limited to
+ * {@code playlist.prewarm.refills-per-tick} upstream calls per tick, shared by
+ * all moods and given to the pools with the largest deficit first.
+ * </p>
+ * 
+ * <p>
+ * The pool stays disabled when the source reports that pre-generating saves no
+ * upstream calls, as when playlists are drawn from a local catalog.
+ * </p>
+ * 
+ * <p>
+ * Pooled playlists older than {@code playlist.prewarm.ttl} are evicted, on
+ * every tick and when they are taken, so a pool that demand has left behind
+ * does not serve the same old playlists once requests come back.
+ * </p>
+ * 
+ * <p>
+ * The gauges {@code playlist.prewarm.pool.depth} and
+ * {@code playlist.prewarm.pool.target} and the counter
+ * {@code playlist.prewarm.pool.empty} are published per mood, together with
+ * the {@code playlist.prewarm.refill.latency} timer.
+ * </p>
+ * 
+ * @see PlaylistApplicationService
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PlaylistPrewarmPool {
+
+	private final PrewarmPlaylistSourcePort prewarmPlaylistSourcePort;
+	private final MeterRegistry meterRegistry;
+
+	@Value("${playlist.prewarm.enabled:true}")
+	private boolean enabled;
+
+	@Value("${playlist.prewarm.tick-interval:1s}")
+	private Duration tickInterval;
+
+	@Value("${playlist.prewarm.ewma-alpha:0.2}")
+	private double ewmaAlpha;
+
+	@Value("${playlist.prewarm.horizon:10s}")
+	private Duration horizon;
+
+	@Value("${playlist.prewarm.min-size:0}")
+	private int minSize;
+
+	@Value("${playlist.prewarm.max-size:20}")
+	private int maxSize;
+
+	@Value("${playlist.prewarm.refills-per-tick:2}")
+	private int refillsPerTick;
+
+	@Value("${playlist.prewarm.max-offset:200}")
+	private int maxOffset;
+
+	@Value("${playlist.prewarm.ttl:5m}")
+	private Duration ttl;
+
+	@Value("${playlist.length.default:10}")
+	private int playlistLength;
+
+	private final Map<Mood, MoodPool> pools = new EnumMap<>(Mood.class);
+
+	private Timer refillLatency;
+	private Disposable ticker;
+
+	/**
+	 * Creates one pool per mood, registers the pool metrics and starts the refill
+	 * ticker, unless the source has nothing to pre-generate.
+	 */
+	@PostConstruct
+	void init() {
+		if (enabled && !prewarmPlaylistSourcePort.isAvailable()) {
+			log.info("Playlist pre-warming disabled, playlists are not generated upstream");
+			enabled = false;
+		}
+		refillLatency = Timer.builder("playlist.prewarm.refill.latency")
+				.description("Latency of the upstream calls refilling the pools").register(meterRegistry);
+		for (Mood mood : Mood.values()) {
+			MoodPool pool = new MoodPool(Counter.builder("playlist.prewarm.pool.empty").tag("mood", mood.name())
+					.description("Requests that found the pool empty").register(meterRegistry));
+			Gauge.builder("playlist.prewarm.pool.depth", pool.depth, AtomicInteger::get).tag("mood", mood.name())
+					.description("Pre-generated playlists available").register(meterRegistry);
+			Gauge.builder("playlist.prewarm.pool.target", pool, p -> p.target).tag("mood", mood.name())
+					.description("Target pool depth derived from the request rate").register(meterRegistry);
+			pools.put(mood, pool);
+		}
+		if (enabled) {
+			ticker = Flux.interval(tickInterval, tickInterval).onBackpressureDrop().subscribe(tick -> tick());
+		}
+	}
+
+	/**
+	 * Stops the refill ticker.
+	 */
+	@PreDestroy
+	void shutdown() {
+		if (ticker != null) {
+			ticker.dispose();
+		}
+	}
+
+	/**
+	 * Takes a pre-generated playlist for the given mood from the pool.
+	 * 
+	 * <p>
+	 * Every call is counted as demand for the mood, whether or not the pool could
+	 * serve it.
+	 * </p>
+	 * 
+	 * @param mood the mood of the requested playlist
+	 * @return a {@link Mono} emitting a pooled {@link Playlist}, or completing
+	 *         empty when the pool is disabled or empty
+	 */
+	public Mono<Playlist> take(Mood mood) {
+		if (!enabled) {
+			return Mono.empty();
+		}
+		return Mono.fromSupplier(() -> {
+			MoodPool pool = pools.get(mood);
+			pool.requests.increment();
+			long now = System.nanoTime();
+			PooledPlaylist pooled;
+			while ((pooled = pool.playlists.poll()) != null) {
+				pool.depth.decrementAndGet();
+				if (!pooled.isExpiredAt(now, ttl)) {
+					return pooled.playlist();
+				}
+			}
+			pool.empty.increment();
+			return null;
+		});
+	}
+
+	/**
+	 * Evicts the expired playlists, updates the demand estimate of every pool and
+	 * starts the refills the budget of this tick allows.
+	 */
+	private void tick() {
+		double seconds = tickInterval.toMillis() / 1000d;
+		double horizonSeconds = horizon.toMillis() / 1000d;
+		long now = System.nanoTime();
+		pools.values().forEach(pool -> {
+			pool.evictExpired(now, ttl);
+			double rate = pool.requests.sumThenReset() / seconds;
+			pool.rate = ewmaAlpha * rate + (1 - ewmaAlpha) * pool.rate;
+			pool.target = (int) Math.max(minSize, Math.min(maxSize, Math.ceil(pool.rate * horizonSeconds)));
+		});
+		int budget = refillsPerTick;
+		while (budget > 0) {
+			Map.Entry<Mood, MoodPool> neediest = pools.entrySet().stream()
+					.max(Comparator.comparingInt(entry -> entry.getValue().deficit())).orElseThrow();
+			if (neediest.getValue().deficit() <= 0) {
+				return;
+			}
+			refill(neediest.getKey(), neediest.getValue());
+			budget--;
+		}
+	}
+
+	private void refill(Mood mood, MoodPool pool) {
+		pool.refilling.incrementAndGet();
+		Timer.Sample sample = Timer.start(meterRegistry);
+		int offset = ThreadLocalRandom.current().nextInt(maxOffset + 1);
+		prewarmPlaylistSourcePort.generatePlaylist(mood, playlistLength, offset).doFinally(signal -> {
+			sample.stop(refillLatency);
+			pool.refilling.decrementAndGet();
+		}).filter(playlist -> playlist.getId() == null).subscribe(playlist -> {
+			pool.playlists.offer(new PooledPlaylist(playlist, System.nanoTime()));
+			pool.depth.incrementAndGet();
+		}, error -> log.warn("Could not pre-generate a {} playlist: {}", mood, error.getMessage()));
+	}
+
+	/**
+	 * Pooled playlists and demand estimate of a single mood.
+	 */
+	private static final class MoodPool {
+
+		private final Queue<PooledPlaylist> playlists = new ConcurrentLinkedQueue<>();
+		private final AtomicInteger depth = new AtomicInteger();
+		private final AtomicInteger refilling = new AtomicInteger();
+		private final LongAdder requests = new LongAdder();
+		private final Counter empty;
+		private volatile double rate;
+		private volatile int target;
+
+		private MoodPool(Counter empty) {
+			this.empty = empty;
+		}
+
+		private int deficit() {
+			return target - depth.get() - refilling.get();
+		}
+
+		/**
+		 * Removes the expired playlists at the head of the pool, which holds them
+		 * oldest first.
+		 */
+		private void evictExpired(long now, Duration ttl) {
+			PooledPlaylist head;
+			while ((head = playlists.peek()) != null && head.isExpiredAt(now, ttl)) {
+				if (playlists.remove(head)) {
+					depth.decrementAndGet();
+				}
+			}
+		}
+	}
+
+	/**
+	 * A pooled playlist together with the {@link System#nanoTime()} at which it
+	 * was generated.
+	 */
+	private record PooledPlaylist(Playlist playlist, long generatedAt) {
+
+		boolean isExpiredAt(long now, Duration ttl) {
+			return now - generatedAt > ttl.toNanos();
+		}
+	}
+}
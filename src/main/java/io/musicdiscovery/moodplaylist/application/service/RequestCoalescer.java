@@ -0,0 +1,87 @@
+package io.musicdiscovery.moodplaylist.application.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Coalesces concurrent executions of the same reactive operation into a single
+ * upstream subscription (single-flight).
+ * 
+ * <p>
+ * While an operation for a given key is in flight, further callers for the same
+ * key subscribe to its result instead of starting a new one. The upstream is
+ * subscribed to independently of the callers, so a caller cancelling does not
+ * cancel the operation the others are waiting for, and its value or error is
+ * delivered to every waiting caller. Once the operation terminates, the key is
+ * released and the next caller starts a fresh operation.
+ * </p>
+ * 
+ * <p>
+ * The counters {@code <name>.coalescing} tagged with
+ * {@code type=originated|coalesced} and the gauge {@code <name>.in.flight} show
+ * the fan-in ratio.
+ * </p>
+ * 
+ * @param <K> the type of the key identifying identical operations
+ * @param <V> the type of the value emitted by the operation
+ */
+class RequestCoalescer<K, V> {
+
+	private final Map<K, Sinks.One<V>> inFlight = new ConcurrentHashMap<>();
+	private final Counter originated;
+	private final Counter coalesced;
+
+	/**
+	 * Creates a coalescer publishing its metrics under the given name.
+	 * 
+	 * @param meterRegistry the registry the metrics are published to
+	 * @param name          the metric name prefix
+	 */
+	RequestCoalescer(MeterRegistry meterRegistry, String name) {
+		this.originated = Counter.builder(name + ".coalescing").tag("type", "originated")
+				.description("Requests that started an upstream operation").register(meterRegistry);
+		this.coalesced = Counter.builder(name + ".coalescing").tag("type", "coalesced")
+				.description("Requests that joined an upstream operation already in flight")
+				.register(meterRegistry);
+		Gauge.builder(name + ".in.flight", inFlight, Map::size).description("Upstream operations in flight")
+				.register(meterRegistry);
+	}
+
+	/**
+	 * Executes the operation for the given key, or joins the one already in flight.
+	 * 
+	 * @param key       the key identifying identical operations
+	 * @param operation supplies the upstream operation when none is in flight
+	 * @return a {@link Mono} emitting the shared result
+	 */
+	Mono<V> execute(K key, Supplier<Mono<V>> operation) {
+		return Mono.defer(() -> {
+			Sinks.One<V> sink = Sinks.one();
+			Sinks.One<V> existing = inFlight.putIfAbsent(key, sink);
+			if (existing != null) {
+				coalesced.increment();
+				return existing.asMono();
+			}
+			originated.increment();
+			Mono.defer(operation).subscribe(value -> {
+				inFlight.remove(key, sink);
+				sink.tryEmitValue(value);
+			}, error -> {
+				inFlight.remove(key, sink);
+				sink.tryEmitError(error);
+			}, () -> {
+				if (inFlight.remove(key, sink)) {
+					sink.tryEmitEmpty();
+				}
+			});
+			return sink.asMono();
+		});
+	}
+}
@@ -0,0 +1,300 @@
+package io.musicdiscovery.moodplaylist.application.service;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.Function;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+
+import io.musicdiscovery.moodplaylist.domain.model.BlendedTrack;
+import io.musicdiscovery.moodplaylist.domain.model.enums.Mood;
+import reactor.core.CoreSubscriber;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Operators;
+import reactor.util.concurrent.Queues;
+import reactor.util.context.Context;
+
+/**
+ * Streaming weighted interleave of the candidate tracks of several moods.
+ * 
+ * <p>
+ * On subscription, the candidates of every mood are subscribed to at once, so
+ * they are fetched concurrently, and each is buffered in a bounded queue of
+ * {@value #PREFETCH} tracks. Tracks are then emitted as soon as they are
+ * available and requested, at most {@code length} of them. Each position goes
+ * to the mood whose next track is due first in proportion to its weight, i.e.
+ * the one with the smallest {@code (emitted + 1) / weight}, so every prefix of
+ * the playlist keeps the requested proportions as closely as possible. When
+ * the candidates of that mood have not arrived yet, emission waits for them
+ * rather than giving the position to another mood.
+ * </p>
+ * 
+ * <p>
+ * A track already emitted is skipped and the mood takes its next candidate, so
+ * duplicates across moods never take a position. A mood whose candidates are
+ * exhausted, or fail, leaves the blend and the remaining moods share its
+ * positions. The blend completes once {@code length} tracks have been emitted,
+ * cancelling the remaining candidates, or once every mood has left it; it only
+ * fails if no track could be emitted and a mood failed.
+ * </p>
+ * 
+ * <p>
+ * Signals from the candidates are serialized through a work-in-progress
+ * counter, so the blend never blocks the thread delivering them.
+ * </p>
+ */
+final class WeightedInterleave extends Flux<BlendedTrack> {
+
+	static final int PREFETCH = Queues.SMALL_BUFFER_SIZE;
+
+	private final Mood[] moods;
+	private final int[] weights;
+	private final Function<Mood, ? extends Publisher<String>> candidates;
+	private final int length;
+
+	/**
+	 * Creates a blend.
+	 * 
+	 * @param weights    the positive weight of every mood of the blend
+	 * @param candidates supplies the candidate track URIs of a mood, subscribed
+	 *                   to once per subscription to the blend
+	 * @param length     the maximum number of tracks of the blend
+	 */
+	WeightedInterleave(Map<Mood, Integer> weights, Function<Mood, ? extends Publisher<String>> candidates,
+			int length) {
+		this.moods = weights.keySet().toArray(Mood[]::new);
+		this.weights = new int[moods.length];
+		for (int i = 0; i < moods.length; i++) {
+			this.weights[i] = weights.get(moods[i]);
+		}
+		this.candidates = candidates;
+		this.length = length;
+	}
+
+	@Override
+	public void subscribe(CoreSubscriber<? super BlendedTrack> actual) {
+		InterleaveSubscription subscription = new InterleaveSubscription(actual, this);
+		actual.onSubscribe(subscription);
+		subscription.subscribeSources();
+	}
+
+	/**
+	 * State of one subscription to the blend, drained by a single thread at a
+	 * time.
+	 */
+	private static final class InterleaveSubscription implements Subscription {
+
+		private static final AtomicLongFieldUpdater<InterleaveSubscription> REQUESTED = AtomicLongFieldUpdater
+				.newUpdater(InterleaveSubscription.class, "requested");
+		private static final AtomicIntegerFieldUpdater<InterleaveSubscription> WIP = AtomicIntegerFieldUpdater
+				.newUpdater(InterleaveSubscription.class, "wip");
+
+		private final CoreSubscriber<? super BlendedTrack> actual;
+		private final WeightedInterleave blend;
+		private final SourceSubscriber[] sources;
+		private final long[] emittedPerMood;
+		private final boolean[] active;
+		private final Set<String> emittedTracks;
+		private int emitted;
+		private Throwable error;
+		private volatile long requested;
+		private volatile int wip;
+		private volatile boolean terminated;
+
+		private InterleaveSubscription(CoreSubscriber<? super BlendedTrack> actual, WeightedInterleave blend) {
+			this.actual = actual;
+			this.blend = blend;
+			this.sources = new SourceSubscriber[blend.moods.length];
+			for (int i = 0; i < sources.length; i++) {
+				sources[i] = new SourceSubscriber(this);
+			}
+			this.emittedPerMood = new long[sources.length];
+			this.active = new boolean[sources.length];
+			Arrays.fill(active, true);
+			this.emittedTracks = HashSet.newHashSet(blend.length);
+		}
+
+		private void subscribeSources() {
+			for (int i = 0; i < sources.length && !terminated; i++) {
+				blend.candidates.apply(blend.moods[i]).subscribe(sources[i]);
+			}
+		}
+
+		@Override
+		public void request(long n) {
+			if (Operators.validate(n)) {
+				Operators.addCap(REQUESTED, this, n);
+				drain();
+			}
+		}
+
+		@Override
+		public void cancel() {
+			if (!terminated) {
+				terminated = true;
+				cancelSources();
+			}
+		}
+
+		private void drain() {
+			if (WIP.getAndIncrement(this) != 0) {
+				return;
+			}
+			int missed = 1;
+			for (;;) {
+				long requested = this.requested;
+				long emittedNow = 0;
+				for (;;) {
+					if (terminated) {
+						return;
+					}
+					int next = emitted == blend.length ? -1 : next();
+					if (next < 0) {
+						terminate();
+						return;
+					}
+					SourceSubscriber source = sources[next];
+					boolean done = source.done;
+					String trackUri = source.queue.peek();
+					if (trackUri == null) {
+						if (!done) {
+							break;
+						}
+						active[next] = false;
+						if (error == null) {
+							error = source.error;
+						}
+						continue;
+					}
+					if (emittedTracks.contains(trackUri)) {
+						source.poll();
+						continue;
+					}
+					if (emittedNow == requested) {
+						break;
+					}
+					source.poll();
+					emittedTracks.add(trackUri);
+					emittedPerMood[next]++;
+					emitted++;
+					emittedNow++;
+					actual.onNext(new BlendedTrack(blend.moods[next], trackUri));
+				}
+				if (emittedNow != 0 && requested != Long.MAX_VALUE) {
+					REQUESTED.addAndGet(this, -emittedNow);
+				}
+				missed = WIP.addAndGet(this, -missed);
+				if (missed == 0) {
+					return;
+				}
+			}
+		}
+
+		/**
+		 * Returns the index of the active mood whose next track is due first, the
+		 * first one on ties, or {@code -1} if no mood is active.
+		 */
+		private int next() {
+			int next = -1;
+			for (int i = 0; i < sources.length; i++) {
+				if (active[i] && (next < 0 || (emittedPerMood[i] + 1) * blend.weights[next]
+						< (emittedPerMood[next] + 1) * blend.weights[i])) {
+					next = i;
+				}
+			}
+			return next;
+		}
+
+		private void terminate() {
+			terminated = true;
+			cancelSources();
+			if (emitted == 0 && error != null) {
+				actual.onError(error);
+			} else {
+				actual.onComplete();
+			}
+		}
+
+		private void cancelSources() {
+			for (SourceSubscriber source : sources) {
+				source.cancel();
+			}
+		}
+	}
+
+	/**
+	 * Buffers the candidates of one mood, replenishing its demand as they are
+	 * consumed.
+	 */
+	private static final class SourceSubscriber implements CoreSubscriber<String> {
+
+		private static final int LIMIT = PREFETCH - (PREFETCH >> 2);
+		private static final AtomicReferenceFieldUpdater<SourceSubscriber, Subscription> SUBSCRIPTION =
+				AtomicReferenceFieldUpdater.newUpdater(SourceSubscriber.class, Subscription.class, "subscription");
+
+		private final InterleaveSubscription parent;
+		private final Queue<String> queue = Queues.<String>get(PREFETCH).get();
+		private volatile Subscription subscription;
+		private volatile boolean done;
+		private Throwable error;
+		private int consumed;
+
+		private SourceSubscriber(InterleaveSubscription parent) {
+			this.parent = parent;
+		}
+
+		@Override
+		public Context currentContext() {
+			return parent.actual.currentContext();
+		}
+
+		@Override
+		public void onSubscribe(Subscription subscription) {
+			if (Operators.setOnce(SUBSCRIPTION, this, subscription)) {
+				subscription.request(PREFETCH);
+			}
+		}
+
+		@Override
+		public void onNext(String trackUri) {
+			if (!queue.offer(trackUri)) {
+				onError(Exceptions.failWithOverflow(Exceptions.BACKPRESSURE_ERROR_QUEUE_FULL));
+				return;
+			}
+			parent.drain();
+		}
+
+		@Override
+		public void onError(Throwable error) {
+			this.error = error;
+			done = true;
+			parent.drain();
+		}
+
+		@Override
+		public void onComplete() {
+			done = true;
+			parent.drain();
+		}
+
+		private void poll() {
+			queue.poll();
+			if (++consumed == LIMIT) {
+				consumed = 0;
+				subscription.request(LIMIT);
+			}
+		}
+
+		private void cancel() {
+			Operators.terminate(SUBSCRIPTION, this);
+		}
+	}
+}
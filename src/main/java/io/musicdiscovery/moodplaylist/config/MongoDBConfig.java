@@ -7,7 +7,6 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.mongodb.config.AbstractReactiveMongoConfiguration;
 import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
-import org.springframework.data.mongodb.core.SimpleReactiveMongoDatabaseFactory;
 import org.springframework.data.mongodb.repository.config.EnableMongoRepositories;
 
 import com.mongodb.ConnectionString;
@@ -37,6 +36,12 @@ import com.mongodb.reactivestreams.client.MongoClients;
  * defined in the application's configuration files.
  * </p>
  * 
+ * <p>
+ * The {@link ReactiveMongoTemplate} is the one of
+ * {@link AbstractReactiveMongoConfiguration}, bound to the database returned by
+ * {@link #getDatabaseName()}.
+ * </p>
+ * 
  * @see AbstractReactiveMongoConfiguration
  * @see ReactiveMongoTemplate
  */
@@ -98,22 +103,4 @@ public class MongoDBConfig extends AbstractReactiveMongoConfiguration {
 
 		return MongoClients.create(settings);
 	}
-
-	/**
-	 * Configures a {@link ReactiveMongoTemplate} for performing MongoDB operations
-	 * in a reactive manner.
-	 * 
-	 * <p>
-	 * This method creates a {@link ReactiveMongoTemplate} by using the
-	 * {@link SimpleReactiveMongoDatabaseFactory} and the reactive MongoDB client.
-	 * </p>
-	 * 
-	 * @param mongoClient the reactive MongoDB client used to interact with the
-	 *                    database
-	 * @return a {@link ReactiveMongoTemplate} for reactive MongoDB operations
-	 */
-	@Bean
-	ReactiveMongoTemplate reactiveMongoTemplate(MongoClient mongoClient) {
-		return new ReactiveMongoTemplate(new SimpleReactiveMongoDatabaseFactory(mongoClient, "database"));
-	}
 }
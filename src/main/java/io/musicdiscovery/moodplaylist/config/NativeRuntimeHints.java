@@ -0,0 +1,81 @@
+package io.musicdiscovery.moodplaylist.config;
+
+import java.util.List;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+import io.musicdiscovery.moodplaylist.infrastructure.adapters.input.rest.model.request.PlaylistBatchRequest;
+import io.musicdiscovery.moodplaylist.infrastructure.adapters.input.rest.model.request.PlaylistBlendComponentRequest;
+import io.musicdiscovery.moodplaylist.infrastructure.adapters.input.rest.model.request.PlaylistBlendRequest;
+import io.musicdiscovery.moodplaylist.infrastructure.adapters.input.rest.model.request.PlaylistRequest;
+import io.musicdiscovery.moodplaylist.infrastructure.adapters.input.rest.model.response.ErrorResponse;
+import io.musicdiscovery.moodplaylist.infrastructure.adapters.input.rest.model.response.PlaylistBatchItemResponse;
+import io.musicdiscovery.moodplaylist.infrastructure.adapters.input.rest.model.response.PlaylistBatchResponse;
+import io.musicdiscovery.moodplaylist.infrastructure.adapters.input.rest.model.response.PlaylistResponse;
+import io.musicdiscovery.moodplaylist.infrastructure.adapters.input.rest.model.response.PlaylistTrackResponse;
+import io.musicdiscovery.moodplaylist.infrastructure.adapters.output.client.spotify.model.response.SpotifyAccessTokenResponse;
+import io.musicdiscovery.moodplaylist.infrastructure.adapters.output.persistence.entity.ListenerHistoryEntity;
+import io.musicdiscovery.moodplaylist.infrastructure.adapters.output.persistence.entity.PlaylistEntity;
+
+/**
+ * Registers the reflection and resource hints the native image of the service
+ * needs beyond the ones Spring AOT infers on its own.
+ * 
+ * <p>
+ * Spring AOT turns the bean definitions into code, so the Spring beans are
+ * created without reflection, and it registers the bodies of the controller
+ * methods for data binding. The MapStruct mappers need nothing more: their
+ * implementations are plain Spring components, generated at compile time and
+ * mapping with plain accessor calls. What Spring AOT cannot see is what the
+ * libraries reach through reflection at run time:
+ * </p>
+ * <ul>
+ * <li>the Lombok DTOs of the REST API, bound by Jackson through their
+ * accessors and read through their fields by Bean Validation and by the
+ * springdoc schemas, and the Spotify token response, bound by the
+ * {@code WebClient};</li>
+ * <li>the MongoDB entities, which the mapping context only discovers when
+ * they are first used, since {@link MongoDBConfig} scans no package for
+ * them;</li>
+ * <li>the {@code __Javadoc.json} resources written by therapi, from which
+ * springdoc reads the descriptions of the API.</li>
+ * </ul>
+ * 
+ * <p>
+ * The hints are written to the native image configuration by the
+ * {@code native} Maven profile and have no effect on the JVM.
+ * </p>
+ * 
+ * @see RuntimeHintsRegistrar
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+	private static final List<Class<?>> DTOS = List.of(PlaylistRequest.class, PlaylistBatchRequest.class,
+			PlaylistBlendRequest.class, PlaylistBlendComponentRequest.class, PlaylistResponse.class,
+			PlaylistTrackResponse.class, PlaylistBatchResponse.class, PlaylistBatchItemResponse.class,
+			ErrorResponse.class, SpotifyAccessTokenResponse.class);
+
+	private static final List<Class<?>> ENTITIES = List.of(PlaylistEntity.class, ListenerHistoryEntity.class);
+
+	private static final String JAVADOC_RESOURCES = "io/musicdiscovery/moodplaylist/**/*__Javadoc.json";
+
+	private final BindingReflectionHintsRegistrar bindingHints = new BindingReflectionHintsRegistrar();
+
+	/**
+	 * Registers the hints.
+	 * 
+	 * @param hints       the hints of the native image
+	 * @param classLoader the class loader of the application
+	 */
+	@Override
+	public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+		bindingHints.registerReflectionHints(hints.reflection(), DTOS.toArray(Class<?>[]::new));
+		DTOS.forEach(dto -> hints.reflection().registerType(dto, MemberCategory.DECLARED_FIELDS));
+		ENTITIES.forEach(entity -> hints.reflection().registerType(entity, MemberCategory.DECLARED_FIELDS,
+				MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS));
+		hints.resources().registerPattern(JAVADOC_RESOURCES);
+	}
+}
@@ -0,0 +1,273 @@
+package io.musicdiscovery.moodplaylist.config;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+import org.reactivestreams.Subscription;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.musicdiscovery.moodplaylist.domain.model.enums.Mood;
+import lombok.RequiredArgsConstructor;
+import reactor.core.CoreSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxOperator;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoOperator;
+import reactor.util.context.Context;
+
+/**
+ * Latency instrumentation shared by the ports of the application and their
+ * adapters.
+ * 
+ * <p>
+ * Every port operation is timed by the {@code playlist.port.latency} timer,
+ * tagged with the {@code port} and {@code operation} it belongs to, the
+ * {@code mood} it was called for ({@code none} when the operation is not
+ * specific to a mood) and its {@code outcome}: {@code success}, {@code empty}
+ * for an operation completing without any value, {@code error} or
+ * {@code cancelled}. The timers publish a percentile histogram, so latency
+ * percentiles can be aggregated across instances by the monitoring system.
+ * </p>
+ * 
+ * <p>
+ * The hot path does no registry lookup: each {@link PortTimer} keeps its timers
+ * in an array indexed by mood and outcome, and registers a timer the first time
+ * its combination of tags is recorded.
+ * </p>
+ * 
+ * @see PortTimer
+ */
+@Component
+@RequiredArgsConstructor
+public class PortMetrics {
+
+	/**
+	 * Name of the timer recording the latency of the port operations.
+	 */
+	public static final String LATENCY = "playlist.port.latency";
+
+	private final MeterRegistry meterRegistry;
+
+	@Value("${playlist.metrics.latency.minimum-expected:1ms}")
+	private Duration minimumExpected;
+
+	@Value("${playlist.metrics.latency.maximum-expected:30s}")
+	private Duration maximumExpected;
+
+	/**
+	 * Returns the timer of an operation of a port.
+	 * 
+	 * @param port      the name of the port, e.g. {@code persistence}
+	 * @param operation the name of the operation, e.g. {@code save}
+	 * @return the {@link PortTimer} recording the operation
+	 */
+	public PortTimer timer(String port, String operation) {
+		return new PortTimer(port, operation);
+	}
+
+	/**
+	 * Outcome of a timed operation.
+	 */
+	private enum Outcome {
+		SUCCESS, EMPTY, ERROR, CANCELLED;
+
+		private final String tag = name().toLowerCase();
+	}
+
+	/**
+	 * Records the latency of one operation of a port.
+	 */
+	public final class PortTimer {
+
+		private static final int OUTCOMES = Outcome.values().length;
+
+		@SuppressWarnings("rawtypes")
+		private static final AtomicIntegerFieldUpdater<TimedSubscriber> STOPPED = AtomicIntegerFieldUpdater
+				.newUpdater(TimedSubscriber.class, "stopped");
+
+		private final String port;
+		private final String operation;
+		private final AtomicReferenceArray<Timer> timers;
+		private final Clock clock;
+
+		private PortTimer(String port, String operation) {
+			this.port = port;
+			this.operation = operation;
+			this.timers = new AtomicReferenceArray<>((Mood.values().length + 1) * OUTCOMES);
+			this.clock = meterRegistry.config().clock();
+		}
+
+		/**
+		 * Times a {@link Mono} from subscription until its value, completion, error
+		 * or cancellation.
+		 * 
+		 * @param <T>  the type of the emitted value
+		 * @param mood the mood the operation is called for, or {@code null}
+		 * @param mono the operation
+		 * @return the timed {@link Mono}
+		 */
+		public <T> Mono<T> time(Mood mood, Mono<T> mono) {
+			return new TimedMono<>(mono, mood);
+		}
+
+		/**
+		 * Times a {@link Flux} from subscription until its completion, error or
+		 * cancellation.
+		 * 
+		 * @param <T>  the type of the emitted elements
+		 * @param mood the mood the operation is called for, or {@code null}
+		 * @param flux the operation
+		 * @return the timed {@link Flux}
+		 */
+		public <T> Flux<T> time(Mood mood, Flux<T> flux) {
+			return new TimedFlux<>(flux, mood);
+		}
+
+		/**
+		 * Times a synchronous step of an operation.
+		 * 
+		 * @param <T>  the type of the result
+		 * @param mood the mood the step is executed for, or {@code null}
+		 * @param step the step
+		 * @return the result of the step
+		 */
+		public <T> T record(Mood mood, Supplier<T> step) {
+			long start = clock.monotonicTime();
+			try {
+				T result = step.get();
+				stop(mood, Outcome.SUCCESS, start);
+				return result;
+			} catch (RuntimeException e) {
+				stop(mood, Outcome.ERROR, start);
+				throw e;
+			}
+		}
+
+		private void stop(Mood mood, Outcome outcome, long start) {
+			timerOf(mood, outcome).record(clock.monotonicTime() - start, TimeUnit.NANOSECONDS);
+		}
+
+		private Timer timerOf(Mood mood, Outcome outcome) {
+			int index = (mood == null ? 0 : mood.ordinal() + 1) * OUTCOMES + outcome.ordinal();
+			Timer timer = timers.get(index);
+			if (timer == null) {
+				timer = Timer.builder(LATENCY).tag("port", port).tag("operation", operation)
+						.tag("mood", mood == null ? "none" : mood.name()).tag("outcome", outcome.tag)
+						.description("Latency of the port operations").publishPercentileHistogram()
+						.minimumExpectedValue(minimumExpected).maximumExpectedValue(maximumExpected)
+						.register(meterRegistry);
+				timers.lazySet(index, timer);
+			}
+			return timer;
+		}
+
+		private final class TimedMono<T> extends MonoOperator<T, T> {
+
+			private final Mood mood;
+
+			private TimedMono(Mono<T> source, Mood mood) {
+				super(source);
+				this.mood = mood;
+			}
+
+			@Override
+			public void subscribe(CoreSubscriber<? super T> actual) {
+				source.subscribe(new TimedSubscriber<>(actual, mood, true));
+			}
+		}
+
+		private final class TimedFlux<T> extends FluxOperator<T, T> {
+
+			private final Mood mood;
+
+			private TimedFlux(Flux<T> source, Mood mood) {
+				super(source);
+				this.mood = mood;
+			}
+
+			@Override
+			public void subscribe(CoreSubscriber<? super T> actual) {
+				source.subscribe(new TimedSubscriber<>(actual, mood, false));
+			}
+		}
+
+		/**
+		 * Times a single subscription. A single subscriber relaying every signal
+		 * keeps the overhead to one object per subscription, and only the first
+		 * terminal signal is recorded, so that a cancellation arriving after the
+		 * value of a {@link Mono} is not counted twice.
+		 */
+		private final class TimedSubscriber<T> implements CoreSubscriber<T>, Subscription {
+
+			private final CoreSubscriber<? super T> actual;
+			private final Mood mood;
+			private final boolean single;
+			private final long start = clock.monotonicTime();
+			private Subscription subscription;
+			private boolean emitted;
+			private volatile int stopped;
+
+			private TimedSubscriber(CoreSubscriber<? super T> actual, Mood mood, boolean single) {
+				this.actual = actual;
+				this.mood = mood;
+				this.single = single;
+			}
+
+			@Override
+			public Context currentContext() {
+				return actual.currentContext();
+			}
+
+			@Override
+			public void onSubscribe(Subscription subscription) {
+				this.subscription = subscription;
+				actual.onSubscribe(this);
+			}
+
+			@Override
+			public void onNext(T value) {
+				emitted = true;
+				if (single) {
+					stop(Outcome.SUCCESS);
+				}
+				actual.onNext(value);
+			}
+
+			@Override
+			public void onError(Throwable error) {
+				stop(Outcome.ERROR);
+				actual.onError(error);
+			}
+
+			@Override
+			public void onComplete() {
+				stop(emitted ? Outcome.SUCCESS : Outcome.EMPTY);
+				actual.onComplete();
+			}
+
+			@Override
+			public void request(long n) {
+				subscription.request(n);
+			}
+
+			@Override
+			public void cancel() {
+				stop(Outcome.CANCELLED);
+				subscription.cancel();
+			}
+
+			private void stop(Outcome outcome) {
+				if (STOPPED.compareAndSet(this, 0, 1)) {
+					PortTimer.this.stop(mood, outcome, start);
+				}
+			}
+		}
+	}
+}
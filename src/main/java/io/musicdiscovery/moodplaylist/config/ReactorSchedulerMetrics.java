@@ -0,0 +1,68 @@
+package io.musicdiscovery.moodplaylist.config;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import reactor.core.Scannable;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Publishes the executor metrics of the Reactor schedulers.
+ * 
+ * <p>
+ * Every executor created by a parallel or single {@link Scheduler} is monitored
+ * with {@link ExecutorServiceMetrics}, so the {@code reactor.executor.*} meters
+ * (active, queued and completed tasks, execution and idle time) are published
+ * with the tags {@code scheduler}, the name of the scheduler, and {@code name},
+ * the name of the executor. Bounded elastic workers are not monitored: they are
+ * created and evicted on demand, and each one would leave its own set of meters
+ * behind.
+ * </p>
+ * 
+ * <p>
+ * The decorator only applies to executors created after
+ * {@link #install(MeterRegistry)}, which is therefore called before the
+ * application context starts.
+ * </p>
+ */
+public final class ReactorSchedulerMetrics {
+
+	private static final String DECORATOR_KEY = ReactorSchedulerMetrics.class.getName();
+
+	private ReactorSchedulerMetrics() {
+	}
+
+	/**
+	 * Installs the executor decorator publishing the scheduler metrics.
+	 * 
+	 * @param meterRegistry the registry the metrics are published to
+	 */
+	public static void install(MeterRegistry meterRegistry) {
+		Map<String, AtomicInteger> executors = new ConcurrentHashMap<>();
+		Schedulers.addExecutorServiceDecorator(DECORATOR_KEY, (scheduler, executor) -> {
+			String description = Scannable.from(scheduler).name();
+			if (!description.startsWith("parallel") && !description.startsWith("single")) {
+				return executor;
+			}
+			String name = nameOf(description);
+			int index = executors.computeIfAbsent(name, key -> new AtomicInteger()).getAndIncrement();
+			return ExecutorServiceMetrics.monitor(meterRegistry, executor, name + "-" + index, "reactor",
+					Tags.of("scheduler", name));
+		});
+	}
+
+	/**
+	 * Extracts the scheduler name from its description, e.g. {@code parallel} from
+	 * {@code parallel(4,"parallel")}.
+	 */
+	private static String nameOf(String description) {
+		int start = description.indexOf('"');
+		int end = description.indexOf('"', start + 1);
+		return start < 0 || end < 0 ? description : description.substring(start + 1, end);
+	}
+}
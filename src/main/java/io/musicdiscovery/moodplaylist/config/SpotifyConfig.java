@@ -1,9 +1,19 @@
 package io.musicdiscovery.moodplaylist.config;
 
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import io.musicdiscovery.moodplaylist.infrastructure.adapters.output.client.spotify.SpotifyRateLimiter;
+import io.netty.channel.ChannelOption;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
 /**
  * Configuration class for setting up the {@link WebClient} used to interact
  * with external APIs, such as the Spotify API.
@@ -15,6 +25,15 @@ import org.springframework.web.reactive.function.client.WebClient;
  * </p>
  * 
  * <p>
+ * It also defines the single, long-lived {@link WebClient} used for every call
+ * to Spotify. The client is backed by a dedicated Reactor Netty
+ * {@link ConnectionProvider} whose pool limits, idle eviction and timeouts are
+ * configured through the {@code spotify.http-client.*} properties. The pool
+ * publishes the {@code reactor.netty.connection.provider.*} metrics (active,
+ * idle and pending connections) to the actuator metrics endpoint.
+ * </p>
+ * 
+ * <p>
  * The {@code @Configuration} annotation indicates that this class defines beans
  * that are part of the application's Spring configuration.
  * </p>
@@ -24,6 +43,36 @@ import org.springframework.web.reactive.function.client.WebClient;
 @Configuration
 public class SpotifyConfig {
 
+	@Value("${spotify.api-base-url:https://api.spotify.com}")
+	private String apiBaseUrl;
+
+	@Value("${spotify.http-client.max-connections:100}")
+	private int maxConnections;
+
+	@Value("${spotify.http-client.pending-acquire-max-count:500}")
+	private int pendingAcquireMaxCount;
+
+	@Value("${spotify.http-client.pending-acquire-timeout:2s}")
+	private Duration pendingAcquireTimeout;
+
+	@Value("${spotify.http-client.max-idle-time:30s}")
+	private Duration maxIdleTime;
+
+	@Value("${spotify.http-client.max-life-time:5m}")
+	private Duration maxLifeTime;
+
+	@Value("${spotify.http-client.evict-in-background:30s}")
+	private Duration evictInBackground;
+
+	@Value("${spotify.http-client.connect-timeout:2s}")
+	private Duration connectTimeout;
+
+	@Value("${spotify.http-client.response-timeout:5s}")
+	private Duration responseTimeout;
+
+	@Value("${spotify.http-client.http2-enabled:true}")
+	private boolean http2Enabled;
+
 	/**
 	 * Creates and configures a {@link WebClient.Builder} bean.
 	 * 
@@ -41,4 +90,58 @@ public class SpotifyConfig {
 		return WebClient.builder();
 	}
 
+	/**
+	 * Creates the connection pool dedicated to the Spotify API.
+	 * 
+	 * <p>
+	 * The pool bounds the number of open connections and of callers waiting for
+	 * one, evicts idle and long-lived connections in the background and exposes
+	 * its state through Micrometer. It is disposed when the application context is
+	 * closed.
+	 * </p>
+	 * 
+	 * @return the Spotify {@link ConnectionProvider}
+	 */
+	@Bean(destroyMethod = "dispose")
+	ConnectionProvider spotifyConnectionProvider() {
+		return ConnectionProvider.builder("spotify").maxConnections(maxConnections)
+				.pendingAcquireMaxCount(pendingAcquireMaxCount).pendingAcquireTimeout(pendingAcquireTimeout)
+				.maxIdleTime(maxIdleTime).maxLifeTime(maxLifeTime).evictInBackground(evictInBackground)
+				.metrics(true).build();
+	}
+
+	/**
+	 * Creates the long-lived {@link WebClient} used for all calls to Spotify.
+	 * 
+	 * <p>
+	 * The underlying {@link HttpClient} keeps connections alive, applies the
+	 * configured connect and response timeouts and, when enabled, negotiates
+	 * HTTP/2 through ALPN so concurrent requests are multiplexed over a single
+	 * connection. Servers that do not support HTTP/2 are spoken to over HTTP/1.1.
+	 * </p>
+	 * 
+	 * <p>
+	 * Requests are sent to {@code spotify.api-base-url}, and every request goes
+	 * through the {@link SpotifyRateLimiter}, which keeps the outbound rate within
+	 * the limit Spotify enforces.
+	 * </p>
+	 * 
+	 * @param webClientBuilder          the shared {@link WebClient.Builder}
+	 * @param spotifyConnectionProvider the Spotify connection pool
+	 * @param spotifyRateLimiter        the rate limiter shared by all Spotify calls
+	 * @return the Spotify {@link WebClient}
+	 */
+	@Bean
+	WebClient spotifyWebClient(WebClient.Builder webClientBuilder, ConnectionProvider spotifyConnectionProvider,
+			SpotifyRateLimiter spotifyRateLimiter) {
+		HttpClient httpClient = HttpClient.create(spotifyConnectionProvider).keepAlive(true)
+				.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+				.option(ChannelOption.SO_KEEPALIVE, true).responseTimeout(responseTimeout);
+		if (http2Enabled) {
+			httpClient = httpClient.protocol(HttpProtocol.H2, HttpProtocol.HTTP11);
+		}
+		return webClientBuilder.clone().baseUrl(apiBaseUrl).filter(spotifyRateLimiter)
+				.clientConnector(new ReactorClientHttpConnector(httpClient)).build();
+	}
+
 }
@@ -0,0 +1,34 @@
+package io.musicdiscovery.moodplaylist.domain.exception;
+
+/**
+ * Custom exception thrown when a pagination cursor cannot be interpreted.
+ * 
+ * <p>
+ * This exception extends {@link RuntimeException} and is used to indicate that
+ * the cursor passed to a paginated read does not identify a position in the
+ * stored playlists, for instance because it was not returned by a previous
+ * page.
+ * </p>
+ * 
+ * <p>
+ * The {@code serialVersionUID} is defined to ensure serialization compatibility
+ * across different JVM versions when instances of this exception are
+ * serialized.
+ * </p>
+ * 
+ * @see RuntimeException
+ */
+public class InvalidCursorException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Constructs a new {@code InvalidCursorException} with the specified detail
+	 * message.
+	 * 
+	 * @param message the detail message explaining why the exception was thrown
+	 */
+	public InvalidCursorException(String message) {
+		super(message);
+	}
+}
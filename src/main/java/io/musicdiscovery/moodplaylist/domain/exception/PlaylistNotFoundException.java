@@ -0,0 +1,32 @@
+package io.musicdiscovery.moodplaylist.domain.exception;
+
+/**
+ * Custom exception thrown when a playlist is not found in the system.
+ * 
+ * <p>
+ * This exception extends {@link RuntimeException} and is used to indicate that
+ * no stored playlist matches the requested identifier.
+ * </p>
+ * 
+ * <p>
+ * The {@code serialVersionUID} is defined to ensure serialization compatibility
+ * across different JVM versions when instances of this exception are
+ * serialized.
+ * </p>
+ * 
+ * @see RuntimeException
+ */
+public class PlaylistNotFoundException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Constructs a new {@code PlaylistNotFoundException} with the specified detail
+	 * message.
+	 * 
+	 * @param message the detail message explaining why the exception was thrown
+	 */
+	public PlaylistNotFoundException(String message) {
+		super(message);
+	}
+}
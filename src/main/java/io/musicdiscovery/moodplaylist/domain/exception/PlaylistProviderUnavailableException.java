@@ -0,0 +1,34 @@
+package io.musicdiscovery.moodplaylist.domain.exception;
+
+/**
+ * Custom exception thrown when the playlist provider cannot serve a playlist.
+ * 
+ * <p>
+ * This exception extends {@link RuntimeException} and is used to indicate that
+ * the external music service is failing or deliberately not being called, and
+ * that no previously generated playlist is available to serve instead.
+ * </p>
+ * 
+ * <p>
+ * The {@code serialVersionUID} is defined to ensure serialization compatibility
+ * across different JVM versions when instances of this exception are
+ * serialized.
+ * </p>
+ * 
+ * @see RuntimeException
+ */
+public class PlaylistProviderUnavailableException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Constructs a new {@code PlaylistProviderUnavailableException} with the
+	 * specified detail message and cause.
+	 * 
+	 * @param message the detail message explaining why the exception was thrown
+	 * @param cause   the failure of the playlist provider
+	 */
+	public PlaylistProviderUnavailableException(String message, Throwable cause) {
+		super(message, cause);
+	}
+}
@@ -0,0 +1,35 @@
+package io.musicdiscovery.moodplaylist.domain.model;
+
+import io.musicdiscovery.moodplaylist.domain.model.enums.Mood;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Represents one track of a blended playlist and the mood it was drawn for.
+ * 
+ * <p>
+ * The class uses Lombok annotations for generating boilerplate code such as
+ * getters, setters, constructors, and no-argument constructors.
+ * </p>
+ * 
+ * @see MoodWeight
+ * @see Mood
+ */
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BlendedTrack {
+
+	/**
+	 * The component mood the track was drawn for.
+	 */
+	private Mood mood;
+
+	/**
+	 * The URI of the track.
+	 */
+	private String trackUri;
+}
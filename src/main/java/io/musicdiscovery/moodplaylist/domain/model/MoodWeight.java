@@ -0,0 +1,41 @@
+package io.musicdiscovery.moodplaylist.domain.model;
+
+import io.musicdiscovery.moodplaylist.domain.model.enums.Mood;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Represents one component of a blended playlist: a mood and its weight.
+ * 
+ * <p>
+ * Weights are relative: a blend of {@code HAPPY} with weight 70 and
+ * {@code EXERCISE} with weight 30 draws seven tracks out of ten from the
+ * happy playlist and three from the exercise one.
+ * </p>
+ * 
+ * <p>
+ * The class uses Lombok annotations for generating boilerplate code such as
+ * getters, setters, constructors, and no-argument constructors.
+ * </p>
+ * 
+ * @see BlendedTrack
+ * @see Mood
+ */
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class MoodWeight {
+
+	/**
+	 * The mood of the component.
+	 */
+	private Mood mood;
+
+	/**
+	 * The weight of the component, relative to the others.
+	 */
+	private int weight;
+}
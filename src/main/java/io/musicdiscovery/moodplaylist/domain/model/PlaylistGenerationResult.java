@@ -0,0 +1,72 @@
+package io.musicdiscovery.moodplaylist.domain.model;
+
+import io.musicdiscovery.moodplaylist.domain.model.enums.Mood;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Represents the outcome of generating the playlist for one mood of a batch.
+ * 
+ * <p>
+ * A batch reports its results per item, so a failure for one mood does not fail
+ * the whole batch. A successful result carries the generated {@link Playlist};
+ * a failed one carries the error message instead.
+ * </p>
+ * 
+ * <p>
+ * The class uses Lombok annotations for generating boilerplate code such as
+ * getters, setters, constructors, and no-argument constructors.
+ * </p>
+ * 
+ * @see Playlist
+ * @see Mood
+ */
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class PlaylistGenerationResult {
+
+	/**
+	 * The mood the playlist was requested for.
+	 */
+	private Mood mood;
+
+	/**
+	 * Whether the playlist was generated and persisted.
+	 */
+	private boolean successful;
+
+	/**
+	 * The generated playlist, or {@code null} if the generation failed.
+	 */
+	private Playlist playlist;
+
+	/**
+	 * The reason of the failure, or {@code null} if the generation succeeded.
+	 */
+	private String error;
+
+	/**
+	 * Creates a successful result for the given playlist.
+	 * 
+	 * @param playlist the generated playlist
+	 * @return the successful {@link PlaylistGenerationResult}
+	 */
+	public static PlaylistGenerationResult success(Playlist playlist) {
+		return new PlaylistGenerationResult(playlist.getMood(), true, playlist, null);
+	}
+
+	/**
+	 * Creates a failed result for the given mood.
+	 * 
+	 * @param mood  the mood the playlist was requested for
+	 * @param error the reason of the failure
+	 * @return the failed {@link PlaylistGenerationResult}
+	 */
+	public static PlaylistGenerationResult failure(Mood mood, String error) {
+		return new PlaylistGenerationResult(mood, false, null, error);
+	}
+}
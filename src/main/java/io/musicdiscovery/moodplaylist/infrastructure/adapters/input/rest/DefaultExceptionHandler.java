@@ -6,7 +6,10 @@ import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.server.ServerWebInputException;
 
+import io.musicdiscovery.moodplaylist.domain.exception.InvalidCursorException;
 import io.musicdiscovery.moodplaylist.domain.exception.MoodNotFoundException;
+import io.musicdiscovery.moodplaylist.domain.exception.PlaylistNotFoundException;
+import io.musicdiscovery.moodplaylist.domain.exception.PlaylistProviderUnavailableException;
 import reactor.core.publisher.Mono;
 
 import java.util.HashMap;
@@ -62,4 +65,50 @@ public class DefaultExceptionHandler {
 
         return Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse));
     }
+
+    /**
+     * Handles playlist not found exceptions and returns a JSON formatted error response.
+     *
+     * @param ex the {@link PlaylistNotFoundException}
+     * @return a {@link Mono} containing the formatted error response
+     */
+    @ExceptionHandler(PlaylistNotFoundException.class)
+    public Mono<ResponseEntity<Map<String, Object>>> handlePlaylistNotFoundException(PlaylistNotFoundException ex) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("status", HttpStatus.NOT_FOUND.value());
+        errorResponse.put("message", ex.getMessage());
+
+        return Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse));
+    }
+
+    /**
+     * Handles invalid pagination cursors and returns a JSON formatted error response.
+     *
+     * @param ex the {@link InvalidCursorException}
+     * @return a {@link Mono} containing the formatted error response
+     */
+    @ExceptionHandler(InvalidCursorException.class)
+    public Mono<ResponseEntity<Map<String, Object>>> handleInvalidCursorException(InvalidCursorException ex) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("status", HttpStatus.BAD_REQUEST.value());
+        errorResponse.put("message", ex.getMessage());
+
+        return Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse));
+    }
+
+    /**
+     * Handles an unavailable playlist provider and returns a JSON formatted error response.
+     *
+     * @param ex the {@link PlaylistProviderUnavailableException}
+     * @return a {@link Mono} containing the formatted error response
+     */
+    @ExceptionHandler(PlaylistProviderUnavailableException.class)
+    public Mono<ResponseEntity<Map<String, Object>>> handlePlaylistProviderUnavailableException(
+            PlaylistProviderUnavailableException ex) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        errorResponse.put("message", ex.getMessage());
+
+        return Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(errorResponse));
+    }
 }
\ No newline at end of file
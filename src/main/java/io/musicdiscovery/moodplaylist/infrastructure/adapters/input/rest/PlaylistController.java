@@ -1,14 +1,23 @@
 package io.musicdiscovery.moodplaylist.infrastructure.adapters.input.rest;
 
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import io.musicdiscovery.moodplaylist.application.port.input.PlaylistServicePort;
 import io.musicdiscovery.moodplaylist.domain.model.enums.Mood;
 import io.musicdiscovery.moodplaylist.infrastructure.adapters.input.rest.mapper.PlaylistRestMapper;
+import io.musicdiscovery.moodplaylist.infrastructure.adapters.input.rest.model.request.PlaylistBatchRequest;
+import io.musicdiscovery.moodplaylist.infrastructure.adapters.input.rest.model.request.PlaylistBlendRequest;
+import io.musicdiscovery.moodplaylist.infrastructure.adapters.input.rest.model.response.PlaylistBatchResponse;
 import io.musicdiscovery.moodplaylist.infrastructure.adapters.input.rest.model.response.PlaylistResponse;
+import io.musicdiscovery.moodplaylist.infrastructure.adapters.input.rest.model.response.PlaylistTrackResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
@@ -16,7 +25,9 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
@@ -46,6 +57,11 @@ import reactor.core.publisher.Mono;
 @Tag(name = "Playlists API", description = "Operations related to managing music playlists")
 public class PlaylistController {
 
+	/**
+	 * Header identifying the listener a playlist is generated for.
+	 */
+	public static final String LISTENER_HEADER = "X-Listener-Id";
+
 	private final PlaylistServicePort playlistServicePort;
 	private final PlaylistRestMapper playlistRestMapper;
 
@@ -59,14 +75,23 @@ public class PlaylistController {
 	 * </p>
 	 * 
 	 * <p>
+	 * The number of tracks is given by the optional {@code length} parameter,
+	 * {@code playlist.length.default} when absent and at most
+	 * {@code playlist.length.max}. The optional {@value #LISTENER_HEADER} header
+	 * identifies the listener, whose already heard tracks are then avoided.
+	 * </p>
+	 * 
+	 * <p>
 	 * Swagger annotations are used to describe the API, including response codes
 	 * and examples of successful and error responses.
 	 * </p>
 	 * 
-	 * @param mood the user's mood used to generate the playlist
+	 * @param mood       the user's mood used to generate the playlist
+	 * @param length     the number of tracks requested
+	 * @param listenerId the identifier of the listener, or {@code null}
 	 * @return a {@link Mono} emitting the generated {@link PlaylistResponse}
 	 */
-	@Operation(summary = "Generate a playlist based on the user's mood", description = "Generates a playlist using Spotify's recommendations based on the specified mood.")
+	@Operation(summary = "Generate a playlist based on the user's mood", description = "Generates a playlist using Spotify's recommendations based on the specified mood. The optional 'length' parameter sets the number of tracks and the optional 'X-Listener-Id' header avoids the tracks already served to the listener.")
 	@ApiResponses(value = {
 			@ApiResponse(responseCode = "200", description = "Playlist successfully generated", content = @Content(mediaType = "application/json", schema = @Schema(implementation = PlaylistResponse.class), examples = @ExampleObject(value = "{\r\n"
 					+ "    \"id\": \"66f6c16114bc0440df633f97\",\r\n" + "    \"mood\": \"relaxed\",\r\n"
@@ -79,8 +104,182 @@ public class PlaylistController {
 					+ "    \"message\": \"Invalid request input: Failed to read HTTP message\",\r\n"
 					+ "    \"status\": 400\r\n" + "}"))) })
 	@GetMapping(path = "${playlist.generate-playlist-by-mood}")
-	public Mono<PlaylistResponse> generatePlaylistByMood(@PathVariable("mood") Mood mood) {
-		return playlistServicePort.generatePlaylist(mood).map(playlistRestMapper::toPlaylistResponse);
+	public Mono<PlaylistResponse> generatePlaylistByMood(@PathVariable("mood") Mood mood,
+			@RequestParam(name = "length", defaultValue = "${playlist.length.default:10}") int length,
+			@RequestHeader(name = LISTENER_HEADER, required = false) String listenerId) {
+		return playlistServicePort.generatePlaylist(mood, length, listenerId).map(playlistRestMapper::toPlaylistResponse);
+	}
+
+	/**
+	 * Streams the tracks of a playlist generated based on the user's mood.
+	 * 
+	 * <p>
+	 * Tracks are emitted one by one, as newline-delimited JSON or Server-Sent
+	 * Events depending on the {@code Accept} header, as soon as they are
+	 * available. The playlist is persisted in the background once all of its
+	 * tracks have been sent, so its identifier is not part of the stream.
+	 * </p>
+	 * 
+	 * @param mood       the user's mood used to generate the playlist
+	 * @param length     the number of tracks requested
+	 * @param listenerId the identifier of the listener, or {@code null}
+	 * @return a {@link Flux} emitting one {@link PlaylistTrackResponse} per track
+	 */
+	@Operation(summary = "Stream a playlist based on the user's mood", description = "Streams the tracks of a playlist generated for the specified mood as soon as they are available. The optional 'length' parameter sets the number of tracks and the optional 'X-Listener-Id' header avoids the tracks already served to the listener.")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "Playlist tracks streamed", content = {
+					@Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = PlaylistTrackResponse.class), examples = @ExampleObject(value = "{\"mood\":\"HAPPY\",\"position\":0,\"trackUri\":\"spotify:track:6rqhFgbbKwnb9MLmUQDhG6\"}\n"
+							+ "{\"mood\":\"HAPPY\",\"position\":1,\"trackUri\":\"spotify:track:1hKdDCpiI9mqz1jVHRKG0E\"}")),
+					@Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE, schema = @Schema(implementation = PlaylistTrackResponse.class)) }),
+			@ApiResponse(responseCode = "400", description = "Invalid input", content = @Content(mediaType = "application/json", examples = @ExampleObject(value = "{\r\n"
+					+ "    \"message\": \"Invalid request input: Failed to read HTTP message\",\r\n"
+					+ "    \"status\": 400\r\n" + "}"))) })
+	@GetMapping(path = "${playlist.stream-playlist-by-mood}", produces = { MediaType.APPLICATION_NDJSON_VALUE,
+			MediaType.TEXT_EVENT_STREAM_VALUE })
+	public Flux<PlaylistTrackResponse> streamPlaylistByMood(@PathVariable("mood") Mood mood,
+			@RequestParam(name = "length", defaultValue = "${playlist.length.default:10}") int length,
+			@RequestHeader(name = LISTENER_HEADER, required = false) String listenerId) {
+		return playlistServicePort.streamPlaylist(mood, length, listenerId).index()
+				.map(track -> playlistRestMapper.toPlaylistTrackResponse(mood, track.getT1(), track.getT2()));
+	}
+
+	/**
+	 * Generates one playlist for each of the requested moods in a single call.
+	 * 
+	 * <p>
+	 * The playlists are generated concurrently, with a configurable cap on the
+	 * number of concurrent generations, and persisted with a single bulk write.
+	 * The response reports the outcome of each mood separately, so one failing
+	 * mood does not fail the whole batch.
+	 * </p>
+	 * 
+	 * @param request the moods to generate playlists for
+	 * @return a {@link Mono} emitting the {@link PlaylistBatchResponse}
+	 */
+	@Operation(summary = "Generate playlists for several moods", description = "Generates one playlist per requested mood and reports the outcome of each one separately.")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "Batch processed, see each item for its outcome", content = @Content(mediaType = "application/json", schema = @Schema(implementation = PlaylistBatchResponse.class), examples = @ExampleObject(value = "{\r\n"
+					+ "    \"items\": [\r\n" + "        {\r\n" + "            \"mood\": \"HAPPY\",\r\n"
+					+ "            \"successful\": true,\r\n" + "            \"playlist\": {\r\n"
+					+ "                \"id\": \"66f6c16114bc0440df633f97\",\r\n"
+					+ "                \"mood\": \"HAPPY\",\r\n"
+					+ "                \"trackUris\": [\"spotify:track:6rqhFgbbKwnb9MLmUQDhG6\"]\r\n"
+					+ "            }\r\n" + "        },\r\n" + "        {\r\n"
+					+ "            \"mood\": \"SAD\",\r\n" + "            \"successful\": false,\r\n"
+					+ "            \"error\": \"503 Service Unavailable from GET https://api.spotify.com/v1/search\"\r\n"
+					+ "        }\r\n" + "    ]\r\n" + "}"))),
+			@ApiResponse(responseCode = "400", description = "Invalid input", content = @Content(mediaType = "application/json", examples = @ExampleObject(value = "{\r\n"
+					+ "    \"message\": \"Invalid request input: Validation failure\",\r\n"
+					+ "    \"status\": 400\r\n" + "}"))) })
+	@PostMapping(path = "${playlist.generate-playlists-batch}")
+	public Mono<PlaylistBatchResponse> generatePlaylistsBatch(@Valid @RequestBody PlaylistBatchRequest request) {
+		return playlistServicePort.generatePlaylists(request.getMoods())
+				.map(playlistRestMapper::toPlaylistBatchItemResponse).collectList()
+				.map(items -> PlaylistBatchResponse.builder().items(items).build());
+	}
+
+	/**
+	 * Streams a playlist blending the playlists of several moods.
+	 * 
+	 * <p>
+	 * Each track is drawn for one of the requested moods, in proportion to their
+	 * weights, and carries that mood. Tracks are emitted as soon as they are
+	 * available, as newline-delimited JSON, Server-Sent Events or a JSON array
+	 * depending on the {@code Accept} header. The number of tracks is given by
+	 * the optional {@code length} parameter. Blended playlists are not
+	 * persisted.
+	 * </p>
+	 * 
+	 * @param request the moods to blend and their weights
+	 * @param length  the number of tracks requested
+	 * @return a {@link Flux} emitting one {@link PlaylistTrackResponse} per track
+	 */
+	@Operation(summary = "Blend the playlists of several moods", description = "Streams a playlist whose tracks are drawn for the requested moods in proportion to their weights, without duplicates. The optional 'length' parameter sets the number of tracks.")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "Blended playlist tracks streamed", content = {
+					@Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = PlaylistTrackResponse.class), examples = @ExampleObject(value = "{\"mood\":\"HAPPY\",\"position\":0,\"trackUri\":\"spotify:track:6rqhFgbbKwnb9MLmUQDhG6\"}\n"
+							+ "{\"mood\":\"EXERCISE\",\"position\":1,\"trackUri\":\"spotify:track:1hKdDCpiI9mqz1jVHRKG0E\"}")),
+					@Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE, schema = @Schema(implementation = PlaylistTrackResponse.class)),
+					@Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = PlaylistTrackResponse.class)) }),
+			@ApiResponse(responseCode = "400", description = "Invalid input", content = @Content(mediaType = "application/json", examples = @ExampleObject(value = "{\r\n"
+					+ "    \"message\": \"Invalid request input: Validation failure\",\r\n"
+					+ "    \"status\": 400\r\n" + "}"))) })
+	@PostMapping(path = "${playlist.blend-playlist}", produces = { MediaType.APPLICATION_NDJSON_VALUE,
+			MediaType.TEXT_EVENT_STREAM_VALUE, MediaType.APPLICATION_JSON_VALUE })
+	public Flux<PlaylistTrackResponse> blendPlaylist(@Valid @RequestBody PlaylistBlendRequest request,
+			@RequestParam(name = "length", defaultValue = "${playlist.length.default:10}") int length) {
+		return playlistServicePort.blendPlaylist(playlistRestMapper.toMoodWeights(request.getComponents()), length)
+				.index().map(track -> playlistRestMapper.toPlaylistTrackResponse(track.getT2(), track.getT1()));
+	}
+
+	/**
+	 * Retrieves a previously generated playlist by its identifier.
+	 * 
+	 * @param id the identifier of the playlist
+	 * @return a {@link Mono} emitting the stored {@link PlaylistResponse}
+	 */
+	@Operation(summary = "Get a playlist by its identifier", description = "Retrieves a previously generated playlist.")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "Playlist found", content = @Content(mediaType = "application/json", schema = @Schema(implementation = PlaylistResponse.class), examples = @ExampleObject(value = "{\r\n"
+					+ "    \"id\": \"66f6c16114bc0440df633f97\",\r\n" + "    \"mood\": \"HAPPY\",\r\n"
+					+ "    \"trackUris\": [\r\n" + "        \"spotify:track:6rqhFgbbKwnb9MLmUQDhG6\",\r\n"
+					+ "        \"spotify:track:1hKdDCpiI9mqz1jVHRKG0E\"\r\n" + "    ]\r\n" + "}"))),
+			@ApiResponse(responseCode = "404", description = "Playlist not found", content = @Content(mediaType = "application/json", examples = @ExampleObject(value = "{\r\n"
+					+ "    \"message\": \"Playlist not found: 66f6c16114bc0440df633f97\",\r\n"
+					+ "    \"status\": 404\r\n" + "}"))) })
+	@GetMapping(path = "${playlist.find-playlist-by-id}")
+	public Mono<PlaylistResponse> findPlaylistById(@PathVariable("id") String id) {
+		return playlistServicePort.getPlaylist(id).map(playlistRestMapper::toPlaylistResponse);
+	}
+
+	/**
+	 * Streams one page of the playlists previously generated for a mood, most
+	 * recently generated first.
+	 * 
+	 * <p>
+	 * Pages are addressed with a cursor: to get the next page, pass the
+	 * identifier of the last playlist received as the {@code after} parameter.
+	 * A page shorter than {@code limit} is the last one.
+	 * </p>
+	 * 
+	 * @param mood  the mood of the playlists
+	 * @param after the identifier of the last playlist of the previous page, or
+	 *              {@code null} for the first page
+	 * @param limit the maximum number of playlists in the page
+	 * @return a {@link Flux} emitting the playlists of the page
+	 */
+	@Operation(summary = "Get the playlists generated for a mood", description = "Streams one page of the playlists generated for the specified mood, most recently generated first. Pass the id of the last playlist received as 'after' to get the next page.")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "Page of playlists streamed", content = {
+					@Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = PlaylistResponse.class), examples = @ExampleObject(value = "{\"id\":\"66f6c16114bc0440df633f97\",\"mood\":\"HAPPY\",\"trackUris\":[\"spotify:track:6rqhFgbbKwnb9MLmUQDhG6\"]}\n"
+							+ "{\"id\":\"66f6c0d814bc0440df633f95\",\"mood\":\"HAPPY\",\"trackUris\":[\"spotify:track:1hKdDCpiI9mqz1jVHRKG0E\"]}")),
+					@Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = PlaylistResponse.class)) }),
+			@ApiResponse(responseCode = "400", description = "Invalid cursor", content = @Content(mediaType = "application/json", examples = @ExampleObject(value = "{\r\n"
+					+ "    \"message\": \"Invalid cursor: abc\",\r\n" + "    \"status\": 400\r\n" + "}"))) })
+	@GetMapping(path = "${playlist.find-playlists-by-mood}", produces = { MediaType.APPLICATION_NDJSON_VALUE,
+			MediaType.APPLICATION_JSON_VALUE })
+	public Flux<PlaylistResponse> findPlaylistsByMood(@PathVariable("mood") Mood mood,
+			@RequestParam(name = "after", required = false) String after,
+			@RequestParam(name = "limit", defaultValue = "${playlist.read.default-page-size:20}") int limit) {
+		return playlistServicePort.getPlaylistHistory(mood, after, limit).map(playlistRestMapper::toPlaylistResponse);
+	}
+
+	/**
+	 * Streams the latest playlists generated for every mood.
+	 * 
+	 * @param limit the maximum number of playlists per mood
+	 * @return a {@link Flux} emitting the latest playlists, mood by mood
+	 */
+	@Operation(summary = "Get the latest playlists of every mood", description = "Streams the most recent playlists generated for each mood, mood by mood.")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "Latest playlists streamed", content = {
+					@Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = PlaylistResponse.class)),
+					@Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = PlaylistResponse.class)) }) })
+	@GetMapping(path = "${playlist.find-latest-playlists}", produces = { MediaType.APPLICATION_NDJSON_VALUE,
+			MediaType.APPLICATION_JSON_VALUE })
+	public Flux<PlaylistResponse> findLatestPlaylists(
+			@RequestParam(name = "limit", defaultValue = "${playlist.read.latest-per-mood:5}") int limit) {
+		return playlistServicePort.getLatestPlaylists(limit).map(playlistRestMapper::toPlaylistResponse);
 	}
 
 }
\ No newline at end of file
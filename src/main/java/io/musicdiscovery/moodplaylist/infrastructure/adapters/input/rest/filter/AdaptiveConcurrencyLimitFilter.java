@@ -0,0 +1,217 @@
+package io.musicdiscovery.moodplaylist.infrastructure.adapters.input.rest.filter;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Limits the number of playlist requests processed concurrently, adapting the
+ * limit to the measured latency, and sheds the excess.
+ * 
+ * <p>
+ * The limit follows a gradient algorithm: the latency of each completed
+ * request feeds a short-term and a long-term exponentially weighted average.
+ * While the short-term latency stays close to the long-term one the limit
+ * grows by roughly its square root per update; once requests start queueing
+ * and the short-term latency rises, the limit shrinks in proportion, down to
+ * {@code playlist.concurrency-limit.min-limit}. The limit only grows while at
+ * least half of it is in use, so an idle service does not inflate it.
+ * </p>
+ * 
+ * <p>
+ * Requests beyond the limit are rejected right away with {@code 503} and a
+ * {@code Retry-After} header, instead of queueing and slowing down everyone.
+ * Requests are shed by priority: generation requests, which call Spotify, may
+ * only use {@code generation-share} of the limit, while cheap reads of stored
+ * playlists may use all of it. Only the {@code /playlists} routes are limited,
+ * so health checks and other actuator endpoints are never shed.
+ * </p>
+ * 
+ * <p>
+ * The gauges {@code playlist.concurrency.limit} and
+ * {@code playlist.concurrency.in.flight} and the counter
+ * {@code playlist.concurrency.rejected}, tagged with the {@code priority} of
+ * the rejected requests, are published.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+public class AdaptiveConcurrencyLimitFilter implements WebFilter, Ordered {
+
+	/**
+	 * Order of this filter, after the {@link ClientQuotaFilter} so that a noisy
+	 * client is turned away before it takes a share of the limit.
+	 */
+	public static final int ORDER = ClientQuotaFilter.ORDER + 10;
+
+	private static final String PLAYLISTS_PATH = "/playlists";
+
+	private final MeterRegistry meterRegistry;
+
+	@Value("${playlist.concurrency-limit.enabled:true}")
+	private boolean enabled;
+
+	@Value("${playlist.concurrency-limit.initial-limit:20}")
+	private double initialLimit;
+
+	@Value("${playlist.concurrency-limit.min-limit:5}")
+	private double minLimit;
+
+	@Value("${playlist.concurrency-limit.max-limit:200}")
+	private double maxLimit;
+
+	@Value("${playlist.concurrency-limit.smoothing:0.2}")
+	private double smoothing;
+
+	@Value("${playlist.concurrency-limit.rtt-tolerance:1.5}")
+	private double rttTolerance;
+
+	@Value("${playlist.concurrency-limit.short-window:10}")
+	private int shortWindow;
+
+	@Value("${playlist.concurrency-limit.long-window:600}")
+	private int longWindow;
+
+	@Value("${playlist.concurrency-limit.generation-share:0.8}")
+	private double generationShare;
+
+	@Value("${playlist.concurrency-limit.retry-after:1s}")
+	private Duration retryAfter;
+
+	@Value("${playlist.find-playlist-by-id}")
+	private String findPlaylistByIdPath;
+
+	@Value("${playlist.find-playlists-by-mood}")
+	private String findPlaylistsByMoodPath;
+
+	@Value("${playlist.find-latest-playlists}")
+	private String findLatestPlaylistsPath;
+
+	private final AtomicInteger inFlight = new AtomicInteger();
+
+	private volatile double limit;
+	private double shortRtt;
+	private double longRtt;
+
+	private List<PathPattern> readPatterns;
+	private Counter readRejected;
+	private Counter generationRejected;
+
+	/**
+	 * Parses the read routes and registers the limiter metrics.
+	 */
+	@PostConstruct
+	void init() {
+		limit = initialLimit;
+		PathPatternParser parser = PathPatternParser.defaultInstance;
+		readPatterns = List.of(parser.parse(PLAYLISTS_PATH + "/" + findPlaylistByIdPath),
+				parser.parse(PLAYLISTS_PATH + "/" + findPlaylistsByMoodPath),
+				parser.parse(PLAYLISTS_PATH + "/" + findLatestPlaylistsPath));
+		Gauge.builder("playlist.concurrency.limit", this, filter -> filter.limit)
+				.description("Adaptive limit of concurrent playlist requests").register(meterRegistry);
+		Gauge.builder("playlist.concurrency.in.flight", inFlight, AtomicInteger::get)
+				.description("Playlist requests being processed").register(meterRegistry);
+		readRejected = Counter.builder("playlist.concurrency.rejected").tag("priority", "read")
+				.description("Playlist requests shed by the concurrency limit").register(meterRegistry);
+		generationRejected = Counter.builder("playlist.concurrency.rejected").tag("priority", "generation")
+				.description("Playlist requests shed by the concurrency limit").register(meterRegistry);
+	}
+
+	@Override
+	public int getOrder() {
+		return ORDER;
+	}
+
+	/**
+	 * Admits the request if the limit of its priority allows it, measuring its
+	 * latency once it completes; rejects it otherwise.
+	 * 
+	 * @param exchange the current exchange
+	 * @param chain    the rest of the filter chain
+	 * @return a {@link Mono} completing once the request is processed or rejected
+	 */
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+		PathContainer path = exchange.getRequest().getPath().pathWithinApplication();
+		if (!enabled || !path.value().startsWith(PLAYLISTS_PATH)) {
+			return chain.filter(exchange);
+		}
+		boolean read = isRead(exchange.getRequest().getMethod(), path);
+		double allowed = read ? limit : limit * generationShare;
+		int current = inFlight.incrementAndGet();
+		if (current > allowed) {
+			inFlight.decrementAndGet();
+			(read ? readRejected : generationRejected).increment();
+			return FilterResponses.reject(exchange, HttpStatus.SERVICE_UNAVAILABLE, retryAfter,
+					"Service overloaded, retry later");
+		}
+		long start = System.nanoTime();
+		return chain.filter(exchange).doFinally(signal -> {
+			inFlight.decrementAndGet();
+			if (signal != SignalType.CANCEL) {
+				onSample(System.nanoTime() - start, current);
+			}
+		});
+	}
+
+	private boolean isRead(HttpMethod method, PathContainer path) {
+		if (!HttpMethod.GET.equals(method)) {
+			return false;
+		}
+		for (PathPattern pattern : readPatterns) {
+			if (pattern.matches(path)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Updates the limit from the latency of a completed request.
+	 * 
+	 * @param rttNanos        the latency of the request
+	 * @param inFlightAtStart the number of requests in flight when it was
+	 *                        admitted
+	 */
+	private synchronized void onSample(long rttNanos, int inFlightAtStart) {
+		double rtt = rttNanos;
+		if (longRtt == 0) {
+			shortRtt = rtt;
+			longRtt = rtt;
+			return;
+		}
+		shortRtt += (rtt - shortRtt) * 2 / (shortWindow + 1);
+		longRtt += (rtt - longRtt) * 2 / (longWindow + 1);
+		if (longRtt / shortRtt > 2) {
+			// Latency dropped well below the baseline, let the baseline catch up
+			longRtt *= 0.95;
+		}
+		if (inFlightAtStart < limit / 2) {
+			return;
+		}
+		double gradient = Math.max(0.5, Math.min(1.0, rttTolerance * longRtt / shortRtt));
+		double newLimit = limit * gradient + Math.sqrt(limit);
+		newLimit = limit * (1 - smoothing) + newLimit * smoothing;
+		limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+	}
+}
@@ -0,0 +1,223 @@
+package io.musicdiscovery.moodplaylist.infrastructure.adapters.input.rest.filter;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+/**
+ * Enforces a request quota per client on the playlist routes.
+ * 
+ * <p>
+ * Quotas are disabled unless {@code playlist.quota.enabled} is set. Clients are
+ * identified by the {@code playlist.quota.client-header} request header.
+ * Requests without it are handled according to {@code playlist.quota.anonymous}:
+ * {@code exempt} (the default) admits them without a quota,
+ * {@code remote-address} gives each remote address its own quota, and
+ * {@code shared} makes all of them share the quota of a single
+ * {@code anonymous} client. Each client may send {@code playlist.quota.rate}
+ * requests per second on average, with bursts of up to
+ * {@code playlist.quota.burst} requests.
+ * Requests over quota are rejected with {@code 429 Too Many Requests} and a
+ * {@code Retry-After} header telling when the next one will be accepted.
+ * </p>
+ * 
+ * <p>
+ * Quotas are enforced with the generic cell rate algorithm (GCRA), which
+ * reduces a token bucket to a single theoretical arrival time per client. It
+ * is kept in an {@link AtomicLong} and updated with compare-and-set, so
+ * admitting a request never takes a lock. The buckets live in a bounded cache
+ * and are evicted once a client has been idle for
+ * {@code playlist.quota.idle-eviction}; an evicted client simply starts again
+ * with a full burst.
+ * </p>
+ * 
+ * <p>
+ * The counter {@code playlist.quota.rejected}, tagged with the {@code client}
+ * (the first {@code max-tagged-clients} clients seen, {@code other} beyond, and
+ * {@code anonymous} for every unidentified client), and the gauge
+ * {@code playlist.quota.clients} are published.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+public class ClientQuotaFilter implements WebFilter, Ordered {
+
+	/**
+	 * Order of this filter, ahead of the {@link AdaptiveConcurrencyLimitFilter}.
+	 */
+	public static final int ORDER = Ordered.HIGHEST_PRECEDENCE + 10;
+
+	private static final String PLAYLISTS_PATH = "/playlists";
+	private static final String ANONYMOUS = "anonymous";
+	private static final String OTHER = "other";
+
+	private final MeterRegistry meterRegistry;
+
+	@Value("${playlist.quota.enabled:false}")
+	private boolean enabled;
+
+	@Value("${playlist.quota.anonymous:exempt}")
+	private String anonymous;
+
+	@Value("${playlist.quota.client-header:X-Client-Id}")
+	private String clientHeader;
+
+	@Value("${playlist.quota.rate:20}")
+	private double rate;
+
+	@Value("${playlist.quota.burst:40}")
+	private int burst;
+
+	@Value("${playlist.quota.idle-eviction:10m}")
+	private Duration idleEviction;
+
+	@Value("${playlist.quota.max-clients:10000}")
+	private long maxClients;
+
+	@Value("${playlist.quota.max-tagged-clients:100}")
+	private int maxTaggedClients;
+
+	private AnonymousPolicy anonymousPolicy;
+	private long emissionIntervalNanos;
+	private long burstToleranceNanos;
+	private Cache<String, AtomicLong> buckets;
+	private final Set<String> taggedClients = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Creates the bucket cache and registers the quota metrics.
+	 */
+	@PostConstruct
+	void init() {
+		anonymousPolicy = AnonymousPolicy.of(anonymous);
+		emissionIntervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+		burstToleranceNanos = emissionIntervalNanos * burst;
+		buckets = Caffeine.newBuilder().expireAfterAccess(idleEviction).maximumSize(maxClients).build();
+		Gauge.builder("playlist.quota.clients", buckets, Cache::estimatedSize)
+				.description("Clients with an active quota bucket").register(meterRegistry);
+	}
+
+	@Override
+	public int getOrder() {
+		return ORDER;
+	}
+
+	/**
+	 * Admits the request if its client is within quota; rejects it otherwise.
+	 * 
+	 * @param exchange the current exchange
+	 * @param chain    the rest of the filter chain
+	 * @return a {@link Mono} completing once the request is processed or rejected
+	 */
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+		if (!enabled || !exchange.getRequest().getPath().pathWithinApplication().value().startsWith(PLAYLISTS_PATH)) {
+			return chain.filter(exchange);
+		}
+		String client = exchange.getRequest().getHeaders().getFirst(clientHeader);
+		boolean identified = client != null && !client.isBlank();
+		if (!identified) {
+			if (anonymousPolicy == AnonymousPolicy.EXEMPT) {
+				return chain.filter(exchange);
+			}
+			client = anonymousPolicy == AnonymousPolicy.REMOTE_ADDRESS ? remoteAddressOf(exchange) : ANONYMOUS;
+		}
+		long waitNanos = tryAcquire(buckets.get(client, key -> new AtomicLong(Long.MIN_VALUE)));
+		if (waitNanos > 0) {
+			rejectedCounter(identified ? tagOf(client) : ANONYMOUS).increment();
+			return FilterResponses.reject(exchange, HttpStatus.TOO_MANY_REQUESTS, Duration.ofNanos(waitNanos),
+					"Request quota exceeded, retry later");
+		}
+		return chain.filter(exchange);
+	}
+
+	/**
+	 * Applies GCRA to the given bucket.
+	 * 
+	 * @param theoreticalArrival the theoretical arrival time of the client
+	 * @return {@code 0} if the request is admitted, otherwise the time in
+	 *         nanoseconds until it would be
+	 */
+	private long tryAcquire(AtomicLong theoreticalArrival) {
+		long now = System.nanoTime();
+		while (true) {
+			long current = theoreticalArrival.get();
+			long next = (current == Long.MIN_VALUE ? now : Math.max(current, now)) + emissionIntervalNanos;
+			long excess = next - now - burstToleranceNanos;
+			if (excess > 0) {
+				return excess;
+			}
+			if (theoreticalArrival.compareAndSet(current, next)) {
+				return 0;
+			}
+		}
+	}
+
+	/**
+	 * Returns the bucket key of an unidentified client, derived from its remote
+	 * address, or the shared {@code anonymous} key when the address is unknown.
+	 */
+	private static String remoteAddressOf(ServerWebExchange exchange) {
+		InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+		if (remoteAddress == null || remoteAddress.getAddress() == null) {
+			return ANONYMOUS;
+		}
+		return ANONYMOUS + "@" + remoteAddress.getAddress().getHostAddress();
+	}
+
+	private Counter rejectedCounter(String tag) {
+		return Counter.builder("playlist.quota.rejected").tag("client", tag)
+				.description("Requests rejected because their client exceeded its quota").register(meterRegistry);
+	}
+
+	/**
+	 * Returns the metric tag of a client, bounding the number of distinct tags.
+	 */
+	private String tagOf(String client) {
+		if (taggedClients.contains(client)) {
+			return client;
+		}
+		if (taggedClients.size() < maxTaggedClients && client.matches("[A-Za-z0-9._-]{1,64}")) {
+			taggedClients.add(client);
+			return client;
+		}
+		return OTHER;
+	}
+
+	/**
+	 * Handling of the requests that do not identify their client.
+	 */
+	private enum AnonymousPolicy {
+
+		EXEMPT, REMOTE_ADDRESS, SHARED;
+
+		static AnonymousPolicy of(String value) {
+			try {
+				return valueOf(value.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+			} catch (IllegalArgumentException e) {
+				throw new IllegalStateException("Unknown playlist.quota.anonymous policy: " + value, e);
+			}
+		}
+	}
+}
@@ -0,0 +1,48 @@
+package io.musicdiscovery.moodplaylist.infrastructure.adapters.input.rest.filter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Writes the responses of requests rejected by the web filters.
+ * 
+ * <p>
+ * Rejections are written directly by the filters, before any controller is
+ * involved, in the same JSON format as the {@code DefaultExceptionHandler}.
+ * </p>
+ */
+final class FilterResponses {
+
+	private FilterResponses() {
+	}
+
+	/**
+	 * Rejects the request with the given status, telling the client when to retry.
+	 * 
+	 * @param exchange   the current exchange
+	 * @param status     the status of the response
+	 * @param retryAfter the delay after which the client may retry
+	 * @param message    the error message, which must not need JSON escaping
+	 * @return a {@link Mono} completing once the response is written
+	 */
+	static Mono<Void> reject(ServerWebExchange exchange, HttpStatus status, Duration retryAfter, String message) {
+		ServerHttpResponse response = exchange.getResponse();
+		response.setStatusCode(status);
+		response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+		response.getHeaders().set(HttpHeaders.RETRY_AFTER,
+				String.valueOf(Math.max(1, (retryAfter.toMillis() + 999) / 1000)));
+		byte[] body = ("{\"status\":" + status.value() + ",\"message\":\"" + message + "\"}")
+				.getBytes(StandardCharsets.UTF_8);
+		DataBuffer buffer = response.bufferFactory().wrap(body);
+		return response.writeWith(Mono.just(buffer));
+	}
+}
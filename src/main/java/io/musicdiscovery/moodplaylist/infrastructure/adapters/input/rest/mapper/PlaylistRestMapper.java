@@ -1,11 +1,21 @@
 package io.musicdiscovery.moodplaylist.infrastructure.adapters.input.rest.mapper;
 
+import java.util.List;
+
 import org.mapstruct.Mapper;
 import org.mapstruct.ReportingPolicy;
 
+import io.musicdiscovery.moodplaylist.domain.model.BlendedTrack;
+import io.musicdiscovery.moodplaylist.domain.model.MoodWeight;
 import io.musicdiscovery.moodplaylist.domain.model.Playlist;
+import io.musicdiscovery.moodplaylist.domain.model.PlaylistGenerationResult;
+import io.musicdiscovery.moodplaylist.domain.model.enums.Mood;
+import io.musicdiscovery.moodplaylist.infrastructure.adapters.input.rest.model.request.PlaylistBlendComponentRequest;
+import io.musicdiscovery.moodplaylist.infrastructure.adapters.input.rest.model.request.PlaylistBlendRequest;
 import io.musicdiscovery.moodplaylist.infrastructure.adapters.input.rest.model.request.PlaylistRequest;
+import io.musicdiscovery.moodplaylist.infrastructure.adapters.input.rest.model.response.PlaylistBatchItemResponse;
 import io.musicdiscovery.moodplaylist.infrastructure.adapters.input.rest.model.response.PlaylistResponse;
+import io.musicdiscovery.moodplaylist.infrastructure.adapters.input.rest.model.response.PlaylistTrackResponse;
 
 
 /**
@@ -28,6 +38,9 @@ import io.musicdiscovery.moodplaylist.infrastructure.adapters.input.rest.model.r
  * @see Playlist
  * @see PlaylistRequest
  * @see PlaylistResponse
+ * @see PlaylistBatchItemResponse
+ * @see PlaylistTrackResponse
+ * @see PlaylistBlendRequest
  */
 @Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
 public interface PlaylistRestMapper {
@@ -60,4 +73,49 @@ public interface PlaylistRestMapper {
 	 */
 	PlaylistResponse toPlaylistResponse(Playlist user);
 
+	/**
+	 * Converts a {@link PlaylistGenerationResult} domain object to a
+	 * {@link PlaylistBatchItemResponse} object.
+	 * 
+	 * <p>
+	 * This method is used to report the outcome of each mood of a batch playlist
+	 * generation back to the client.
+	 * </p>
+	 * 
+	 * @param result the {@link PlaylistGenerationResult} domain object to convert
+	 * @return the converted {@link PlaylistBatchItemResponse} object
+	 */
+	PlaylistBatchItemResponse toPlaylistBatchItemResponse(PlaylistGenerationResult result);
+
+	/**
+	 * Creates a {@link PlaylistTrackResponse} for one track of a streamed
+	 * playlist.
+	 * 
+	 * @param mood     the mood the playlist was generated for
+	 * @param position the zero-based position of the track in the playlist
+	 * @param trackUri the URI of the track
+	 * @return the {@link PlaylistTrackResponse} object
+	 */
+	PlaylistTrackResponse toPlaylistTrackResponse(Mood mood, long position, String trackUri);
+
+	/**
+	 * Creates a {@link PlaylistTrackResponse} for one track of a blended
+	 * playlist, carrying the mood the track was drawn for.
+	 * 
+	 * @param track    the {@link BlendedTrack} domain object to convert
+	 * @param position the zero-based position of the track in the playlist
+	 * @return the {@link PlaylistTrackResponse} object
+	 */
+	PlaylistTrackResponse toPlaylistTrackResponse(BlendedTrack track, long position);
+
+	/**
+	 * Converts the components of a {@link PlaylistBlendRequest} to
+	 * {@link MoodWeight} domain objects.
+	 * 
+	 * @param components the {@link PlaylistBlendComponentRequest} objects to
+	 *                   convert
+	 * @return the converted {@link MoodWeight} domain objects
+	 */
+	List<MoodWeight> toMoodWeights(List<PlaylistBlendComponentRequest> components);
+
 }
\ No newline at end of file
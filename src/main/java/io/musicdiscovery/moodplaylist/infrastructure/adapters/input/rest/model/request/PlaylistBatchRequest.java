@@ -0,0 +1,55 @@
+package io.musicdiscovery.moodplaylist.infrastructure.adapters.input.rest.model.request;
+
+import java.util.List;
+
+import io.musicdiscovery.moodplaylist.domain.model.enums.Mood;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Data Transfer Object (DTO) for incoming batch playlist generation requests.
+ * 
+ * <p>
+ * This class captures the list of moods a client wants playlists for in a
+ * single call. One playlist is generated for each entry of the list, so the
+ * same mood may appear more than once.
+ * </p>
+ * 
+ * <p>
+ * Validation is applied through Jakarta Bean Validation annotations, ensuring
+ * that the list is neither empty nor larger than {@value #MAX_MOODS} entries
+ * and that it contains no null moods.
+ * </p>
+ * 
+ * @see Mood
+ */
+@Builder
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Request to generate one playlist for each of the given moods.")
+public class PlaylistBatchRequest {
+
+	/**
+	 * The maximum number of moods accepted in a single batch.
+	 */
+	public static final int MAX_MOODS = 20;
+
+	/**
+	 * The moods to generate playlists for.
+	 */
+	@ArraySchema(schema = @Schema(implementation = Mood.class, description = "User mood"), minItems = 1, maxItems = MAX_MOODS)
+	@NotEmpty(message = "Field moods cannot be empty or null.")
+	@Size(max = MAX_MOODS, message = "Field moods cannot contain more than " + MAX_MOODS + " moods.")
+	private List<@NotNull(message = "Field moods cannot contain null moods.") Mood> moods;
+
+}
@@ -0,0 +1,54 @@
+package io.musicdiscovery.moodplaylist.infrastructure.adapters.input.rest.model.request;
+
+import io.musicdiscovery.moodplaylist.domain.model.enums.Mood;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Data Transfer Object (DTO) for one mood of a blended playlist request.
+ * 
+ * <p>
+ * Validation is applied through Jakarta Bean Validation annotations, ensuring
+ * that the mood is present and that the weight is positive and at most
+ * {@value #MAX_WEIGHT}.
+ * </p>
+ * 
+ * @see PlaylistBlendRequest
+ * @see Mood
+ */
+@Builder
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "A mood of a blended playlist and its weight.")
+public class PlaylistBlendComponentRequest {
+
+	/**
+	 * The maximum weight of a mood.
+	 */
+	public static final int MAX_WEIGHT = 1000;
+
+	/**
+	 * The mood of the component.
+	 */
+	@Schema(implementation = Mood.class, description = "User mood")
+	@NotNull(message = "Field mood cannot be null.")
+	private Mood mood;
+
+	/**
+	 * The weight of the mood, relative to the other moods of the blend.
+	 */
+	@Schema(description = "The weight of the mood, relative to the other moods of the blend.", example = "70")
+	@Positive(message = "Field weight must be positive.")
+	@Max(value = MAX_WEIGHT, message = "Field weight cannot be greater than " + MAX_WEIGHT + ".")
+	private int weight;
+
+}
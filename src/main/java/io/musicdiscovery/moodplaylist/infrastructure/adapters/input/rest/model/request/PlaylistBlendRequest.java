@@ -0,0 +1,58 @@
+package io.musicdiscovery.moodplaylist.infrastructure.adapters.input.rest.model.request;
+
+import java.util.List;
+
+import io.musicdiscovery.moodplaylist.domain.model.enums.Mood;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Data Transfer Object (DTO) for incoming blended playlist requests.
+ * 
+ * <p>
+ * This class captures the moods a client wants blended into a single
+ * playlist, each with its relative weight, e.g. {@code HAPPY} with weight 70
+ * and {@code EXERCISE} with weight 30. The weights of a mood given more than
+ * once are added up.
+ * </p>
+ * 
+ * <p>
+ * Validation is applied through Jakarta Bean Validation annotations, ensuring
+ * that the list is neither empty nor larger than {@value #MAX_COMPONENTS}
+ * entries and that every component is valid.
+ * </p>
+ * 
+ * @see PlaylistBlendComponentRequest
+ * @see Mood
+ */
+@Builder
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Request to blend the playlists of several moods into one.")
+public class PlaylistBlendRequest {
+
+	/**
+	 * The maximum number of components of a blend.
+	 */
+	public static final int MAX_COMPONENTS = 16;
+
+	/**
+	 * The moods to blend and their weights.
+	 */
+	@ArraySchema(schema = @Schema(implementation = PlaylistBlendComponentRequest.class), minItems = 1, maxItems = MAX_COMPONENTS)
+	@NotEmpty(message = "Field components cannot be empty or null.")
+	@Size(max = MAX_COMPONENTS, message = "Field components cannot contain more than " + MAX_COMPONENTS + " moods.")
+	private List<@NotNull(message = "Field components cannot contain null components.") @Valid PlaylistBlendComponentRequest> components;
+
+}
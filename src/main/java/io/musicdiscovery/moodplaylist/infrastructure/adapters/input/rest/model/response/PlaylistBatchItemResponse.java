@@ -0,0 +1,56 @@
+package io.musicdiscovery.moodplaylist.infrastructure.adapters.input.rest.model.response;
+
+import io.musicdiscovery.moodplaylist.domain.model.enums.Mood;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Data Transfer Object (DTO) representing the result for one mood of a batch
+ * playlist generation.
+ * 
+ * <p>
+ * Each item reports whether its playlist could be generated. Successful items
+ * carry the generated {@link PlaylistResponse}; failed items carry the error
+ * message instead, so one failing mood does not fail the whole batch.
+ * </p>
+ * 
+ * @see PlaylistBatchResponse
+ * @see PlaylistResponse
+ */
+@Builder
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Result of the playlist generation for one mood of a batch.")
+public class PlaylistBatchItemResponse {
+
+	/**
+	 * The mood the playlist was requested for.
+	 */
+	@Schema(implementation = Mood.class, description = "The mood the playlist was requested for.")
+	private Mood mood;
+
+	/**
+	 * Whether the playlist was generated and persisted.
+	 */
+	@Schema(description = "Whether the playlist was generated and persisted.", example = "true")
+	private boolean successful;
+
+	/**
+	 * The generated playlist, absent if the generation failed.
+	 */
+	@Schema(description = "The generated playlist, absent if the generation failed.")
+	private PlaylistResponse playlist;
+
+	/**
+	 * The reason of the failure, absent if the generation succeeded.
+	 */
+	@Schema(description = "The reason of the failure, absent if the generation succeeded.", example = "null")
+	private String error;
+
+}
@@ -0,0 +1,38 @@
+package io.musicdiscovery.moodplaylist.infrastructure.adapters.input.rest.model.response;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Data Transfer Object (DTO) representing the response of a batch playlist
+ * generation.
+ * 
+ * <p>
+ * The items are returned in the order of the moods of the request, one item
+ * per requested mood.
+ * </p>
+ * 
+ * @see PlaylistBatchItemResponse
+ */
+@Builder
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Results of a batch playlist generation, in the order of the requested moods.")
+public class PlaylistBatchResponse {
+
+	/**
+	 * The result for each requested mood.
+	 */
+	@ArraySchema(schema = @Schema(implementation = PlaylistBatchItemResponse.class, description = "The result for each requested mood."))
+	private List<PlaylistBatchItemResponse> items;
+
+}
@@ -0,0 +1,49 @@
+package io.musicdiscovery.moodplaylist.infrastructure.adapters.input.rest.model.response;
+
+import io.musicdiscovery.moodplaylist.domain.model.enums.Mood;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Data Transfer Object (DTO) representing a single track of a streamed
+ * playlist.
+ * 
+ * <p>
+ * Streaming endpoints emit one instance of this class per track, as
+ * newline-delimited JSON or Server-Sent Events, so clients can start rendering
+ * and prefetching tracks before the whole playlist is available.
+ * </p>
+ * 
+ * @see Mood
+ */
+@Builder
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "A single track of a streamed playlist.")
+public class PlaylistTrackResponse {
+
+	/**
+	 * The mood based on which the playlist was generated.
+	 */
+	@Schema(implementation = Mood.class, description = "The mood based on which the playlist was generated.")
+	private Mood mood;
+
+	/**
+	 * The zero-based position of the track in the playlist.
+	 */
+	@Schema(description = "The zero-based position of the track in the playlist.", example = "0")
+	private long position;
+
+	/**
+	 * The Spotify URI of the track.
+	 */
+	@Schema(description = "The Spotify URI of the track.", example = "spotify:track:6rqhFgbbKwnb9MLmUQDhG6")
+	private String trackUri;
+
+}
@@ -0,0 +1,24 @@
+package io.musicdiscovery.moodplaylist.infrastructure.adapters.output.catalog;
+
+/**
+ * Audio features of a track stored in the track catalog.
+ * 
+ * <p>
+ * Each feature is stored as its own column of {@code float} values, in the
+ * order of the constants. {@link #TEMPO} is expressed in beats per minute, the
+ * other features are within {@code [0, 1]}, as returned by the Spotify audio
+ * features API.
+ * </p>
+ */
+enum AudioFeature {
+	VALENCE("valence"), ENERGY("energy"), TEMPO("tempo"), DANCEABILITY("danceability"), ACOUSTICNESS("acousticness");
+
+	/**
+	 * Name of the feature in the source catalog files.
+	 */
+	final String field;
+
+	AudioFeature(String field) {
+		this.field = field;
+	}
+}
@@ -0,0 +1,70 @@
+package io.musicdiscovery.moodplaylist.infrastructure.adapters.output.catalog;
+
+import java.util.Optional;
+
+/**
+ * Computes the distance of a block of tracks to a {@link MoodTarget}.
+ * 
+ * <p>
+ * Two implementations exist: {@link ScalarDistanceKernel}, the default, and
+ * {@code VectorDistanceKernel}, based on the JDK Vector API. The Vector API is
+ * an incubator module, so the vector kernel lives in {@code src/vector/java}
+ * and is only compiled with the {@code vector} profile of {@code pom.xml}, and
+ * the module is only resolved when the JVM runs with
+ * {@code --add-modules jdk.incubator.vector}. The vector kernel is therefore
+ * loaded by name, and {@link #preferred()} falls back to the scalar kernel when
+ * it was not compiled or the module is not resolved.
+ * </p>
+ */
+interface DistanceKernel {
+
+	/**
+	 * Computes the distance of tracks to a target and selects the tracks nearer
+	 * than a threshold.
+	 * 
+	 * <p>
+	 * Selecting in the kernel spares the caller a pass over every distance: once
+	 * the threshold is tight, a block of thousands of tracks yields a handful of
+	 * candidates, often none.
+	 * </p>
+	 * 
+	 * @param columns   the features of the tracks, one column per
+	 *                  {@link AudioFeature}
+	 * @param length    the number of tracks, from the start of the columns
+	 * @param target    the target
+	 * @param threshold the distance below which a track is selected
+	 * @param distances receives the distance of every track
+	 * @param selected  receives the indexes of the selected tracks, in order
+	 * @return the number of selected tracks
+	 */
+	int select(float[][] columns, int length, MoodTarget target, float threshold, float[] distances,
+			int[] selected);
+
+	/**
+	 * Returns the name of the kernel, for logs and benchmarks.
+	 */
+	String name();
+
+	/**
+	 * Returns the fastest kernel available to the running JVM.
+	 */
+	static DistanceKernel preferred() {
+		return vector().orElseGet(ScalarDistanceKernel::new);
+	}
+
+	/**
+	 * Returns the kernel based on the Vector API, if it was compiled and the
+	 * {@code jdk.incubator.vector} module is resolved.
+	 */
+	static Optional<DistanceKernel> vector() {
+		if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+			return Optional.empty();
+		}
+		try {
+			return Optional.of(Class.forName(DistanceKernel.class.getPackageName() + ".VectorDistanceKernel")
+					.asSubclass(DistanceKernel.class).getDeclaredConstructor().newInstance());
+		} catch (ReflectiveOperationException | LinkageError e) {
+			return Optional.empty();
+		}
+	}
+}
@@ -0,0 +1,267 @@
+package io.musicdiscovery.moodplaylist.infrastructure.adapters.output.catalog;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.musicdiscovery.moodplaylist.application.port.output.SpotifyPlaylistServicePort;
+import io.musicdiscovery.moodplaylist.config.PortMetrics;
+import io.musicdiscovery.moodplaylist.config.PortMetrics.PortTimer;
+import io.musicdiscovery.moodplaylist.domain.model.Playlist;
+import io.musicdiscovery.moodplaylist.domain.model.enums.Mood;
+import io.musicdiscovery.moodplaylist.infrastructure.adapters.output.client.spotify.CachingSpotifyPlaylistServiceAdapter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Adapter that implements the {@link SpotifyPlaylistServicePort} from a local
+ * track catalog, without calling Spotify.
+ * 
+ * <p>
+ * When {@code playlist.catalog.enabled} is set, the catalog file
+ * {@code playlist.catalog.source} (JSON Lines or CSV of track ids, artists and
+ * audio features) is built into memory-mapped segments in
+ * {@code playlist.catalog.directory} at startup, see
+ * {@link TrackCatalogBuilder}. The build is incremental, so a restart only
+ * parses the rows appended to the source since the previous build, and opening
+ * the catalog maps its files without parsing them. With
+ * {@code playlist.catalog.refresh-interval} set, the source is checked
+ * periodically and the catalog swapped once the new rows are built.
+ * </p>
+ * 
+ * <p>
+ * A playlist is drawn at random among the tracks whose audio features fit the
+ * mood, see {@link MoodRules}, with the requested number of tracks and at
+ * most {@code playlist.catalog.max-tracks-per-artist} tracks of the same
+ * artist. Moods without any candidate, and every mood while the
+ * catalog is disabled, are delegated to the
+ * {@link CachingSpotifyPlaylistServiceAdapter}.
+ * </p>
+ * 
+ * <p>
+ * With {@code playlist.catalog.ranking.enabled} set, the rules are replaced by
+ * a nearest-neighbour search: whenever the catalog is opened, the
+ * {@code playlist.catalog.ranking.pool-size} tracks nearest to the
+ * {@link MoodTarget} of every mood are ranked by a {@link NearestTrackRanker},
+ * in parallel partitions of {@code playlist.catalog.ranking.partition-tracks}
+ * tracks, and playlists are drawn among them. The pool should therefore hold
+ * more tracks than the longest playlist, {@code playlist.length.max}.
+ * </p>
+ * 
+ * <p>
+ * Generation from the catalog is timed through {@link PortMetrics} with
+ * {@code port=catalog} and {@code operation=generate}, and the gauges
+ * {@code playlist.catalog.tracks} and {@code playlist.catalog.segments} and the
+ * counter {@code playlist.catalog.fallback}, tagged with the mood, are
+ * published.
+ * </p>
+ * 
+ * <p>
+ * The class is annotated with {@code @Primary} so that it is the
+ * {@link SpotifyPlaylistServicePort} injected into the application services.
+ * </p>
+ * 
+ * @see TrackCatalog
+ * @see CachingSpotifyPlaylistServiceAdapter
+ */
+@Slf4j
+@Primary
+@Component
+@RequiredArgsConstructor
+public class LocalCatalogPlaylistServiceAdapter implements SpotifyPlaylistServicePort {
+
+	private final CachingSpotifyPlaylistServiceAdapter delegate;
+	private final MeterRegistry meterRegistry;
+	private final PortMetrics portMetrics;
+
+	@Value("${playlist.catalog.enabled:false}")
+	private boolean enabled;
+
+	@Value("${playlist.catalog.source:}")
+	private String source;
+
+	@Value("${playlist.catalog.directory:catalog}")
+	private String directory;
+
+	@Value("${playlist.catalog.max-segment-tracks:1000000}")
+	private int maxSegmentTracks;
+
+	@Value("${playlist.catalog.max-tracks-per-artist:2}")
+	private int maxTracksPerArtist;
+
+	@Value("${playlist.catalog.refresh-interval:0s}")
+	private Duration refreshInterval;
+
+	@Value("${playlist.catalog.ranking.enabled:false}")
+	private boolean rankingEnabled;
+
+	@Value("${playlist.catalog.ranking.pool-size:500}")
+	private int rankingPoolSize;
+
+	@Value("${playlist.catalog.ranking.partition-tracks:262144}")
+	private int rankingPartitionTracks;
+
+	private final Map<Mood, Counter> fallbacks = new EnumMap<>(Mood.class);
+	private volatile TrackCatalog catalog;
+	private volatile Map<Mood, TrackRanking> rankings;
+	private NearestTrackRanker ranker;
+	private TrackCatalogBuilder builder;
+	private Disposable refresh;
+	private PortTimer generateTimer;
+
+	/**
+	 * Builds and opens the catalog when it is enabled, and schedules its
+	 * refresh.
+	 * 
+	 * @throws IOException if the catalog cannot be built or opened
+	 */
+	@PostConstruct
+	void init() throws IOException {
+		generateTimer = portMetrics.timer("catalog", "generate");
+		if (!enabled) {
+			return;
+		}
+		if (source.isBlank()) {
+			throw new IllegalStateException("playlist.catalog.source is required when the catalog is enabled");
+		}
+		builder = new TrackCatalogBuilder(Path.of(source), Path.of(directory), maxSegmentTracks);
+		if (rankingEnabled) {
+			ranker = new NearestTrackRanker(DistanceKernel.preferred(), ForkJoinPool.commonPool(),
+					rankingPartitionTracks);
+		}
+		update();
+		for (Mood mood : Mood.values()) {
+			fallbacks.put(mood, Counter.builder("playlist.catalog.fallback").tag("mood", mood.name())
+					.description("Playlists delegated to Spotify because no track of the catalog fits the mood")
+					.register(meterRegistry));
+		}
+		Gauge.builder("playlist.catalog.tracks", this, adapter -> adapter.catalog.size())
+				.description("Tracks of the local catalog").register(meterRegistry);
+		Gauge.builder("playlist.catalog.segments", this, adapter -> adapter.catalog.segmentCount())
+				.description("Segment files of the local catalog").register(meterRegistry);
+		if (!refreshInterval.isZero()) {
+			refresh = Flux.interval(refreshInterval, refreshInterval, Schedulers.boundedElastic())
+					.onBackpressureDrop().concatMap(tick -> Mono.fromRunnable(this::refresh), 1).subscribe();
+		}
+	}
+
+	/**
+	 * Stops refreshing the catalog.
+	 */
+	@PreDestroy
+	void shutdown() {
+		if (refresh != null) {
+			refresh.dispose();
+		}
+	}
+
+	/**
+	 * Generates a playlist for the given mood from the local catalog.
+	 * 
+	 * @param mood   the mood of the user, used to generate an appropriate playlist
+	 * @param length the number of tracks requested
+	 * @return a {@link Mono} emitting the generated {@link Playlist}
+	 */
+	@Override
+	public Mono<Playlist> generatePlaylist(Mood mood, int length) {
+		if (catalog == null) {
+			return delegate.generatePlaylist(mood, length);
+		}
+		return Mono.defer(() -> {
+			List<String> trackUris = generateTimer.record(mood, () -> sample(mood, length));
+			if (trackUris.isEmpty()) {
+				fallbacks.get(mood).increment();
+				return delegate.generatePlaylist(mood, length);
+			}
+			return Mono.just(new Playlist(null, mood, trackUris));
+		});
+	}
+
+	/**
+	 * Streams the track URIs of a playlist for the given mood from the local
+	 * catalog, or from the {@link CachingSpotifyPlaylistServiceAdapter} as
+	 * {@link #generatePlaylist(Mood, int)} does.
+	 * 
+	 * @param mood   the mood of the user, used to generate an appropriate playlist
+	 * @param length the number of tracks requested
+	 * @return a {@link Flux} emitting the track URIs of the playlist in order
+	 */
+	@Override
+	public Flux<String> streamTrackUris(Mood mood, int length) {
+		if (catalog == null) {
+			return delegate.streamTrackUris(mood, length);
+		}
+		return Flux.defer(() -> {
+			List<String> trackUris = generateTimer.record(mood, () -> sample(mood, length));
+			if (trackUris.isEmpty()) {
+				fallbacks.get(mood).increment();
+				return delegate.streamTrackUris(mood, length);
+			}
+			return Flux.fromIterable(trackUris);
+		});
+	}
+
+	private List<String> sample(Mood mood, int length) {
+		Map<Mood, TrackRanking> ranked = rankings;
+		if (ranked != null) {
+			return ranked.get(mood).sample(length, maxTracksPerArtist, ThreadLocalRandom.current());
+		}
+		return catalog.sample(mood, length, maxTracksPerArtist, ThreadLocalRandom.current());
+	}
+
+	private void update() throws IOException {
+		long start = System.nanoTime();
+		TrackCatalogBuilder.Update update = builder.update();
+		if (update.rejected() > 0) {
+			log.warn("Skipped {} invalid rows of the track catalog {}", update.rejected(), source);
+		}
+		if (catalog != null && !update.changed()) {
+			return;
+		}
+		TrackCatalog opened = TrackCatalog.open(Path.of(directory));
+		if (ranker != null) {
+			rankings = rank(opened);
+		}
+		catalog = opened;
+		log.info("Track catalog {} with {} tracks in {} segments ({} {} tracks in {} ms)", directory, opened.size(),
+				opened.segmentCount(), update.rebuilt() ? "rebuilt with" : "added", update.added(),
+				Duration.ofNanos(System.nanoTime() - start).toMillis());
+	}
+
+	private Map<Mood, TrackRanking> rank(TrackCatalog opened) {
+		long start = System.nanoTime();
+		Map<Mood, TrackRanking> ranked = new EnumMap<>(Mood.class);
+		for (Mood mood : Mood.values()) {
+			ranked.put(mood, ranker.rank(opened, mood, rankingPoolSize));
+		}
+		log.info("Ranked the {} nearest tracks of every mood with the {} kernel in {} ms", rankingPoolSize,
+				ranker.kernel().name(), Duration.ofNanos(System.nanoTime() - start).toMillis());
+		return ranked;
+	}
+
+	private void refresh() {
+		try {
+			update();
+		} catch (IOException | RuntimeException e) {
+			log.warn("Could not refresh the track catalog {}: {}", directory, e.getMessage());
+		}
+	}
+}
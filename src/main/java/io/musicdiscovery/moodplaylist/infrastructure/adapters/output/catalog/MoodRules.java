@@ -0,0 +1,50 @@
+package io.musicdiscovery.moodplaylist.infrastructure.adapters.output.catalog;
+
+import io.musicdiscovery.moodplaylist.domain.model.enums.Mood;
+
+/**
+ * Rules telling which moods a track fits, based on its audio features.
+ * 
+ * <p>
+ * A track may fit several moods, or none. The moods of every track are computed
+ * once, when the catalog is built, and stored as a bit set indexed by the
+ * ordinal of the {@link Mood}, together with the list of candidate tracks of
+ * each mood.
+ * </p>
+ */
+final class MoodRules {
+
+	private MoodRules() {
+	}
+
+	/**
+	 * Computes the moods a track fits.
+	 * 
+	 * @param features the audio features of the track, indexed by the ordinal of
+	 *                 the {@link AudioFeature}
+	 * @return the bit set of the moods, bit {@code n} standing for the mood of
+	 *         ordinal {@code n}
+	 */
+	static int moodsOf(float[] features) {
+		int moods = 0;
+		for (Mood mood : Mood.values()) {
+			if (fits(mood, features[AudioFeature.VALENCE.ordinal()], features[AudioFeature.ENERGY.ordinal()],
+					features[AudioFeature.TEMPO.ordinal()], features[AudioFeature.DANCEABILITY.ordinal()],
+					features[AudioFeature.ACOUSTICNESS.ordinal()])) {
+				moods |= 1 << mood.ordinal();
+			}
+		}
+		return moods;
+	}
+
+	private static boolean fits(Mood mood, float valence, float energy, float tempo, float danceability,
+			float acousticness) {
+		return switch (mood) {
+		case RELAXED -> energy <= 0.45f && acousticness >= 0.4f && valence >= 0.3f;
+		case MOTIVATED -> energy >= 0.6f && valence >= 0.5f && tempo >= 100f;
+		case EXERCISE -> energy >= 0.75f && danceability >= 0.55f && tempo >= 120f;
+		case HAPPY -> valence >= 0.65f && danceability >= 0.5f;
+		case SAD -> valence <= 0.35f && energy <= 0.55f;
+		};
+	}
+}
@@ -0,0 +1,82 @@
+package io.musicdiscovery.moodplaylist.infrastructure.adapters.output.catalog;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import io.musicdiscovery.moodplaylist.domain.model.enums.Mood;
+
+/**
+ * Target audio features of a mood, the point of the feature space whose
+ * nearest tracks fit the mood best.
+ * 
+ * <p>
+ * The distance of a track to the target is the weighted squared Euclidean
+ * distance of their features, with {@link AudioFeature#TEMPO} scaled by
+ * {@value #TEMPO_SCALE} so that every feature lies roughly within
+ * {@code [0, 1]}. Valence and energy weigh the most, as they tell moods apart
+ * best. To keep the distance computation to one fused multiply-add per feature,
+ * the scale, target and weight of each feature are folded into a slope and an
+ * offset:
+ * </p>
+ * 
+ * <pre>
+ * distance = sum((slope[f] * feature[f] - offset[f])²)
+ * slope[f] = sqrt(weight[f]) * scale[f]
+ * offset[f] = sqrt(weight[f]) * scale[f] * target[f]
+ * </pre>
+ * 
+ * @param slopes  the slope of every feature, indexed by the ordinal of the
+ *                {@link AudioFeature}
+ * @param offsets the offset of every feature, indexed likewise
+ */
+record MoodTarget(float[] slopes, float[] offsets) {
+
+	static final float TEMPO_SCALE = 1 / 200f;
+
+	private static final float[] WEIGHTS = { 1f, 1f, 0.5f, 0.75f, 0.5f };
+
+	private static final Map<Mood, MoodTarget> TARGETS = new EnumMap<>(Mood.class);
+
+	static {
+		// valence, energy, tempo (bpm), danceability, acousticness
+		TARGETS.put(Mood.RELAXED, of(0.5f, 0.25f, 80f, 0.4f, 0.7f));
+		TARGETS.put(Mood.MOTIVATED, of(0.7f, 0.75f, 125f, 0.6f, 0.15f));
+		TARGETS.put(Mood.EXERCISE, of(0.6f, 0.9f, 140f, 0.7f, 0.05f));
+		TARGETS.put(Mood.HAPPY, of(0.85f, 0.65f, 120f, 0.7f, 0.2f));
+		TARGETS.put(Mood.SAD, of(0.2f, 0.3f, 85f, 0.4f, 0.6f));
+	}
+
+	/**
+	 * Returns the target of a mood.
+	 */
+	static MoodTarget of(Mood mood) {
+		return TARGETS.get(mood);
+	}
+
+	/**
+	 * Returns the distance of a track to this target.
+	 * 
+	 * @param features the audio features of the track, indexed by the ordinal of
+	 *                 the {@link AudioFeature}
+	 */
+	float distance(float[] features) {
+		float distance = 0;
+		for (int feature = 0; feature < slopes.length; feature++) {
+			float difference = slopes[feature] * features[feature] - offsets[feature];
+			distance += difference * difference;
+		}
+		return distance;
+	}
+
+	private static MoodTarget of(float... targets) {
+		float[] slopes = new float[targets.length];
+		float[] offsets = new float[targets.length];
+		for (AudioFeature feature : AudioFeature.values()) {
+			float scale = feature == AudioFeature.TEMPO ? TEMPO_SCALE : 1f;
+			float weight = (float) Math.sqrt(WEIGHTS[feature.ordinal()]);
+			slopes[feature.ordinal()] = weight * scale;
+			offsets[feature.ordinal()] = weight * scale * targets[feature.ordinal()];
+		}
+		return new MoodTarget(slopes, offsets);
+	}
+}
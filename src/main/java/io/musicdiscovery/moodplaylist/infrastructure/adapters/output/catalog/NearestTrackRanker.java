@@ -0,0 +1,150 @@
+package io.musicdiscovery.moodplaylist.infrastructure.adapters.output.catalog;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import io.musicdiscovery.moodplaylist.domain.model.enums.Mood;
+
+/**
+ * Finds the tracks of a catalog nearest to the {@link MoodTarget} of a mood.
+ * 
+ * <p>
+ * The search scans the feature columns of every segment: blocks of
+ * {@value #BLOCK_TRACKS} tracks are copied from the mapped columns to arrays,
+ * scored by a {@link DistanceKernel} and offered to a {@link NearestTracks}
+ * heap. Only the tracks nearer than the farthest track kept are offered, and
+ * the kernel selects them, so that the few tracks of a block worth offering are
+ * found without looking at the others one by one. The copy
+ * keeps the kernel on heap arrays, the only input the Vector API takes without
+ * the preview foreign memory API, and is cheap next to the scoring since a
+ * block of every column fits in the L1 cache.
+ * </p>
+ * 
+ * <p>
+ * Large catalogs are split in ranges of at most {@code partitionTracks} tracks,
+ * scanned in parallel by a {@link ForkJoinPool} and whose nearest tracks are
+ * merged pairwise as the tasks complete.
+ * </p>
+ */
+final class NearestTrackRanker {
+
+	static final int BLOCK_TRACKS = 2048;
+
+	private static final int FEATURES = AudioFeature.values().length;
+
+	private final DistanceKernel kernel;
+	private final ForkJoinPool pool;
+	private final int partitionTracks;
+
+	/**
+	 * Creates a ranker.
+	 * 
+	 * @param kernel          the kernel computing the distances
+	 * @param pool            the pool scanning the partitions
+	 * @param partitionTracks the maximum number of tracks scanned by one task
+	 */
+	NearestTrackRanker(DistanceKernel kernel, ForkJoinPool pool, int partitionTracks) {
+		this.kernel = kernel;
+		this.pool = pool;
+		this.partitionTracks = Math.max(partitionTracks, BLOCK_TRACKS);
+	}
+
+	DistanceKernel kernel() {
+		return kernel;
+	}
+
+	/**
+	 * Ranks the tracks of a catalog nearest to the target of a mood.
+	 * 
+	 * @param catalog the catalog
+	 * @param mood    the mood
+	 * @param k       the number of tracks to rank
+	 * @return the {@code k} nearest tracks, fewer if the catalog is smaller
+	 */
+	TrackRanking rank(TrackCatalog catalog, Mood mood, int k) {
+		MoodTarget target = MoodTarget.of(mood);
+		long[] segmentStarts = new long[catalog.segmentCount() + 1];
+		for (int segment = 0; segment < catalog.segmentCount(); segment++) {
+			segmentStarts[segment + 1] = segmentStarts[segment] + catalog.segment(segment).size();
+		}
+		NearestTracks nearest = pool
+				.invoke(new ScanTask(catalog, segmentStarts, target, k, 0, segmentStarts[catalog.segmentCount()]));
+
+		int size = nearest.size();
+		int[] segments = new int[size];
+		int[] tracks = new int[size];
+		float[] distances = new float[size];
+		nearest.drainSorted(segments, tracks, distances);
+		String[] trackUris = new String[size];
+		int[] artists = new int[size];
+		for (int rank = 0; rank < size; rank++) {
+			TrackCatalogSegment segment = catalog.segment(segments[rank]);
+			trackUris[rank] = segment.trackUri(tracks[rank]);
+			artists[rank] = segment.artist(tracks[rank]);
+		}
+		return new TrackRanking(mood, trackUris, artists, distances);
+	}
+
+	/**
+	 * Scans the tracks within {@code [from, to)}, numbered across segments.
+	 */
+	private final class ScanTask extends RecursiveTask<NearestTracks> {
+
+		private final TrackCatalog catalog;
+		private final long[] segmentStarts;
+		private final MoodTarget target;
+		private final int k;
+		private final long from;
+		private final long to;
+
+		ScanTask(TrackCatalog catalog, long[] segmentStarts, MoodTarget target, int k, long from, long to) {
+			this.catalog = catalog;
+			this.segmentStarts = segmentStarts;
+			this.target = target;
+			this.k = k;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected NearestTracks compute() {
+			if (to - from > partitionTracks) {
+				long middle = (from + to) >>> 1;
+				ScanTask right = new ScanTask(catalog, segmentStarts, target, k, middle, to);
+				right.fork();
+				NearestTracks nearest = new ScanTask(catalog, segmentStarts, target, k, from, middle).compute();
+				nearest.addAll(right.join());
+				return nearest;
+			}
+			NearestTracks nearest = new NearestTracks(k);
+			float[][] columns = new float[FEATURES][BLOCK_TRACKS];
+			float[] distances = new float[BLOCK_TRACKS];
+			int[] selected = new int[BLOCK_TRACKS];
+			for (int segment = segmentOf(from); segment < catalog.segmentCount()
+					&& segmentStarts[segment] < to; segment++) {
+				TrackCatalogSegment trackSegment = catalog.segment(segment);
+				int start = (int) (Math.max(from, segmentStarts[segment]) - segmentStarts[segment]);
+				int end = (int) (Math.min(to, segmentStarts[segment + 1]) - segmentStarts[segment]);
+				for (int block = start; block < end; block += BLOCK_TRACKS) {
+					int length = Math.min(BLOCK_TRACKS, end - block);
+					for (AudioFeature feature : AudioFeature.values()) {
+						trackSegment.copyFeature(feature, block, columns[feature.ordinal()], length);
+					}
+					int count = kernel.select(columns, length, target, nearest.threshold(), distances, selected);
+					for (int i = 0; i < count; i++) {
+						nearest.offer(distances[selected[i]], segment, block + selected[i]);
+					}
+				}
+			}
+			return nearest;
+		}
+
+		private int segmentOf(long track) {
+			int segment = 0;
+			while (segment < catalog.segmentCount() && segmentStarts[segment + 1] <= track) {
+				segment++;
+			}
+			return segment;
+		}
+	}
+}
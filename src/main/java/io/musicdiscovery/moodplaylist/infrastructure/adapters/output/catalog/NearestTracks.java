@@ -0,0 +1,116 @@
+package io.musicdiscovery.moodplaylist.infrastructure.adapters.output.catalog;
+
+/**
+ * The {@code k} tracks nearest to a target among those offered, kept in a
+ * bounded max-heap on primitive arrays.
+ * 
+ * <p>
+ * The root of the heap is the farthest of the tracks kept, so
+ * {@link #threshold()} tells in constant time whether a track may enter. Once
+ * the heap is full, almost every track of a large catalog is rejected by that
+ * single comparison.
+ * </p>
+ */
+final class NearestTracks {
+
+	private final int capacity;
+	private final float[] distances;
+	private final long[] tracks;
+	private int size;
+
+	NearestTracks(int capacity) {
+		this.capacity = capacity;
+		this.distances = new float[capacity];
+		this.tracks = new long[capacity];
+	}
+
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the distance a track must be below to enter.
+	 */
+	float threshold() {
+		return size < capacity ? Float.POSITIVE_INFINITY : distances[0];
+	}
+
+	/**
+	 * Offers a track, kept if it is nearer than the farthest track kept.
+	 * 
+	 * @param distance the distance of the track to the target
+	 * @param segment  the segment of the track
+	 * @param track    the index of the track in its segment
+	 */
+	void offer(float distance, int segment, int track) {
+		offer(distance, (long) segment << 32 | track);
+	}
+
+	/**
+	 * Offers every track kept by another instance.
+	 */
+	void addAll(NearestTracks other) {
+		for (int i = 0; i < other.size; i++) {
+			offer(other.distances[i], other.tracks[i]);
+		}
+	}
+
+	/**
+	 * Removes the tracks, nearest first, into the given arrays.
+	 * 
+	 * @param segments  receives the segment of every track
+	 * @param indexes   receives the index of every track in its segment
+	 * @param distances receives the distance of every track
+	 */
+	void drainSorted(int[] segments, int[] indexes, float[] distances) {
+		while (size > 0) {
+			int position = size - 1;
+			segments[position] = (int) (tracks[0] >>> 32);
+			indexes[position] = (int) tracks[0];
+			distances[position] = this.distances[0];
+			size--;
+			siftDown(this.distances[size], tracks[size]);
+		}
+	}
+
+	private void offer(float distance, long track) {
+		if (size < capacity) {
+			siftUp(size++, distance, track);
+		} else if (distance < distances[0]) {
+			siftDown(distance, track);
+		}
+	}
+
+	private void siftUp(int position, float distance, long track) {
+		while (position > 0) {
+			int parent = (position - 1) >>> 1;
+			if (distances[parent] >= distance) {
+				break;
+			}
+			distances[position] = distances[parent];
+			tracks[position] = tracks[parent];
+			position = parent;
+		}
+		distances[position] = distance;
+		tracks[position] = track;
+	}
+
+	private void siftDown(float distance, long track) {
+		int position = 0;
+		int half = size >>> 1;
+		while (position < half) {
+			int child = 2 * position + 1;
+			if (child + 1 < size && distances[child + 1] > distances[child]) {
+				child++;
+			}
+			if (distances[child] <= distance) {
+				break;
+			}
+			distances[position] = distances[child];
+			tracks[position] = tracks[child];
+			position = child;
+		}
+		distances[position] = distance;
+		tracks[position] = track;
+	}
+}
@@ -0,0 +1,42 @@
+package io.musicdiscovery.moodplaylist.infrastructure.adapters.output.catalog;
+
+import java.util.Arrays;
+
+/**
+ * {@link DistanceKernel} in plain Java.
+ * 
+ * <p>
+ * The distances are accumulated column by column, a simple loop over
+ * contiguous arrays that the JIT compiler may vectorize on its own, and the
+ * selected tracks gathered by a second pass.
+ * </p>
+ */
+final class ScalarDistanceKernel implements DistanceKernel {
+
+	@Override
+	public int select(float[][] columns, int length, MoodTarget target, float threshold, float[] distances,
+			int[] selected) {
+		Arrays.fill(distances, 0, length, 0f);
+		for (int feature = 0; feature < columns.length; feature++) {
+			float[] column = columns[feature];
+			float slope = target.slopes()[feature];
+			float offset = target.offsets()[feature];
+			for (int track = 0; track < length; track++) {
+				float difference = slope * column[track] - offset;
+				distances[track] += difference * difference;
+			}
+		}
+		int count = 0;
+		for (int track = 0; track < length; track++) {
+			// branch-free, as almost every track is rejected
+			selected[count] = track;
+			count += distances[track] < threshold ? 1 : 0;
+		}
+		return count;
+	}
+
+	@Override
+	public String name() {
+		return "scalar";
+	}
+}
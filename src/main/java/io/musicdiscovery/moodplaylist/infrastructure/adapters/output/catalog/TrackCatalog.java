@@ -0,0 +1,203 @@
+package io.musicdiscovery.moodplaylist.infrastructure.adapters.output.catalog;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+import io.musicdiscovery.moodplaylist.domain.model.enums.Mood;
+
+/**
+ * Immutable view of a track catalog: the segments listed by the manifest of a
+ * catalog directory.
+ * 
+ * <p>
+ * Opening a catalog maps its segments without reading their columns, see
+ * {@link TrackCatalogSegment}. The candidates of a mood are addressed as one
+ * sequence spanning every segment, so a playlist is drawn from the whole
+ * catalog by picking random positions in that sequence. Drawing a playlist
+ * reads a few entries of the mapped columns per track and allocates little
+ * more than the track URIs, which keeps generation in the microseconds.
+ * </p>
+ * 
+ * <p>
+ * A catalog is safe for concurrent use. An update of the catalog directory
+ * does not affect a catalog already open: the manifest and segment files are
+ * replaced, never modified, and a mapped file stays readable once deleted.
+ * </p>
+ * 
+ * @see TrackCatalogBuilder
+ */
+final class TrackCatalog {
+
+	private final TrackCatalogSegment[] segments;
+	private final long[][] candidateEnds;
+	private final long size;
+
+	private TrackCatalog(TrackCatalogSegment[] segments) {
+		this.segments = segments;
+		this.candidateEnds = new long[Mood.values().length][segments.length];
+		long tracks = 0;
+		for (Mood mood : Mood.values()) {
+			long candidates = 0;
+			for (int segment = 0; segment < segments.length; segment++) {
+				candidates += segments[segment].candidateCount(mood);
+				candidateEnds[mood.ordinal()][segment] = candidates;
+			}
+		}
+		for (TrackCatalogSegment segment : segments) {
+			tracks += segment.size();
+		}
+		this.size = tracks;
+	}
+
+	/**
+	 * Opens the catalog of a directory.
+	 * 
+	 * @param directory the catalog directory
+	 * @return the catalog, empty if the directory holds none
+	 * @throws IOException if a segment cannot be mapped
+	 */
+	static TrackCatalog open(Path directory) throws IOException {
+		TrackCatalogManifest manifest = TrackCatalogManifest.read(directory);
+		List<String> names = manifest == null ? List.of() : manifest.segments();
+		TrackCatalogSegment[] segments = new TrackCatalogSegment[names.size()];
+		for (int segment = 0; segment < segments.length; segment++) {
+			segments[segment] = TrackCatalogSegment.open(directory.resolve(names.get(segment)));
+		}
+		return new TrackCatalog(segments);
+	}
+
+	/**
+	 * Returns the number of tracks of the catalog.
+	 */
+	long size() {
+		return size;
+	}
+
+	int segmentCount() {
+		return segments.length;
+	}
+
+	TrackCatalogSegment segment(int segment) {
+		return segments[segment];
+	}
+
+	/**
+	 * Returns the number of tracks fitting a mood.
+	 */
+	long candidateCount(Mood mood) {
+		long[] ends = candidateEnds[mood.ordinal()];
+		return ends.length == 0 ? 0 : ends[ends.length - 1];
+	}
+
+	/**
+	 * Draws a playlist of distinct tracks fitting a mood.
+	 * 
+	 * <p>
+	 * Tracks are drawn at random among the candidates of the mood, skipping the
+	 * ones already drawn and the ones whose artist already has
+	 * {@code maxTracksPerArtist} tracks in the playlist. When the mood has fewer
+	 * candidates than requested, or too few distinct artists, the playlist is
+	 * shorter than requested.
+	 * </p>
+	 * 
+	 * @param mood               the mood of the playlist
+	 * @param length             the number of tracks requested
+	 * @param maxTracksPerArtist the maximum number of tracks of one artist, or
+	 *                           {@code 0} for no limit
+	 * @param random             the source of randomness
+	 * @return the Spotify URIs of the tracks, empty if no track fits the mood
+	 */
+	List<String> sample(Mood mood, int length, int maxTracksPerArtist, RandomGenerator random) {
+		long candidates = candidateCount(mood);
+		if (candidates == 0 || length <= 0) {
+			return List.of();
+		}
+		if (candidates <= length) {
+			return all(mood, length, maxTracksPerArtist, random);
+		}
+		List<String> trackUris = new ArrayList<>(length);
+		long[] drawn = new long[length];
+		int[] artists = new int[length];
+		int maxAttempts = length * 8;
+		for (int attempt = 0; trackUris.size() < length && attempt < maxAttempts; attempt++) {
+			long position = random.nextLong(candidates);
+			if (contains(drawn, trackUris.size(), position)) {
+				continue;
+			}
+			int segment = segmentOf(mood, position);
+			TrackCatalogSegment trackSegment = segments[segment];
+			int track = trackSegment.candidate(mood, (int) (position - candidateStart(mood, segment)));
+			int artist = trackSegment.artist(track);
+			if (maxTracksPerArtist > 0 && count(artists, trackUris.size(), artist) >= maxTracksPerArtist) {
+				continue;
+			}
+			drawn[trackUris.size()] = position;
+			artists[trackUris.size()] = artist;
+			trackUris.add(trackSegment.trackUri(track));
+		}
+		return trackUris;
+	}
+
+	/**
+	 * Returns every candidate of a mood, within the limit per artist, in random
+	 * order.
+	 */
+	private List<String> all(Mood mood, int length, int maxTracksPerArtist, RandomGenerator random) {
+		List<String> trackUris = new ArrayList<>(length);
+		int[] artists = new int[length];
+		for (TrackCatalogSegment segment : segments) {
+			for (int candidate = 0; candidate < segment.candidateCount(mood); candidate++) {
+				int track = segment.candidate(mood, candidate);
+				int artist = segment.artist(track);
+				if (maxTracksPerArtist > 0 && count(artists, trackUris.size(), artist) >= maxTracksPerArtist) {
+					continue;
+				}
+				artists[trackUris.size()] = artist;
+				trackUris.add(segment.trackUri(track));
+			}
+		}
+		Collections.shuffle(trackUris, random);
+		return trackUris;
+	}
+
+	private int segmentOf(Mood mood, long position) {
+		int segment = Arrays.binarySearch(candidateEnds[mood.ordinal()], position);
+		// the segment ending at a position starts the next one
+		return segment >= 0 ? nextNonEmpty(mood, segment + 1) : -segment - 1;
+	}
+
+	private int nextNonEmpty(Mood mood, int segment) {
+		while (segments[segment].candidateCount(mood) == 0) {
+			segment++;
+		}
+		return segment;
+	}
+
+	private long candidateStart(Mood mood, int segment) {
+		return segment == 0 ? 0 : candidateEnds[mood.ordinal()][segment - 1];
+	}
+
+	static boolean contains(long[] values, int size, long value) {
+		for (int i = 0; i < size; i++) {
+			if (values[i] == value) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	static int count(int[] values, int size, int value) {
+		int count = 0;
+		for (int i = 0; i < size; i++) {
+			if (values[i] == value) {
+				count++;
+			}
+		}
+		return count;
+	}
+}
@@ -0,0 +1,460 @@
+package io.musicdiscovery.moodplaylist.infrastructure.adapters.output.catalog;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.CRC32C;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Builds the segments of a track catalog from a source file.
+ * 
+ * <p>
+ * The source is either a JSON Lines file, one object per track, or a CSV file
+ * whose first line names the columns. Both carry the {@code id} of the track
+ * (a Spotify id or {@code spotify:track:} URI), its {@code artist} and the
+ * audio features named after {@link AudioFeature}; other fields are ignored,
+ * and so are the rows missing a valid id or feature.
+ * </p>
+ * 
+ * <p>
+ * Builds are incremental: the {@link TrackCatalogManifest} records how much of
+ * the source was built, and as long as the source only grows, an update only
+ * parses the bytes appended since. The new tracks are merged with the last
+ * segment when it is not full, and new segments are added once it is. A source
+ * that shrank or whose built bytes changed is rebuilt from scratch. Only rows
+ * terminated by a line feed are built, so a row being appended is picked up by
+ * the next update. The files of the catalog are replaced atomically, and
+ * segment files that are no longer listed in the manifest are deleted.
+ * </p>
+ * 
+ * <p>
+ * A builder is not thread-safe: updates of a catalog directory must not run
+ * concurrently.
+ * </p>
+ * 
+ * @see TrackCatalog
+ */
+final class TrackCatalogBuilder {
+
+	private static final int FINGERPRINT_BYTES = 64 * 1024;
+	private static final String SEGMENT_PREFIX = "segment-";
+	private static final String SEGMENT_SUFFIX = ".bin";
+	private static final String URI_PREFIX = "spotify:track:";
+	private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+	private final Path source;
+	private final Path directory;
+	private final int maxSegmentTracks;
+	private final boolean csv;
+
+	/**
+	 * Creates a builder.
+	 * 
+	 * @param source           the source file, CSV if its name ends with
+	 *                         {@code .csv}, JSON Lines otherwise
+	 * @param directory        the catalog directory, created if needed
+	 * @param maxSegmentTracks the maximum number of tracks of a segment
+	 */
+	TrackCatalogBuilder(Path source, Path directory, int maxSegmentTracks) {
+		this.source = source.toAbsolutePath().normalize();
+		this.directory = directory;
+		this.maxSegmentTracks = maxSegmentTracks;
+		this.csv = source.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".csv");
+	}
+
+	/**
+	 * Outcome of an update.
+	 * 
+	 * @param rebuilt  whether the catalog was rebuilt from scratch
+	 * @param added    the number of tracks added
+	 * @param rejected the number of rows skipped because they were invalid
+	 */
+	record Update(boolean rebuilt, long added, long rejected) {
+
+		boolean changed() {
+			return rebuilt || added > 0;
+		}
+	}
+
+	/**
+	 * Brings the catalog up to date with its source.
+	 * 
+	 * @return the {@link Update} made
+	 * @throws IOException if the source cannot be read or the catalog written
+	 */
+	Update update() throws IOException {
+		Files.createDirectories(directory);
+		try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+			long length = channel.size();
+			TrackCatalogManifest manifest = TrackCatalogManifest.read(directory);
+			boolean rebuilt = manifest == null || !manifest.source().equals(source.toString())
+					|| length < manifest.sourceOffset()
+					|| fingerprint(channel, manifest.sourceOffset()) != manifest.sourceFingerprint();
+			long start = rebuilt ? 0 : manifest.sourceOffset();
+			if (!rebuilt && start == length) {
+				return new Update(false, 0, 0);
+			}
+
+			List<String> segments = new ArrayList<>(rebuilt ? List.of() : manifest.segments());
+			int nextSegment = manifest == null ? 0 : manifest.nextSegment();
+			TrackCatalogSegmentWriter writer = new TrackCatalogSegmentWriter(maxSegmentTracks);
+			if (!segments.isEmpty()) {
+				TrackCatalogSegment last = TrackCatalogSegment
+						.open(directory.resolve(segments.get(segments.size() - 1)));
+				if (last.size() < maxSegmentTracks) {
+					writer.addAll(last);
+					segments.remove(segments.size() - 1);
+				}
+			}
+
+			RowParser parser = csv ? new CsvRowParser(readHeader(channel)) : new JsonRowParser();
+			LineReader lines = new LineReader(channel, start);
+			byte[] id = new byte[TrackCatalogSegment.ID_LENGTH];
+			float[] features = new float[AudioFeature.values().length];
+			long added = 0;
+			long rejected = 0;
+			while (lines.next()) {
+				if (lines.length() == 0 || csv && lines.lineOffset() == 0) {
+					continue;
+				}
+				int artist = parser.parse(lines.bytes(), lines.length(), id, features);
+				if (artist == RowParser.INVALID) {
+					rejected++;
+					continue;
+				}
+				if (writer.isFull()) {
+					segments.add(writeSegment(writer, nextSegment++));
+					writer.clear();
+				}
+				writer.add(id, artist, features);
+				added++;
+			}
+			if (writer.size() > 0) {
+				segments.add(writeSegment(writer, nextSegment++));
+			}
+
+			long offset = lines.offset();
+			new TrackCatalogManifest(source.toString(), offset, fingerprint(channel, offset), nextSegment, segments)
+					.write(directory);
+			deleteUnlisted(segments);
+			return new Update(rebuilt, added, rejected);
+		}
+	}
+
+	private String writeSegment(TrackCatalogSegmentWriter writer, int sequence) throws IOException {
+		String name = String.format(Locale.ROOT, "%s%06d%s", SEGMENT_PREFIX, sequence, SEGMENT_SUFFIX);
+		writer.write(directory.resolve(name));
+		return name;
+	}
+
+	private void deleteUnlisted(List<String> segments) throws IOException {
+		Set<String> listed = new HashSet<>(segments);
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*")) {
+			for (Path file : files) {
+				if (!listed.contains(file.getFileName().toString())) {
+					Files.deleteIfExists(file);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Fingerprints the first {@code offset} bytes of the source from their head
+	 * and tail, so that an update can tell whether they were modified.
+	 */
+	private static long fingerprint(FileChannel channel, long offset) throws IOException {
+		CRC32C crc = new CRC32C();
+		int head = (int) Math.min(offset, FINGERPRINT_BYTES);
+		crc.update(read(channel, 0, head));
+		crc.update(read(channel, offset - head, head));
+		return crc.getValue() ^ offset;
+	}
+
+	private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(length);
+		while (buffer.hasRemaining() && channel.read(buffer, position + buffer.position()) >= 0) {
+			// read until the buffer is full
+		}
+		return buffer.flip();
+	}
+
+	private static String[] readHeader(FileChannel channel) throws IOException {
+		LineReader lines = new LineReader(channel, 0);
+		if (!lines.next()) {
+			return new String[0];
+		}
+		return CsvRowParser.split(new String(lines.bytes(), 0, lines.length(), StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Reads the complete lines of the source from a given offset, keeping track
+	 * of the offset of the first byte after the last complete line.
+	 */
+	private static final class LineReader {
+
+		private final FileChannel channel;
+		private final ByteBuffer block = ByteBuffer.allocate(64 * 1024).flip();
+		private long position;
+		private byte[] line = new byte[512];
+		private int length;
+		private long lineOffset;
+		private long offset;
+
+		private LineReader(FileChannel channel, long start) {
+			this.channel = channel;
+			this.position = start;
+			this.offset = start;
+		}
+
+		/**
+		 * Reads the next complete line, without its line terminator.
+		 *
+		 * @return {@code false} if there is no complete line left
+		 */
+		boolean next() throws IOException {
+			length = 0;
+			while (true) {
+				byte[] bytes = block.array();
+				int start = block.position();
+				int end = block.limit();
+				for (int i = start; i < end; i++) {
+					if (bytes[i] == '\n') {
+						append(bytes, start, i - start);
+						block.position(i + 1);
+						lineOffset = offset;
+						offset += length + 1;
+						if (length > 0 && line[length - 1] == '\r') {
+							length--;
+						}
+						return true;
+					}
+				}
+				append(bytes, start, end - start);
+				block.clear();
+				int read = channel.read(block, position);
+				block.flip();
+				if (read <= 0) {
+					return false;
+				}
+				position += read;
+			}
+		}
+
+		private void append(byte[] bytes, int from, int count) {
+			if (length + count > line.length) {
+				line = Arrays.copyOf(line, Math.max(line.length * 2, length + count));
+			}
+			System.arraycopy(bytes, from, line, length, count);
+			length += count;
+		}
+
+		byte[] bytes() {
+			return line;
+		}
+
+		int length() {
+			return length;
+		}
+
+		/**
+		 * Returns the offset of the current line in the source.
+		 */
+		long lineOffset() {
+			return lineOffset;
+		}
+
+		/**
+		 * Returns the offset of the first byte after the last complete line.
+		 */
+		long offset() {
+			return offset;
+		}
+	}
+
+	/**
+	 * Parses one row of the source.
+	 */
+	private interface RowParser {
+
+		int INVALID = Integer.MIN_VALUE;
+
+		/**
+		 * Parses a row into the id and features of a track.
+		 * 
+		 * @return the hash of the artist, or {@link #INVALID} if the row is not a
+		 *         valid track
+		 */
+		int parse(byte[] row, int length, byte[] id, float[] features) throws IOException;
+	}
+
+	private static int artistHash(String artist) {
+		int hash = artist == null ? 0 : artist.trim().toLowerCase(Locale.ROOT).hashCode();
+		return hash == RowParser.INVALID ? 0 : hash;
+	}
+
+	private static boolean parseId(String value, byte[] id) {
+		if (value == null) {
+			return false;
+		}
+		String trimmed = value.trim();
+		if (trimmed.startsWith(URI_PREFIX)) {
+			trimmed = trimmed.substring(URI_PREFIX.length());
+		}
+		if (trimmed.length() != TrackCatalogSegment.ID_LENGTH) {
+			return false;
+		}
+		for (int i = 0; i < TrackCatalogSegment.ID_LENGTH; i++) {
+			char c = trimmed.charAt(i);
+			if (!(c >= '0' && c <= '9' || c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z')) {
+				return false;
+			}
+			id[i] = (byte) c;
+		}
+		return true;
+	}
+
+	/**
+	 * Parses JSON Lines rows with a streaming parser, without binding them.
+	 */
+	private static final class JsonRowParser implements RowParser {
+
+		@Override
+		public int parse(byte[] row, int length, byte[] id, float[] features) throws IOException {
+			Arrays.fill(features, Float.NaN);
+			boolean validId = false;
+			String artist = null;
+			try (JsonParser parser = JSON_FACTORY.createParser(row, 0, length)) {
+				if (parser.nextToken() != JsonToken.START_OBJECT) {
+					return INVALID;
+				}
+				while (parser.nextToken() == JsonToken.FIELD_NAME) {
+					String field = parser.currentName();
+					JsonToken value = parser.nextToken();
+					if ("id".equals(field)) {
+						validId = value == JsonToken.VALUE_STRING && parseId(parser.getText(), id);
+					} else if ("artist".equals(field)) {
+						artist = value == JsonToken.VALUE_STRING ? parser.getText() : null;
+					} else {
+						AudioFeature feature = featureNamed(field);
+						if (feature != null && value.isNumeric()) {
+							features[feature.ordinal()] = parser.getFloatValue();
+						} else {
+							parser.skipChildren();
+						}
+					}
+				}
+			} catch (JsonProcessingException e) {
+				return INVALID;
+			}
+			return validId && complete(features) ? artistHash(artist) : INVALID;
+		}
+	}
+
+	/**
+	 * Parses CSV rows according to the columns named by the header line.
+	 */
+	private static final class CsvRowParser implements RowParser {
+
+		private final int idColumn;
+		private final int artistColumn;
+		private final int[] featureColumns = new int[AudioFeature.values().length];
+
+		private CsvRowParser(String[] header) {
+			List<String> columns = Arrays.stream(header).map(column -> column.trim().toLowerCase(Locale.ROOT))
+					.toList();
+			idColumn = columns.indexOf("id");
+			artistColumn = columns.indexOf("artist");
+			for (AudioFeature feature : AudioFeature.values()) {
+				featureColumns[feature.ordinal()] = columns.indexOf(feature.field);
+			}
+		}
+
+		@Override
+		public int parse(byte[] row, int length, byte[] id, float[] features) {
+			String[] values = split(new String(row, 0, length, StandardCharsets.UTF_8));
+			if (idColumn < 0 || idColumn >= values.length || !parseId(values[idColumn], id)) {
+				return INVALID;
+			}
+			for (AudioFeature feature : AudioFeature.values()) {
+				int column = featureColumns[feature.ordinal()];
+				if (column < 0 || column >= values.length) {
+					return INVALID;
+				}
+				try {
+					features[feature.ordinal()] = Float.parseFloat(values[column].trim());
+				} catch (NumberFormatException e) {
+					return INVALID;
+				}
+			}
+			return complete(features)
+					? artistHash(artistColumn >= 0 && artistColumn < values.length ? values[artistColumn] : null)
+					: INVALID;
+		}
+
+		/**
+		 * Splits a CSV line into its values, honouring double-quoted values with
+		 * escaped ({@code ""}) quotes.
+		 */
+		static String[] split(String line) {
+			List<String> values = new ArrayList<>();
+			StringBuilder value = new StringBuilder();
+			boolean quoted = false;
+			for (int i = 0; i < line.length(); i++) {
+				char c = line.charAt(i);
+				if (quoted) {
+					if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+						value.append('"');
+						i++;
+					} else if (c == '"') {
+						quoted = false;
+					} else {
+						value.append(c);
+					}
+				} else if (c == '"') {
+					quoted = true;
+				} else if (c == ',') {
+					values.add(value.toString());
+					value.setLength(0);
+				} else {
+					value.append(c);
+				}
+			}
+			values.add(value.toString());
+			return values.toArray(String[]::new);
+		}
+	}
+
+	private static AudioFeature featureNamed(String field) {
+		for (AudioFeature feature : AudioFeature.values()) {
+			if (feature.field.equals(field)) {
+				return feature;
+			}
+		}
+		return null;
+	}
+
+	private static boolean complete(float[] features) {
+		for (float feature : features) {
+			if (!Float.isFinite(feature)) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
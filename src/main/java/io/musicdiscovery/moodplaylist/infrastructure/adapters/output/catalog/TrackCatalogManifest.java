@@ -0,0 +1,84 @@
+package io.musicdiscovery.moodplaylist.infrastructure.adapters.output.catalog;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Manifest of a track catalog directory.
+ * 
+ * <p>
+ * The manifest lists the segment files making up the catalog, in order, and
+ * records how much of the source file they cover: the offset of the first byte
+ * not built yet and a fingerprint of the bytes before it. It is stored as the
+ * properties file {@value #FILE_NAME} and replaced atomically, so readers
+ * always see a complete set of segments.
+ * </p>
+ * 
+ * @param source            the absolute path of the source file
+ * @param sourceOffset      the number of bytes of the source already built
+ * @param sourceFingerprint the fingerprint of these bytes
+ * @param nextSegment       the sequence number of the next segment file
+ * @param segments          the names of the segment files
+ */
+record TrackCatalogManifest(String source, long sourceOffset, long sourceFingerprint, int nextSegment,
+		List<String> segments) {
+
+	static final String FILE_NAME = "catalog.properties";
+
+	/**
+	 * Reads the manifest of a catalog directory.
+	 * 
+	 * @param directory the catalog directory
+	 * @return the manifest, or {@code null} if the directory holds none
+	 * @throws IOException if the manifest cannot be read
+	 */
+	static TrackCatalogManifest read(Path directory) throws IOException {
+		Path file = directory.resolve(FILE_NAME);
+		if (!Files.exists(file)) {
+			return null;
+		}
+		Properties properties = new Properties();
+		try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			properties.load(reader);
+		}
+		if (!String.valueOf(TrackCatalogSegment.VERSION).equals(properties.getProperty("version"))) {
+			return null;
+		}
+		String segments = properties.getProperty("segments", "");
+		return new TrackCatalogManifest(properties.getProperty("source"),
+				Long.parseLong(properties.getProperty("source-offset")),
+				Long.parseLong(properties.getProperty("source-fingerprint")),
+				Integer.parseInt(properties.getProperty("next-segment")),
+				segments.isEmpty() ? List.of() : Arrays.asList(segments.split(",")));
+	}
+
+	/**
+	 * Writes this manifest to a catalog directory, replacing the previous one.
+	 * 
+	 * @param directory the catalog directory
+	 * @throws IOException if the manifest cannot be written
+	 */
+	void write(Path directory) throws IOException {
+		Properties properties = new Properties();
+		properties.setProperty("version", String.valueOf(TrackCatalogSegment.VERSION));
+		properties.setProperty("source", source);
+		properties.setProperty("source-offset", String.valueOf(sourceOffset));
+		properties.setProperty("source-fingerprint", String.valueOf(sourceFingerprint));
+		properties.setProperty("next-segment", String.valueOf(nextSegment));
+		properties.setProperty("segments", String.join(",", segments));
+		Path temporary = directory.resolve(FILE_NAME + ".tmp");
+		try (Writer writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+			properties.store(writer, "Track catalog");
+		}
+		Files.move(temporary, directory.resolve(FILE_NAME), StandardCopyOption.REPLACE_EXISTING,
+				StandardCopyOption.ATOMIC_MOVE);
+	}
+}
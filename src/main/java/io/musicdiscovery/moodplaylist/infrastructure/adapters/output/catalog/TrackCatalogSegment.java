@@ -0,0 +1,172 @@
+package io.musicdiscovery.moodplaylist.infrastructure.adapters.output.catalog;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import io.musicdiscovery.moodplaylist.domain.model.enums.Mood;
+
+/**
+ * Read-only, memory-mapped segment of the track catalog.
+ * 
+ * <p>
+ * A segment file stores its tracks column by column (structure of arrays), in
+ * little-endian order, every column starting on a 64-byte boundary:
+ * </p>
+ * <ul>
+ * <li>a 64-byte header: magic number, format version, number of tracks, number
+ * of moods, the offsets of the columns below and the length of the file;</li>
+ * <li>the Spotify ids of the tracks, {@value #ID_LENGTH} ASCII bytes each;</li>
+ * <li>the hash of the artist of every track, as {@code int} values;</li>
+ * <li>one column of {@code float} values per {@link AudioFeature};</li>
+ * <li>the candidates of every mood: {@code moods + 1} {@code int} offsets
+ * followed by the indexes of the candidate tracks, grouped by mood.</li>
+ * </ul>
+ * 
+ * <p>
+ * Opening a segment maps the file and reads its header, nothing is parsed or
+ * copied to the heap: the columns are read through views of the mapping, and
+ * the pages of the file are loaded by the operating system as they are
+ * accessed. Segments are therefore cheap to open and the catalog may be far
+ * larger than the heap. A segment is kept below 2 GiB so that a single mapping
+ * covers it.
+ * </p>
+ * 
+ * @see TrackCatalogSegmentWriter
+ */
+final class TrackCatalogSegment {
+
+	static final int MAGIC = 0x5443504D;
+	static final int VERSION = 1;
+	static final int HEADER_BYTES = 64;
+	static final int ALIGNMENT = 64;
+	static final int ID_LENGTH = 22;
+
+	private static final byte[] URI_PREFIX = "spotify:track:".getBytes(StandardCharsets.US_ASCII);
+	private static final int MOODS = Mood.values().length;
+
+	private final ByteBuffer buffer;
+	private final int size;
+	private final int idsOffset;
+	private final IntBuffer artists;
+	private final FloatBuffer[] features;
+	private final IntBuffer candidates;
+	private final int[] candidateStarts;
+
+	private TrackCatalogSegment(Path file, ByteBuffer buffer) throws IOException {
+		this.buffer = buffer;
+		if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+			throw new IOException("Not a track catalog segment: " + file);
+		}
+		if (buffer.getInt(4) != VERSION || buffer.getInt(12) != MOODS) {
+			throw new IOException("Unsupported track catalog segment format: " + file);
+		}
+		if (buffer.getLong(48) != buffer.capacity()) {
+			throw new IOException("Truncated track catalog segment: " + file);
+		}
+		this.size = buffer.getInt(8);
+		this.idsOffset = (int) buffer.getLong(16);
+		this.artists = slice((int) buffer.getLong(24), size * Integer.BYTES).asIntBuffer();
+		int featuresOffset = (int) buffer.getLong(32);
+		int featureStride = align(size * Float.BYTES);
+		this.features = new FloatBuffer[AudioFeature.values().length];
+		for (AudioFeature feature : AudioFeature.values()) {
+			features[feature.ordinal()] = slice(featuresOffset + feature.ordinal() * featureStride,
+					size * Float.BYTES).asFloatBuffer();
+		}
+		int candidatesOffset = (int) buffer.getLong(40);
+		this.candidateStarts = new int[MOODS + 1];
+		slice(candidatesOffset, candidateStarts.length * Integer.BYTES).asIntBuffer().get(candidateStarts);
+		int candidatesStart = candidatesOffset + candidateStarts.length * Integer.BYTES;
+		this.candidates = slice(candidatesStart, candidateStarts[MOODS] * Integer.BYTES).asIntBuffer();
+	}
+
+	/**
+	 * Maps a segment file.
+	 * 
+	 * @param file the segment file
+	 * @return the mapped segment
+	 * @throws IOException if the file cannot be mapped or is not a segment of
+	 *                     the current format
+	 */
+	static TrackCatalogSegment open(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())
+					.order(ByteOrder.LITTLE_ENDIAN);
+			return new TrackCatalogSegment(file, buffer);
+		}
+	}
+
+	/**
+	 * Rounds a length up to the column alignment.
+	 */
+	static int align(long length) {
+		return (int) ((length + ALIGNMENT - 1) & -ALIGNMENT);
+	}
+
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the Spotify URI of a track, e.g. {@code spotify:track:<id>}.
+	 */
+	String trackUri(int track) {
+		byte[] uri = new byte[URI_PREFIX.length + ID_LENGTH];
+		System.arraycopy(URI_PREFIX, 0, uri, 0, URI_PREFIX.length);
+		buffer.get(idsOffset + track * ID_LENGTH, uri, URI_PREFIX.length, ID_LENGTH);
+		return new String(uri, StandardCharsets.US_ASCII);
+	}
+
+	/**
+	 * Copies the Spotify id of a track.
+	 */
+	void copyId(int track, byte[] id) {
+		buffer.get(idsOffset + track * ID_LENGTH, id, 0, ID_LENGTH);
+	}
+
+	int artist(int track) {
+		return artists.get(track);
+	}
+
+	float feature(AudioFeature feature, int track) {
+		return features[feature.ordinal()].get(track);
+	}
+
+	/**
+	 * Copies the values of a feature for a range of tracks.
+	 * 
+	 * @param feature the feature
+	 * @param track   the index of the first track
+	 * @param values  receives the values, from its start
+	 * @param length  the number of tracks
+	 */
+	void copyFeature(AudioFeature feature, int track, float[] values, int length) {
+		features[feature.ordinal()].get(track, values, 0, length);
+	}
+
+	int candidateCount(Mood mood) {
+		return candidateStarts[mood.ordinal() + 1] - candidateStarts[mood.ordinal()];
+	}
+
+	/**
+	 * Returns the index of a candidate track of a mood.
+	 * 
+	 * @param mood      the mood
+	 * @param candidate the position of the candidate among those of the mood
+	 * @return the index of the track in this segment
+	 */
+	int candidate(Mood mood, int candidate) {
+		return candidates.get(candidateStarts[mood.ordinal()] + candidate);
+	}
+
+	private ByteBuffer slice(int offset, int length) {
+		return buffer.slice(offset, length).order(ByteOrder.LITTLE_ENDIAN);
+	}
+}
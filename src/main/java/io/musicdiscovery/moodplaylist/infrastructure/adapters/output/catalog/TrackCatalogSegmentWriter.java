@@ -0,0 +1,187 @@
+package io.musicdiscovery.moodplaylist.infrastructure.adapters.output.catalog;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import io.musicdiscovery.moodplaylist.domain.model.enums.Mood;
+
+/**
+ * Accumulates tracks in columns and writes them as a {@link TrackCatalogSegment}
+ * file.
+ * 
+ * <p>
+ * The columns grow as tracks are added, up to the capacity of the writer, which
+ * bounds both the heap used while building and the size of the segment file.
+ * The moods of every track are computed by the {@link MoodRules} as it is
+ * added, and written as the candidate lists of the segment. A writer can be
+ * reused for several segments through {@link #clear()}.
+ * </p>
+ */
+final class TrackCatalogSegmentWriter {
+
+	/**
+	 * Largest capacity keeping a segment file below 2 GiB.
+	 */
+	static final int MAX_CAPACITY = 1 << 24;
+
+	private static final int FEATURES = AudioFeature.values().length;
+	private static final int MOODS = Mood.values().length;
+
+	private final int capacity;
+	private byte[] ids = new byte[0];
+	private int[] artists = new int[0];
+	private float[][] features = new float[FEATURES][0];
+	private byte[] moods = new byte[0];
+	private int size;
+
+	/**
+	 * Creates a writer.
+	 * 
+	 * @param capacity the maximum number of tracks of a segment
+	 */
+	TrackCatalogSegmentWriter(int capacity) {
+		if (capacity < 1 || capacity > MAX_CAPACITY) {
+			throw new IllegalArgumentException("Segment capacity must be within [1, " + MAX_CAPACITY + "]");
+		}
+		this.capacity = capacity;
+	}
+
+	int size() {
+		return size;
+	}
+
+	boolean isFull() {
+		return size == capacity;
+	}
+
+	/**
+	 * Adds a track.
+	 * 
+	 * @param id            the {@value TrackCatalogSegment#ID_LENGTH} ASCII
+	 *                      bytes of the Spotify id of the track
+	 * @param artist        the hash of the artist of the track
+	 * @param trackFeatures the audio features of the track, indexed by the
+	 *                      ordinal of the {@link AudioFeature}
+	 */
+	void add(byte[] id, int artist, float[] trackFeatures) {
+		if (isFull()) {
+			throw new IllegalStateException("Segment is full");
+		}
+		ensureCapacity(size + 1);
+		System.arraycopy(id, 0, ids, size * TrackCatalogSegment.ID_LENGTH, TrackCatalogSegment.ID_LENGTH);
+		artists[size] = artist;
+		for (int feature = 0; feature < FEATURES; feature++) {
+			features[feature][size] = trackFeatures[feature];
+		}
+		moods[size] = (byte) MoodRules.moodsOf(trackFeatures);
+		size++;
+	}
+
+	/**
+	 * Adds every track of a segment, e.g. to merge a small segment with new
+	 * tracks.
+	 * 
+	 * @param segment the segment to copy
+	 */
+	void addAll(TrackCatalogSegment segment) {
+		byte[] id = new byte[TrackCatalogSegment.ID_LENGTH];
+		float[] trackFeatures = new float[FEATURES];
+		for (int track = 0; track < segment.size(); track++) {
+			segment.copyId(track, id);
+			for (AudioFeature feature : AudioFeature.values()) {
+				trackFeatures[feature.ordinal()] = segment.feature(feature, track);
+			}
+			add(id, segment.artist(track), trackFeatures);
+		}
+	}
+
+	/**
+	 * Removes every track from the writer.
+	 */
+	void clear() {
+		size = 0;
+	}
+
+	/**
+	 * Writes the tracks added so far as a segment file.
+	 * 
+	 * <p>
+	 * The file is written next to its target and moved into place once
+	 * complete, so a reader never maps a partially written segment.
+	 * </p>
+	 * 
+	 * @param file the segment file to write
+	 * @throws IOException if the file cannot be written
+	 */
+	void write(Path file) throws IOException {
+		int[] candidateStarts = new int[MOODS + 1];
+		for (int track = 0; track < size; track++) {
+			for (int mood = 0; mood < MOODS; mood++) {
+				if ((moods[track] & 1 << mood) != 0) {
+					candidateStarts[mood + 1]++;
+				}
+			}
+		}
+		for (int mood = 0; mood < MOODS; mood++) {
+			candidateStarts[mood + 1] += candidateStarts[mood];
+		}
+
+		long idsOffset = TrackCatalogSegment.HEADER_BYTES;
+		long artistsOffset = idsOffset + TrackCatalogSegment.align((long) size * TrackCatalogSegment.ID_LENGTH);
+		long featuresOffset = artistsOffset + TrackCatalogSegment.align((long) size * Integer.BYTES);
+		int featureStride = TrackCatalogSegment.align((long) size * Float.BYTES);
+		long candidatesOffset = featuresOffset + (long) FEATURES * featureStride;
+		long length = candidatesOffset + (long) (candidateStarts.length + candidateStarts[MOODS]) * Integer.BYTES;
+
+		Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+		try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, length);
+			buffer.order(ByteOrder.LITTLE_ENDIAN);
+			buffer.putInt(0, TrackCatalogSegment.MAGIC).putInt(4, TrackCatalogSegment.VERSION).putInt(8, size)
+					.putInt(12, MOODS).putLong(16, idsOffset).putLong(24, artistsOffset)
+					.putLong(32, featuresOffset).putLong(40, candidatesOffset).putLong(48, length);
+			buffer.put((int) idsOffset, ids, 0, size * TrackCatalogSegment.ID_LENGTH);
+			buffer.slice((int) artistsOffset, size * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer()
+					.put(artists, 0, size);
+			for (int feature = 0; feature < FEATURES; feature++) {
+				buffer.slice((int) featuresOffset + feature * featureStride, size * Float.BYTES)
+						.order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().put(features[feature], 0, size);
+			}
+			int candidatesStart = (int) candidatesOffset + candidateStarts.length * Integer.BYTES;
+			int[] next = Arrays.copyOf(candidateStarts, MOODS);
+			for (int mood = 0; mood <= MOODS; mood++) {
+				buffer.putInt((int) candidatesOffset + mood * Integer.BYTES, candidateStarts[mood]);
+			}
+			for (int track = 0; track < size; track++) {
+				for (int mood = 0; mood < MOODS; mood++) {
+					if ((moods[track] & 1 << mood) != 0) {
+						buffer.putInt(candidatesStart + next[mood]++ * Integer.BYTES, track);
+					}
+				}
+			}
+			buffer.force();
+		}
+		Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private void ensureCapacity(int required) {
+		if (required <= artists.length) {
+			return;
+		}
+		int length = (int) Math.min(capacity, Math.max(1024, (long) artists.length * 2));
+		ids = Arrays.copyOf(ids, length * TrackCatalogSegment.ID_LENGTH);
+		artists = Arrays.copyOf(artists, length);
+		for (int feature = 0; feature < FEATURES; feature++) {
+			features[feature] = Arrays.copyOf(features[feature], length);
+		}
+		moods = Arrays.copyOf(moods, length);
+	}
+}
@@ -0,0 +1,88 @@
+package io.musicdiscovery.moodplaylist.infrastructure.adapters.output.catalog;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+import io.musicdiscovery.moodplaylist.domain.model.enums.Mood;
+
+/**
+ * The tracks of a catalog nearest to the target of a mood, nearest first.
+ * 
+ * <p>
+ * A ranking copies the URIs and artists of its tracks, so it does not depend
+ * on the catalog it was computed from and is safe for concurrent use.
+ * </p>
+ * 
+ * @see NearestTrackRanker
+ */
+final class TrackRanking {
+
+	private final Mood mood;
+	private final String[] trackUris;
+	private final int[] artists;
+	private final float[] distances;
+
+	TrackRanking(Mood mood, String[] trackUris, int[] artists, float[] distances) {
+		this.mood = mood;
+		this.trackUris = trackUris;
+		this.artists = artists;
+		this.distances = distances;
+	}
+
+	Mood mood() {
+		return mood;
+	}
+
+	int size() {
+		return trackUris.length;
+	}
+
+	String trackUri(int rank) {
+		return trackUris[rank];
+	}
+
+	float distance(int rank) {
+		return distances[rank];
+	}
+
+	/**
+	 * Draws a playlist of distinct tracks of the ranking.
+	 * 
+	 * <p>
+	 * Tracks are drawn uniformly among the ranked ones, so that successive
+	 * playlists of a mood differ, skipping the ones already drawn and the ones
+	 * whose artist already has {@code maxTracksPerArtist} tracks in the
+	 * playlist, as in {@link TrackCatalog#sample}.
+	 * </p>
+	 * 
+	 * @param length             the number of tracks requested
+	 * @param maxTracksPerArtist the maximum number of tracks of one artist, or
+	 *                           {@code 0} for no limit
+	 * @param random             the source of randomness
+	 * @return the Spotify URIs of the tracks, empty if the ranking is empty
+	 */
+	List<String> sample(int length, int maxTracksPerArtist, RandomGenerator random) {
+		if (trackUris.length == 0 || length <= 0) {
+			return List.of();
+		}
+		List<String> playlist = new ArrayList<>(length);
+		long[] drawn = new long[length];
+		int[] playlistArtists = new int[length];
+		int maxAttempts = length * 8;
+		for (int attempt = 0; playlist.size() < length && attempt < maxAttempts; attempt++) {
+			int rank = random.nextInt(trackUris.length);
+			if (TrackCatalog.contains(drawn, playlist.size(), rank)) {
+				continue;
+			}
+			if (maxTracksPerArtist > 0
+					&& TrackCatalog.count(playlistArtists, playlist.size(), artists[rank]) >= maxTracksPerArtist) {
+				continue;
+			}
+			drawn[playlist.size()] = rank;
+			playlistArtists[playlist.size()] = artists[rank];
+			playlist.add(trackUris[rank]);
+		}
+		return playlist;
+	}
+}
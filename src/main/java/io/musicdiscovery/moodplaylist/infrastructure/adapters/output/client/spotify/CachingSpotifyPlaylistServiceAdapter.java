@@ -0,0 +1,187 @@
+package io.musicdiscovery.moodplaylist.infrastructure.adapters.output.client.spotify;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineStatsCounter;
+import io.musicdiscovery.moodplaylist.application.port.output.SpotifyPlaylistServicePort;
+import io.musicdiscovery.moodplaylist.config.PortMetrics;
+import io.musicdiscovery.moodplaylist.config.PortMetrics.PortTimer;
+import io.musicdiscovery.moodplaylist.domain.model.Playlist;
+import io.musicdiscovery.moodplaylist.domain.model.enums.Mood;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Caching decorator for the {@link SpotifyPlaylistServicePort}.
+ * 
+ * <p>
+ * There are only a handful of {@link Mood} values, so the Spotify search result
+ * for a mood is kept in a bounded in-memory cache instead of being requested on
+ * every call. The cache is keyed by the search parameters, the mood and the
+ * length of the playlist.
+ * </p>
+ * 
+ * <p>
+ * Entries are served stale-while-revalidate: once an entry is older than
+ * {@code spotify.cache.refresh-after-write}, the next caller still gets the
+ * cached playlist immediately while a single background reload refreshes it.
+ * Entries older than {@code spotify.cache.expire-after-write} are discarded and
+ * the cache never holds more than {@code spotify.cache.maximum-size} entries.
+ * Concurrent misses for the same key share one load. A stored playlist served
+ * by the {@link ResilientSpotifyPlaylistServiceAdapter} while Spotify is
+ * unavailable, recognizable by its identifier, is only kept for
+ * {@code spotify.cache.fallback-expire-after-write}, so that Spotify is tried
+ * again soon.
+ * </p>
+ * 
+ * <p>
+ * Streamed tracks are served from a cached playlist when one is already
+ * loaded. Otherwise they are streamed from the
+ * {@link ResilientSpotifyPlaylistServiceAdapter} as they arrive, without
+ * waiting for a whole playlist to be loaded into the cache.
+ * </p>
+ * 
+ * <p>
+ * Hit, miss, eviction and load-time metrics are published as the standard
+ * {@code cache.*} meters tagged with {@code cache=spotify.playlist}, and
+ * every call of the port, cached or not, is timed through {@link PortMetrics}
+ * with {@code port=spotify}.
+ * </p>
+ * 
+ * <p>
+ * The cache is the Spotify side of the {@code LocalCatalogPlaylistServiceAdapter},
+ * the {@link SpotifyPlaylistServicePort} injected into the application
+ * services; it delegates to the {@link ResilientSpotifyPlaylistServiceAdapter}
+ * on cache misses.
+ * </p>
+ * 
+ * @see ResilientSpotifyPlaylistServiceAdapter
+ */
+@Component
+@RequiredArgsConstructor
+public class CachingSpotifyPlaylistServiceAdapter implements SpotifyPlaylistServicePort {
+
+	private final ResilientSpotifyPlaylistServiceAdapter delegate;
+	private final MeterRegistry meterRegistry;
+	private final PortMetrics portMetrics;
+
+	@Value("${spotify.cache.enabled:true}")
+	private boolean enabled;
+
+	@Value("${spotify.cache.maximum-size:100}")
+	private long maximumSize;
+
+	@Value("${spotify.cache.refresh-after-write:5m}")
+	private Duration refreshAfterWrite;
+
+	@Value("${spotify.cache.expire-after-write:1h}")
+	private Duration expireAfterWrite;
+
+	@Value("${spotify.cache.fallback-expire-after-write:10s}")
+	private Duration fallbackExpireAfterWrite;
+
+	private AsyncLoadingCache<SearchKey, Playlist> cache;
+	private PortTimer generateTimer;
+
+	/**
+	 * Builds the playlist cache and registers its metrics.
+	 */
+	@PostConstruct
+	void init() {
+		generateTimer = portMetrics.timer("spotify", "generate");
+		CaffeineStatsCounter statsCounter = new CaffeineStatsCounter(meterRegistry, "spotify.playlist");
+		cache = Caffeine.newBuilder().maximumSize(maximumSize).refreshAfterWrite(refreshAfterWrite)
+				.expireAfter(new PlaylistExpiry(expireAfterWrite.toNanos(), fallbackExpireAfterWrite.toNanos()))
+				.recordStats(() -> statsCounter)
+				.buildAsync((key, executor) -> delegate.generatePlaylist(key.mood(), key.length()).toFuture());
+		statsCounter.registerSizeMetric(cache.synchronous());
+	}
+
+	/**
+	 * Returns the playlist for the given mood from the cache, loading it from
+	 * Spotify on a miss.
+	 * 
+	 * <p>
+	 * Every caller receives its own copy of the cached playlist, identifier
+	 * included, so persisting or modifying it never alters the cached entry.
+	 * Cancelling the returned {@link Mono} does not cancel a load other callers
+	 * may be waiting for.
+	 * </p>
+	 * 
+	 * @param mood   the mood of the user, used to generate an appropriate playlist
+	 * @param length the number of tracks requested
+	 * @return a {@link Mono} emitting a copy of the cached {@link Playlist}
+	 */
+	@Override
+	public Mono<Playlist> generatePlaylist(Mood mood, int length) {
+		if (!enabled) {
+			return generateTimer.time(mood, delegate.generatePlaylist(mood, length));
+		}
+		SearchKey key = new SearchKey(mood, length);
+		return generateTimer.time(mood,
+				Mono.fromFuture(() -> cache.get(key), true).map(CachingSpotifyPlaylistServiceAdapter::copyOf));
+	}
+
+	/**
+	 * Streams the track URIs of the cached playlist for the given mood, or those
+	 * streamed from Spotify when none is loaded yet.
+	 * 
+	 * @param mood   the mood of the user, used to generate an appropriate playlist
+	 * @param length the number of tracks requested
+	 * @return a {@link Flux} emitting the track URIs of the playlist in order
+	 */
+	@Override
+	public Flux<String> streamTrackUris(Mood mood, int length) {
+		return Flux.defer(() -> {
+			CompletableFuture<Playlist> cached = enabled ? cache.getIfPresent(new SearchKey(mood, length)) : null;
+			if (cached != null && cached.isDone() && !cached.isCompletedExceptionally()) {
+				return Flux.fromIterable(cached.join().getTrackUris());
+			}
+			return delegate.streamTrackUris(mood, length);
+		});
+	}
+
+	private static Playlist copyOf(Playlist playlist) {
+		return new Playlist(playlist.getId(), playlist.getMood(), new ArrayList<>(playlist.getTrackUris()));
+	}
+
+	/**
+	 * Key of the cached search results.
+	 */
+	private record SearchKey(Mood mood, int length) {
+	}
+
+	/**
+	 * Expires a playlist a fixed time after it was loaded, sooner when it is a
+	 * stored playlist served in place of a fresh one.
+	 */
+	private record PlaylistExpiry(long freshNanos, long fallbackNanos) implements Expiry<SearchKey, Playlist> {
+
+		@Override
+		public long expireAfterCreate(SearchKey key, Playlist playlist, long currentTime) {
+			return playlist.getId() == null ? freshNanos : fallbackNanos;
+		}
+
+		@Override
+		public long expireAfterUpdate(SearchKey key, Playlist playlist, long currentTime, long currentDuration) {
+			return expireAfterCreate(key, playlist, currentTime);
+		}
+
+		@Override
+		public long expireAfterRead(SearchKey key, Playlist playlist, long currentTime, long currentDuration) {
+			return currentDuration;
+		}
+	}
+}
@@ -0,0 +1,92 @@
+package io.musicdiscovery.moodplaylist.infrastructure.adapters.output.client.spotify;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bounded list of distinct tracks, in the order they were first added. Tracks
+ * are identified by their Spotify URI, so two tracks of the same album are
+ * distinct.
+ * 
+ * <p>
+ * Duplicates are detected with an open-addressing hash table of indexes into
+ * the list, sized once for the capacity: adding a track allocates nothing,
+ * unlike a {@link java.util.HashSet}, which allocates an entry per element and
+ * grows by rehashing. The list itself is allocated for the capacity too and
+ * returned by {@link #tracks()} as is, so a playlist is assembled from the
+ * pages of a search without copying.
+ * </p>
+ * 
+ * <p>
+ * Instances are not thread-safe.
+ * </p>
+ */
+final class DistinctTrackList {
+
+	private final int capacity;
+	private final List<String> tracks;
+	private final int[] table;
+	private final int mask;
+
+	/**
+	 * Creates an empty list.
+	 * 
+	 * @param capacity the maximum number of tracks
+	 */
+	DistinctTrackList(int capacity) {
+		this.capacity = capacity;
+		this.tracks = new ArrayList<>(capacity);
+		// a load factor of at most one half keeps probe sequences short
+		this.table = new int[Integer.highestOneBit(Math.max(capacity, 1) * 2 - 1) << 1];
+		this.mask = table.length - 1;
+	}
+
+	/**
+	 * Adds a track unless the list is full or already holds it.
+	 * 
+	 * @param track the URI of the track
+	 * @return whether the track was added
+	 */
+	boolean add(String track) {
+		if (isFull()) {
+			return false;
+		}
+		int hash = track.hashCode();
+		for (int slot = (hash ^ hash >>> 16) & mask;; slot = (slot + 1) & mask) {
+			int index = table[slot];
+			if (index == 0) {
+				tracks.add(track);
+				// indexes are stored plus one, zero marking a free slot
+				table[slot] = tracks.size();
+				return true;
+			}
+			if (tracks.get(index - 1).equals(track)) {
+				return false;
+			}
+		}
+	}
+
+	/**
+	 * Adds the tracks of a page that are not in the list yet, until it is full.
+	 * 
+	 * @param page the tracks to add, in order
+	 * @return this list
+	 */
+	DistinctTrackList addAll(List<String> page) {
+		for (int i = 0; i < page.size() && !isFull(); i++) {
+			add(page.get(i));
+		}
+		return this;
+	}
+
+	boolean isFull() {
+		return tracks.size() == capacity;
+	}
+
+	/**
+	 * Returns the tracks of the list, backed by the list itself.
+	 */
+	List<String> tracks() {
+		return tracks;
+	}
+}
@@ -0,0 +1,195 @@
+package io.musicdiscovery.moodplaylist.infrastructure.adapters.output.client.spotify;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Hedges slow calls by sending a second, identical call and keeping whichever
+ * answers first.
+ * 
+ * <p>
+ * The hedge delay follows the observed latency: the latencies of the last
+ * {@code windowSize} successful calls are kept in a ring buffer, and a call
+ * that has not answered within the configured percentile of them, bounded by
+ * {@code minDelay} and {@code maxDelay}, is hedged. Until enough latencies
+ * have been observed, {@code maxDelay} is used. The first call to emit a value
+ * wins and the other one is cancelled.
+ * </p>
+ * 
+ * <p>
+ * Only slowness is hedged, not failures: when the first call fails before the
+ * hedge delay has elapsed, its failure is returned right away and no hedge is
+ * sent, so a failing upstream is neither waited for nor called twice. Once a
+ * hedge has been sent, a call failing does not end the race, and the result
+ * only fails when both calls have failed, with the failure of the first call.
+ * </p>
+ * 
+ * <p>
+ * Hedges are paid for from a budget: every call deposits {@code budgetRatio}
+ * of a token, up to {@code maxBudget} tokens, and every hedge withdraws a whole
+ * one. Hedges therefore never exceed {@code budgetRatio} of the calls, plus a
+ * small burst, even when the upstream slows down as a whole.
+ * </p>
+ * 
+ * <p>
+ * The counters {@code <name>} tagged with {@code result=fired|won|denied} and
+ * the gauges {@code <name>.delay} and {@code <name>.budget} are published.
+ * </p>
+ */
+class HedgingPolicy {
+
+	private static final long TOKEN = 1_000;
+
+	private final double percentile;
+	private final long minDelayNanos;
+	private final long maxDelayNanos;
+	private final long deposit;
+	private final long maxBudget;
+	private final int minSamples;
+
+	private final AtomicLongArray samples;
+	private final AtomicLong recorded = new AtomicLong();
+	private final AtomicLong budget = new AtomicLong();
+	private volatile long delayNanos;
+
+	private final Counter fired;
+	private final Counter won;
+	private final Counter denied;
+
+	/**
+	 * Creates a hedging policy publishing its metrics under the given name.
+	 * 
+	 * @param meterRegistry the registry the metrics are published to
+	 * @param name          the metric name
+	 * @param percentile    the latency percentile after which a call is hedged,
+	 *                      between 0 and 1
+	 * @param minDelay      the shortest hedge delay
+	 * @param maxDelay      the longest hedge delay, also used until enough
+	 *                      latencies have been observed
+	 * @param windowSize    the number of latencies the delay is computed from
+	 * @param budgetRatio   the share of calls that may be hedged
+	 * @param maxBudget     the number of hedges that may be fired in a burst
+	 */
+	HedgingPolicy(MeterRegistry meterRegistry, String name, double percentile, Duration minDelay,
+			Duration maxDelay, int windowSize, double budgetRatio, int maxBudget) {
+		this.percentile = percentile;
+		this.minDelayNanos = minDelay.toNanos();
+		this.maxDelayNanos = maxDelay.toNanos();
+		this.deposit = Math.round(budgetRatio * TOKEN);
+		this.maxBudget = maxBudget * TOKEN;
+		this.samples = new AtomicLongArray(windowSize);
+		this.minSamples = Math.max(1, windowSize / 10);
+		this.delayNanos = maxDelayNanos;
+		this.fired = Counter.builder(name).tag("result", "fired").description("Hedged calls sent")
+				.register(meterRegistry);
+		this.won = Counter.builder(name).tag("result", "won").description("Hedged calls that answered first")
+				.register(meterRegistry);
+		this.denied = Counter.builder(name).tag("result", "denied")
+				.description("Hedges not sent because the budget was exhausted").register(meterRegistry);
+		Gauge.builder(name + ".delay", this, policy -> policy.delayNanos / 1_000_000d).baseUnit("milliseconds")
+				.description("Delay after which a call is hedged").register(meterRegistry);
+		Gauge.builder(name + ".budget", budget, value -> value.get() / (double) TOKEN)
+				.description("Hedges that may currently be sent").register(meterRegistry);
+	}
+
+	/**
+	 * Executes the call, hedging it if it is slower than the current delay.
+	 * 
+	 * @param <T>  the type of the value emitted by the call
+	 * @param call supplies a new, identical call each time it is invoked
+	 * @return a {@link Mono} emitting the value of whichever call answers first,
+	 *         or signalling the failure of the first call if none does or if it
+	 *         failed before a hedge was sent
+	 */
+	<T> Mono<T> execute(Supplier<Mono<T>> call) {
+		return Mono.defer(() -> {
+			budget.getAndAccumulate(deposit, (current, amount) -> Math.min(maxBudget, current + amount));
+			Sinks.One<Throwable> primaryFailed = Sinks.one();
+			Mono<T> primary = timed(call).doOnError(primaryFailed::tryEmitValue);
+			Mono<T> hedge = Mono.delay(Duration.ofNanos(delayNanos)).takeUntilOther(primaryFailed.asMono())
+					.flatMap(tick -> hedge(call));
+			return Mono.firstWithValue(primary, hedge).onErrorResume(HedgingPolicy::originalOutcome);
+		});
+	}
+
+	/**
+	 * Sends a hedge if the budget allows it.
+	 * 
+	 * @return a {@link Mono} emitting the value of the hedge, or completing empty
+	 *         if the budget is exhausted
+	 */
+	private <T> Mono<T> hedge(Supplier<Mono<T>> call) {
+		if (!tryWithdraw()) {
+			denied.increment();
+			return Mono.empty();
+		}
+		fired.increment();
+		return timed(call).doOnNext(value -> won.increment());
+	}
+
+	/**
+	 * Unwraps the error signalled by {@link Mono#firstWithValue(Mono, Mono[])}
+	 * when no call emitted a value, so that callers see the failure of the first
+	 * failed call rather than a composite of all of them, or complete empty when
+	 * no call failed.
+	 */
+	private static <T> Mono<T> originalOutcome(Throwable error) {
+		if (!(error instanceof NoSuchElementException) || error.getCause() == null) {
+			return Mono.error(error);
+		}
+		for (Throwable cause : Exceptions.unwrapMultiple(error.getCause())) {
+			if (!(cause instanceof NoSuchElementException)) {
+				return Mono.error(cause);
+			}
+		}
+		return Mono.empty();
+	}
+
+	private <T> Mono<T> timed(Supplier<Mono<T>> call) {
+		return Mono.defer(() -> {
+			long start = System.nanoTime();
+			return call.get().doOnNext(value -> record(System.nanoTime() - start));
+		});
+	}
+
+	private boolean tryWithdraw() {
+		long current;
+		do {
+			current = budget.get();
+			if (current < TOKEN) {
+				return false;
+			}
+		} while (!budget.compareAndSet(current, current - TOKEN));
+		return true;
+	}
+
+	/**
+	 * Records the latency of a successful call, recomputing the hedge delay once
+	 * every eighth of the window.
+	 */
+	private void record(long latencyNanos) {
+		long count = recorded.getAndIncrement();
+		samples.set((int) (count % samples.length()), latencyNanos);
+		if (count + 1 >= minSamples && (count + 1) % Math.max(1, samples.length() / 8) == 0) {
+			int size = (int) Math.min(count + 1, samples.length());
+			long[] sorted = new long[size];
+			for (int i = 0; i < size; i++) {
+				sorted[i] = samples.get(i);
+			}
+			Arrays.sort(sorted);
+			long observed = sorted[(int) Math.min(size - 1, Math.ceil(percentile * size) - 1)];
+			delayNanos = Math.max(minDelayNanos, Math.min(maxDelayNanos, observed));
+		}
+	}
+}
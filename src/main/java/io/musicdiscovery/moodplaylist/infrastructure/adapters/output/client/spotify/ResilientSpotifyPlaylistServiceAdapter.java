@@ -0,0 +1,266 @@
+package io.musicdiscovery.moodplaylist.infrastructure.adapters.output.client.spotify;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedTimeLimiterMetrics;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.github.resilience4j.reactor.timelimiter.TimeLimiterOperator;
+import io.github.resilience4j.timelimiter.TimeLimiter;
+import io.github.resilience4j.timelimiter.TimeLimiterConfig;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.musicdiscovery.moodplaylist.application.port.output.PlaylistPersistencePort;
+import io.musicdiscovery.moodplaylist.application.port.output.SpotifyPlaylistServicePort;
+import io.musicdiscovery.moodplaylist.domain.exception.PlaylistProviderUnavailableException;
+import io.musicdiscovery.moodplaylist.domain.model.Playlist;
+import io.musicdiscovery.moodplaylist.domain.model.enums.Mood;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Resilience decorator for the {@link SpotifyPlaylistServiceAdapter}.
+ * 
+ * <p>
+ * Every call to Spotify, whether it generates a whole playlist or streams its
+ * tracks, goes through, from the outside in:
+ * </p>
+ * <ul>
+ * <li>a bulkhead capping the number of concurrent calls, so that a slow
+ * Spotify cannot tie up every connection and event-loop slot;</li>
+ * <li>a circuit breaker that stops calling Spotify once too many recent calls
+ * failed or were slow, and probes it again after a while;</li>
+ * <li>a time limiter bounding each call, well below the HTTP client
+ * timeouts.</li>
+ * </ul>
+ * 
+ * <p>
+ * When a call fails, is rejected by the bulkhead or is not permitted by the
+ * open circuit, the most recent playlist persisted for the mood is served
+ * instead, whatever its length. A stream only falls back while it has not
+ * emitted any track yet; once it has, its failure is signalled as is. If no
+ * playlist is stored for the mood, a
+ * {@link PlaylistProviderUnavailableException} is signalled so that the client
+ * gets a {@code 503} rather than a {@code 500}. Calls rejected by the
+ * {@link SpotifyRateLimiter} are handled the same way, but do not count as
+ * failures for the circuit breaker, since they never reached Spotify.
+ * </p>
+ * 
+ * <p>
+ * The standard {@code resilience4j.*} meters are published for the
+ * {@code spotify} instances, together with the counters
+ * {@code spotify.resilience.circuitbreaker.transitions}, tagged with the
+ * {@code from} and {@code to} states, and {@code spotify.resilience.fallback},
+ * tagged with the {@code reason} and whether a stale playlist was
+ * {@code served}.
+ * </p>
+ * 
+ * @see CachingSpotifyPlaylistServiceAdapter
+ * @see SpotifyPlaylistServiceAdapter
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ResilientSpotifyPlaylistServiceAdapter implements SpotifyPlaylistServicePort {
+
+	private static final String INSTANCE = "spotify";
+
+	private final SpotifyPlaylistServiceAdapter delegate;
+	private final PlaylistPersistencePort playlistPersistencePort;
+	private final MeterRegistry meterRegistry;
+
+	@Value("${spotify.resilience.circuit-breaker.failure-rate-threshold:50}")
+	private float failureRateThreshold;
+
+	@Value("${spotify.resilience.circuit-breaker.slow-call-rate-threshold:80}")
+	private float slowCallRateThreshold;
+
+	@Value("${spotify.resilience.circuit-breaker.slow-call-duration-threshold:2s}")
+	private Duration slowCallDurationThreshold;
+
+	@Value("${spotify.resilience.circuit-breaker.sliding-window-size:20}")
+	private int slidingWindowSize;
+
+	@Value("${spotify.resilience.circuit-breaker.minimum-number-of-calls:10}")
+	private int minimumNumberOfCalls;
+
+	@Value("${spotify.resilience.circuit-breaker.wait-duration-in-open-state:30s}")
+	private Duration waitDurationInOpenState;
+
+	@Value("${spotify.resilience.circuit-breaker.permitted-calls-in-half-open-state:3}")
+	private int permittedCallsInHalfOpenState;
+
+	@Value("${spotify.resilience.bulkhead.max-concurrent-calls:20}")
+	private int maxConcurrentCalls;
+
+	@Value("${spotify.resilience.bulkhead.max-wait-duration:0ms}")
+	private Duration maxWaitDuration;
+
+	@Value("${spotify.resilience.timeout:3s}")
+	private Duration timeout;
+
+	private CircuitBreaker circuitBreaker;
+	private Bulkhead bulkhead;
+	private TimeLimiter timeLimiter;
+
+	/**
+	 * Creates the circuit breaker, bulkhead and time limiter and registers their
+	 * metrics.
+	 */
+	@PostConstruct
+	void init() {
+		CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+				.failureRateThreshold(failureRateThreshold).slowCallRateThreshold(slowCallRateThreshold)
+				.slowCallDurationThreshold(slowCallDurationThreshold).slidingWindowSize(slidingWindowSize)
+				.minimumNumberOfCalls(minimumNumberOfCalls).waitDurationInOpenState(waitDurationInOpenState)
+				.permittedNumberOfCallsInHalfOpenState(permittedCallsInHalfOpenState)
+				.automaticTransitionFromOpenToHalfOpenEnabled(true)
+				.ignoreExceptions(SpotifyRateLimitExceededException.class).build());
+		BulkheadRegistry bulkheadRegistry = BulkheadRegistry.of(BulkheadConfig.custom()
+				.maxConcurrentCalls(maxConcurrentCalls).maxWaitDuration(maxWaitDuration).build());
+		TimeLimiterRegistry timeLimiterRegistry = TimeLimiterRegistry
+				.of(TimeLimiterConfig.custom().timeoutDuration(timeout).build());
+
+		circuitBreaker = circuitBreakerRegistry.circuitBreaker(INSTANCE);
+		bulkhead = bulkheadRegistry.bulkhead(INSTANCE);
+		timeLimiter = timeLimiterRegistry.timeLimiter(INSTANCE);
+
+		TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakerRegistry).bindTo(meterRegistry);
+		TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheadRegistry).bindTo(meterRegistry);
+		TaggedTimeLimiterMetrics.ofTimeLimiterRegistry(timeLimiterRegistry).bindTo(meterRegistry);
+
+		circuitBreaker.getEventPublisher().onStateTransition(event -> {
+			CircuitBreaker.StateTransition transition = event.getStateTransition();
+			log.warn("Spotify circuit breaker transitioned from {} to {}", transition.getFromState(),
+					transition.getToState());
+			Counter.builder("spotify.resilience.circuitbreaker.transitions")
+					.tag("from", transition.getFromState().name()).tag("to", transition.getToState().name())
+					.description("State transitions of the Spotify circuit breaker").register(meterRegistry)
+					.increment();
+		});
+	}
+
+	/**
+	 * Generates a playlist through Spotify, protected by the bulkhead, circuit
+	 * breaker and time limiter, falling back to the latest stored playlist of the
+	 * mood.
+	 * 
+	 * @param mood   the mood of the user, used to generate an appropriate playlist
+	 * @param length the number of tracks requested
+	 * @return a {@link Mono} emitting the generated or the stale {@link Playlist}
+	 */
+	@Override
+	public Mono<Playlist> generatePlaylist(Mood mood, int length) {
+		return generatePlaylist(mood, length, 0);
+	}
+
+	/**
+	 * Generates a playlist from the Spotify search results starting at the given
+	 * offset, protected and falling back as by
+	 * {@link #generatePlaylist(Mood, int)}.
+	 * 
+	 * @param mood   the mood of the user, used to generate an appropriate playlist
+	 * @param length the number of tracks requested
+	 * @param offset the index of the first search result
+	 * @return a {@link Mono} emitting the generated or the stale {@link Playlist}
+	 * @see SpotifyPlaylistServiceAdapter#generatePlaylist(Mood, int, int)
+	 */
+	public Mono<Playlist> generatePlaylist(Mood mood, int length, int offset) {
+		return Mono.defer(() -> delegate.generatePlaylist(mood, length, offset))
+				.transformDeferred(TimeLimiterOperator.of(timeLimiter))
+				.transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+				.transformDeferred(BulkheadOperator.of(bulkhead)).onErrorResume(error -> fallback(mood, error));
+	}
+
+	/**
+	 * Streams the track URIs of a playlist through Spotify, protected by the
+	 * bulkhead, circuit breaker and time limiter, falling back to the tracks of
+	 * the latest stored playlist of the mood if the stream fails before its first
+	 * track.
+	 * 
+	 * <p>
+	 * The bulkhead permit is held until the stream terminates, and the time
+	 * limiter bounds the wait for the first track and between two tracks.
+	 * </p>
+	 * 
+	 * @param mood   the mood of the user, used to generate an appropriate playlist
+	 * @param length the number of tracks requested
+	 * @return a {@link Flux} emitting the track URIs of the generated or the stale
+	 *         playlist
+	 */
+	@Override
+	public Flux<String> streamTrackUris(Mood mood, int length) {
+		return Flux.defer(() -> {
+			AtomicBoolean emitted = new AtomicBoolean();
+			return Flux.defer(() -> delegate.streamTrackUris(mood, length))
+					.transformDeferred(TimeLimiterOperator.of(timeLimiter))
+					.transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+					.transformDeferred(BulkheadOperator.of(bulkhead)).doOnNext(trackUri -> emitted.set(true))
+					.onErrorResume(error -> emitted.get() ? Flux.error(error)
+							: fallback(mood, error).flatMapIterable(Playlist::getTrackUris));
+		});
+	}
+
+	/**
+	 * Serves the most recent persisted playlist for the mood in place of a failed
+	 * Spotify call.
+	 * 
+	 * @param mood  the mood of the requested playlist
+	 * @param error the failure of the Spotify call
+	 * @return a {@link Mono} emitting the stale {@link Playlist}, or signalling a
+	 *         {@link PlaylistProviderUnavailableException} if there is none
+	 */
+	private Mono<Playlist> fallback(Mood mood, Throwable error) {
+		String reason = reasonOf(error);
+		return playlistPersistencePort.findByMood(mood, null, 1).next().onErrorResume(lookupError -> {
+			log.warn("Could not look up a stale {} playlist: {}", mood, lookupError.getMessage());
+			return Mono.empty();
+		}).doOnNext(playlist -> countFallback(reason, true))
+				.switchIfEmpty(Mono.error(() -> {
+					countFallback(reason, false);
+					return new PlaylistProviderUnavailableException(
+							"Playlist provider unavailable (" + reason + "): " + error.getMessage(), error);
+				}));
+	}
+
+	private void countFallback(String reason, boolean served) {
+		Counter.builder("spotify.resilience.fallback").tag("reason", reason).tag("served", String.valueOf(served))
+				.description("Spotify calls answered with the latest stored playlist").register(meterRegistry)
+				.increment();
+	}
+
+	private static String reasonOf(Throwable error) {
+		if (error instanceof CallNotPermittedException) {
+			return "circuit_open";
+		}
+		if (error instanceof BulkheadFullException) {
+			return "bulkhead_full";
+		}
+		if (error instanceof SpotifyRateLimitExceededException) {
+			return "rate_limited";
+		}
+		if (error instanceof TimeoutException) {
+			return "timeout";
+		}
+		return "error";
+	}
+}
@@ -0,0 +1,280 @@
+package io.musicdiscovery.moodplaylist.infrastructure.adapters.output.client.spotify;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.musicdiscovery.moodplaylist.config.PortMetrics;
+import io.musicdiscovery.moodplaylist.config.PortMetrics.PortTimer;
+import io.musicdiscovery.moodplaylist.infrastructure.adapters.output.client.spotify.model.response.SpotifyAccessTokenResponse;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Caches the Spotify client credentials access token and keeps it fresh in the
+ * background.
+ * 
+ * <p>
+ * The token returned by Spotify's accounts service is valid for
+ * {@code expires_in} seconds, so there is no need to request a new one for
+ * every playlist. This component keeps the last {@link SpotifyAccessTokenResponse}
+ * in memory and schedules a refresh {@code spotify.token.refresh-before-expiry}
+ * ahead of its expiration, taking the token round-trip out of the request hot
+ * path. A failed background refresh is retried after
+ * {@code spotify.token.retry-delay} for as long as the current token is still
+ * valid. A call to the token endpoint that does not answer within
+ * {@code spotify.token.fetch-timeout} fails, so a hung connection cannot keep
+ * the callers waiting forever.
+ * </p>
+ * 
+ * <p>
+ * Concurrent callers that find no valid token share a single in-flight refresh
+ * instead of each calling the token endpoint. The refresh is decoupled from the
+ * callers' subscriptions, so a caller cancelling does not abort the refresh the
+ * others are waiting for.
+ * </p>
+ * 
+ * <p>
+ * The following metrics are published: {@code spotify.token.refresh} (tagged by
+ * {@code outcome}), {@code spotify.token.refresh.latency},
+ * {@code spotify.token.cache} (tagged by {@code result}) and
+ * {@code spotify.token.cache.hit.ratio}. Callers waiting for a token and calls
+ * to the token endpoint are also timed through {@link PortMetrics} with
+ * {@code port=spotify_token} and {@code operation=get|fetch}.
+ * </p>
+ * 
+ * @see SpotifyPlaylistServiceAdapter
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SpotifyAccessTokenManager {
+
+	private final WebClient spotifyWebClient;
+	private final MeterRegistry meterRegistry;
+	private final PortMetrics portMetrics;
+
+	@Value("${spotify.client-id}")
+	private String clientId;
+
+	@Value("${spotify.client-secret}")
+	private String clientSecret;
+
+	@Value("${spotify.token-url:https://accounts.spotify.com/api/token}")
+	private String tokenUrl;
+
+	@Value("${spotify.token.refresh-before-expiry:60s}")
+	private Duration refreshBeforeExpiry;
+
+	@Value("${spotify.token.retry-delay:5s}")
+	private Duration retryDelay;
+
+	@Value("${spotify.token.fetch-timeout:10s}")
+	private Duration fetchTimeout;
+
+	private final AtomicReference<CachedToken> current = new AtomicReference<>();
+	private final AtomicReference<Mono<CachedToken>> inFlight = new AtomicReference<>();
+	private final AtomicReference<Disposable> scheduledRefresh = new AtomicReference<>();
+
+	private Counter hits;
+	private Counter misses;
+	private Counter refreshSuccess;
+	private Counter refreshFailure;
+	private Timer refreshLatency;
+	private PortTimer getTimer;
+	private PortTimer fetchTimer;
+
+	/**
+	 * Registers the token cache metrics.
+	 */
+	@PostConstruct
+	void init() {
+		getTimer = portMetrics.timer("spotify_token", "get");
+		fetchTimer = portMetrics.timer("spotify_token", "fetch");
+		hits = Counter.builder("spotify.token.cache").tag("result", "hit")
+				.description("Access token requests served from the cache").register(meterRegistry);
+		misses = Counter.builder("spotify.token.cache").tag("result", "miss")
+				.description("Access token requests that had to wait for a refresh").register(meterRegistry);
+		refreshSuccess = Counter.builder("spotify.token.refresh").tag("outcome", "success")
+				.description("Calls to the Spotify token endpoint").register(meterRegistry);
+		refreshFailure = Counter.builder("spotify.token.refresh").tag("outcome", "failure")
+				.description("Calls to the Spotify token endpoint").register(meterRegistry);
+		refreshLatency = Timer.builder("spotify.token.refresh.latency")
+				.description("Latency of the Spotify token endpoint").register(meterRegistry);
+		Gauge.builder("spotify.token.cache.hit.ratio", this, SpotifyAccessTokenManager::hitRatio)
+				.description("Ratio of access token requests served from the cache").register(meterRegistry);
+	}
+
+	/**
+	 * Cancels the scheduled background refresh on shutdown.
+	 */
+	@PreDestroy
+	void shutdown() {
+		Disposable task = scheduledRefresh.getAndSet(null);
+		if (task != null) {
+			task.dispose();
+		}
+	}
+
+	/**
+	 * Returns a valid Spotify access token.
+	 * 
+	 * <p>
+	 * A cached, non-expired token is returned immediately. Otherwise the caller
+	 * joins the in-flight refresh, starting one if none is running.
+	 * </p>
+	 * 
+	 * @return a {@link Mono} emitting the access token as a String.
+	 */
+	public Mono<String> getAccessToken() {
+		return getTimer.time(null, Mono.defer(() -> {
+			CachedToken token = current.get();
+			if (token != null && token.isValidAt(Instant.now())) {
+				hits.increment();
+				return Mono.just(token.value());
+			}
+			misses.increment();
+			return refresh().map(CachedToken::value);
+		}));
+	}
+
+	/**
+	 * Encodes the Spotify client credentials (client ID and client secret) using
+	 * Base64 encoding.
+	 * 
+	 * @return the Base64 encoded string of the client credentials.
+	 */
+	public String getEncodedCredentials() {
+		String credentials = clientId + ":" + clientSecret;
+		return Base64.getEncoder().encodeToString(credentials.getBytes());
+	}
+
+	/**
+	 * Returns the shared in-flight refresh, starting a new one if none is running.
+	 * 
+	 * <p>
+	 * The refresh is subscribed to eagerly and its result is relayed through a
+	 * {@link Sinks.One}, so every waiting caller receives the same token or the
+	 * same error. The refresh is cleared once it terminates however it does, and
+	 * an empty answer or a timeout is relayed as an error, so the sink always
+	 * emits.
+	 * </p>
+	 * 
+	 * @return a {@link Mono} emitting the refreshed token
+	 */
+	private Mono<CachedToken> refresh() {
+		while (true) {
+			Mono<CachedToken> existing = inFlight.get();
+			if (existing != null) {
+				return existing;
+			}
+			Sinks.One<CachedToken> sink = Sinks.one();
+			Mono<CachedToken> shared = sink.asMono();
+			if (inFlight.compareAndSet(null, shared)) {
+				fetchToken().subscribe(token -> {
+					current.set(token);
+					inFlight.compareAndSet(shared, null);
+					scheduleRefresh(token.refreshAt());
+					sink.tryEmitValue(token);
+				}, error -> {
+					inFlight.compareAndSet(shared, null);
+					CachedToken stale = current.get();
+					if (stale != null && stale.isValidAt(Instant.now().plus(retryDelay))) {
+						scheduleRefresh(Instant.now().plus(retryDelay));
+					}
+					sink.tryEmitError(error);
+				}, () -> {
+					inFlight.compareAndSet(shared, null);
+					sink.tryEmitError(new IllegalStateException("The Spotify token refresh completed without a token"));
+				});
+				return shared;
+			}
+		}
+	}
+
+	/**
+	 * Schedules a background refresh at the given instant, replacing any refresh
+	 * scheduled before.
+	 * 
+	 * @param at the instant at which the token should be refreshed
+	 */
+	private void scheduleRefresh(Instant at) {
+		Duration delay = Duration.between(Instant.now(), at);
+		Disposable task = Mono.delay(delay.isNegative() ? Duration.ZERO : delay).flatMap(tick -> refresh())
+				.subscribe(token -> log.debug("Spotify access token refreshed in the background"),
+						error -> log.warn("Background refresh of the Spotify access token failed: {}",
+								error.getMessage()));
+		Disposable previous = scheduledRefresh.getAndSet(task);
+		if (previous != null) {
+			previous.dispose();
+		}
+	}
+
+	/**
+	 * Performs the client credentials flow against Spotify's accounts service, at
+	 * {@code spotify.token-url}.
+	 * 
+	 * <p>
+	 * The call fails after {@code spotify.token.fetch-timeout}, and an answer
+	 * without a token is signalled as an error. Both are recorded in the refresh
+	 * metrics as failures, like any other error.
+	 * </p>
+	 * 
+	 * @return a {@link Mono} emitting the new token together with its expiry
+	 */
+	private Mono<CachedToken> fetchToken() {
+		return fetchTimer.time(null, Mono.defer(() -> {
+			Timer.Sample sample = Timer.start(meterRegistry);
+			return spotifyWebClient.post().uri(tokenUrl).header("Authorization", "Basic " + getEncodedCredentials())
+					.header("Content-Type", "application/x-www-form-urlencoded")
+					.bodyValue("grant_type=client_credentials").retrieve()
+					.bodyToMono(SpotifyAccessTokenResponse.class).map(this::toCachedToken)
+					.switchIfEmpty(Mono.error(() -> new IllegalStateException(
+							"The Spotify token endpoint answered without an access token")))
+					.timeout(fetchTimeout).doOnNext(token -> {
+						sample.stop(refreshLatency);
+						refreshSuccess.increment();
+					}).doOnError(error -> {
+						sample.stop(refreshLatency);
+						refreshFailure.increment();
+					});
+		}));
+	}
+
+	private CachedToken toCachedToken(SpotifyAccessTokenResponse response) {
+		Instant now = Instant.now();
+		Instant expiresAt = now.plusSeconds(response.getExpiresIn());
+		Instant refreshAt = expiresAt.minus(refreshBeforeExpiry);
+		return new CachedToken(response.getAccessToken(), expiresAt, refreshAt.isBefore(now) ? now : refreshAt);
+	}
+
+	private double hitRatio() {
+		double total = hits.count() + misses.count();
+		return total == 0 ? 0 : hits.count() / total;
+	}
+
+	/**
+	 * An access token together with the instants at which it expires and should be
+	 * refreshed.
+	 */
+	private record CachedToken(String value, Instant expiresAt, Instant refreshAt) {
+
+		boolean isValidAt(Instant instant) {
+			return instant.isBefore(expiresAt);
+		}
+	}
+}
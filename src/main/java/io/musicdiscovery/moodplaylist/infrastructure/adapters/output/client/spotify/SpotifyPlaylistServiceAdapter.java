@@ -1,17 +1,23 @@
 package io.musicdiscovery.moodplaylist.infrastructure.adapters.output.client.spotify;
 
-import java.util.stream.Collectors;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import io.musicdiscovery.moodplaylist.application.port.output.SpotifyPlaylistServicePort;
+import io.musicdiscovery.moodplaylist.config.PortMetrics;
+import io.musicdiscovery.moodplaylist.config.PortMetrics.PortTimer;
 import io.musicdiscovery.moodplaylist.domain.model.Playlist;
 import io.musicdiscovery.moodplaylist.domain.model.enums.Mood;
-import io.musicdiscovery.moodplaylist.infrastructure.adapters.output.client.spotify.model.response.SpotifyAccessTokenResponse;
-import io.musicdiscovery.moodplaylist.infrastructure.adapters.output.client.spotify.model.response.SpotifyRecommendationsResponse;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
@@ -20,9 +26,35 @@ import reactor.core.publisher.Mono;
  * mood and authenticates using Spotify's client credentials flow.
  * 
  * <p>
- * This class uses {@link WebClient} to make HTTP requests to the Spotify API to
- * search for tracks based on the user's mood and retrieve Spotify access
- * tokens.
+ * This class uses the shared Spotify {@link WebClient} defined in
+ * {@code SpotifyConfig} to make HTTP requests to the Spotify API to
+ * search for tracks based on the user's mood. Access tokens are obtained from
+ * the {@link SpotifyAccessTokenManager}, which caches them across requests.
+ * The search response is streamed through the
+ * {@link SpotifySearchResponseDecoder}, which only extracts the URIs of the
+ * tracks.
+ * </p>
+ * 
+ * <p>
+ * Spotify returns at most {@code spotify.search.page-size} (50) results per
+ * search, so a longer playlist is fetched as several pages at consecutive
+ * offsets. Up to {@code spotify.search.concurrency} pages are requested at the
+ * same time and merged in the order of their offsets into a
+ * {@link DistinctTrackList}, which drops duplicate tracks and becomes the
+ * playlist without being copied. When the tracks are streamed, the new
+ * distinct tracks of each page are emitted as soon as the page and those
+ * before it have arrived.
+ * </p>
+ * 
+ * <p>
+ * When {@code spotify.hedging.enabled} is set, a search that is slower than
+ * usual is hedged with a second, identical one, see {@link HedgingPolicy}.
+ * </p>
+ * 
+ * <p>
+ * Every search call and the mapping of the responses are timed separately
+ * through {@link PortMetrics} with {@code port=spotify_api} and
+ * {@code operation=search|map}.
  * </p>
  * 
  * <p>
@@ -37,89 +69,176 @@ import reactor.core.publisher.Mono;
 @RequiredArgsConstructor
 public class SpotifyPlaylistServiceAdapter implements SpotifyPlaylistServicePort {
 
-	private final WebClient.Builder webClientBuilder;
+	private final WebClient spotifyWebClient;
+	private final SpotifyAccessTokenManager accessTokenManager;
+	private final SpotifySearchResponseDecoder searchResponseDecoder;
+	private final MeterRegistry meterRegistry;
+	private final PortMetrics portMetrics;
+
+	@Value("${spotify.search.page-size:50}")
+	private int pageSize;
+
+	@Value("${spotify.search.max-results:1000}")
+	private int maxResults;
+
+	@Value("${spotify.search.concurrency:4}")
+	private int searchConcurrency;
 
-	@Value("${spotify.client-id}")
-	private String clientId;
+	@Value("${spotify.hedging.enabled:false}")
+	private boolean hedgingEnabled;
 
-	@Value("${spotify.client-secret}")
-	private String clientSecret;
+	@Value("${spotify.hedging.percentile:0.95}")
+	private double hedgingPercentile;
+
+	@Value("${spotify.hedging.min-delay:50ms}")
+	private Duration hedgingMinDelay;
+
+	@Value("${spotify.hedging.max-delay:1s}")
+	private Duration hedgingMaxDelay;
+
+	@Value("${spotify.hedging.window-size:1024}")
+	private int hedgingWindowSize;
+
+	@Value("${spotify.hedging.budget-ratio:0.05}")
+	private double hedgingBudgetRatio;
+
+	@Value("${spotify.hedging.max-budget:10}")
+	private int hedgingMaxBudget;
+
+	private HedgingPolicy searchHedging;
+	private PortTimer searchTimer;
+	private PortTimer mapTimer;
 
 	/**
-	 * Creates a {@link WebClient} instance configured with the base URL of the
-	 * Spotify API.
-	 *
-	 * @return a configured WebClient instance.
+	 * Creates the timers of the search calls and, when hedging is enabled, their
+	 * hedging policy.
 	 */
-	public WebClient webClient() {
-		return webClientBuilder.baseUrl("https://api.spotify.com").build();
+	@PostConstruct
+	void init() {
+		searchTimer = portMetrics.timer("spotify_api", "search");
+		mapTimer = portMetrics.timer("spotify_api", "map");
+		if (hedgingEnabled) {
+			searchHedging = new HedgingPolicy(meterRegistry, "spotify.search.hedge", hedgingPercentile,
+					hedgingMinDelay, hedgingMaxDelay, hedgingWindowSize, hedgingBudgetRatio, hedgingMaxBudget);
+		}
 	}
 
 	/**
 	 * Generates a playlist of tracks from Spotify based on the given mood.
 	 * 
 	 * <p>
-	 * This method retrieves an access token using the Spotify client credentials
-	 * flow, performs a search query to the Spotify API for tracks related to the
-	 * given mood, and then collects the Spotify URIs of the retrieved tracks.
+	 * This method obtains the cached access token from the
+	 * {@link SpotifyAccessTokenManager}, performs the search queries to the
+	 * Spotify API for tracks related to the given mood, one per page of results,
+	 * and then collects the distinct Spotify URIs of the retrieved tracks.
 	 * </p>
 	 * 
-	 * @param mood the user's mood used as a search term for generating a playlist.
+	 * @param mood   the user's mood used as a search term for generating a
+	 *               playlist.
+	 * @param length the number of tracks requested
 	 * @return a {@link Mono} containing the generated {@link Playlist} object.
 	 */
 	@Override
-	public Mono<Playlist> generatePlaylist(Mood mood) {
-		return getAccessToken().flatMap(accessToken -> webClient().get()
-				.uri(uriBuilder -> uriBuilder.path("/v1/search").queryParam("q", mood.toString())
-						.queryParam("type", "track").queryParam("limit", 10).build())
-				.headers(headers -> headers.setBearerAuth(accessToken)).retrieve()
-				.bodyToMono(SpotifyRecommendationsResponse.class).map(response -> {
+	public Mono<Playlist> generatePlaylist(Mood mood, int length) {
+		return generatePlaylist(mood, length, 0);
+	}
+
+	/**
+	 * Generates a playlist of tracks from the Spotify search results starting at
+	 * the given offset, as by {@link #generatePlaylist(Mood, int)}.
+	 * 
+	 * <p>
+	 * Spotify serves at most {@code spotify.search.max-results} (1000) results
+	 * per search, offset included, so the offset is lowered as needed to keep the
+	 * last page within that limit.
+	 * </p>
+	 * 
+	 * @param mood   the user's mood used as a search term for generating a
+	 *               playlist.
+	 * @param length the number of tracks requested
+	 * @param offset the index of the first search result
+	 * @return a {@link Mono} containing the generated {@link Playlist} object.
+	 */
+	public Mono<Playlist> generatePlaylist(Mood mood, int length, int offset) {
+		int firstResult = Math.max(0, Math.min(offset, maxResults - length));
+		return accessTokenManager.getAccessToken()
+				.flatMap(accessToken -> searchPages(accessToken, mood, firstResult, length)
+						.reduceWith(() -> new DistinctTrackList(length), DistinctTrackList::addAll))
+				.map(trackUris -> mapTimer.record(mood, () -> {
 					Playlist playlist = new Playlist();
 					playlist.setMood(mood);
-					playlist.setTrackUris(response.getTracks().getItems().stream()
-							.map(track -> track.getAlbum().getExternalUrls().getSpotify())
-							.collect(Collectors.toList()));
+					playlist.setTrackUris(trackUris.tracks());
 					return playlist;
 				}));
 	}
 
 	/**
-	 * Obtains an access token from Spotify by performing the client credentials
-	 * flow.
-	 *
+	 * Streams the track URIs of a playlist from Spotify based on the given mood.
+	 * 
 	 * <p>
-	 * This method sends a POST request to the Spotify authentication service to
-	 * obtain an access token using the client credentials (client ID and client
-	 * secret).
+	 * The pages are searched as by {@link #generatePlaylist(Mood, int)}, and the
+	 * distinct tracks of each page are emitted as soon as it arrives, in the
+	 * order of the offsets, instead of once every page has been received.
 	 * </p>
 	 * 
-	 * @return a {@link Mono} containing the access token as a String.
+	 * @param mood   the user's mood used as a search term for generating a
+	 *               playlist.
+	 * @param length the number of tracks requested
+	 * @return a {@link Flux} emitting the track URIs of the playlist in order
+	 */
+	@Override
+	public Flux<String> streamTrackUris(Mood mood, int length) {
+		return accessTokenManager.getAccessToken().flatMapMany(accessToken -> Flux.defer(() -> {
+			DistinctTrackList trackUris = new DistinctTrackList(length);
+			return searchPages(accessToken, mood, 0, length).concatMapIterable(page -> {
+				int emitted = trackUris.tracks().size();
+				trackUris.addAll(page);
+				return List.copyOf(trackUris.tracks().subList(emitted, trackUris.tracks().size()));
+			});
+		}));
+	}
+
+	/**
+	 * Searches Spotify for every page of the tracks of a playlist, from the
+	 * result at {@code firstResult} on, at most {@code spotify.search.concurrency}
+	 * at the same time, and emits them in the order of their offsets.
+	 */
+	private Flux<List<String>> searchPages(String accessToken, Mood mood, int firstResult, int length) {
+		int pages = (length + pageSize - 1) / pageSize;
+		return Flux.range(0, pages).flatMapSequential(
+				page -> searchPage(accessToken, mood, firstResult, length, page),
+				Math.max(1, Math.min(pages, searchConcurrency)), 1);
+	}
+
+	/**
+	 * Searches Spotify for one page of the tracks of a playlist, timed and
+	 * hedged. The page is collected so that the hedge races whole responses.
 	 */
-	public Mono<String> getAccessToken() {
-		String encodedCredentials = getEncodedCredentials();
-
-		return WebClient.create().post().uri("https://accounts.spotify.com/api/token")
-				.header("Authorization", "Basic " + encodedCredentials)
-				.header("Content-Type", "application/x-www-form-urlencoded").bodyValue("grant_type=client_credentials")
-				.retrieve().bodyToMono(SpotifyAccessTokenResponse.class)
-				.map(SpotifyAccessTokenResponse::getAccessToken);
+	private Mono<List<String>> searchPage(String accessToken, Mood mood, int firstResult, int length, int page) {
+		int offset = page * pageSize;
+		return searchTimer.time(mood, hedged(() -> search(accessToken, mood, firstResult + offset,
+				Math.min(pageSize, length - offset)).collectList()));
 	}
 
 	/**
-	 * Encodes the Spotify client credentials (client ID and client secret) using
-	 * Base64 encoding.
+	 * Searches Spotify for one page of tracks related to the given mood.
 	 * 
-	 * <p>
-	 * This method combines the client ID and client secret into a single string,
-	 * and then encodes the result using Base64, which is required for
-	 * authentication with the Spotify API.
-	 * </p>
-	 *
-	 * @return the Base64 encoded string of the client credentials.
+	 * @param accessToken the access token authorizing the call
+	 * @param mood        the mood used as the search term
+	 * @param offset      the index of the first result of the page
+	 * @param limit       the number of results of the page
+	 * @return a {@link Flux} emitting the URIs of the tracks found
 	 */
-	public String getEncodedCredentials() {
-		String credentials = clientId + ":" + clientSecret;
-		return java.util.Base64.getEncoder().encodeToString(credentials.getBytes());
+	private Flux<String> search(String accessToken, Mood mood, int offset, int limit) {
+		return spotifyWebClient.get()
+				.uri(uriBuilder -> uriBuilder.path("/v1/search").queryParam("q", mood.toString())
+						.queryParam("type", "track").queryParam("offset", offset).queryParam("limit", limit).build())
+				.headers(headers -> headers.setBearerAuth(accessToken)).retrieve()
+				.bodyToFlux(DataBuffer.class).as(searchResponseDecoder::decode);
+	}
+
+	private <T> Mono<T> hedged(Supplier<Mono<T>> call) {
+		return searchHedging == null ? Mono.defer(call) : searchHedging.execute(call);
 	}
 
 }
@@ -0,0 +1,59 @@
+package io.musicdiscovery.moodplaylist.infrastructure.adapters.output.client.spotify;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.musicdiscovery.moodplaylist.application.port.output.PrewarmPlaylistSourcePort;
+import io.musicdiscovery.moodplaylist.domain.model.Playlist;
+import io.musicdiscovery.moodplaylist.domain.model.enums.Mood;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+/**
+ * Adapter that implements the {@link PrewarmPlaylistSourcePort} with the
+ * {@link ResilientSpotifyPlaylistServiceAdapter}, below the Spotify cache and
+ * the local catalog.
+ * 
+ * <p>
+ * While {@code playlist.catalog.enabled} is set, playlists are drawn from the
+ * local catalog without calling Spotify, so there is nothing to pre-generate
+ * and the source reports itself unavailable.
+ * </p>
+ * 
+ * @see ResilientSpotifyPlaylistServiceAdapter
+ */
+@Component
+@RequiredArgsConstructor
+public class SpotifyPrewarmPlaylistSourceAdapter implements PrewarmPlaylistSourcePort {
+
+	private final ResilientSpotifyPlaylistServiceAdapter delegate;
+
+	@Value("${playlist.catalog.enabled:false}")
+	private boolean catalogEnabled;
+
+	/**
+	 * Tells whether playlists are generated by Spotify rather than drawn from the
+	 * local catalog.
+	 * 
+	 * @return {@code true} unless the local catalog is enabled
+	 */
+	@Override
+	public boolean isAvailable() {
+		return !catalogEnabled;
+	}
+
+	/**
+	 * Generates a playlist through Spotify from the search results starting at
+	 * the given offset, protected by the resilience decorators.
+	 * 
+	 * @param mood   the mood of the playlist
+	 * @param length the number of tracks requested
+	 * @param offset the index of the first search result
+	 * @return a {@link Mono} emitting the generated or the stale {@link Playlist}
+	 */
+	@Override
+	public Mono<Playlist> generatePlaylist(Mood mood, int length, int offset) {
+		return delegate.generatePlaylist(mood, length, offset);
+	}
+
+}
@@ -0,0 +1,33 @@
+package io.musicdiscovery.moodplaylist.infrastructure.adapters.output.client.spotify;
+
+/**
+ * Exception signalled when a call to Spotify cannot get a permit from the
+ * {@link SpotifyRateLimiter} within the maximum wait.
+ * 
+ * <p>
+ * The call is never sent, so this exception says nothing about the health of
+ * Spotify and is not recorded as a failure by the circuit breaker.
+ * </p>
+ * 
+ * <p>
+ * The {@code serialVersionUID} is defined to ensure serialization compatibility
+ * across different JVM versions when instances of this exception are
+ * serialized.
+ * </p>
+ * 
+ * @see SpotifyRateLimiter
+ */
+public class SpotifyRateLimitExceededException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Constructs a new {@code SpotifyRateLimitExceededException} with the
+	 * specified detail message.
+	 * 
+	 * @param message the detail message explaining why the exception was thrown
+	 */
+	public SpotifyRateLimitExceededException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,321 @@
+package io.musicdiscovery.moodplaylist.infrastructure.adapters.output.client.spotify;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Client-side rate limiter shared by every call to Spotify.
+ * 
+ * <p>
+ * The limiter is an {@link ExchangeFilterFunction} installed on the Spotify
+ * {@code WebClient}, so search, token and hedged calls all draw from the same
+ * token bucket. The bucket refills at the current rate and holds at most
+ * {@code spotify.rate-limiter.burst} permits. A call that finds the bucket
+ * empty waits for its permit, for at most {@code spotify.rate-limiter.max-wait};
+ * beyond that it is rejected with a
+ * {@link SpotifyRateLimitExceededException} without being sent.
+ * </p>
+ * 
+ * <p>
+ * The rate adapts to the limit Spotify enforces (AIMD): every successful call
+ * raises it by {@code additive-increase} permits per second, up to
+ * {@code max-rate}, and every {@code 429 Too Many Requests} multiplies it by
+ * {@code multiplicative-decrease}, down to {@code min-rate}. A {@code 429}
+ * also pauses all outbound calls for the {@code Retry-After} it carries, or
+ * {@code default-retry-after} when it has none, after which the throttled call
+ * is sent again, up to {@code max-throttle-retries} times.
+ * </p>
+ * 
+ * <p>
+ * The gauges {@code spotify.ratelimiter.rate},
+ * {@code spotify.ratelimiter.available.permits},
+ * {@code spotify.ratelimiter.queued} and {@code spotify.ratelimiter.paused},
+ * the counters {@code spotify.ratelimiter.throttled} and
+ * {@code spotify.ratelimiter.rejected} and the timer
+ * {@code spotify.ratelimiter.wait} are published.
+ * </p>
+ * 
+ * @see SpotifyRateLimitExceededException
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SpotifyRateLimiter implements ExchangeFilterFunction {
+
+	private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+	private final MeterRegistry meterRegistry;
+
+	@Value("${spotify.rate-limiter.enabled:true}")
+	private boolean enabled;
+
+	@Value("${spotify.rate-limiter.initial-rate:10}")
+	private double initialRate;
+
+	@Value("${spotify.rate-limiter.min-rate:1}")
+	private double minRate;
+
+	@Value("${spotify.rate-limiter.max-rate:50}")
+	private double maxRate;
+
+	@Value("${spotify.rate-limiter.burst:10}")
+	private double burst;
+
+	@Value("${spotify.rate-limiter.additive-increase:0.1}")
+	private double additiveIncrease;
+
+	@Value("${spotify.rate-limiter.multiplicative-decrease:0.5}")
+	private double multiplicativeDecrease;
+
+	@Value("${spotify.rate-limiter.max-wait:2s}")
+	private Duration maxWait;
+
+	@Value("${spotify.rate-limiter.max-throttle-retries:2}")
+	private int maxThrottleRetries;
+
+	@Value("${spotify.rate-limiter.default-retry-after:1s}")
+	private Duration defaultRetryAfter;
+
+	private final AtomicInteger queued = new AtomicInteger();
+
+	private double rate;
+	private double storedPermits;
+	private long nextFreeNanos;
+	private long pausedUntilNanos;
+	private long throttleEpoch;
+
+	private Counter throttled;
+	private Counter rejected;
+	private Timer waitTime;
+
+	/**
+	 * Initializes the bucket and registers the limiter metrics.
+	 */
+	@PostConstruct
+	void init() {
+		rate = initialRate;
+		storedPermits = burst;
+		nextFreeNanos = System.nanoTime();
+		pausedUntilNanos = nextFreeNanos;
+		Gauge.builder("spotify.ratelimiter.rate", this, SpotifyRateLimiter::currentRate)
+				.description("Permits granted per second").register(meterRegistry);
+		Gauge.builder("spotify.ratelimiter.available.permits", this, SpotifyRateLimiter::availablePermits)
+				.description("Permits available without waiting").register(meterRegistry);
+		Gauge.builder("spotify.ratelimiter.queued", queued, AtomicInteger::get)
+				.description("Calls waiting for a permit").register(meterRegistry);
+		Gauge.builder("spotify.ratelimiter.paused", this, SpotifyRateLimiter::remainingPauseSeconds)
+				.baseUnit("seconds").description("Remaining pause requested by Spotify").register(meterRegistry);
+		throttled = Counter.builder("spotify.ratelimiter.throttled")
+				.description("Responses 429 Too Many Requests received from Spotify").register(meterRegistry);
+		rejected = Counter.builder("spotify.ratelimiter.rejected")
+				.description("Calls rejected because no permit was available within the maximum wait")
+				.register(meterRegistry);
+		waitTime = Timer.builder("spotify.ratelimiter.wait").description("Time spent waiting for a permit")
+				.register(meterRegistry);
+	}
+
+	/**
+	 * Sends the request once a permit is available, adjusting the rate to the
+	 * response and sending it again after the pause when Spotify throttles it.
+	 * 
+	 * @param request the request to be sent
+	 * @param next    the next exchange function in the chain
+	 * @return a {@link Mono} emitting the response
+	 */
+	@Override
+	public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+		if (!enabled) {
+			return next.exchange(request);
+		}
+		return exchange(request, next, 0);
+	}
+
+	private Mono<ClientResponse> exchange(ClientRequest request, ExchangeFunction next, int attempt) {
+		return acquire().then(Mono.defer(() -> next.exchange(request))).flatMap(response -> {
+			if (response.statusCode().value() != HttpStatus.TOO_MANY_REQUESTS.value()) {
+				if (!response.statusCode().is5xxServerError()) {
+					onSuccess();
+				}
+				return Mono.just(response);
+			}
+			onThrottled(response.headers().asHttpHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+			if (attempt >= maxThrottleRetries) {
+				return Mono.just(response);
+			}
+			return response.releaseBody().then(exchange(request, next, attempt + 1));
+		});
+	}
+
+	/**
+	 * Waits for a permit, honouring any pause requested by Spotify.
+	 * 
+	 * @return a {@link Mono} completing once the caller may send its call, or
+	 *         signalling a {@link SpotifyRateLimitExceededException}
+	 */
+	private Mono<Void> acquire() {
+		return Mono.defer(() -> {
+			long start = System.nanoTime();
+			queued.incrementAndGet();
+			return acquire(start + maxWait.toNanos()).doFinally(signal -> {
+				queued.decrementAndGet();
+				waitTime.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+			});
+		});
+	}
+
+	/**
+	 * Reserves a permit and waits for it.
+	 * 
+	 * <p>
+	 * A throttle invalidates the permits reserved before it, since they were
+	 * spaced for the previous rate and would otherwise all be used at the end of
+	 * the pause. Callers holding such a permit reserve a new one, still within
+	 * their original deadline.
+	 * </p>
+	 * 
+	 * @param deadlineNanos the {@link System#nanoTime()} after which the caller
+	 *                      gives up
+	 * @return a {@link Mono} completing once the caller may send its call
+	 */
+	private Mono<Void> acquire(long deadlineNanos) {
+		return Mono.defer(() -> {
+			long now = System.nanoTime();
+			long epoch;
+			long waitNanos;
+			synchronized (this) {
+				epoch = throttleEpoch;
+				waitNanos = reserve(now, deadlineNanos);
+			}
+			if (waitNanos < 0) {
+				rejected.increment();
+				return Mono.error(new SpotifyRateLimitExceededException(
+						"No permit available to call Spotify within " + maxWait));
+			}
+			if (waitNanos == 0) {
+				return Mono.empty();
+			}
+			return Mono.delay(Duration.ofNanos(waitNanos))
+					.then(Mono.defer(() -> currentEpoch() == epoch ? Mono.empty() : acquire(deadlineNanos)));
+		});
+	}
+
+	/**
+	 * Reserves the next permit.
+	 * 
+	 * @param now           the current {@link System#nanoTime()}
+	 * @param deadlineNanos the {@link System#nanoTime()} the permit must be
+	 *                      available by
+	 * @return the time to wait for the permit in nanoseconds, or {@code -1} if it
+	 *         would only be available after the deadline and none was reserved
+	 */
+	private synchronized long reserve(long now, long deadlineNanos) {
+		refill(now);
+		long start = Math.max(nextFreeNanos, pausedUntilNanos);
+		if (start > deadlineNanos) {
+			return -1;
+		}
+		if (storedPermits >= 1 && start <= now) {
+			storedPermits -= 1;
+		} else {
+			nextFreeNanos = start + intervalNanos();
+		}
+		return Math.max(0, start - now);
+	}
+
+	private void refill(long now) {
+		if (now > nextFreeNanos && now >= pausedUntilNanos) {
+			storedPermits = Math.min(burst, storedPermits + (now - nextFreeNanos) / (double) intervalNanos());
+			nextFreeNanos = now;
+		}
+	}
+
+	private long intervalNanos() {
+		return (long) (NANOS_PER_SECOND / rate);
+	}
+
+	private synchronized void onSuccess() {
+		rate = Math.min(maxRate, rate + additiveIncrease);
+	}
+
+	/**
+	 * Lowers the rate and pauses all outbound calls after a
+	 * {@code 429 Too Many Requests}.
+	 * 
+	 * @param retryAfter the {@code Retry-After} header of the response, if any
+	 */
+	private void onThrottled(String retryAfter) {
+		throttled.increment();
+		Duration pause = parseRetryAfter(retryAfter);
+		double newRate;
+		synchronized (this) {
+			long now = System.nanoTime();
+			pausedUntilNanos = Math.max(pausedUntilNanos, now + pause.toNanos());
+			nextFreeNanos = pausedUntilNanos;
+			throttleEpoch++;
+			rate = Math.max(minRate, rate * multiplicativeDecrease);
+			storedPermits = 0;
+			newRate = rate;
+		}
+		log.warn("Throttled by Spotify, pausing calls for {} and lowering the rate to {}/s", pause, newRate);
+	}
+
+	private Duration parseRetryAfter(String retryAfter) {
+		if (retryAfter == null || retryAfter.isBlank()) {
+			return defaultRetryAfter;
+		}
+		try {
+			return Duration.ofSeconds(Long.parseLong(retryAfter.trim()));
+		} catch (NumberFormatException e) {
+			try {
+				Duration until = Duration.between(ZonedDateTime.now(),
+						ZonedDateTime.parse(retryAfter.trim(), DateTimeFormatter.RFC_1123_DATE_TIME));
+				return until.isNegative() ? Duration.ZERO : until;
+			} catch (DateTimeParseException ignored) {
+				return defaultRetryAfter;
+			}
+		}
+	}
+
+	private synchronized long currentEpoch() {
+		return throttleEpoch;
+	}
+
+	private synchronized double currentRate() {
+		return rate;
+	}
+
+	private synchronized double availablePermits() {
+		refill(System.nanoTime());
+		return storedPermits;
+	}
+
+	private synchronized long remainingPauseNanos(long now) {
+		return Math.max(0, pausedUntilNanos - now);
+	}
+
+	private double remainingPauseSeconds() {
+		return remainingPauseNanos(System.nanoTime()) / (double) NANOS_PER_SECOND;
+	}
+}
@@ -0,0 +1,216 @@
+package io.musicdiscovery.moodplaylist.infrastructure.adapters.output.client.spotify;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+
+/**
+ * Streaming decoder of the Spotify track search response.
+ * 
+ * <p>
+ * Of the whole search response, the playlist only needs the Spotify URI of
+ * every track, found at {@code tracks.items[].uri}. Instead of binding the
+ * payload to the {@code SpotifyRecommendationsResponse} object graph, the
+ * response body is fed buffer by buffer to a non-blocking Jackson parser as it
+ * arrives from the network. Only the tokens on the path above are followed:
+ * every other value is skipped without being materialized, and the only
+ * objects created are the track URIs, which are emitted as soon as the buffer
+ * holding them has been parsed.
+ * </p>
+ * 
+ * <p>
+ * Each {@link DataBuffer} is released as soon as it has been parsed, so the
+ * response is never aggregated in memory. Buffers backed by an accessible array
+ * are parsed in place; the content of direct buffers is copied into a scratch
+ * array reused for the whole response, since the array-based parser is
+ * markedly faster than the one reading from a {@link ByteBuffer}. A malformed
+ * or truncated response is signalled as a {@link DecodingException}, and an
+ * empty body as an empty {@link Flux}.
+ * </p>
+ * 
+ * @see SpotifyPlaylistServiceAdapter
+ */
+@Component
+@RequiredArgsConstructor
+public class SpotifySearchResponseDecoder {
+
+	private final ObjectMapper objectMapper;
+
+	/**
+	 * Decodes the track URIs of a search response.
+	 * 
+	 * @param body the buffers of the response body
+	 * @return a {@link Flux} emitting the track URIs in the order of the tracks
+	 */
+	public Flux<String> decode(Flux<DataBuffer> body) {
+		return Flux.using(this::newReader,
+				reader -> body.concatMapIterable(reader::feed).concatWith(Flux.defer(reader::finish)),
+				TrackUriReader::close);
+	}
+
+	private TrackUriReader newReader() throws IOException {
+		return new TrackUriReader(objectMapper.getFactory().createNonBlockingByteArrayParser());
+	}
+
+	/**
+	 * Incremental reader following the path of the track URIs.
+	 * 
+	 * <p>
+	 * The reader only ever descends into containers on the path, so the nesting
+	 * {@code depth} of the parser is also the number of path elements matched so
+	 * far, and the bits of {@code arrays} tell which of these containers are
+	 * arrays. Any other container is skipped by counting its nested starts and
+	 * ends. The state lives in fields because the tokens of one value may be
+	 * split across several buffers.
+	 * </p>
+	 */
+	private static final class TrackUriReader {
+
+		/**
+		 * Field names leading to the track URI, {@code null} standing for any
+		 * element of an array.
+		 */
+		private static final String[] PATH = { "tracks", "items", null, "uri" };
+
+		private final JsonParser parser;
+		private final ByteArrayFeeder feeder;
+		private List<String> trackUris = List.of();
+		private int depth;
+		private int skipped;
+		private int arrays;
+		private boolean started;
+		private boolean fieldOnPath;
+		private byte[] copy;
+
+		private TrackUriReader(JsonParser parser) {
+			this.parser = parser;
+			this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+		}
+
+		/**
+		 * Parses one buffer of the body and releases it.
+		 * 
+		 * @return the track URIs completed by the buffer
+		 */
+		List<String> feed(DataBuffer buffer) {
+			try (DataBuffer.ByteBufferIterator iterator = buffer.readableByteBuffers()) {
+				while (iterator.hasNext()) {
+					ByteBuffer byteBuffer = iterator.next();
+					int length = byteBuffer.remaining();
+					if (byteBuffer.hasArray()) {
+						feeder.feedInput(byteBuffer.array(), byteBuffer.arrayOffset() + byteBuffer.position(),
+								byteBuffer.arrayOffset() + byteBuffer.position() + length);
+					} else {
+						if (copy == null || copy.length < length) {
+							copy = new byte[length];
+						}
+						byteBuffer.get(copy, 0, length);
+						feeder.feedInput(copy, 0, length);
+					}
+					readAvailableTokens();
+				}
+			} catch (IOException e) {
+				throw new DecodingException("Malformed Spotify search response: " + e.getMessage(), e);
+			} finally {
+				DataBufferUtils.release(buffer);
+			}
+			return takeTrackUris();
+		}
+
+		/**
+		 * Signals the end of the body.
+		 * 
+		 * @return a {@link Flux} emitting the last track URIs, empty if the body
+		 *         was empty, or signalling a {@link DecodingException} if it is
+		 *         malformed or truncated
+		 */
+		Flux<String> finish() {
+			try {
+				feeder.endOfInput();
+				readAvailableTokens();
+			} catch (IOException e) {
+				return Flux.error(new DecodingException("Malformed Spotify search response: " + e.getMessage(), e));
+			}
+			if (started && (depth > 0 || skipped > 0)) {
+				return Flux.error(new DecodingException("Truncated Spotify search response"));
+			}
+			return Flux.fromIterable(takeTrackUris());
+		}
+
+		private List<String> takeTrackUris() {
+			List<String> taken = trackUris;
+			trackUris = List.of();
+			return taken;
+		}
+
+		/**
+		 * Closes the parser, returning its buffers to the recycler of the factory.
+		 */
+		void close() {
+			try {
+				parser.close();
+			} catch (IOException e) {
+				// the parser holds no input of its own to release
+			}
+		}
+
+		private void readAvailableTokens() throws IOException {
+			JsonToken token;
+			while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+				started = true;
+				if (skipped > 0) {
+					if (token.isStructStart()) {
+						skipped++;
+					} else if (token.isStructEnd()) {
+						skipped--;
+					}
+				} else if (token == JsonToken.FIELD_NAME) {
+					fieldOnPath = depth > 0 && PATH[depth - 1] != null
+							&& PATH[depth - 1].equals(parser.currentName());
+				} else if (token.isStructEnd()) {
+					depth--;
+				} else {
+					readValue(token);
+				}
+			}
+		}
+
+		private void readValue(JsonToken token) throws IOException {
+			boolean onPath;
+			if (depth == 0) {
+				onPath = true;
+			} else if ((arrays & 1 << depth) != 0) {
+				onPath = PATH[depth - 1] == null;
+			} else {
+				onPath = fieldOnPath;
+			}
+			if (token.isStructStart()) {
+				if (onPath && depth < PATH.length) {
+					depth++;
+					arrays = token == JsonToken.START_ARRAY ? arrays | 1 << depth : arrays & ~(1 << depth);
+				} else {
+					skipped = 1;
+				}
+			} else if (onPath && depth == PATH.length && token == JsonToken.VALUE_STRING) {
+				if (trackUris.isEmpty()) {
+					trackUris = new ArrayList<>();
+				}
+				trackUris.add(parser.getText());
+			}
+		}
+	}
+}
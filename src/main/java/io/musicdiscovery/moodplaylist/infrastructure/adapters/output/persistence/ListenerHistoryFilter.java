@@ -0,0 +1,263 @@
+package io.musicdiscovery.moodplaylist.infrastructure.adapters.output.persistence;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Bloom filter of the tracks served to a listener, split into rotating
+ * generations.
+ * 
+ * <p>
+ * Each generation is a Bloom filter of {@code bitsPerGeneration} bits holding
+ * up to {@code tracksPerGeneration} tracks. Tracks are added to the current
+ * generation; once it is full, or older than {@code generationMaxAge}, the
+ * oldest generation is cleared and becomes the current one, so the tracks
+ * served more than {@code generations} generations ago age out. A track is
+ * reported as heard when any generation contains it, with a false positive
+ * rate of about one percent for the default sizes once every generation is
+ * full, and never reported as unheard while its generation is alive.
+ * </p>
+ * 
+ * <p>
+ * The bits are the only state besides a few counters, so a filter takes
+ * {@code generations * bitsPerGeneration / 8} bytes whatever the number of
+ * tracks served, 3 KiB with the default sizes, and is stored in that form by
+ * {@link #write()}. The bit indexes are derived from a 64-bit FNV-1a hash of
+ * the track URI by double hashing, which is stable across restarts.
+ * </p>
+ * 
+ * <p>
+ * A filter is safe for concurrent use.
+ * </p>
+ * 
+ * @see ListenerHistoryPersistenceAdapter
+ */
+final class ListenerHistoryFilter {
+
+	private static final byte VERSION = 1;
+	private static final int HEADER_BYTES = 1 + 1 + 1 + Integer.BYTES + Integer.BYTES + 1;
+	private static final int GENERATION_BYTES = Integer.BYTES + Long.BYTES;
+
+	private final Shape shape;
+	private final long[][] bits;
+	private final int[] counts;
+	private final long[] startedAt;
+	private int current;
+
+	private ListenerHistoryFilter(Shape shape) {
+		this.shape = shape;
+		this.bits = new long[shape.generations()][shape.bitsPerGeneration() / Long.SIZE];
+		this.counts = new int[shape.generations()];
+		this.startedAt = new long[shape.generations()];
+	}
+
+	/**
+	 * Tells whether a track may have been served to the listener.
+	 * 
+	 * @param trackUri the URI of the track
+	 * @return {@code false} if the track was not served during the live
+	 *         generations, {@code true} if it probably was
+	 */
+	synchronized boolean mightContain(String trackUri) {
+		long hash = hash(trackUri);
+		for (long[] generation : bits) {
+			if (contains(generation, hash)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Adds the tracks served to the listener and returns the binary form of the
+	 * filter including them.
+	 * 
+	 * @param trackUris the URIs of the tracks served
+	 * @param now       the current instant, which may rotate the generations
+	 * @return the binary form of the filter, see {@link #write()}
+	 */
+	synchronized byte[] addAll(List<String> trackUris, Instant now) {
+		expire(now);
+		for (String trackUri : trackUris) {
+			if (counts[current] >= shape.tracksPerGeneration()) {
+				rotate(now);
+			}
+			add(bits[current], hash(trackUri));
+			counts[current]++;
+		}
+		return write();
+	}
+
+	/**
+	 * Returns the binary form of the filter: a header with the shape of the
+	 * filter and the index of the current generation, the number of tracks and
+	 * start instant of every generation, then the bits of every generation, in
+	 * little-endian order.
+	 */
+	synchronized byte[] write() {
+		ByteBuffer buffer = ByteBuffer.allocate(shape.bytes()).order(ByteOrder.LITTLE_ENDIAN);
+		buffer.put(VERSION).put((byte) shape.generations()).put((byte) shape.hashes())
+				.putInt(shape.bitsPerGeneration()).putInt(shape.tracksPerGeneration()).put((byte) current);
+		for (int generation = 0; generation < bits.length; generation++) {
+			buffer.putInt(counts[generation]).putLong(startedAt[generation]);
+		}
+		for (long[] generation : bits) {
+			buffer.asLongBuffer().put(generation);
+			buffer.position(buffer.position() + generation.length * Long.BYTES);
+		}
+		return buffer.array();
+	}
+
+	/**
+	 * Rotates the generations elapsed since the current one started, clearing
+	 * every generation when the listener has been away for longer than the
+	 * whole history.
+	 */
+	private void expire(Instant now) {
+		long age = now.toEpochMilli() - startedAt[current];
+		long elapsed = Math.min(bits.length, age / shape.generationMaxAge().toMillis());
+		for (long rotation = 0; rotation < elapsed; rotation++) {
+			rotate(now);
+		}
+	}
+
+	private void rotate(Instant now) {
+		current = (current + 1) % bits.length;
+		Arrays.fill(bits[current], 0);
+		counts[current] = 0;
+		startedAt[current] = now.toEpochMilli();
+	}
+
+	private void add(long[] generation, long hash) {
+		int first = (int) hash;
+		int step = (int) (hash >>> 32) | 1;
+		int mask = shape.bitsPerGeneration() - 1;
+		for (int i = 0; i < shape.hashes(); i++) {
+			int bit = (first + i * step) & mask;
+			generation[bit >>> 6] |= 1L << bit;
+		}
+	}
+
+	private boolean contains(long[] generation, long hash) {
+		int first = (int) hash;
+		int step = (int) (hash >>> 32) | 1;
+		int mask = shape.bitsPerGeneration() - 1;
+		for (int i = 0; i < shape.hashes(); i++) {
+			int bit = (first + i * step) & mask;
+			if ((generation[bit >>> 6] & 1L << bit) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the 64-bit FNV-1a hash of a string, finished with the MurmurHash3
+	 * mixer so that both halves are well distributed.
+	 */
+	static long hash(String value) {
+		long hash = 0xcbf29ce484222325L;
+		for (int i = 0; i < value.length(); i++) {
+			hash = (hash ^ value.charAt(i)) * 0x100000001b3L;
+		}
+		hash = (hash ^ hash >>> 33) * 0xff51afd7ed558ccdL;
+		hash = (hash ^ hash >>> 33) * 0xc4ceb9fe1a85ec53L;
+		return hash ^ hash >>> 33;
+	}
+
+	/**
+	 * Sizes of a {@link ListenerHistoryFilter}.
+	 * 
+	 * @param generations         the number of generations kept
+	 * @param bitsPerGeneration   the number of bits of a generation, a power of
+	 *                            two
+	 * @param tracksPerGeneration the number of tracks added to a generation
+	 *                            before rotating
+	 * @param generationMaxAge    the age after which a generation is rotated
+	 *                            even if not full
+	 * @param hashes              the number of bits set per track
+	 */
+	record Shape(int generations, int bitsPerGeneration, int tracksPerGeneration, Duration generationMaxAge,
+			int hashes) {
+
+		/**
+		 * Sizes a filter, rounding the bits of a generation up to a power of two
+		 * and choosing the number of hashes minimizing the false positive rate of
+		 * a full generation.
+		 * 
+		 * @param generations         the number of generations kept
+		 * @param bitsPerGeneration   the minimum number of bits of a generation
+		 * @param tracksPerGeneration the number of tracks added to a generation
+		 *                            before rotating
+		 * @param generationMaxAge    the age after which a generation is rotated
+		 * @return the shape
+		 */
+		static Shape of(int generations, int bitsPerGeneration, int tracksPerGeneration,
+				Duration generationMaxAge) {
+			if (generations < 1 || generations > Byte.MAX_VALUE) {
+				throw new IllegalArgumentException("Generations must be within [1, " + Byte.MAX_VALUE + "]");
+			}
+			if (bitsPerGeneration < 1 || bitsPerGeneration > 1 << 30 || tracksPerGeneration < 1) {
+				throw new IllegalArgumentException("Bits and tracks per generation must be positive");
+			}
+			if (generationMaxAge.toMillis() <= 0) {
+				throw new IllegalArgumentException("Generation max age must be positive");
+			}
+			int bits = Math.max(Long.SIZE, Integer.highestOneBit(bitsPerGeneration - 1) << 1);
+			int hashes = (int) Math.max(1, Math.min(16, Math.round((double) bits / tracksPerGeneration * Math.log(2))));
+			return new Shape(generations, bits, tracksPerGeneration, generationMaxAge, hashes);
+		}
+
+		/**
+		 * Creates an empty filter.
+		 */
+		ListenerHistoryFilter newFilter(Instant now) {
+			ListenerHistoryFilter filter = new ListenerHistoryFilter(this);
+			Arrays.fill(filter.startedAt, now.toEpochMilli());
+			return filter;
+		}
+
+		/**
+		 * Reads a filter from its binary form.
+		 * 
+		 * @param bytes the binary form of the filter, see {@link #write()}
+		 * @param now   the current instant, used to start an empty filter
+		 * @return the filter, or an empty one if the bytes hold a filter of
+		 *         another shape or format
+		 */
+		ListenerHistoryFilter read(byte[] bytes, Instant now) {
+			ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+			if (bytes.length != bytes() || buffer.get() != VERSION || buffer.get() != generations
+					|| buffer.get() != hashes || buffer.getInt() != bitsPerGeneration
+					|| buffer.getInt() != tracksPerGeneration) {
+				return newFilter(now);
+			}
+			int current = buffer.get();
+			if (current < 0 || current >= generations) {
+				return newFilter(now);
+			}
+			ListenerHistoryFilter filter = new ListenerHistoryFilter(this);
+			filter.current = current;
+			for (int generation = 0; generation < generations; generation++) {
+				filter.counts[generation] = buffer.getInt();
+				filter.startedAt[generation] = buffer.getLong();
+			}
+			for (long[] generation : filter.bits) {
+				buffer.asLongBuffer().get(generation);
+				buffer.position(buffer.position() + generation.length * Long.BYTES);
+			}
+			return filter;
+		}
+
+		/**
+		 * Returns the length of the binary form of a filter.
+		 */
+		int bytes() {
+			return HEADER_BYTES + generations * (GENERATION_BYTES + bitsPerGeneration / Byte.SIZE);
+		}
+	}
+}
@@ -0,0 +1,217 @@
+package io.musicdiscovery.moodplaylist.infrastructure.adapters.output.persistence;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineStatsCounter;
+import io.musicdiscovery.moodplaylist.application.port.output.ListenerHistoryPort;
+import io.musicdiscovery.moodplaylist.config.PortMetrics;
+import io.musicdiscovery.moodplaylist.config.PortMetrics.PortTimer;
+import io.musicdiscovery.moodplaylist.infrastructure.adapters.output.persistence.entity.ListenerHistoryEntity;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+/**
+ * Adapter that implements the {@link ListenerHistoryPort} with one
+ * {@link ListenerHistoryFilter} per listener, stored in MongoDB.
+ * 
+ * <p>
+ * The filter of a listener is sized by the
+ * {@code playlist.listener-history.generations},
+ * {@code bits-per-generation}, {@code tracks-per-generation} and
+ * {@code generation-max-age} properties, so it takes a few kilobytes whatever
+ * the number of tracks served. The filters of the listeners seen recently are
+ * kept in a bounded in-memory cache of at most
+ * {@code playlist.listener-history.cache.maximum-size} listeners, evicted
+ * {@code playlist.listener-history.cache.expire-after-access} after their last
+ * use, so the heap taken by the filters stays bounded with millions of
+ * listeners. Concurrent misses for the same listener share one load.
+ * </p>
+ * 
+ * <p>
+ * Recording tracks updates the cached filter and upserts its binary form as a
+ * {@link ListenerHistoryEntity}, so the history survives restarts and is
+ * shared by the instances of the service. A filter stored with another shape
+ * is discarded, and the listener starts afresh.
+ * </p>
+ * 
+ * <p>
+ * Writes are guarded by the version of the stored filter, since the filter is
+ * written whole: a write only applies to the version the cached filter was
+ * read at. When another instance, or a concurrent request, wrote the filter
+ * in between, the stored filter is read again, the tracks are added to it and
+ * the write is retried, up to
+ * {@code playlist.listener-history.max-write-conflicts} times, so no
+ * instance's tracks are overwritten by another's. The cached filters are only
+ * refreshed on such conflicts or once evicted, so an instance may not yet
+ * know the tracks another one served a moment ago.
+ * </p>
+ * 
+ * <p>
+ * Hit, miss and eviction metrics are published as the standard
+ * {@code cache.*} meters tagged with {@code cache=listener.history}, and every
+ * operation of the port is timed through {@link PortMetrics} with
+ * {@code port=listener_history}.
+ * </p>
+ * 
+ * @see ListenerHistoryFilter
+ * @see ListenerHistoryEntity
+ */
+@Component
+@RequiredArgsConstructor
+public class ListenerHistoryPersistenceAdapter implements ListenerHistoryPort {
+
+	private final ReactiveMongoTemplate mongoTemplate;
+	private final MeterRegistry meterRegistry;
+	private final PortMetrics portMetrics;
+
+	@Value("${playlist.listener-history.generations:3}")
+	private int generations;
+
+	@Value("${playlist.listener-history.bits-per-generation:8192}")
+	private int bitsPerGeneration;
+
+	@Value("${playlist.listener-history.tracks-per-generation:700}")
+	private int tracksPerGeneration;
+
+	@Value("${playlist.listener-history.generation-max-age:30d}")
+	private Duration generationMaxAge;
+
+	@Value("${playlist.listener-history.cache.maximum-size:10000}")
+	private long cacheMaximumSize;
+
+	@Value("${playlist.listener-history.cache.expire-after-access:30m}")
+	private Duration cacheExpireAfterAccess;
+
+	@Value("${playlist.listener-history.max-write-conflicts:3}")
+	private int maxWriteConflicts;
+
+	private ListenerHistoryFilter.Shape shape;
+	private AsyncCache<String, StoredFilter> filters;
+	private PortTimer findTimer;
+	private PortTimer recordTimer;
+
+	/**
+	 * Sizes the filters, builds their cache and creates the timers of the port
+	 * operations.
+	 */
+	@PostConstruct
+	void init() {
+		shape = ListenerHistoryFilter.Shape.of(generations, bitsPerGeneration, tracksPerGeneration,
+				generationMaxAge);
+		CaffeineStatsCounter statsCounter = new CaffeineStatsCounter(meterRegistry, "listener.history");
+		filters = Caffeine.newBuilder().maximumSize(cacheMaximumSize).expireAfterAccess(cacheExpireAfterAccess)
+				.recordStats(() -> statsCounter).buildAsync();
+		statsCounter.registerSizeMetric(filters.synchronous());
+		findTimer = portMetrics.timer("listener_history", "find");
+		recordTimer = portMetrics.timer("listener_history", "record");
+	}
+
+	/**
+	 * Finds the tracks a listener has already heard.
+	 * 
+	 * @param listenerId the identifier of the listener
+	 * @return a {@link Mono} emitting a predicate backed by the filter of the
+	 *         listener, which may report false positives
+	 */
+	@Override
+	public Mono<Predicate<String>> findHeardTracks(String listenerId) {
+		return findTimer.time(null, filter(listenerId).map(stored -> stored.filter()::mightContain));
+	}
+
+	/**
+	 * Records the tracks served to a listener and stores its filter.
+	 * 
+	 * <p>
+	 * The filter is only written if it was not written since it was read. On a
+	 * conflict, the stored filter is read again and the tracks are added to it
+	 * before retrying.
+	 * </p>
+	 * 
+	 * @param listenerId the identifier of the listener
+	 * @param trackUris  the URIs of the tracks served
+	 * @return a {@link Mono} completing once the filter is stored, or signalling
+	 *         a {@link DuplicateKeyException} if it still conflicted after
+	 *         {@code playlist.listener-history.max-write-conflicts} retries
+	 */
+	@Override
+	public Mono<Void> recordHeardTracks(String listenerId, List<String> trackUris) {
+		return recordTimer.time(null, filter(listenerId).flatMap(stored -> store(listenerId, stored, trackUris, 0)));
+	}
+
+	/**
+	 * Adds the tracks to a filter and writes it, provided the stored filter is
+	 * still at the version it was read at.
+	 * 
+	 * <p>
+	 * The write is an upsert matching the identifier and version of the
+	 * listener, so a stored filter at another version makes it insert a second
+	 * document with the same identifier, which fails with a
+	 * {@link DuplicateKeyException}.
+	 * </p>
+	 */
+	private Mono<Void> store(String listenerId, StoredFilter stored, List<String> trackUris, int conflicts) {
+		return Mono.defer(() -> {
+			Instant now = Instant.now();
+			long version = stored.version().get();
+			byte[] bytes = stored.filter().addAll(trackUris, now);
+			return mongoTemplate.upsert(byIdAndVersion(listenerId, version),
+					Update.update("filter", bytes).set("updatedAt", now).inc("version", 1),
+					ListenerHistoryEntity.class)
+					.doOnNext(result -> stored.version().compareAndSet(version, version + 1));
+		}).then().onErrorResume(DuplicateKeyException.class, conflict -> {
+			if (conflicts >= maxWriteConflicts) {
+				return Mono.error(conflict);
+			}
+			return load(listenerId).flatMap(reloaded -> {
+				filters.put(listenerId, CompletableFuture.completedFuture(reloaded));
+				return store(listenerId, reloaded, trackUris, conflicts + 1);
+			});
+		});
+	}
+
+	/**
+	 * Creates the query matching the document of a listener at a version. A
+	 * document without a version is at version {@code 0}.
+	 */
+	private static Query byIdAndVersion(String listenerId, long version) {
+		Criteria id = Criteria.where("_id").is(listenerId);
+		return Query.query(version == 0 ? id.and("version").in(0L, null) : id.and("version").is(version));
+	}
+
+	private Mono<StoredFilter> filter(String listenerId) {
+		return Mono.fromFuture(() -> filters.get(listenerId, (id, executor) -> load(id).toFuture()), true);
+	}
+
+	private Mono<StoredFilter> load(String listenerId) {
+		return mongoTemplate.findById(listenerId, ListenerHistoryEntity.class)
+				.map(entity -> new StoredFilter(shape.read(entity.getFilter(), Instant.now()),
+						new AtomicLong(entity.getVersion())))
+				.switchIfEmpty(Mono.fromSupplier(() -> new StoredFilter(shape.newFilter(Instant.now()),
+						new AtomicLong())));
+	}
+
+	/**
+	 * A cached filter together with the version of the stored filter it
+	 * reflects.
+	 */
+	private record StoredFilter(ListenerHistoryFilter filter, AtomicLong version) {
+	}
+}
@@ -0,0 +1,100 @@
+package io.musicdiscovery.moodplaylist.infrastructure.adapters.output.persistence;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.stereotype.Component;
+
+import io.musicdiscovery.moodplaylist.infrastructure.adapters.output.persistence.entity.ListenerHistoryEntity;
+import io.musicdiscovery.moodplaylist.infrastructure.adapters.output.persistence.entity.PlaylistEntity;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+
+/**
+ * Creates the indexes declared on {@link PlaylistEntity} and
+ * {@link ListenerHistoryEntity} before the application serves any request.
+ * 
+ * <p>
+ * Spring Data no longer creates indexes automatically, so the indexes declared
+ * with {@code @Indexed} and {@code @CompoundIndex} on the entities are resolved
+ * and ensured here. Creating an index that already exists is a no-op.
+ * </p>
+ * 
+ * <p>
+ * The indexes are ensured once every singleton is created, before the web
+ * server is started, and the application fails to start if they cannot be
+ * built within {@code mongo.indexes.timeout}: without the unique index on the
+ * content hash, identical playlists saved concurrently would be stored twice.
+ * Setting {@code mongo.indexes.required} to {@code false} defers them until
+ * the application is ready and only logs a failure, for runs without a
+ * database.
+ * </p>
+ * 
+ * @see PlaylistEntity
+ * @see ListenerHistoryEntity
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PlaylistIndexInitializer implements SmartInitializingSingleton {
+
+	private final ReactiveMongoTemplate mongoTemplate;
+
+	@Value("${mongo.indexes.required:true}")
+	private boolean required;
+
+	@Value("${mongo.indexes.timeout:30s}")
+	private Duration timeout;
+
+	/**
+	 * Ensures the indexes before the web server is started, failing the startup
+	 * if they cannot be built, unless {@code mongo.indexes.required} is
+	 * {@code false}.
+	 * 
+	 * @throws IllegalStateException if an index cannot be built in time
+	 */
+	@Override
+	public void afterSingletonsInstantiated() {
+		if (!required) {
+			return;
+		}
+		try {
+			ensureIndexes().doOnNext(name -> log.info("Ensured index {}", name)).then().block(timeout);
+		} catch (RuntimeException e) {
+			throw new IllegalStateException("Could not ensure the MongoDB indexes: " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Ensures the indexes in the background once the application is ready, when
+	 * they are not required at startup.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void ensureIndexesInBackground() {
+		if (required) {
+			return;
+		}
+		ensureIndexes().subscribe(name -> log.info("Ensured index {}", name),
+				error -> log.warn("Could not ensure the indexes: {}", error.getMessage()));
+	}
+
+	/**
+	 * Ensures the indexes of the playlist and listener history collections.
+	 * 
+	 * @return a {@link Flux} emitting the name and collection of every index
+	 */
+	private Flux<String> ensureIndexes() {
+		MongoPersistentEntityIndexResolver resolver = new MongoPersistentEntityIndexResolver(
+				mongoTemplate.getConverter().getMappingContext());
+		return Flux.just(PlaylistEntity.class, ListenerHistoryEntity.class)
+				.concatMap(entity -> Flux.fromIterable(resolver.resolveIndexFor(entity))
+						.concatMap(index -> mongoTemplate.indexOps(entity).ensureIndex(index))
+						.map(name -> name + " on " + mongoTemplate.getCollectionName(entity)));
+	}
+}
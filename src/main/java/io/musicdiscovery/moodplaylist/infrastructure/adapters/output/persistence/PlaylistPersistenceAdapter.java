@@ -1,24 +1,61 @@
 package io.musicdiscovery.moodplaylist.infrastructure.adapters.output.persistence;
 
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Function;
+
+import org.bson.types.ObjectId;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
 import org.springframework.stereotype.Component;
 
 import io.musicdiscovery.moodplaylist.application.port.output.PlaylistPersistencePort;
+import io.musicdiscovery.moodplaylist.config.PortMetrics;
+import io.musicdiscovery.moodplaylist.config.PortMetrics.PortTimer;
+import io.musicdiscovery.moodplaylist.domain.exception.InvalidCursorException;
 import io.musicdiscovery.moodplaylist.domain.model.Playlist;
+import io.musicdiscovery.moodplaylist.domain.model.enums.Mood;
 import io.musicdiscovery.moodplaylist.infrastructure.adapters.output.persistence.entity.PlaylistEntity;
 import io.musicdiscovery.moodplaylist.infrastructure.adapters.output.persistence.mapper.PlaylistPersistenceMapper;
 import io.musicdiscovery.moodplaylist.infrastructure.adapters.output.persistence.repository.PlaylistRepository;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
 
 /**
  * Adapter that implements the {@link PlaylistPersistencePort} to handle the
  * persistence of playlists.
  * 
  * <p>
- * This class provides the implementation for saving playlists in the database.
- * It uses a repository to persist {@link PlaylistEntity} objects and a mapper
- * to convert between the domain model {@link Playlist} and the persistence
- * model {@link PlaylistEntity}.
+ * This class provides the implementation for saving playlists in the database
+ * and reading them back. It uses a {@link ReactiveMongoTemplate} to persist
+ * {@link PlaylistEntity} objects, a repository to read them and a mapper to
+ * convert between the domain model {@link Playlist} and the persistence model
+ * {@link PlaylistEntity}.
+ * </p>
+ * 
+ * <p>
+ * Each distinct playlist is stored only once. Saves are upserts on the content
+ * hash of the playlist (see {@link PlaylistUpserts}): a playlist generated
+ * again resolves to the existing document, whose hit count and last-seen
+ * instant are updated atomically, instead of inserting a duplicate.
+ * </p>
+ * 
+ * <p>
+ * When write-behind is enabled, single playlists are handed to the
+ * {@link PlaylistWriteBehindBuffer} and returned right away, and the buffer
+ * writes them to the database in batches.
+ * </p>
+ * 
+ * <p>
+ * Every operation of the port is timed through {@link PortMetrics} with
+ * {@code port=persistence}.
  * </p>
  * 
  * <p>
@@ -30,13 +67,40 @@ import reactor.core.publisher.Mono;
  * @see PlaylistPersistencePort
  * @see PlaylistPersistenceMapper
  * @see PlaylistRepository
+ * @see PlaylistUpserts
+ * @see PlaylistWriteBehindBuffer
  */
 @Component
 @RequiredArgsConstructor
 public class PlaylistPersistenceAdapter implements PlaylistPersistencePort {
 
+	private static final FindAndModifyOptions UPSERT_RETURNING_NEW = FindAndModifyOptions.options().upsert(true)
+			.returnNew(true);
+	private static final Retry DUPLICATE_KEY_RETRY = Retry.max(1).filter(DuplicateKeyException.class::isInstance);
+
+	private final ReactiveMongoTemplate mongoTemplate;
 	private final PlaylistRepository repository;
 	private final PlaylistPersistenceMapper mapper;
+	private final PlaylistWriteBehindBuffer writeBehindBuffer;
+	private final PortMetrics portMetrics;
+
+	private PortTimer saveTimer;
+	private PortTimer saveAllTimer;
+	private PortTimer findByIdTimer;
+	private PortTimer findByMoodTimer;
+	private PortTimer findLatestTimer;
+
+	/**
+	 * Creates the timers of the port operations.
+	 */
+	@PostConstruct
+	void init() {
+		saveTimer = portMetrics.timer("persistence", "save");
+		saveAllTimer = portMetrics.timer("persistence", "save_all");
+		findByIdTimer = portMetrics.timer("persistence", "find_by_id");
+		findByMoodTimer = portMetrics.timer("persistence", "find_by_mood");
+		findLatestTimer = portMetrics.timer("persistence", "find_latest");
+	}
 
 	/**
 	 * Saves a playlist in the database by converting it to an entity and persisting
@@ -44,8 +108,17 @@ public class PlaylistPersistenceAdapter implements PlaylistPersistencePort {
 	 * 
 	 * <p>
 	 * This method maps the domain {@link Playlist} to a {@link PlaylistEntity},
-	 * saves it to the database, and then converts it back to a domain object upon
-	 * successful persistence.
+	 * upserts it by content hash, and then converts the stored document back to a
+	 * domain object, so that the identifier of an existing identical playlist is
+	 * returned. When two identical playlists are inserted concurrently, the one
+	 * losing the race on the unique index is retried once and matches the
+	 * other.
+	 * </p>
+	 * 
+	 * <p>
+	 * In write-behind mode the playlist is buffered and emitted immediately,
+	 * without an identifier since it has not been written yet. If the buffer is
+	 * full, the playlist is written directly.
 	 * </p>
 	 * 
 	 * @param playList the playlist to be saved
@@ -53,7 +126,121 @@ public class PlaylistPersistenceAdapter implements PlaylistPersistencePort {
 	 */
 	@Override
 	public Mono<Playlist> save(Playlist playList) {
-		PlaylistEntity entity = mapper.toPlaylistEntity(playList);
-		return repository.save(entity).map(mapper::toPlaylist);
+		PlaylistEntity entity = PlaylistUpserts.withContentHash(mapper.toPlaylistEntity(playList));
+		if (writeBehindBuffer.isEnabled() && writeBehindBuffer.offer(entity)) {
+			return saveTimer.time(entity.getMood(), Mono.just(mapper.toPlaylist(entity)));
+		}
+		return saveTimer.time(entity.getMood(),
+				Mono.defer(() -> mongoTemplate.findAndModify(PlaylistUpserts.byContentHash(entity),
+						PlaylistUpserts.upsertOf(entity, Instant.now()), UPSERT_RETURNING_NEW, PlaylistEntity.class))
+						.retryWhen(DUPLICATE_KEY_RETRY).map(mapper::toPlaylist));
+	}
+
+	/**
+	 * Saves several playlists in the database with a single bulk write.
+	 * 
+	 * <p>
+	 * The playlists are upserted by content hash with one unordered bulk write
+	 * instead of one round-trip per playlist, and the stored documents are then
+	 * read back with a single query to obtain their identifiers. The saved
+	 * playlists are emitted in the order they were given.
+	 * </p>
+	 * 
+	 * @param playlists the playlists to be saved
+	 * @return a {@link Flux} emitting the saved {@link Playlist} objects
+	 */
+	@Override
+	public Flux<Playlist> saveAll(List<Playlist> playlists) {
+		List<PlaylistEntity> entities = playlists.stream().map(mapper::toPlaylistEntity)
+				.map(PlaylistUpserts::withContentHash).toList();
+		List<String> contentHashes = entities.stream().map(PlaylistEntity::getContentHash).distinct().toList();
+		return saveAllTimer.time(null, Mono.defer(() -> {
+			Instant now = Instant.now();
+			ReactiveBulkOperations bulk = mongoTemplate.bulkOps(BulkMode.UNORDERED, PlaylistEntity.class);
+			entities.forEach(entity -> bulk.upsert(PlaylistUpserts.byContentHash(entity),
+					PlaylistUpserts.upsertOf(entity, now)));
+			return bulk.execute();
+		}).retryWhen(DUPLICATE_KEY_RETRY)
+				.then(mongoTemplate.find(PlaylistUpserts.byContentHashes(contentHashes), PlaylistEntity.class)
+						.collectMap(PlaylistEntity::getContentHash, Function.identity()))
+				.flatMapIterable(stored -> entities.stream()
+						.map(entity -> stored.getOrDefault(entity.getContentHash(), entity)).toList())
+				.map(mapper::toPlaylist));
+	}
+
+	/**
+	 * Finds a stored playlist by its identifier.
+	 * 
+	 * <p>
+	 * Only the fields of the playlist are fetched. An identifier that is not a
+	 * valid document identifier cannot match any playlist.
+	 * </p>
+	 * 
+	 * @param id the identifier of the playlist
+	 * @return a {@link Mono} emitting the {@link Playlist}, or completing empty if
+	 *         no playlist has this identifier
+	 */
+	@Override
+	public Mono<Playlist> findById(String id) {
+		if (!ObjectId.isValid(id)) {
+			return Mono.empty();
+		}
+		return findByIdTimer.time(null, repository.findProjectedById(id).map(mapper::toPlaylist));
+	}
+
+	/**
+	 * Finds one page of the stored playlists of a mood, most recently generated
+	 * first.
+	 * 
+	 * <p>
+	 * The last-seen instant of the cursor is looked up by identifier, and the
+	 * page is then read from the {@code mood_last_seen_desc} index, starting
+	 * strictly after the cursor, so no document of the previous pages is
+	 * scanned. A playlist generated again while the history is being paged moves
+	 * back to the top, and may therefore be missing from the following pages.
+	 * </p>
+	 * 
+	 * @param mood  the mood of the playlists
+	 * @param after the identifier of the last playlist of the previous page, or
+	 *              {@code null} for the first page
+	 * @param limit the maximum number of playlists in the page
+	 * @return a {@link Flux} emitting the playlists of the page, or signalling an
+	 *         {@link InvalidCursorException} if the cursor is not the identifier
+	 *         of a stored playlist
+	 */
+	@Override
+	public Flux<Playlist> findByMood(Mood mood, String after, int limit) {
+		if (after == null) {
+			return findByMoodTimer.time(mood, repository.findByMoodOrderByLastSeenAtDescIdDesc(mood, Limit.of(limit))
+					.map(mapper::toPlaylist));
+		}
+		if (!ObjectId.isValid(after)) {
+			return Flux.error(new InvalidCursorException("Invalid cursor: " + after));
+		}
+		ObjectId cursor = new ObjectId(after);
+		return findByMoodTimer.time(mood, repository.findLastSeenById(after)
+				.switchIfEmpty(Mono.error(() -> new InvalidCursorException("Invalid cursor: " + after)))
+				.flatMapMany(previous -> previous.getLastSeenAt() == null
+						? repository.findUnseenByMoodAfter(mood, cursor, Limit.of(limit))
+						: repository.findByMoodAfter(mood, previous.getLastSeenAt(), cursor, Limit.of(limit)))
+				.map(mapper::toPlaylist));
+	}
+
+	/**
+	 * Finds the most recently generated stored playlists of every mood.
+	 * 
+	 * <p>
+	 * One indexed query is issued per mood, concurrently, and the results are
+	 * emitted in the declaration order of {@link Mood}.
+	 * </p>
+	 * 
+	 * @param limit the maximum number of playlists per mood
+	 * @return a {@link Flux} emitting the latest playlists, mood by mood
+	 */
+	@Override
+	public Flux<Playlist> findLatestPerMood(int limit) {
+		return findLatestTimer.time(null, Flux.fromArray(Mood.values())
+				.flatMapSequential(mood -> repository.findByMoodOrderByLastSeenAtDescIdDesc(mood, Limit.of(limit)))
+				.map(mapper::toPlaylist));
 	}
 }
\ No newline at end of file
@@ -0,0 +1,113 @@
+package io.musicdiscovery.moodplaylist.infrastructure.adapters.output.persistence;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import io.musicdiscovery.moodplaylist.domain.model.enums.Mood;
+import io.musicdiscovery.moodplaylist.infrastructure.adapters.output.persistence.entity.PlaylistEntity;
+
+/**
+ * Builds the upserts that store each distinct playlist only once.
+ * 
+ * <p>
+ * A playlist is identified by the SHA-256 hash of its mood and its ordered
+ * track URIs. Saving a playlist matches the document with the same hash: when
+ * there is none, the playlist is inserted with a hit count of one; otherwise
+ * the existing document is kept and only its hit count and last-seen instant
+ * are updated, in the same atomic operation.
+ * </p>
+ * 
+ * @see PlaylistPersistenceAdapter
+ * @see PlaylistWriteBehindBuffer
+ */
+final class PlaylistUpserts {
+
+	private static final String CONTENT_HASH = "contentHash";
+
+	private PlaylistUpserts() {
+	}
+
+	/**
+	 * Computes the content hash of a playlist.
+	 * 
+	 * <p>
+	 * The mood and every track URI are separated by a newline, which cannot occur
+	 * in either of them, so different playlists never share the hashed input.
+	 * </p>
+	 * 
+	 * @param mood      the mood of the playlist
+	 * @param trackUris the ordered track URIs of the playlist
+	 * @return the hex-encoded SHA-256 hash
+	 */
+	static String contentHash(Mood mood, List<String> trackUris) {
+		MessageDigest digest = sha256();
+		digest.update(String.valueOf(mood).getBytes(StandardCharsets.UTF_8));
+		if (trackUris != null) {
+			for (String trackUri : trackUris) {
+				digest.update((byte) '\n');
+				digest.update(String.valueOf(trackUri).getBytes(StandardCharsets.UTF_8));
+			}
+		}
+		return HexFormat.of().formatHex(digest.digest());
+	}
+
+	/**
+	 * Sets the content hash of the given entity.
+	 * 
+	 * @param entity the playlist to be stored
+	 * @return the same entity, for chaining
+	 */
+	static PlaylistEntity withContentHash(PlaylistEntity entity) {
+		entity.setContentHash(contentHash(entity.getMood(), entity.getTrackUris()));
+		return entity;
+	}
+
+	/**
+	 * Creates the query matching the stored copy of the given playlist.
+	 * 
+	 * @param entity the playlist, with its content hash set
+	 * @return the {@link Query} on the content hash
+	 */
+	static Query byContentHash(PlaylistEntity entity) {
+		return Query.query(Criteria.where(CONTENT_HASH).is(entity.getContentHash()));
+	}
+
+	/**
+	 * Creates the query matching the stored copies of the given playlists.
+	 * 
+	 * @param contentHashes the content hashes of the playlists
+	 * @return the {@link Query} on the content hashes
+	 */
+	static Query byContentHashes(List<String> contentHashes) {
+		return Query.query(Criteria.where(CONTENT_HASH).in(contentHashes));
+	}
+
+	/**
+	 * Creates the update inserting the given playlist or recording one more hit on
+	 * its stored copy.
+	 * 
+	 * @param entity the playlist, with its content hash set
+	 * @param now    the instant the playlist was generated
+	 * @return the {@link Update} to be applied with {@code upsert}
+	 */
+	static Update upsertOf(PlaylistEntity entity, Instant now) {
+		return new Update().setOnInsert("mood", entity.getMood()).setOnInsert("trackUris", entity.getTrackUris())
+				.setOnInsert("createdAt", now).set("lastSeenAt", now).inc("hitCount", 1);
+	}
+
+	private static MessageDigest sha256() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available", e);
+		}
+	}
+}
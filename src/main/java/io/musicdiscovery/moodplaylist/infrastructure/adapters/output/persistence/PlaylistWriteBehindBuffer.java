@@ -0,0 +1,194 @@
+package io.musicdiscovery.moodplaylist.infrastructure.adapters.output.persistence;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.musicdiscovery.moodplaylist.infrastructure.adapters.output.persistence.entity.PlaylistEntity;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+import reactor.util.retry.Retry;
+
+/**
+ * Bounded write-behind buffer for {@link PlaylistEntity} documents.
+ * 
+ * <p>
+ * When {@code playlist.persistence.write-behind.enabled} is set, the
+ * {@link PlaylistPersistenceAdapter} hands new playlists to this buffer instead
+ * of upserting them one by one. Buffered documents are flushed with a single
+ * unordered bulk upsert (see {@link PlaylistUpserts}) once
+ * {@code max-batch-size} documents are waiting or {@code flush-interval} has
+ * elapsed, whichever comes first, and only one flush runs at a time.
+ * </p>
+ * 
+ * <p>
+ * The buffer holds at most {@code buffer-capacity} documents. When it is full,
+ * {@link #offer(PlaylistEntity)} refuses the document and the caller falls back
+ * to a direct write, so producers are slowed down to the pace of the database
+ * instead of growing the buffer without bound. On shutdown the buffer stops
+ * accepting documents and waits up to {@code shutdown-timeout} for the
+ * remaining ones to be flushed.
+ * </p>
+ * 
+ * <p>
+ * The gauge {@code playlist.persistence.write-behind.queue.depth}, the
+ * distribution summary {@code playlist.persistence.write-behind.batch.size},
+ * the timer {@code playlist.persistence.write-behind.flush.latency} and the
+ * counters {@code playlist.persistence.write-behind.overflow} and
+ * {@code playlist.persistence.write-behind.dropped} are published.
+ * </p>
+ * 
+ * @see PlaylistPersistenceAdapter
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PlaylistWriteBehindBuffer {
+
+	private final ReactiveMongoTemplate mongoTemplate;
+	private final MeterRegistry meterRegistry;
+
+	@Value("${playlist.persistence.write-behind.enabled:false}")
+	private boolean enabled;
+
+	@Value("${playlist.persistence.write-behind.buffer-capacity:1024}")
+	private int bufferCapacity;
+
+	@Value("${playlist.persistence.write-behind.max-batch-size:100}")
+	private int maxBatchSize;
+
+	@Value("${playlist.persistence.write-behind.flush-interval:200ms}")
+	private Duration flushInterval;
+
+	@Value("${playlist.persistence.write-behind.flush-retries:2}")
+	private int flushRetries;
+
+	@Value("${playlist.persistence.write-behind.shutdown-timeout:10s}")
+	private Duration shutdownTimeout;
+
+	private Sinks.Many<PlaylistEntity> sink;
+	private CompletableFuture<Void> drained;
+	private Counter overflow;
+	private Counter dropped;
+	private DistributionSummary batchSize;
+	private Timer flushLatency;
+
+	/**
+	 * Creates the buffer and starts the flush pipeline when write-behind is
+	 * enabled.
+	 */
+	@PostConstruct
+	void init() {
+		if (!enabled) {
+			return;
+		}
+		Queue<PlaylistEntity> queue = Queues.<PlaylistEntity>get(bufferCapacity).get();
+		sink = Sinks.many().unicast().onBackpressureBuffer(queue);
+		Gauge.builder("playlist.persistence.write-behind.queue.depth", queue, Queue::size)
+				.description("Playlists waiting to be flushed").register(meterRegistry);
+		overflow = Counter.builder("playlist.persistence.write-behind.overflow")
+				.description("Playlists written directly because the buffer was full").register(meterRegistry);
+		dropped = Counter.builder("playlist.persistence.write-behind.dropped")
+				.description("Playlists lost because their flush failed").register(meterRegistry);
+		batchSize = DistributionSummary.builder("playlist.persistence.write-behind.batch.size")
+				.description("Playlists written per flush").register(meterRegistry);
+		flushLatency = Timer.builder("playlist.persistence.write-behind.flush.latency")
+				.description("Latency of a flush").register(meterRegistry);
+		drained = sink.asFlux().bufferTimeout(maxBatchSize, flushInterval, true).concatMap(this::flush, 1).then()
+				.toFuture();
+	}
+
+	/**
+	 * Stops accepting playlists and waits for the buffered ones to be flushed.
+	 */
+	@PreDestroy
+	void shutdown() {
+		if (!enabled) {
+			return;
+		}
+		while (sink.tryEmitComplete() == Sinks.EmitResult.FAIL_NON_SERIALIZED) {
+			Thread.onSpinWait();
+		}
+		try {
+			drained.get(shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS);
+		} catch (TimeoutException e) {
+			log.warn("Write-behind buffer not drained within {}", shutdownTimeout);
+		} catch (Exception e) {
+			log.warn("Write-behind buffer not drained: {}", e.getMessage());
+		}
+	}
+
+	/**
+	 * Indicates whether write-behind persistence is enabled.
+	 * 
+	 * @return {@code true} if playlists should be offered to this buffer
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Adds a playlist to the buffer.
+	 * 
+	 * @param entity the playlist to be written
+	 * @return {@code true} if the playlist was buffered, {@code false} if the
+	 *         buffer is full or shut down and the caller must write it itself
+	 */
+	public boolean offer(PlaylistEntity entity) {
+		while (true) {
+			Sinks.EmitResult result = sink.tryEmitNext(entity);
+			if (result.isSuccess()) {
+				return true;
+			}
+			if (result != Sinks.EmitResult.FAIL_NON_SERIALIZED) {
+				overflow.increment();
+				return false;
+			}
+			Thread.onSpinWait();
+		}
+	}
+
+	/**
+	 * Writes one batch of playlists, retrying failed writes before giving up on
+	 * the batch.
+	 * 
+	 * @param batch the playlists to be written
+	 * @return a {@link Mono} completing once the batch is written or dropped
+	 */
+	private Mono<Void> flush(List<PlaylistEntity> batch) {
+		return Mono.defer(() -> {
+			Timer.Sample sample = Timer.start(meterRegistry);
+			batchSize.record(batch.size());
+			Instant now = Instant.now();
+			ReactiveBulkOperations bulk = mongoTemplate.bulkOps(BulkMode.UNORDERED, PlaylistEntity.class);
+			batch.forEach(entity -> bulk.upsert(PlaylistUpserts.byContentHash(entity),
+					PlaylistUpserts.upsertOf(entity, now)));
+			return bulk.execute().then().retryWhen(Retry.backoff(flushRetries, Duration.ofMillis(100)))
+					.doOnTerminate(() -> sample.stop(flushLatency)).onErrorResume(error -> {
+						dropped.increment(batch.size());
+						log.error("Could not flush {} buffered playlists: {}", batch.size(), error.getMessage());
+						return Mono.empty();
+					});
+		});
+	}
+}
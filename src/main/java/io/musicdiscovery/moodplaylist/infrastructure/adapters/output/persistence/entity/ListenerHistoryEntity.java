@@ -0,0 +1,60 @@
+package io.musicdiscovery.moodplaylist.infrastructure.adapters.output.persistence.entity;
+
+import java.time.Instant;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Listener history entity representing the tracks served to a listener.
+ * 
+ * <p>
+ * This class maps to a MongoDB document holding, for one listener, the binary
+ * form of the Bloom filter of the tracks served to it, stored as BSON binary
+ * data. The filter is rewritten whenever new tracks are served, and the
+ * version is incremented by every write, so that a write based on an outdated
+ * filter can be detected.
+ * </p>
+ * 
+ * <p>
+ * The TTL index on the last update removes the history of the listeners who
+ * have not asked for a playlist for 180 days, long after their generations
+ * would have aged out anyway.
+ * </p>
+ */
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "listener_history")
+public class ListenerHistoryEntity {
+
+	/**
+	 * The identifier of the listener.
+	 */
+	@Id
+	private String id;
+
+	/**
+	 * The binary form of the Bloom filter of the tracks served to the listener.
+	 */
+	private byte[] filter;
+
+	/**
+	 * The instant tracks were last served to the listener.
+	 */
+	@Indexed(name = "updated_at_ttl", expireAfter = "180d")
+	private Instant updatedAt;
+
+	/**
+	 * The number of times the filter was written, {@code 0} for a document
+	 * written before versions were recorded.
+	 */
+	private long version;
+}
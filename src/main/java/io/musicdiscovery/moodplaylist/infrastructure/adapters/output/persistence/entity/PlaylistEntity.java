@@ -1,7 +1,11 @@
 package io.musicdiscovery.moodplaylist.infrastructure.adapters.output.persistence.entity;
 
+import java.time.Instant;
 import java.util.List;
 
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import io.musicdiscovery.moodplaylist.domain.model.enums.Mood;
@@ -9,7 +13,6 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
-import nonapi.io.github.classgraph.json.Id;
 
 /**
  * Playlist entity representing a Playlist in the system.
@@ -27,6 +30,20 @@ import nonapi.io.github.classgraph.json.Id;
  * </p>
  * 
  * <p>
+ * Identical playlists are stored only once: every document carries a content
+ * hash of its mood and ordered track URIs, backed by a unique index, together
+ * with the number of times the playlist was generated and when it was first
+ * and last seen.
+ * </p>
+ * 
+ * <p>
+ * The compound index on the mood, the descending last-seen instant and the
+ * descending identifier serves the per-mood history reads, which page most
+ * recently generated first, so that a playlist generated again moves back to
+ * the top.
+ * </p>
+ * 
+ * <p>
  * The class is annotated with Lombok annotations to generate boilerplate code
  * such as getters, setters, constructors, and it uses Spring Data MongoDB
  * annotations to define how the entity is mapped to a MongoDB collection.
@@ -39,8 +56,14 @@ import nonapi.io.github.classgraph.json.Id;
 @AllArgsConstructor
 @NoArgsConstructor
 @Document(collection = "play_list")
+@CompoundIndex(name = "mood_last_seen_desc", def = "{'mood': 1, 'lastSeenAt': -1, '_id': -1}")
 public class PlaylistEntity {
 
+	/**
+	 * Projection of the fields making up a playlist, used by the read queries.
+	 */
+	public static final String PLAYLIST_FIELDS = "{ 'mood': 1, 'trackUris': 1 }";
+
 	/**
 	 * Unique identifier for the playlist in the MongoDB database.
 	 * 
@@ -73,4 +96,31 @@ public class PlaylistEntity {
 	 * </p>
 	 */
 	private List<String> trackUris;
+
+	/**
+	 * SHA-256 hash of the mood and the ordered track URIs of the playlist.
+	 * 
+	 * <p>
+	 * This field identifies the content of the playlist. It is backed by a unique
+	 * index, so that generating the same playlist again updates the existing
+	 * document instead of inserting a duplicate.
+	 * </p>
+	 */
+	@Indexed(name = "content_hash_unique", unique = true, sparse = true)
+	private String contentHash;
+
+	/**
+	 * The number of times this playlist was generated.
+	 */
+	private long hitCount;
+
+	/**
+	 * The instant this playlist was first generated.
+	 */
+	private Instant createdAt;
+
+	/**
+	 * The instant this playlist was last generated.
+	 */
+	private Instant lastSeenAt;
 }
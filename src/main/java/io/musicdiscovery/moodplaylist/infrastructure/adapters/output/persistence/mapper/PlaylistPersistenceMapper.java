@@ -1,6 +1,7 @@
 package io.musicdiscovery.moodplaylist.infrastructure.adapters.output.persistence.mapper;
 
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 import io.musicdiscovery.moodplaylist.domain.model.Playlist;
 import io.musicdiscovery.moodplaylist.infrastructure.adapters.output.persistence.entity.PlaylistEntity;
@@ -33,12 +34,17 @@ public interface PlaylistPersistenceMapper {
 	 * <p>
 	 * This method maps the fields from a playlist in the domain model to its
 	 * corresponding persistence entity, allowing the playlist to be persisted in
-	 * the database.
+	 * the database. The content hash and the hit statistics are maintained by the
+	 * persistence adapter and are left unset.
 	 * </p>
 	 *
 	 * @param playlist the {@link Playlist} domain object to convert
 	 * @return the corresponding {@link PlaylistEntity} object
 	 */
+	@Mapping(target = "contentHash", ignore = true)
+	@Mapping(target = "hitCount", ignore = true)
+	@Mapping(target = "createdAt", ignore = true)
+	@Mapping(target = "lastSeenAt", ignore = true)
 	PlaylistEntity toPlaylistEntity(Playlist user);
 
 	/**
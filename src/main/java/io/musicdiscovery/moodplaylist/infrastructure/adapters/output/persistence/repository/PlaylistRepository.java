@@ -1,9 +1,17 @@
 package io.musicdiscovery.moodplaylist.infrastructure.adapters.output.persistence.repository;
 
+import java.time.Instant;
+
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
 import org.springframework.stereotype.Repository;
 
+import io.musicdiscovery.moodplaylist.domain.model.enums.Mood;
 import io.musicdiscovery.moodplaylist.infrastructure.adapters.output.persistence.entity.PlaylistEntity;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 /**
  * Repository interface for managing {@link PlaylistEntity} objects in MongoDB.
@@ -16,6 +24,15 @@ import io.musicdiscovery.moodplaylist.infrastructure.adapters.output.persistence
  * </p>
  * 
  * <p>
+ * The read methods only fetch the fields of a playlist, leaving out the
+ * deduplication bookkeeping, and page by mood, most recently generated first,
+ * with a keyset on the last-seen instant and the identifier served by the
+ * {@code mood_last_seen_desc} index: each page starts strictly after the last
+ * playlist of the previous one in that order. Playlists stored before the
+ * last-seen instant was recorded come last.
+ * </p>
+ * 
+ * <p>
  * The interface is annotated with {@code @Repository}, making it a
  * Spring-managed component, and serves as the output adapter in the hexagonal
  * architecture, interacting with the persistence layer.
@@ -27,4 +44,63 @@ import io.musicdiscovery.moodplaylist.infrastructure.adapters.output.persistence
 @Repository
 public interface PlaylistRepository extends ReactiveMongoRepository<PlaylistEntity, String> {
 
+	/**
+	 * Finds a playlist by its identifier, fetching only its mood and tracks.
+	 * 
+	 * @param id the identifier of the playlist
+	 * @return a {@link Mono} emitting the playlist, or completing empty if none
+	 *         matches
+	 */
+	@Query(fields = PlaylistEntity.PLAYLIST_FIELDS)
+	Mono<PlaylistEntity> findProjectedById(String id);
+
+	/**
+	 * Finds a playlist by its identifier, fetching only its last-seen instant.
+	 * 
+	 * @param id the identifier of the playlist
+	 * @return a {@link Mono} emitting the playlist, or completing empty if none
+	 *         matches
+	 */
+	@Query(fields = "{ 'lastSeenAt': 1 }")
+	Mono<PlaylistEntity> findLastSeenById(String id);
+
+	/**
+	 * Finds the most recently generated playlists of a mood, most recent first.
+	 * 
+	 * @param mood  the mood of the playlists
+	 * @param limit the maximum number of playlists
+	 * @return a {@link Flux} emitting the playlists
+	 */
+	@Query(fields = PlaylistEntity.PLAYLIST_FIELDS)
+	Flux<PlaylistEntity> findByMoodOrderByLastSeenAtDescIdDesc(Mood mood, Limit limit);
+
+	/**
+	 * Finds the playlists of a mood coming after the given one, most recently
+	 * generated first.
+	 * 
+	 * @param mood       the mood of the playlists
+	 * @param lastSeenAt the last-seen instant of the last playlist of the
+	 *                   previous page
+	 * @param id         the identifier of the last playlist of the previous page
+	 * @param limit      the maximum number of playlists
+	 * @return a {@link Flux} emitting the playlists
+	 */
+	@Query(value = "{ 'mood': ?0, $or: [ { 'lastSeenAt': { $lt: ?1 } }, { 'lastSeenAt': ?1, '_id': { $lt: ?2 } },"
+			+ " { 'lastSeenAt': null } ] }", fields = PlaylistEntity.PLAYLIST_FIELDS,
+			sort = "{ 'lastSeenAt': -1, '_id': -1 }")
+	Flux<PlaylistEntity> findByMoodAfter(Mood mood, Instant lastSeenAt, ObjectId id, Limit limit);
+
+	/**
+	 * Finds the playlists of a mood without a last-seen instant coming after the
+	 * given one, newest first.
+	 * 
+	 * @param mood  the mood of the playlists
+	 * @param id    the identifier of the last playlist of the previous page
+	 * @param limit the maximum number of playlists
+	 * @return a {@link Flux} emitting the playlists
+	 */
+	@Query(value = "{ 'mood': ?0, 'lastSeenAt': null, '_id': { $lt: ?1 } }", fields = PlaylistEntity.PLAYLIST_FIELDS,
+			sort = "{ '_id': -1 }")
+	Flux<PlaylistEntity> findUnseenByMoodAfter(Mood mood, ObjectId id, Limit limit);
+
 }
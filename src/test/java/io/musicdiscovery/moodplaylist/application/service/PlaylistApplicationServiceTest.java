@@ -0,0 +1,80 @@
+package io.musicdiscovery.moodplaylist.application.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.musicdiscovery.moodplaylist.application.port.output.ListenerHistoryPort;
+import io.musicdiscovery.moodplaylist.application.port.output.PlaylistPersistencePort;
+import io.musicdiscovery.moodplaylist.application.port.output.SpotifyPlaylistServicePort;
+import io.musicdiscovery.moodplaylist.config.PortMetrics;
+import io.musicdiscovery.moodplaylist.domain.exception.InvalidCursorException;
+import io.musicdiscovery.moodplaylist.domain.model.enums.Mood;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+class PlaylistApplicationServiceTest {
+
+	private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+	private final PlaylistPersistencePort persistence = mock(PlaylistPersistencePort.class);
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private PlaylistApplicationService service;
+
+	@BeforeEach
+	void setUp() {
+		PortMetrics portMetrics = new PortMetrics(meterRegistry);
+		ReflectionTestUtils.setField(portMetrics, "minimumExpected", Duration.ofMillis(1));
+		ReflectionTestUtils.setField(portMetrics, "maximumExpected", Duration.ofSeconds(30));
+		service = new PlaylistApplicationService(mock(SpotifyPlaylistServicePort.class), persistence,
+				mock(ListenerHistoryPort.class), mock(PlaylistPrewarmPool.class), meterRegistry, portMetrics);
+		ReflectionTestUtils.setField(service, "maxPageSize", 100);
+		service.init();
+	}
+
+	@Test
+	void clampsTheHistoryPageSize() {
+		when(persistence.findByMood(any(), any(), anyInt())).thenReturn(Flux.empty());
+
+		service.getPlaylistHistory(Mood.HAPPY, null, 1_000).blockLast(TIMEOUT);
+		service.getPlaylistHistory(Mood.HAPPY, "cursor", 0).blockLast(TIMEOUT);
+		service.getPlaylistHistory(Mood.SAD, null, -5).blockLast(TIMEOUT);
+		service.getPlaylistHistory(Mood.SAD, null, 30).blockLast(TIMEOUT);
+
+		verify(persistence).findByMood(Mood.HAPPY, null, 100);
+		verify(persistence).findByMood(Mood.HAPPY, "cursor", 1);
+		verify(persistence).findByMood(Mood.SAD, null, 1);
+		verify(persistence).findByMood(Mood.SAD, null, 30);
+	}
+
+	@Test
+	void clampsTheNumberOfLatestPlaylistsPerMood() {
+		when(persistence.findLatestPerMood(anyInt())).thenReturn(Flux.empty());
+
+		service.getLatestPlaylists(500).blockLast(TIMEOUT);
+		service.getLatestPlaylists(0).blockLast(TIMEOUT);
+
+		verify(persistence).findLatestPerMood(100);
+		verify(persistence).findLatestPerMood(1);
+	}
+
+	@Test
+	void propagatesAnInvalidCursor() {
+		when(persistence.findByMood(Mood.HAPPY, "unknown", 20))
+				.thenReturn(Flux.error(new InvalidCursorException("Invalid cursor: unknown")));
+
+		StepVerifier.create(service.getPlaylistHistory(Mood.HAPPY, "unknown", 20))
+				.expectError(InvalidCursorException.class).verify(TIMEOUT);
+	}
+}
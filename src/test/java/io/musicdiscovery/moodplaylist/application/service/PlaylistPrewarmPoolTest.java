@@ -0,0 +1,158 @@
+package io.musicdiscovery.moodplaylist.application.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.musicdiscovery.moodplaylist.application.port.output.PrewarmPlaylistSourcePort;
+import io.musicdiscovery.moodplaylist.domain.model.Playlist;
+import io.musicdiscovery.moodplaylist.domain.model.enums.Mood;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class PlaylistPrewarmPoolTest {
+
+	private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+	private final PrewarmPlaylistSourcePort source = mock(PrewarmPlaylistSourcePort.class);
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final AtomicInteger generated = new AtomicInteger();
+
+	private PlaylistPrewarmPool pool;
+
+	@BeforeEach
+	void setUp() {
+		// only the HAPPY pool is refilled by the tests, the other refills never end
+		when(source.generatePlaylist(any(Mood.class), anyInt(), anyInt())).thenReturn(Mono.never());
+	}
+
+	@AfterEach
+	void tearDown() {
+		pool.shutdown();
+	}
+
+	@Test
+	void takeOnAnEmptyPoolCompletesEmpty() {
+		pool = pool(true, 0, Duration.ofMinutes(5));
+
+		StepVerifier.create(pool.take(Mood.HAPPY)).expectComplete().verify(TIMEOUT);
+
+		assertThat(meterRegistry.get("playlist.prewarm.pool.empty").tag("mood", "HAPPY").counter().count())
+				.isEqualTo(1);
+	}
+
+	@Test
+	void takeOnAFilledPoolServesAPregeneratedPlaylist() {
+		when(source.generatePlaylist(eq(Mood.HAPPY), eq(10), anyInt())).thenAnswer(invocation -> fresh(Mood.HAPPY));
+		pool = pool(true, 2, Duration.ofMinutes(5));
+
+		awaitDepth(Mood.HAPPY, 2);
+
+		StepVerifier.create(pool.take(Mood.HAPPY))
+				.assertNext(playlist -> assertThat(playlist.getMood()).isEqualTo(Mood.HAPPY)).expectComplete()
+				.verify(TIMEOUT);
+		ArgumentCaptor<Integer> offsets = ArgumentCaptor.forClass(Integer.class);
+		verify(source, atLeast(2)).generatePlaylist(eq(Mood.HAPPY), eq(10), offsets.capture());
+		assertThat(offsets.getAllValues()).allMatch(offset -> offset >= 0 && offset <= 40);
+	}
+
+	@Test
+	void refillsThePoolAfterATake() {
+		when(source.generatePlaylist(eq(Mood.HAPPY), eq(10), anyInt())).thenAnswer(invocation -> fresh(Mood.HAPPY));
+		pool = pool(true, 2, Duration.ofMinutes(5));
+		awaitDepth(Mood.HAPPY, 2);
+
+		pool.take(Mood.HAPPY).block(TIMEOUT);
+		pool.take(Mood.HAPPY).block(TIMEOUT);
+
+		verify(source, timeout(TIMEOUT.toMillis()).times(4)).generatePlaylist(eq(Mood.HAPPY), eq(10), anyInt());
+		awaitDepth(Mood.HAPPY, 2);
+	}
+
+	@Test
+	void evictsThePlaylistsOlderThanTheirTimeToLive() throws InterruptedException {
+		when(source.generatePlaylist(eq(Mood.HAPPY), eq(10), anyInt())).thenReturn(fresh(Mood.HAPPY), Mono.never());
+		pool = pool(true, 1, Duration.ofMillis(100));
+		awaitDepth(Mood.HAPPY, 1);
+
+		Thread.sleep(200);
+
+		StepVerifier.create(pool.take(Mood.HAPPY)).expectComplete().verify(TIMEOUT);
+		assertThat(depth(Mood.HAPPY)).isZero();
+	}
+
+	@Test
+	void doesNotPoolStalePlaylists() {
+		when(source.generatePlaylist(eq(Mood.HAPPY), eq(10), anyInt()))
+				.thenAnswer(invocation -> Mono.just(new Playlist("stored", Mood.HAPPY, List.of("spotify:track:a"))));
+		pool = pool(true, 1, Duration.ofMinutes(5));
+
+		verify(source, timeout(TIMEOUT.toMillis()).atLeast(3)).generatePlaylist(eq(Mood.HAPPY), eq(10), anyInt());
+
+		assertThat(depth(Mood.HAPPY)).isZero();
+		StepVerifier.create(pool.take(Mood.HAPPY)).expectComplete().verify(TIMEOUT);
+	}
+
+	@Test
+	void staysDisabledWhenTheSourceIsUnavailable() throws InterruptedException {
+		pool = pool(false, 2, Duration.ofMinutes(5));
+
+		Thread.sleep(100);
+
+		StepVerifier.create(pool.take(Mood.HAPPY)).expectComplete().verify(TIMEOUT);
+		verify(source, never()).generatePlaylist(eq(Mood.HAPPY), eq(10), anyInt());
+	}
+
+	private PlaylistPrewarmPool pool(boolean available, int minSize, Duration ttl) {
+		when(source.isAvailable()).thenReturn(available);
+		PlaylistPrewarmPool prewarmPool = new PlaylistPrewarmPool(source, meterRegistry);
+		ReflectionTestUtils.setField(prewarmPool, "enabled", true);
+		ReflectionTestUtils.setField(prewarmPool, "tickInterval", Duration.ofMillis(10));
+		ReflectionTestUtils.setField(prewarmPool, "ewmaAlpha", 0.2);
+		ReflectionTestUtils.setField(prewarmPool, "horizon", Duration.ofSeconds(10));
+		ReflectionTestUtils.setField(prewarmPool, "minSize", minSize);
+		ReflectionTestUtils.setField(prewarmPool, "maxSize", 2);
+		ReflectionTestUtils.setField(prewarmPool, "refillsPerTick", 2);
+		ReflectionTestUtils.setField(prewarmPool, "maxOffset", 40);
+		ReflectionTestUtils.setField(prewarmPool, "ttl", ttl);
+		ReflectionTestUtils.setField(prewarmPool, "playlistLength", 10);
+		prewarmPool.init();
+		return prewarmPool;
+	}
+
+	private Mono<Playlist> fresh(Mood mood) {
+		return Mono.fromSupplier(
+				() -> new Playlist(null, mood, List.of("spotify:track:" + generated.incrementAndGet())));
+	}
+
+	private double depth(Mood mood) {
+		return meterRegistry.get("playlist.prewarm.pool.depth").tag("mood", mood.name()).gauge().value();
+	}
+
+	private void awaitDepth(Mood mood, int depth) {
+		long deadline = System.nanoTime() + TIMEOUT.toNanos();
+		while (depth(mood) != depth) {
+			assertThat(System.nanoTime()).as("pool depth of %s reaching %d", mood, depth).isLessThan(deadline);
+			Thread.onSpinWait();
+		}
+	}
+}
@@ -0,0 +1,97 @@
+package io.musicdiscovery.moodplaylist.application.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+class RequestCoalescerTest {
+
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private final RequestCoalescer<String, String> coalescer = new RequestCoalescer<>(meterRegistry, "test");
+
+	private final AtomicInteger subscriptions = new AtomicInteger();
+
+	@Test
+	void sharesOneUpstreamBetweenConcurrentCallers() {
+		Sinks.One<String> upstream = Sinks.one();
+
+		Mono<String> first = coalescer.execute("happy", () -> subscribed(upstream.asMono()));
+		Mono<String> second = coalescer.execute("happy", () -> subscribed(upstream.asMono()));
+
+		StepVerifier.create(Mono.zip(first, second)).then(() -> upstream.tryEmitValue("playlist"))
+				.assertNext(values -> assertThat(values.toList()).containsExactly("playlist", "playlist"))
+				.verifyComplete();
+		assertThat(subscriptions).hasValue(1);
+		assertThat(count("originated")).isEqualTo(1);
+		assertThat(count("coalesced")).isEqualTo(1);
+	}
+
+	@Test
+	void keepsKeysApart() {
+		StepVerifier.create(coalescer.execute("happy", () -> subscribed(Mono.just("happy"))))
+				.expectNext("happy").verifyComplete();
+		StepVerifier.create(coalescer.execute("sad", () -> subscribed(Mono.just("sad"))))
+				.expectNext("sad").verifyComplete();
+
+		assertThat(subscriptions).hasValue(2);
+	}
+
+	@Test
+	void releasesTheKeyOnceTheOperationTerminates() {
+		StepVerifier.create(coalescer.execute("happy", () -> subscribed(Mono.just("first"))))
+				.expectNext("first").verifyComplete();
+		StepVerifier.create(coalescer.execute("happy", () -> subscribed(Mono.error(new IllegalStateException()))))
+				.verifyError(IllegalStateException.class);
+		StepVerifier.create(coalescer.execute("happy", () -> subscribed(Mono.empty()))).verifyComplete();
+		StepVerifier.create(coalescer.execute("happy", () -> subscribed(Mono.just("last"))))
+				.expectNext("last").verifyComplete();
+
+		assertThat(subscriptions).hasValue(4);
+		assertThat(meterRegistry.get("test.in.flight").gauge().value()).isZero();
+	}
+
+	@Test
+	void deliversTheErrorToEveryWaitingCaller() {
+		Sinks.One<String> upstream = Sinks.one();
+		Mono<String> first = coalescer.execute("happy", upstream::asMono);
+		Mono<String> second = coalescer.execute("happy", upstream::asMono);
+
+		StepVerifier.create(first).then(() -> StepVerifier.create(second)
+				.then(() -> upstream.tryEmitError(new IllegalStateException("down")))
+				.verifyErrorMessage("down")).verifyErrorMessage("down");
+	}
+
+	@Test
+	void doesNotCancelTheOperationWhenACallerCancels() {
+		Sinks.One<String> upstream = Sinks.one();
+		AtomicInteger cancellations = new AtomicInteger();
+		Disposable cancelled = coalescer
+				.execute("happy", () -> upstream.asMono().doOnCancel(cancellations::incrementAndGet)).subscribe();
+		Mono<String> waiting = coalescer.execute("happy", () -> subscribed(upstream.asMono()));
+
+		cancelled.dispose();
+
+		StepVerifier.create(waiting).then(() -> upstream.tryEmitValue("playlist")).expectNext("playlist")
+				.verifyComplete();
+		assertThat(cancellations).hasValue(0);
+		assertThat(subscriptions).hasValue(0);
+	}
+
+	private <T> Mono<T> subscribed(Mono<T> mono) {
+		return mono.doOnSubscribe(subscription -> subscriptions.incrementAndGet());
+	}
+
+	private double count(String type) {
+		return meterRegistry.get("test.coalescing").tag("type", type).counter().count();
+	}
+}
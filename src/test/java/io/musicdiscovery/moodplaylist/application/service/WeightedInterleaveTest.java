@@ -0,0 +1,112 @@
+package io.musicdiscovery.moodplaylist.application.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import io.musicdiscovery.moodplaylist.domain.model.enums.Mood;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+class WeightedInterleaveTest {
+
+	@Test
+	void keepsTheProportionsOfTheWeightsInEveryPrefix() {
+		WeightedInterleave blend = new WeightedInterleave(weights(2, 1),
+				mood -> candidates(mood, "1", "2", "3", "4", "5"), 6);
+
+		StepVerifier.create(blend.map(track -> track.getMood() + ":" + track.getTrackUri()))
+				.expectNext("HAPPY:HAPPY-1", "HAPPY:HAPPY-2", "SAD:SAD-1")
+				.expectNext("HAPPY:HAPPY-3", "HAPPY:HAPPY-4", "SAD:SAD-2").verifyComplete();
+	}
+
+	@Test
+	void skipsTracksAlreadyEmittedByAnotherMood() {
+		WeightedInterleave blend = new WeightedInterleave(weights(1, 1),
+				mood -> Flux.just("spotify:track:shared", "spotify:track:" + mood), 3);
+
+		StepVerifier.create(blend.map(track -> track.getTrackUri()))
+				.expectNext("spotify:track:shared", "spotify:track:SAD", "spotify:track:HAPPY").verifyComplete();
+	}
+
+	@Test
+	void sharesThePositionsOfAnExhaustedOrFailedMood() {
+		WeightedInterleave exhausted = new WeightedInterleave(weights(1, 1),
+				mood -> mood == Mood.SAD ? Flux.empty() : candidates(mood, "1", "2", "3"), 3);
+		WeightedInterleave failed = new WeightedInterleave(weights(1, 1), mood -> mood == Mood.SAD
+				? Flux.error(new IllegalStateException("down"))
+				: candidates(mood, "1", "2", "3"), 3);
+
+		StepVerifier.create(exhausted.map(track -> track.getTrackUri()))
+				.expectNext("HAPPY-1", "HAPPY-2", "HAPPY-3").verifyComplete();
+		StepVerifier.create(failed.map(track -> track.getTrackUri()))
+				.expectNext("HAPPY-1", "HAPPY-2", "HAPPY-3").verifyComplete();
+	}
+
+	@Test
+	void failsOnlyWhenNoTrackCouldBeEmitted() {
+		WeightedInterleave blend = new WeightedInterleave(weights(1, 1),
+				mood -> mood == Mood.SAD ? Flux.error(new IllegalStateException("down")) : Flux.empty(), 3);
+
+		StepVerifier.create(blend).verifyErrorMessage("down");
+	}
+
+	@Test
+	void waitsForTheMoodWhoseTrackIsDue() {
+		Sinks.Many<String> sad = Sinks.many().unicast().onBackpressureBuffer();
+		WeightedInterleave blend = new WeightedInterleave(weights(1, 1),
+				mood -> mood == Mood.SAD ? sad.asFlux() : candidates(mood, "1", "2"), 4);
+
+		StepVerifier.create(blend.map(track -> track.getTrackUri())).expectNext("HAPPY-1")
+				.expectNoEvent(Duration.ofMillis(50)).then(() -> sad.tryEmitNext("SAD-1"))
+				.expectNext("SAD-1", "HAPPY-2").then(() -> sad.tryEmitComplete()).verifyComplete();
+	}
+
+	@Test
+	void emitsNoMoreTracksThanRequested() {
+		WeightedInterleave blend = new WeightedInterleave(weights(1, 1), mood -> candidates(mood, "1", "2"), 4);
+
+		StepVerifier.create(blend.map(track -> track.getTrackUri()), 1).expectNext("HAPPY-1")
+				.expectNoEvent(Duration.ofMillis(50)).thenRequest(2).expectNext("SAD-1", "HAPPY-2").thenRequest(1)
+				.expectNext("SAD-2").verifyComplete();
+	}
+
+	@Test
+	void cancelsEveryMoodWhenCancelled() {
+		AtomicInteger cancelled = new AtomicInteger();
+		WeightedInterleave blend = new WeightedInterleave(weights(1, 1),
+				mood -> Flux.<String>never().doOnCancel(cancelled::incrementAndGet), 4);
+
+		blend.subscribe().dispose();
+
+		assertThat(cancelled).hasValue(2);
+	}
+
+	@Test
+	void cancelsTheRemainingCandidatesOnceLongEnough() {
+		AtomicInteger cancelled = new AtomicInteger();
+		WeightedInterleave blend = new WeightedInterleave(weights(1, 1),
+				mood -> candidates(mood, "1", "2").concatWith(Flux.never()).doOnCancel(cancelled::incrementAndGet), 2);
+
+		StepVerifier.create(blend).expectNextCount(2).verifyComplete();
+
+		assertThat(cancelled).hasValue(2);
+	}
+
+	private static Map<Mood, Integer> weights(int happy, int sad) {
+		Map<Mood, Integer> weights = new EnumMap<>(Mood.class);
+		weights.put(Mood.HAPPY, happy);
+		weights.put(Mood.SAD, sad);
+		return weights;
+	}
+
+	private static Flux<String> candidates(Mood mood, String... suffixes) {
+		return Flux.just(suffixes).map(suffix -> mood + "-" + suffix);
+	}
+}
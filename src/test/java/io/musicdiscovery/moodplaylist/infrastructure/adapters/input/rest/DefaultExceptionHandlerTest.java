@@ -0,0 +1,28 @@
+package io.musicdiscovery.moodplaylist.infrastructure.adapters.input.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import io.musicdiscovery.moodplaylist.domain.exception.InvalidCursorException;
+
+class DefaultExceptionHandlerTest {
+
+	private final DefaultExceptionHandler handler = new DefaultExceptionHandler();
+
+	@Test
+	void answersAnInvalidCursorWithBadRequest() {
+		ResponseEntity<Map<String, Object>> response = handler
+				.handleInvalidCursorException(new InvalidCursorException("Invalid cursor: unknown"))
+				.block(Duration.ofSeconds(5));
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+		assertThat(response.getBody()).containsEntry("status", 400)
+				.containsEntry("message", "Invalid cursor: unknown");
+	}
+}
@@ -0,0 +1,190 @@
+package io.musicdiscovery.moodplaylist.infrastructure.adapters.input.rest.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.WebFilterChain;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.Disposable;
+import reactor.core.publisher.Sinks;
+
+class AdaptiveConcurrencyLimitFilterTest {
+
+	private static final String READ = "/playlists/mood/HAPPY/history";
+	private static final String GENERATION = "/playlists/mood/HAPPY";
+
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private final AtomicInteger admitted = new AtomicInteger();
+
+	/** Completes every admitted request at once. */
+	private final Sinks.Empty<Void> release = Sinks.empty();
+
+	private final WebFilterChain chain = exchange -> release.asMono().doOnSubscribe(s -> admitted.incrementAndGet());
+
+	@Test
+	void shedsTheRequestsBeyondTheLimitWithRetryAfter() {
+		AdaptiveConcurrencyLimitFilter filter = filter(4, 1.0);
+
+		for (int i = 0; i < 4; i++) {
+			send(filter, READ);
+		}
+		MockServerWebExchange rejected = send(filter, READ);
+
+		assertThat(admitted).hasValue(4);
+		assertThat(rejected.getResponse().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+		assertThat(rejected.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+		assertThat(meterRegistry.get("playlist.concurrency.rejected").tag("priority", "read").counter().count())
+				.isEqualTo(1);
+		assertThat(inFlight()).isEqualTo(4);
+
+		release.tryEmitEmpty();
+
+		assertThat(inFlight()).isZero();
+		send(filter, READ);
+		assertThat(admitted).hasValue(5);
+	}
+
+	@Test
+	void keepsAShareOfTheLimitForReads() {
+		AdaptiveConcurrencyLimitFilter filter = filter(10, 0.5);
+
+		for (int i = 0; i < 5; i++) {
+			send(filter, GENERATION);
+		}
+		MockServerWebExchange rejected = send(filter, GENERATION);
+		for (int i = 0; i < 5; i++) {
+			send(filter, READ);
+		}
+
+		assertThat(admitted).hasValue(10);
+		assertThat(rejected.getResponse().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+		assertThat(meterRegistry.get("playlist.concurrency.rejected").tag("priority", "generation").counter()
+				.count()).isEqualTo(1);
+		assertThat(meterRegistry.get("playlist.concurrency.rejected").tag("priority", "read").counter().count())
+				.isZero();
+		assertThat(send(filter, READ).getResponse().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+	}
+
+	@Test
+	void growsTheLimitWhileTheLatencyIsSteadyAndShrinksItWhenItRises() {
+		AdaptiveConcurrencyLimitFilter filter = filter(20, 0.8);
+
+		for (int i = 0; i < 50; i++) {
+			sample(filter, 10, 200);
+		}
+		double grown = limit();
+		for (int i = 0; i < 50; i++) {
+			sample(filter, 100, 200);
+		}
+
+		assertThat(grown).isGreaterThan(20);
+		assertThat(limit()).isLessThan(grown);
+	}
+
+	@Test
+	void keepsTheLimitWithinItsBoundsAndDoesNotGrowItWhileIdle() {
+		AdaptiveConcurrencyLimitFilter filter = filter(20, 0.8);
+		ReflectionTestUtils.setField(filter, "maxLimit", 30.0);
+
+		for (int i = 0; i < 50; i++) {
+			sample(filter, 10, 1);
+		}
+		assertThat(limit()).isEqualTo(20);
+
+		for (int i = 0; i < 200; i++) {
+			sample(filter, 10, 200);
+		}
+		assertThat(limit()).isEqualTo(30);
+
+		for (int i = 0; i < 100; i++) {
+			sample(filter, 1000, 200);
+		}
+		assertThat(limit()).isEqualTo(5);
+	}
+
+	@Test
+	void releasesTheSlotOfACancelledRequestWithoutSamplingIt() {
+		AdaptiveConcurrencyLimitFilter filter = filter(1, 1.0);
+		ReflectionTestUtils.setField(filter, "minLimit", 1.0);
+
+		Disposable request = filter.filter(exchange(READ), chain).subscribe();
+		assertThat(send(filter, READ).getResponse().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+
+		request.dispose();
+
+		assertThat(inFlight()).isZero();
+		assertThat(ReflectionTestUtils.getField(filter, "longRtt")).isEqualTo(0.0);
+		send(filter, READ);
+		assertThat(admitted).hasValue(2);
+	}
+
+	@Test
+	void leavesOtherRoutesAlone() {
+		AdaptiveConcurrencyLimitFilter filter = filter(1, 1.0);
+
+		for (int i = 0; i < 5; i++) {
+			send(filter, "/actuator/health");
+		}
+
+		assertThat(admitted).hasValue(5);
+		assertThat(inFlight()).isZero();
+	}
+
+	private AdaptiveConcurrencyLimitFilter filter(double initialLimit, double generationShare) {
+		AdaptiveConcurrencyLimitFilter filter = new AdaptiveConcurrencyLimitFilter(meterRegistry);
+		ReflectionTestUtils.setField(filter, "enabled", true);
+		ReflectionTestUtils.setField(filter, "initialLimit", initialLimit);
+		ReflectionTestUtils.setField(filter, "minLimit", 5.0);
+		ReflectionTestUtils.setField(filter, "maxLimit", 200.0);
+		ReflectionTestUtils.setField(filter, "smoothing", 0.2);
+		ReflectionTestUtils.setField(filter, "rttTolerance", 1.5);
+		ReflectionTestUtils.setField(filter, "shortWindow", 10);
+		ReflectionTestUtils.setField(filter, "longWindow", 600);
+		ReflectionTestUtils.setField(filter, "generationShare", generationShare);
+		ReflectionTestUtils.setField(filter, "retryAfter", Duration.ofSeconds(1));
+		ReflectionTestUtils.setField(filter, "findPlaylistByIdPath", "{id}");
+		ReflectionTestUtils.setField(filter, "findPlaylistsByMoodPath", "mood/{mood}/history");
+		ReflectionTestUtils.setField(filter, "findLatestPlaylistsPath", "latest");
+		filter.init();
+		return filter;
+	}
+
+	/**
+	 * Sends a request without waiting for it, so that it stays in flight until
+	 * {@link #release} completes.
+	 */
+	private MockServerWebExchange send(AdaptiveConcurrencyLimitFilter filter, String path) {
+		MockServerWebExchange exchange = exchange(path);
+		filter.filter(exchange, chain).subscribe();
+		return exchange;
+	}
+
+	private static MockServerWebExchange exchange(String path) {
+		return MockServerWebExchange.from(MockServerHttpRequest.get(path).build());
+	}
+
+	private static void sample(AdaptiveConcurrencyLimitFilter filter, long rttMillis, int inFlightAtStart) {
+		ReflectionTestUtils.invokeMethod(filter, "onSample", TimeUnit.MILLISECONDS.toNanos(rttMillis),
+				inFlightAtStart);
+	}
+
+	private double limit() {
+		return meterRegistry.get("playlist.concurrency.limit").gauge().value();
+	}
+
+	private double inFlight() {
+		return meterRegistry.get("playlist.concurrency.in.flight").gauge().value();
+	}
+}
@@ -0,0 +1,140 @@
+package io.musicdiscovery.moodplaylist.infrastructure.adapters.input.rest.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.WebFilterChain;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+class ClientQuotaFilterTest {
+
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private final AtomicInteger admitted = new AtomicInteger();
+
+	private final WebFilterChain chain = exchange -> Mono.fromRunnable(admitted::incrementAndGet);
+
+	@Test
+	void admitsABurstThenRejectsWithRetryAfter() {
+		ClientQuotaFilter filter = filter("exempt");
+
+		assertThat(send(filter, "alice", null).getResponse().getStatusCode()).isNull();
+		assertThat(send(filter, "alice", null).getResponse().getStatusCode()).isNull();
+		MockServerWebExchange rejected = send(filter, "alice", null);
+
+		assertThat(admitted).hasValue(2);
+		assertThat(rejected.getResponse().getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+		assertThat(rejected.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("10");
+		assertThat(meterRegistry.get("playlist.quota.rejected").tag("client", "alice").counter().count())
+				.isEqualTo(1);
+	}
+
+	@Test
+	void keepsASeparateBucketPerClient() {
+		ClientQuotaFilter filter = filter("exempt");
+
+		send(filter, "alice", null);
+		send(filter, "alice", null);
+		send(filter, "alice", null);
+		send(filter, "bob", null);
+		send(filter, "bob", null);
+
+		assertThat(admitted).hasValue(4);
+	}
+
+	@Test
+	void exemptsUnidentifiedClientsByDefault() {
+		ClientQuotaFilter filter = filter("exempt");
+
+		for (int i = 0; i < 10; i++) {
+			send(filter, null, "10.0.0.1");
+		}
+
+		assertThat(admitted).hasValue(10);
+	}
+
+	@Test
+	void keysUnidentifiedClientsByRemoteAddress() {
+		ClientQuotaFilter filter = filter("remote-address");
+
+		send(filter, null, "10.0.0.1");
+		send(filter, " ", "10.0.0.1");
+		MockServerWebExchange rejected = send(filter, null, "10.0.0.1");
+		send(filter, null, "10.0.0.2");
+		send(filter, null, "10.0.0.2");
+
+		assertThat(admitted).hasValue(4);
+		assertThat(rejected.getResponse().getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+		assertThat(meterRegistry.get("playlist.quota.rejected").tag("client", "anonymous").counter().count())
+				.isEqualTo(1);
+	}
+
+	@Test
+	void sharesOneBucketBetweenUnidentifiedClientsWhenConfigured() {
+		ClientQuotaFilter filter = filter("shared");
+
+		send(filter, null, "10.0.0.1");
+		send(filter, null, "10.0.0.2");
+		send(filter, null, "10.0.0.3");
+
+		assertThat(admitted).hasValue(2);
+	}
+
+	@Test
+	void leavesOtherRoutesAlone() {
+		ClientQuotaFilter filter = filter("shared");
+
+		for (int i = 0; i < 5; i++) {
+			MockServerHttpRequest request = MockServerHttpRequest.get("/actuator/health").build();
+			filter.filter(MockServerWebExchange.from(request), chain).block();
+		}
+
+		assertThat(admitted).hasValue(5);
+	}
+
+	@Test
+	void rejectsAnUnknownAnonymousPolicy() {
+		assertThatThrownBy(() -> filter("everyone")).isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("everyone");
+	}
+
+	private ClientQuotaFilter filter(String anonymous) {
+		ClientQuotaFilter filter = new ClientQuotaFilter(meterRegistry);
+		ReflectionTestUtils.setField(filter, "enabled", true);
+		ReflectionTestUtils.setField(filter, "anonymous", anonymous);
+		ReflectionTestUtils.setField(filter, "clientHeader", "X-Client-Id");
+		ReflectionTestUtils.setField(filter, "rate", 0.1);
+		ReflectionTestUtils.setField(filter, "burst", 2);
+		ReflectionTestUtils.setField(filter, "idleEviction", Duration.ofMinutes(10));
+		ReflectionTestUtils.setField(filter, "maxClients", 100L);
+		ReflectionTestUtils.setField(filter, "maxTaggedClients", 10);
+		filter.init();
+		return filter;
+	}
+
+	private MockServerWebExchange send(ClientQuotaFilter filter, String client, String remoteAddress) {
+		MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get("/playlists?mood=HAPPY");
+		if (client != null) {
+			request.header("X-Client-Id", client);
+		}
+		if (remoteAddress != null) {
+			request.remoteAddress(new InetSocketAddress(remoteAddress, 443));
+		}
+		MockServerWebExchange exchange = MockServerWebExchange.from(request.build());
+		filter.filter(exchange, chain).block();
+		return exchange;
+	}
+}
@@ -0,0 +1,142 @@
+package io.musicdiscovery.moodplaylist.infrastructure.adapters.output.catalog;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.musicdiscovery.moodplaylist.domain.model.enums.Mood;
+
+class NearestTrackRankerTest {
+
+	private static final int TRACKS = 20_000;
+	private static final int SEGMENT_TRACKS = 7_000;
+
+	@TempDir
+	Path directory;
+
+	private final ForkJoinPool pool = new ForkJoinPool(4);
+	private final List<String> trackUris = new ArrayList<>();
+	private final List<float[]> features = new ArrayList<>();
+
+	private TrackCatalog catalog;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		catalog = catalog();
+	}
+
+	@AfterEach
+	void tearDown() {
+		pool.shutdownNow();
+	}
+
+	@Test
+	void ranksTheSameTracksAsABruteForceScan() {
+		NearestTrackRanker ranker = new NearestTrackRanker(new ScalarDistanceKernel(), pool, Integer.MAX_VALUE);
+
+		for (Mood mood : Mood.values()) {
+			TrackRanking ranking = ranker.rank(catalog, mood, 100);
+
+			List<Integer> expected = bruteForce(mood, 100);
+			assertThat(ranking.mood()).isEqualTo(mood);
+			assertThat(uris(ranking)).containsExactlyElementsOf(expected.stream().map(trackUris::get).toList());
+			assertThat(distances(ranking)).containsExactlyElementsOf(
+					expected.stream().map(track -> MoodTarget.of(mood).distance(features.get(track))).toList());
+		}
+	}
+
+	@Test
+	void mergesThePartitionsIntoTheRankingOfASinglePass() {
+		NearestTrackRanker singlePass = new NearestTrackRanker(new ScalarDistanceKernel(), pool, Integer.MAX_VALUE);
+		NearestTrackRanker partitioned = new NearestTrackRanker(new ScalarDistanceKernel(), pool,
+				NearestTrackRanker.BLOCK_TRACKS);
+
+		for (Mood mood : Mood.values()) {
+			TrackRanking expected = singlePass.rank(catalog, mood, 250);
+			TrackRanking actual = partitioned.rank(catalog, mood, 250);
+
+			assertThat(uris(actual)).containsExactlyElementsOf(uris(expected));
+			assertThat(distances(actual)).containsExactlyElementsOf(distances(expected));
+		}
+	}
+
+	@Test
+	void ranksEveryTrackOfASmallerCatalog() {
+		NearestTrackRanker ranker = new NearestTrackRanker(new ScalarDistanceKernel(), pool,
+				NearestTrackRanker.BLOCK_TRACKS);
+
+		TrackRanking ranking = ranker.rank(catalog, Mood.SAD, TRACKS + 10);
+
+		assertThat(ranking.size()).isEqualTo(TRACKS);
+		assertThat(distances(ranking)).isSorted();
+		assertThat(uris(ranking)).doesNotHaveDuplicates();
+	}
+
+	@Test
+	void ranksNothingInAnEmptyCatalog() throws IOException {
+		NearestTrackRanker ranker = new NearestTrackRanker(new ScalarDistanceKernel(), pool, Integer.MAX_VALUE);
+
+		TrackRanking ranking = ranker.rank(TrackCatalog.open(directory.resolve("empty")), Mood.HAPPY, 10);
+
+		assertThat(ranking.size()).isZero();
+		assertThat(ranking.sample(5, 0, new SplittableRandom(1))).isEmpty();
+	}
+
+	private List<Integer> bruteForce(Mood mood, int k) {
+		MoodTarget target = MoodTarget.of(mood);
+		return IntStream.range(0, features.size()).boxed()
+				.sorted(Comparator.comparingDouble(track -> target.distance(features.get(track)))).limit(k).toList();
+	}
+
+	private static List<String> uris(TrackRanking ranking) {
+		return IntStream.range(0, ranking.size()).mapToObj(ranking::trackUri).toList();
+	}
+
+	private static List<Float> distances(TrackRanking ranking) {
+		return IntStream.range(0, ranking.size()).mapToObj(ranking::distance).toList();
+	}
+
+	/**
+	 * Writes a catalog of random tracks in several segments, remembering the
+	 * URI and features of every track.
+	 */
+	private TrackCatalog catalog() throws IOException {
+		SplittableRandom random = new SplittableRandom(42);
+		TrackCatalogSegmentWriter writer = new TrackCatalogSegmentWriter(SEGMENT_TRACKS);
+		List<String> segments = new ArrayList<>();
+		for (int track = 0; track < TRACKS; track++) {
+			String id = String.format(Locale.ROOT, "%022d", track);
+			float[] trackFeatures = new float[AudioFeature.values().length];
+			for (AudioFeature feature : AudioFeature.values()) {
+				trackFeatures[feature.ordinal()] = feature == AudioFeature.TEMPO
+						? 60 + 140 * (float) random.nextDouble()
+						: (float) random.nextDouble();
+			}
+			trackUris.add("spotify:track:" + id);
+			features.add(trackFeatures);
+			writer.add(id.getBytes(StandardCharsets.US_ASCII), track % 100, trackFeatures);
+			if (writer.isFull() || track == TRACKS - 1) {
+				String name = String.format(Locale.ROOT, "segment-%06d.bin", segments.size());
+				writer.write(directory.resolve(name));
+				segments.add(name);
+				writer.clear();
+			}
+		}
+		new TrackCatalogManifest("test", 0, 0, segments.size(), segments).write(directory);
+		return TrackCatalog.open(directory);
+	}
+}
@@ -0,0 +1,178 @@
+package io.musicdiscovery.moodplaylist.infrastructure.adapters.output.catalog;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.musicdiscovery.moodplaylist.domain.model.enums.Mood;
+
+class TrackCatalogBuilderTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void buildsAJsonLinesSource() throws IOException {
+		Path source = write("tracks.jsonl", happy(0), sad(1), happy(2));
+
+		TrackCatalogBuilder.Update update = new TrackCatalogBuilder(source, catalog(), 16).update();
+
+		assertThat(update).isEqualTo(new TrackCatalogBuilder.Update(true, 3, 0));
+		TrackCatalog catalog = TrackCatalog.open(catalog());
+		assertThat(catalog.size()).isEqualTo(3);
+		assertThat(catalog.candidateCount(Mood.HAPPY)).isEqualTo(2);
+		assertThat(catalog.candidateCount(Mood.SAD)).isEqualTo(1);
+		assertThat(trackUris(catalog)).containsExactly(uri(0), uri(1), uri(2));
+	}
+
+	@Test
+	void buildsACsvSourceByColumnName() throws IOException {
+		Path source = write("tracks.csv", "energy,id,artist,valence,tempo,danceability,acousticness,popularity",
+				"0.5,spotify:track:" + id(0) + ",\"Smith, \"\"The\"\" Band\",0.9,110,0.8,0.1,42",
+				"0.3," + id(1) + ",Someone,0.1,80,0.3,0.2,7");
+
+		TrackCatalogBuilder.Update update = new TrackCatalogBuilder(source, catalog(), 16).update();
+
+		assertThat(update).isEqualTo(new TrackCatalogBuilder.Update(true, 2, 0));
+		TrackCatalog catalog = TrackCatalog.open(catalog());
+		assertThat(trackUris(catalog)).containsExactly(uri(0), uri(1));
+		assertThat(catalog.candidateCount(Mood.HAPPY)).isEqualTo(1);
+		assertThat(catalog.candidateCount(Mood.SAD)).isEqualTo(1);
+	}
+
+	@Test
+	void skipsTheRowsThatCannotBeParsed() throws IOException {
+		Path source = write("tracks.jsonl", happy(0), "{\"id\":\"" + id(1) + "\",\"valence\":", "[1, 2]",
+				"{\"id\":\"too-short\",\"valence\":0.9,\"energy\":0.5,\"tempo\":110,\"danceability\":0.8,"
+						+ "\"acousticness\":0.1}",
+				"{\"id\":\"" + id(2) + "\",\"valence\":0.9,\"energy\":0.5,\"tempo\":110,\"danceability\":0.8}",
+				"{\"id\":\"" + id(3) + "\",\"valence\":\"high\",\"energy\":0.5,\"tempo\":110,"
+						+ "\"danceability\":0.8,\"acousticness\":0.1}",
+				"", happy(4));
+
+		TrackCatalogBuilder.Update update = new TrackCatalogBuilder(source, catalog(), 16).update();
+
+		assertThat(update).isEqualTo(new TrackCatalogBuilder.Update(true, 2, 5));
+		assertThat(trackUris(TrackCatalog.open(catalog()))).containsExactly(uri(0), uri(4));
+	}
+
+	@Test
+	void appendsOnlyTheRowsAddedSinceTheLastUpdate() throws IOException {
+		Path source = write("tracks.jsonl", happy(0), happy(1), happy(2));
+		TrackCatalogBuilder builder = new TrackCatalogBuilder(source, catalog(), 2);
+		builder.update();
+		assertThat(TrackCatalog.open(catalog()).segmentCount()).isEqualTo(2);
+
+		Files.writeString(source, happy(3) + "\n" + sad(4) + "\n", StandardOpenOption.APPEND);
+		TrackCatalogBuilder.Update update = builder.update();
+
+		assertThat(update).isEqualTo(new TrackCatalogBuilder.Update(false, 2, 0));
+		TrackCatalog catalog = TrackCatalog.open(catalog());
+		assertThat(catalog.size()).isEqualTo(5);
+		assertThat(catalog.segmentCount()).isEqualTo(3);
+		assertThat(trackUris(catalog)).containsExactly(uri(0), uri(1), uri(2), uri(3), uri(4));
+		assertThat(segmentFiles()).hasSize(3).doesNotContain("segment-000001.bin");
+		assertThat(builder.update()).isEqualTo(new TrackCatalogBuilder.Update(false, 0, 0));
+	}
+
+	@Test
+	void leavesAnUnterminatedRowForTheNextUpdate() throws IOException {
+		Path source = write("tracks.jsonl", happy(0));
+		Files.writeString(source, happy(1).substring(0, 20), StandardOpenOption.APPEND);
+		TrackCatalogBuilder builder = new TrackCatalogBuilder(source, catalog(), 16);
+
+		assertThat(builder.update().added()).isEqualTo(1);
+
+		Files.writeString(source, happy(1).substring(20) + "\n", StandardOpenOption.APPEND);
+
+		assertThat(builder.update()).isEqualTo(new TrackCatalogBuilder.Update(false, 1, 0));
+		assertThat(trackUris(TrackCatalog.open(catalog()))).containsExactly(uri(0), uri(1));
+	}
+
+	@Test
+	void rebuildsTheCatalogWhenBuiltRowsChange() throws IOException {
+		Path source = write("tracks.jsonl", happy(0), happy(1));
+		TrackCatalogBuilder builder = new TrackCatalogBuilder(source, catalog(), 16);
+		builder.update();
+
+		write("tracks.jsonl", happy(5), happy(1), sad(2));
+		TrackCatalogBuilder.Update update = builder.update();
+
+		assertThat(update).isEqualTo(new TrackCatalogBuilder.Update(true, 3, 0));
+		assertThat(trackUris(TrackCatalog.open(catalog()))).containsExactly(uri(5), uri(1), uri(2));
+		assertThat(segmentFiles()).containsExactly("segment-000001.bin");
+	}
+
+	@Test
+	void rebuildsTheCatalogWhenTheSourceShrinks() throws IOException {
+		Path source = write("tracks.jsonl", happy(0), happy(1), happy(2));
+		TrackCatalogBuilder builder = new TrackCatalogBuilder(source, catalog(), 16);
+		builder.update();
+
+		write("tracks.jsonl", happy(0));
+
+		assertThat(builder.update()).isEqualTo(new TrackCatalogBuilder.Update(true, 1, 0));
+		assertThat(TrackCatalog.open(catalog()).size()).isEqualTo(1);
+	}
+
+	private Path catalog() {
+		return directory.resolve("catalog");
+	}
+
+	private Path write(String name, String... rows) throws IOException {
+		return Files.writeString(directory.resolve(name),
+				Stream.of(rows).map(row -> row + "\n").reduce("", String::concat), StandardCharsets.UTF_8);
+	}
+
+	private List<String> segmentFiles() throws IOException {
+		try (Stream<Path> files = Files.list(catalog())) {
+			return files.map(file -> file.getFileName().toString()).filter(name -> name.startsWith("segment-"))
+					.sorted().toList();
+		}
+	}
+
+	private static List<String> trackUris(TrackCatalog catalog) {
+		List<String> trackUris = new ArrayList<>();
+		for (int segment = 0; segment < catalog.segmentCount(); segment++) {
+			TrackCatalogSegment trackSegment = catalog.segment(segment);
+			IntStream.range(0, trackSegment.size()).mapToObj(trackSegment::trackUri).forEach(trackUris::add);
+		}
+		return trackUris;
+	}
+
+	private static String happy(int track) {
+		return row(track, 0.9, 0.5, 110, 0.8, 0.1);
+	}
+
+	private static String sad(int track) {
+		return row(track, 0.1, 0.3, 80, 0.3, 0.2);
+	}
+
+	private static String row(int track, double valence, double energy, double tempo, double danceability,
+			double acousticness) {
+		return String.format(Locale.ROOT,
+				"{\"id\":\"%s\",\"artist\":\"Artist %d\",\"valence\":%s,\"energy\":%s,\"tempo\":%s,"
+						+ "\"danceability\":%s,\"acousticness\":%s,\"genres\":[\"pop\"]}",
+				id(track), track, valence, energy, tempo, danceability, acousticness);
+	}
+
+	private static String id(int track) {
+		return String.format(Locale.ROOT, "%022d", track);
+	}
+
+	private static String uri(int track) {
+		return "spotify:track:" + id(track);
+	}
+}
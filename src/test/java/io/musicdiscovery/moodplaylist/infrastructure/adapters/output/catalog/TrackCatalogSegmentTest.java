@@ -0,0 +1,121 @@
+package io.musicdiscovery.moodplaylist.infrastructure.adapters.output.catalog;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.musicdiscovery.moodplaylist.domain.model.enums.Mood;
+
+class TrackCatalogSegmentTest {
+
+	private static final float[] HAPPY = { 0.9f, 0.5f, 110f, 0.8f, 0.1f };
+	private static final float[] SAD = { 0.1f, 0.3f, 80f, 0.3f, 0.2f };
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void readsBackTheColumnsWritten() throws IOException {
+		TrackCatalogSegmentWriter writer = new TrackCatalogSegmentWriter(8);
+		writer.add(id(0), 11, HAPPY);
+		writer.add(id(1), 22, SAD);
+		writer.add(id(2), 33, HAPPY);
+		writer.write(directory.resolve("segment.bin"));
+
+		TrackCatalogSegment segment = TrackCatalogSegment.open(directory.resolve("segment.bin"));
+
+		assertThat(segment.size()).isEqualTo(3);
+		assertThat(segment.trackUri(1)).isEqualTo("spotify:track:" + idString(1));
+		assertThat(segment.artist(2)).isEqualTo(33);
+		for (AudioFeature feature : AudioFeature.values()) {
+			assertThat(segment.feature(feature, 1)).isEqualTo(SAD[feature.ordinal()]);
+		}
+		float[] tempos = new float[3];
+		segment.copyFeature(AudioFeature.TEMPO, 0, tempos, 3);
+		assertThat(tempos).containsExactly(110f, 80f, 110f);
+		assertThat(candidates(segment, Mood.HAPPY)).containsExactly(0, 2);
+		assertThat(candidates(segment, Mood.SAD)).containsExactly(1);
+		assertThat(segment.candidateCount(Mood.EXERCISE)).isZero();
+	}
+
+	@Test
+	void aWriterCanCopyASegmentAndBeReused() throws IOException {
+		TrackCatalogSegmentWriter writer = new TrackCatalogSegmentWriter(4);
+		writer.add(id(0), 1, HAPPY);
+		writer.add(id(1), 2, SAD);
+		writer.write(directory.resolve("first.bin"));
+		writer.clear();
+
+		writer.addAll(TrackCatalogSegment.open(directory.resolve("first.bin")));
+		writer.add(id(2), 3, SAD);
+		writer.write(directory.resolve("merged.bin"));
+
+		TrackCatalogSegment merged = TrackCatalogSegment.open(directory.resolve("merged.bin"));
+		assertThat(merged.size()).isEqualTo(3);
+		assertThat(merged.trackUri(0)).isEqualTo("spotify:track:" + idString(0));
+		assertThat(merged.trackUri(2)).isEqualTo("spotify:track:" + idString(2));
+		assertThat(candidates(merged, Mood.SAD)).containsExactly(1, 2);
+	}
+
+	@Test
+	void refusesTracksBeyondItsCapacity() {
+		TrackCatalogSegmentWriter writer = new TrackCatalogSegmentWriter(1);
+		writer.add(id(0), 1, HAPPY);
+
+		assertThat(writer.isFull()).isTrue();
+		assertThatThrownBy(() -> writer.add(id(1), 1, HAPPY)).isInstanceOf(IllegalStateException.class);
+		assertThatThrownBy(() -> new TrackCatalogSegmentWriter(0)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void rejectsAFileThatIsNotASegment() throws IOException {
+		Path file = Files.write(directory.resolve("other.bin"),
+				"not a segment, but long enough to hold a segment header of 64 bytes"
+						.getBytes(StandardCharsets.US_ASCII));
+
+		assertThatThrownBy(() -> TrackCatalogSegment.open(file)).isInstanceOf(IOException.class)
+				.hasMessageContaining("Not a track catalog segment");
+	}
+
+	@Test
+	void rejectsATruncatedSegment() throws IOException {
+		TrackCatalogSegmentWriter writer = new TrackCatalogSegmentWriter(4);
+		writer.add(id(0), 1, HAPPY);
+		Path file = directory.resolve("segment.bin");
+		writer.write(file);
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+			channel.truncate(channel.size() - Integer.BYTES);
+		}
+
+		assertThatThrownBy(() -> TrackCatalogSegment.open(file)).isInstanceOf(IOException.class)
+				.hasMessageContaining("Truncated");
+	}
+
+	private static List<Integer> candidates(TrackCatalogSegment segment, Mood mood) {
+		List<Integer> tracks = new ArrayList<>();
+		for (int candidate = 0; candidate < segment.candidateCount(mood); candidate++) {
+			tracks.add(segment.candidate(mood, candidate));
+		}
+		return tracks;
+	}
+
+	private static byte[] id(int track) {
+		return idString(track).getBytes(StandardCharsets.US_ASCII);
+	}
+
+	private static String idString(int track) {
+		return String.format(Locale.ROOT, "%022d", track);
+	}
+}
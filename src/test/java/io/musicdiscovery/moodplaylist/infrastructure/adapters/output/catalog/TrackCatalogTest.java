@@ -0,0 +1,137 @@
+package io.musicdiscovery.moodplaylist.infrastructure.adapters.output.catalog;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.musicdiscovery.moodplaylist.domain.model.enums.Mood;
+
+class TrackCatalogTest {
+
+	private static final float[] HAPPY = { 0.9f, 0.5f, 110f, 0.8f, 0.1f };
+	private static final float[] SAD = { 0.1f, 0.3f, 80f, 0.3f, 0.2f };
+
+	@TempDir
+	Path directory;
+
+	private final Map<String, Integer> artists = new HashMap<>();
+
+	@Test
+	void countsTheCandidatesOfEveryMoodAcrossSegments() throws IOException {
+		TrackCatalog catalog = catalog(4, HAPPY, SAD, HAPPY, SAD, SAD, SAD, SAD, SAD, HAPPY);
+
+		assertThat(catalog.size()).isEqualTo(9);
+		assertThat(catalog.segmentCount()).isEqualTo(3);
+		assertThat(catalog.candidateCount(Mood.HAPPY)).isEqualTo(3);
+		assertThat(catalog.candidateCount(Mood.SAD)).isEqualTo(6);
+		assertThat(catalog.candidateCount(Mood.EXERCISE)).isZero();
+	}
+
+	@Test
+	void drawsDistinctTracksOfTheMoodFromEverySegment() throws IOException {
+		float[][] tracks = new float[60][];
+		for (int track = 0; track < tracks.length; track++) {
+			// the middle segment has no happy track
+			tracks[track] = track % 2 == 0 && (track < 20 || track >= 40) ? HAPPY : SAD;
+		}
+		TrackCatalog catalog = catalog(20, tracks);
+		List<String> happy = urisOf(catalog, Mood.HAPPY);
+		SplittableRandom random = new SplittableRandom(7);
+		List<String> drawn = new ArrayList<>();
+
+		for (int run = 0; run < 50; run++) {
+			List<String> playlist = catalog.sample(Mood.HAPPY, 5, 0, random);
+			assertThat(playlist).hasSize(5).doesNotHaveDuplicates();
+			assertThat(happy).containsAll(playlist);
+			drawn.addAll(playlist);
+		}
+		assertThat(drawn).containsAll(happy);
+	}
+
+	@Test
+	void returnsEveryCandidateWhenTheMoodHasTooFew() throws IOException {
+		TrackCatalog catalog = catalog(2, HAPPY, SAD, HAPPY, SAD, HAPPY);
+
+		List<String> playlist = catalog.sample(Mood.HAPPY, 10, 0, new SplittableRandom(1));
+
+		assertThat(playlist).containsExactlyInAnyOrderElementsOf(urisOf(catalog, Mood.HAPPY));
+	}
+
+	@Test
+	void limitsTheTracksOfEachArtist() throws IOException {
+		float[][] tracks = new float[40][];
+		Arrays.fill(tracks, HAPPY);
+		TrackCatalog catalog = catalog(16, tracks);
+		SplittableRandom random = new SplittableRandom(3);
+
+		for (int run = 0; run < 20; run++) {
+			List<String> playlist = catalog.sample(Mood.HAPPY, 8, 2, random);
+			assertThat(playlist).isNotEmpty();
+			Map<Integer, Long> perArtist = new HashMap<>();
+			playlist.forEach(uri -> perArtist.merge(artists.get(uri), 1L, Long::sum));
+			assertThat(perArtist.values()).allMatch(count -> count <= 2);
+		}
+		assertThat(catalog.sample(Mood.HAPPY, 40, 1, random)).hasSize(4);
+	}
+
+	@Test
+	void drawsNothingForAMoodWithoutCandidates() throws IOException {
+		TrackCatalog catalog = catalog(4, HAPPY, HAPPY);
+
+		assertThat(catalog.sample(Mood.SAD, 5, 0, new SplittableRandom(1))).isEmpty();
+		assertThat(catalog.sample(Mood.HAPPY, 0, 0, new SplittableRandom(1))).isEmpty();
+	}
+
+	@Test
+	void opensADirectoryWithoutCatalogAsEmpty() throws IOException {
+		TrackCatalog catalog = TrackCatalog.open(directory);
+
+		assertThat(catalog.size()).isZero();
+		assertThat(catalog.sample(Mood.HAPPY, 5, 0, new SplittableRandom(1))).isEmpty();
+	}
+
+	/**
+	 * Writes a catalog of the given tracks, the artist of track {@code n} being
+	 * {@code n % 4}.
+	 */
+	private TrackCatalog catalog(int segmentTracks, float[]... tracks) throws IOException {
+		TrackCatalogSegmentWriter writer = new TrackCatalogSegmentWriter(segmentTracks);
+		List<String> segments = new ArrayList<>();
+		for (int track = 0; track < tracks.length; track++) {
+			String id = String.format(Locale.ROOT, "%022d", track);
+			artists.put("spotify:track:" + id, track % 4);
+			writer.add(id.getBytes(StandardCharsets.US_ASCII), track % 4, tracks[track]);
+			if (writer.isFull() || track == tracks.length - 1) {
+				String name = String.format(Locale.ROOT, "segment-%06d.bin", segments.size());
+				writer.write(directory.resolve(name));
+				segments.add(name);
+				writer.clear();
+			}
+		}
+		new TrackCatalogManifest("test", 0, 0, segments.size(), segments).write(directory);
+		return TrackCatalog.open(directory);
+	}
+
+	private static List<String> urisOf(TrackCatalog catalog, Mood mood) {
+		List<String> trackUris = new ArrayList<>();
+		for (int segment = 0; segment < catalog.segmentCount(); segment++) {
+			TrackCatalogSegment trackSegment = catalog.segment(segment);
+			for (int candidate = 0; candidate < trackSegment.candidateCount(mood); candidate++) {
+				trackUris.add(trackSegment.trackUri(trackSegment.candidate(mood, candidate)));
+			}
+		}
+		return trackUris;
+	}
+}
@@ -0,0 +1,70 @@
+package io.musicdiscovery.moodplaylist.infrastructure.adapters.output.client.spotify;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.musicdiscovery.moodplaylist.config.PortMetrics;
+import io.musicdiscovery.moodplaylist.domain.model.Playlist;
+import io.musicdiscovery.moodplaylist.domain.model.enums.Mood;
+import reactor.core.publisher.Mono;
+
+class CachingSpotifyPlaylistServiceAdapterTest {
+
+	private final ResilientSpotifyPlaylistServiceAdapter delegate = mock(ResilientSpotifyPlaylistServiceAdapter.class);
+
+	private CachingSpotifyPlaylistServiceAdapter adapter;
+
+	@BeforeEach
+	void setUp() {
+		MeterRegistry meterRegistry = new SimpleMeterRegistry();
+		PortMetrics portMetrics = new PortMetrics(meterRegistry);
+		ReflectionTestUtils.setField(portMetrics, "minimumExpected", Duration.ofMillis(1));
+		ReflectionTestUtils.setField(portMetrics, "maximumExpected", Duration.ofSeconds(30));
+		adapter = new CachingSpotifyPlaylistServiceAdapter(delegate, meterRegistry, portMetrics);
+		ReflectionTestUtils.setField(adapter, "enabled", true);
+		ReflectionTestUtils.setField(adapter, "maximumSize", 100L);
+		ReflectionTestUtils.setField(adapter, "refreshAfterWrite", Duration.ofMinutes(5));
+		ReflectionTestUtils.setField(adapter, "expireAfterWrite", Duration.ofHours(1));
+		ReflectionTestUtils.setField(adapter, "fallbackExpireAfterWrite", Duration.ZERO);
+		adapter.init();
+	}
+
+	@Test
+	void servesCopiesOfAFreshPlaylistFromTheCache() {
+		when(delegate.generatePlaylist(Mood.HAPPY, 2))
+				.thenReturn(Mono.fromSupplier(() -> new Playlist(null, Mood.HAPPY, List.of("spotify:track:a"))));
+
+		Playlist first = adapter.generatePlaylist(Mood.HAPPY, 2).block();
+		first.getTrackUris().add("spotify:track:b");
+		Playlist second = adapter.generatePlaylist(Mood.HAPPY, 2).block();
+
+		assertThat(second.getId()).isNull();
+		assertThat(second.getTrackUris()).containsExactly("spotify:track:a");
+		verify(delegate, times(1)).generatePlaylist(Mood.HAPPY, 2);
+	}
+
+	@Test
+	void keepsTheIdentifierOfAStoredPlaylistAndDoesNotKeepItAsFresh() {
+		when(delegate.generatePlaylist(Mood.HAPPY, 2))
+				.thenReturn(Mono.fromSupplier(() -> new Playlist("stored", Mood.HAPPY, List.of("spotify:track:a"))));
+
+		Playlist first = adapter.generatePlaylist(Mood.HAPPY, 2).block();
+		Playlist second = adapter.generatePlaylist(Mood.HAPPY, 2).block();
+
+		assertThat(first.getId()).isEqualTo("stored");
+		assertThat(second.getId()).isEqualTo("stored");
+		verify(delegate, times(2)).generatePlaylist(Mood.HAPPY, 2);
+	}
+}
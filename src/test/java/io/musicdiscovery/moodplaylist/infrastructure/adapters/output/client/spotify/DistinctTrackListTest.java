@@ -0,0 +1,66 @@
+package io.musicdiscovery.moodplaylist.infrastructure.adapters.output.client.spotify;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+class DistinctTrackListTest {
+
+	@Test
+	void keepsTheFirstOccurrenceOfEachTrackInOrder() {
+		DistinctTrackList list = new DistinctTrackList(10);
+
+		list.addAll(List.of("spotify:track:a", "spotify:track:b", "spotify:track:a"))
+				.addAll(List.of("spotify:track:c", "spotify:track:b"));
+
+		assertThat(list.tracks()).containsExactly("spotify:track:a", "spotify:track:b", "spotify:track:c");
+		assertThat(list.isFull()).isFalse();
+	}
+
+	@Test
+	void distinguishesTracksWithCollidingHashCodes() {
+		// "Aa" and "BB" share their hash code, and so do their concatenations
+		List<String> colliding = List.of("AaAa", "AaBB", "BBAa", "BBBB");
+		assertThat(colliding).extracting(String::hashCode).containsOnly("AaAa".hashCode());
+		DistinctTrackList list = new DistinctTrackList(8);
+
+		list.addAll(colliding).addAll(colliding);
+
+		assertThat(list.tracks()).containsExactlyElementsOf(colliding);
+		assertThat(list.add("BBBB")).isFalse();
+	}
+
+	@Test
+	void stopsAddingOnceFull() {
+		DistinctTrackList list = new DistinctTrackList(3);
+
+		list.addAll(List.of("spotify:track:a", "spotify:track:a", "spotify:track:b", "spotify:track:c",
+				"spotify:track:d"));
+
+		assertThat(list.isFull()).isTrue();
+		assertThat(list.tracks()).containsExactly("spotify:track:a", "spotify:track:b", "spotify:track:c");
+		assertThat(list.add("spotify:track:e")).isFalse();
+	}
+
+	@Test
+	void holdsAsManyDistinctTracksAsItsCapacity() {
+		List<String> tracks = IntStream.range(0, 500).mapToObj(i -> "spotify:track:" + i).toList();
+		DistinctTrackList list = new DistinctTrackList(tracks.size());
+
+		list.addAll(tracks).addAll(tracks);
+
+		assertThat(list.tracks()).containsExactlyElementsOf(tracks);
+		assertThat(list.isFull()).isTrue();
+	}
+
+	@Test
+	void zeroCapacityHoldsNothing() {
+		DistinctTrackList list = new DistinctTrackList(0);
+
+		assertThat(list.add("spotify:track:a")).isFalse();
+		assertThat(list.tracks()).isEmpty();
+	}
+}
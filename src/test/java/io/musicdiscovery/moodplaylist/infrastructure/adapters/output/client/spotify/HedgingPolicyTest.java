@@ -0,0 +1,150 @@
+package io.musicdiscovery.moodplaylist.infrastructure.adapters.output.client.spotify;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class HedgingPolicyTest {
+
+	private static final Duration DELAY = Duration.ofMillis(50);
+	private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@Test
+	void fastCallIsNotHedged() {
+		HedgingPolicy policy = policy(1.0);
+		Calls calls = new Calls(Mono.just("primary"), Mono.just("hedge"));
+
+		StepVerifier.create(policy.execute(calls)).expectNext("primary").expectComplete().verify(TIMEOUT);
+
+		assertThat(calls.count()).isEqualTo(1);
+		assertThat(count("fired")).isZero();
+	}
+
+	@Test
+	void slowCallIsHedgedAndTheLoserCancelled() {
+		HedgingPolicy policy = policy(1.0);
+		AtomicBoolean primaryCancelled = new AtomicBoolean();
+		Calls calls = new Calls(Mono.<String>never().doOnCancel(() -> primaryCancelled.set(true)), Mono.just("hedge"));
+
+		StepVerifier.create(policy.execute(calls)).expectNext("hedge").expectComplete().verify(TIMEOUT);
+
+		assertThat(primaryCancelled).isTrue();
+		assertThat(count("fired")).isEqualTo(1);
+		assertThat(count("won")).isEqualTo(1);
+	}
+
+	@Test
+	void fastFailureIsReturnedWithoutHedging() throws InterruptedException {
+		HedgingPolicy policy = policy(1.0);
+		Calls calls = new Calls(Mono.error(new IllegalStateException("primary")), Mono.just("hedge"));
+
+		StepVerifier.create(policy.execute(calls))
+				.expectErrorSatisfies(error -> assertThat(error).isInstanceOf(IllegalStateException.class)
+						.hasMessage("primary"))
+				.verify(TIMEOUT);
+
+		Thread.sleep(DELAY.multipliedBy(2).toMillis());
+		assertThat(calls.count()).isEqualTo(1);
+		assertThat(count("fired")).isZero();
+		assertThat(count("denied")).isZero();
+	}
+
+	@Test
+	void failureAfterTheHedgeWasSentDoesNotEndTheRace() {
+		HedgingPolicy policy = policy(1.0);
+		Calls calls = new Calls(
+				Mono.delay(DELAY.multipliedBy(2)).then(Mono.error(new IllegalStateException("primary"))),
+				Mono.delay(DELAY.multipliedBy(2)).thenReturn("hedge"));
+
+		StepVerifier.create(policy.execute(calls)).expectNext("hedge").expectComplete().verify(TIMEOUT);
+		assertThat(count("won")).isEqualTo(1);
+	}
+
+	@Test
+	void failingHedgeDoesNotCancelThePrimary() {
+		HedgingPolicy policy = policy(1.0);
+		Calls calls = new Calls(Mono.delay(DELAY.multipliedBy(4)).thenReturn("primary"),
+				Mono.error(new IllegalStateException("hedge")));
+
+		StepVerifier.create(policy.execute(calls)).expectNext("primary").expectComplete().verify(TIMEOUT);
+		assertThat(calls.count()).isEqualTo(2);
+	}
+
+	@Test
+	void failsWithTheFailureOfThePrimaryWhenBothCallsFail() {
+		HedgingPolicy policy = policy(1.0);
+		Calls calls = new Calls(
+				Mono.delay(DELAY.multipliedBy(2)).then(Mono.error(new IllegalStateException("primary"))),
+				Mono.error(new IllegalArgumentException("hedge")));
+
+		StepVerifier.create(policy.execute(calls))
+				.expectErrorSatisfies(error -> assertThat(error).isInstanceOf(IllegalStateException.class)
+						.hasMessage("primary"))
+				.verify(TIMEOUT);
+	}
+
+	@Test
+	void failsWithTheFailureOfThePrimaryWhenNoHedgeCanBeSent() {
+		HedgingPolicy policy = policy(0);
+		Calls calls = new Calls(
+				Mono.delay(DELAY.multipliedBy(2)).then(Mono.error(new IllegalStateException("primary"))),
+				Mono.just("hedge"));
+
+		StepVerifier.create(policy.execute(calls))
+				.expectErrorSatisfies(error -> assertThat(error).isInstanceOf(IllegalStateException.class)
+						.hasMessage("primary"))
+				.verify(TIMEOUT);
+		assertThat(calls.count()).isEqualTo(1);
+		assertThat(count("denied")).isEqualTo(1);
+	}
+
+	@Test
+	void completesEmptyWhenNoCallEmitsAValue() {
+		HedgingPolicy policy = policy(1.0);
+
+		StepVerifier.create(policy.execute(new Calls(Mono.empty(), Mono.empty()))).expectComplete().verify(TIMEOUT);
+	}
+
+	private HedgingPolicy policy(double budgetRatio) {
+		return new HedgingPolicy(meterRegistry, "test.hedge", 0.95, DELAY, DELAY, 100, budgetRatio, 10);
+	}
+
+	private double count(String result) {
+		return meterRegistry.get("test.hedge").tag("result", result).counter().count();
+	}
+
+	/**
+	 * Supplies the primary call first, then the hedge.
+	 */
+	private static final class Calls implements Supplier<Mono<String>> {
+
+		private final List<Mono<String>> calls;
+		private final AtomicInteger count = new AtomicInteger();
+
+		Calls(Mono<String> primary, Mono<String> hedge) {
+			this.calls = List.of(primary, hedge);
+		}
+
+		@Override
+		public Mono<String> get() {
+			return calls.get(Math.min(count.getAndIncrement(), 1));
+		}
+
+		int count() {
+			return count.get();
+		}
+	}
+}
@@ -0,0 +1,76 @@
+package io.musicdiscovery.moodplaylist.infrastructure.adapters.output.client.spotify;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.musicdiscovery.moodplaylist.application.port.output.PlaylistPersistencePort;
+import io.musicdiscovery.moodplaylist.domain.exception.PlaylistProviderUnavailableException;
+import io.musicdiscovery.moodplaylist.domain.model.Playlist;
+import io.musicdiscovery.moodplaylist.domain.model.enums.Mood;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+class ResilientSpotifyPlaylistServiceAdapterTest {
+
+	private final SpotifyPlaylistServiceAdapter delegate = mock(SpotifyPlaylistServiceAdapter.class);
+	private final PlaylistPersistencePort persistence = mock(PlaylistPersistencePort.class);
+
+	private ResilientSpotifyPlaylistServiceAdapter adapter;
+
+	@BeforeEach
+	void setUp() {
+		adapter = new ResilientSpotifyPlaylistServiceAdapter(delegate, persistence, new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(adapter, "failureRateThreshold", 50f);
+		ReflectionTestUtils.setField(adapter, "slowCallRateThreshold", 100f);
+		ReflectionTestUtils.setField(adapter, "slowCallDurationThreshold", Duration.ofSeconds(10));
+		ReflectionTestUtils.setField(adapter, "slidingWindowSize", 10);
+		ReflectionTestUtils.setField(adapter, "minimumNumberOfCalls", 10);
+		ReflectionTestUtils.setField(adapter, "waitDurationInOpenState", Duration.ofSeconds(30));
+		ReflectionTestUtils.setField(adapter, "permittedCallsInHalfOpenState", 1);
+		ReflectionTestUtils.setField(adapter, "maxConcurrentCalls", 1);
+		ReflectionTestUtils.setField(adapter, "maxWaitDuration", Duration.ZERO);
+		ReflectionTestUtils.setField(adapter, "timeout", Duration.ofSeconds(1));
+		adapter.init();
+	}
+
+	@Test
+	void streamFailingBeforeItsFirstTrackFallsBackToTheLatestStoredPlaylist() {
+		when(delegate.streamTrackUris(Mood.HAPPY, 2)).thenReturn(Flux.error(new IllegalStateException("down")));
+		when(persistence.findByMood(Mood.HAPPY, null, 1))
+				.thenReturn(Flux.just(new Playlist("stored", Mood.HAPPY, List.of("spotify:track:a"))));
+
+		StepVerifier.create(adapter.streamTrackUris(Mood.HAPPY, 2)).expectNext("spotify:track:a").verifyComplete();
+	}
+
+	@Test
+	void streamFailingAfterItsFirstTrackSignalsTheFailure() {
+		when(delegate.streamTrackUris(Mood.HAPPY, 2)).thenReturn(
+				Flux.concat(Flux.just("spotify:track:a"), Flux.error(new IllegalStateException("down"))));
+
+		StepVerifier.create(adapter.streamTrackUris(Mood.HAPPY, 2)).expectNext("spotify:track:a")
+				.verifyError(IllegalStateException.class);
+	}
+
+	@Test
+	void streamHoldsItsBulkheadPermitUntilItTerminates() {
+		Sinks.Many<String> tracks = Sinks.many().unicast().onBackpressureBuffer();
+		when(delegate.streamTrackUris(Mood.HAPPY, 2)).thenReturn(tracks.asFlux());
+		when(persistence.findByMood(Mood.HAPPY, null, 1)).thenReturn(Flux.empty());
+
+		StepVerifier.create(adapter.streamTrackUris(Mood.HAPPY, 2)).then(() -> {
+			StepVerifier.create(adapter.streamTrackUris(Mood.HAPPY, 2))
+					.verifyError(PlaylistProviderUnavailableException.class);
+			tracks.tryEmitNext("spotify:track:a");
+			tracks.tryEmitComplete();
+		}).expectNext("spotify:track:a").verifyComplete();
+	}
+}
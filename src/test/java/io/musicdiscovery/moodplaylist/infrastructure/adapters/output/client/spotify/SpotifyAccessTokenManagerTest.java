@@ -0,0 +1,110 @@
+package io.musicdiscovery.moodplaylist.infrastructure.adapters.output.client.spotify;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.musicdiscovery.moodplaylist.config.PortMetrics;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.SocketPolicy;
+import reactor.test.StepVerifier;
+
+class SpotifyAccessTokenManagerTest {
+
+	private final MockWebServer server = new MockWebServer();
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private SpotifyAccessTokenManager tokenManager;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		server.start();
+		PortMetrics portMetrics = new PortMetrics(meterRegistry);
+		ReflectionTestUtils.setField(portMetrics, "minimumExpected", Duration.ofMillis(1));
+		ReflectionTestUtils.setField(portMetrics, "maximumExpected", Duration.ofSeconds(30));
+		tokenManager = new SpotifyAccessTokenManager(WebClient.create(), meterRegistry, portMetrics);
+		ReflectionTestUtils.setField(tokenManager, "clientId", "client");
+		ReflectionTestUtils.setField(tokenManager, "clientSecret", "secret");
+		ReflectionTestUtils.setField(tokenManager, "tokenUrl", server.url("/api/token").toString());
+		ReflectionTestUtils.setField(tokenManager, "refreshBeforeExpiry", Duration.ofSeconds(60));
+		ReflectionTestUtils.setField(tokenManager, "retryDelay", Duration.ofSeconds(5));
+		ReflectionTestUtils.setField(tokenManager, "fetchTimeout", Duration.ofSeconds(2));
+		tokenManager.init();
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		ReflectionTestUtils.invokeMethod(tokenManager, "shutdown");
+		server.shutdown();
+	}
+
+	@Test
+	void fetchesATokenOnceAndServesItFromTheCache() {
+		server.enqueue(tokenResponse("""
+				{"access_token":"token","token_type":"Bearer","expires_in":3600}"""));
+
+		StepVerifier.create(tokenManager.getAccessToken()).expectNext("token").expectComplete()
+				.verify(Duration.ofSeconds(5));
+		StepVerifier.create(tokenManager.getAccessToken()).expectNext("token").expectComplete()
+				.verify(Duration.ofSeconds(5));
+
+		assertThat(server.getRequestCount()).isEqualTo(1);
+		assertThat(refreshes("success")).isEqualTo(1);
+		assertThat(refreshes("failure")).isZero();
+	}
+
+	@Test
+	void failsWhenTheTokenEndpointNeverAnswers() {
+		server.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.NO_RESPONSE));
+
+		StepVerifier.create(tokenManager.getAccessToken()).expectError(TimeoutException.class)
+				.verify(Duration.ofSeconds(5));
+
+		assertThat(refreshes("success")).isZero();
+		assertThat(refreshes("failure")).isEqualTo(1);
+	}
+
+	@Test
+	void countsAnAnswerWithoutATokenAsAFailure() {
+		server.enqueue(new MockResponse().setResponseCode(200));
+
+		StepVerifier.create(tokenManager.getAccessToken()).expectError(IllegalStateException.class)
+				.verify(Duration.ofSeconds(5));
+
+		assertThat(refreshes("success")).isZero();
+		assertThat(refreshes("failure")).isEqualTo(1);
+	}
+
+	@Test
+	void refreshesAgainAfterAFailedFetch() {
+		server.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.NO_RESPONSE));
+		server.enqueue(tokenResponse("""
+				{"access_token":"token","token_type":"Bearer","expires_in":3600}"""));
+
+		StepVerifier.create(tokenManager.getAccessToken()).expectError(TimeoutException.class)
+				.verify(Duration.ofSeconds(5));
+		StepVerifier.create(tokenManager.getAccessToken()).expectNext("token").expectComplete()
+				.verify(Duration.ofSeconds(5));
+	}
+
+	private double refreshes(String outcome) {
+		return meterRegistry.get("spotify.token.refresh").tag("outcome", outcome).counter().count();
+	}
+
+	private static MockResponse tokenResponse(String body) {
+		return new MockResponse().setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE).setBody(body);
+	}
+}
@@ -0,0 +1,113 @@
+package io.musicdiscovery.moodplaylist.infrastructure.adapters.output.client.spotify;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.musicdiscovery.moodplaylist.config.PortMetrics;
+import io.musicdiscovery.moodplaylist.domain.model.Playlist;
+import io.musicdiscovery.moodplaylist.domain.model.enums.Mood;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class SpotifyPlaylistServiceAdapterTest {
+
+	private static final List<List<String>> PAGES = List.of(List.of("spotify:track:a", "spotify:track:b"),
+			List.of("spotify:track:b", "spotify:track:c"));
+
+	private final MockWebServer server = new MockWebServer();
+	private final CountDownLatch secondPage = new CountDownLatch(1);
+
+	private SpotifyPlaylistServiceAdapter adapter;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		server.setDispatcher(new Dispatcher() {
+
+			@Override
+			public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+				int page = Integer.parseInt(request.getRequestUrl().queryParameter("offset")) / 2;
+				if (page > 0) {
+					secondPage.await(30, TimeUnit.SECONDS);
+				}
+				return new MockResponse().setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+						.setBody(searchResponse(PAGES.get(page)));
+			}
+		});
+		server.start();
+		SpotifyAccessTokenManager accessTokenManager = mock(SpotifyAccessTokenManager.class);
+		when(accessTokenManager.getAccessToken()).thenReturn(Mono.just("token"));
+		MeterRegistry meterRegistry = new SimpleMeterRegistry();
+		PortMetrics portMetrics = new PortMetrics(meterRegistry);
+		ReflectionTestUtils.setField(portMetrics, "minimumExpected", Duration.ofMillis(1));
+		ReflectionTestUtils.setField(portMetrics, "maximumExpected", Duration.ofSeconds(30));
+		adapter = new SpotifyPlaylistServiceAdapter(WebClient.create(server.url("/").toString()), accessTokenManager,
+				new SpotifySearchResponseDecoder(new ObjectMapper()), meterRegistry, portMetrics);
+		ReflectionTestUtils.setField(adapter, "pageSize", 2);
+		ReflectionTestUtils.setField(adapter, "maxResults", 4);
+		ReflectionTestUtils.setField(adapter, "searchConcurrency", 2);
+		adapter.init();
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		secondPage.countDown();
+		server.shutdown();
+	}
+
+	@Test
+	void streamsTheTracksOfEachPageAsItArrives() {
+		StepVerifier.create(adapter.streamTrackUris(Mood.HAPPY, 4))
+				.expectNext("spotify:track:a", "spotify:track:b").then(secondPage::countDown)
+				.expectNext("spotify:track:c").expectComplete().verify(Duration.ofSeconds(5));
+	}
+
+	@Test
+	void generatesAPlaylistOfTheDistinctTracksOfEveryPage() {
+		secondPage.countDown();
+
+		StepVerifier.create(adapter.generatePlaylist(Mood.HAPPY, 4).map(Playlist::getTrackUris))
+				.expectNext(List.of("spotify:track:a", "spotify:track:b", "spotify:track:c"))
+				.expectComplete().verify(Duration.ofSeconds(5));
+	}
+
+	@Test
+	void lowersAnOffsetBeyondTheSearchResultsLimit() {
+		secondPage.countDown();
+
+		StepVerifier.create(adapter.generatePlaylist(Mood.HAPPY, 2, 10).map(Playlist::getTrackUris))
+				.expectNext(List.of("spotify:track:b", "spotify:track:c")).expectComplete()
+				.verify(Duration.ofSeconds(5));
+	}
+
+	/**
+	 * Builds a search response whose tracks all belong to the same album.
+	 */
+	private static String searchResponse(List<String> trackUris) {
+		return trackUris.stream().map(uri -> """
+				{"album":{"external_urls":{"spotify":"https://open.spotify.com/album/x"}},"uri":"%s"}"""
+				.formatted(uri)).collect(Collectors.joining(",", "{\"tracks\":{\"items\":[", "]}}"));
+	}
+}
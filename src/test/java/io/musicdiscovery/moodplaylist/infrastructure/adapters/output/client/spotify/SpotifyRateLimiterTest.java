@@ -0,0 +1,173 @@
+package io.musicdiscovery.moodplaylist.infrastructure.adapters.output.client.spotify;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class SpotifyRateLimiterTest {
+
+	private static final ClientRequest REQUEST = ClientRequest
+			.create(HttpMethod.GET, URI.create("https://api.spotify.com/v1/search")).build();
+
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final AtomicInteger sent = new AtomicInteger();
+
+	private SpotifyRateLimiter rateLimiter;
+
+	@BeforeEach
+	void setUp() {
+		rateLimiter = new SpotifyRateLimiter(meterRegistry);
+		ReflectionTestUtils.setField(rateLimiter, "enabled", true);
+		ReflectionTestUtils.setField(rateLimiter, "initialRate", 10d);
+		ReflectionTestUtils.setField(rateLimiter, "minRate", 1d);
+		ReflectionTestUtils.setField(rateLimiter, "maxRate", 50d);
+		ReflectionTestUtils.setField(rateLimiter, "burst", 10d);
+		ReflectionTestUtils.setField(rateLimiter, "additiveIncrease", 0.1);
+		ReflectionTestUtils.setField(rateLimiter, "multiplicativeDecrease", 0.5);
+		ReflectionTestUtils.setField(rateLimiter, "maxWait", Duration.ofSeconds(2));
+		ReflectionTestUtils.setField(rateLimiter, "maxThrottleRetries", 2);
+		ReflectionTestUtils.setField(rateLimiter, "defaultRetryAfter", Duration.ofMillis(300));
+	}
+
+	@Test
+	void raisesTheRateOnSuccess() {
+		rateLimiter.init();
+
+		StepVerifier.create(rateLimiter.filter(REQUEST, responding(HttpStatus.OK)))
+				.assertNext(response -> assertThat(response.statusCode()).isEqualTo(HttpStatus.OK)).verifyComplete();
+
+		assertThat(gauge("spotify.ratelimiter.rate")).isEqualTo(10.1, offset(1e-9));
+	}
+
+	@Test
+	void pausesForTheRetryAfterOfA429AndSendsTheCallAgain() {
+		rateLimiter.init();
+		ExchangeFunction spotify = responding(throttled("1"), HttpStatus.OK);
+
+		long start = System.nanoTime();
+		StepVerifier.create(rateLimiter.filter(REQUEST, spotify))
+				.assertNext(response -> assertThat(response.statusCode()).isEqualTo(HttpStatus.OK)).verifyComplete();
+
+		assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(900));
+		assertThat(sent).hasValue(2);
+		assertThat(meterRegistry.get("spotify.ratelimiter.throttled").counter().count()).isEqualTo(1);
+		assertThat(gauge("spotify.ratelimiter.rate")).isEqualTo(5.1, offset(1e-9));
+	}
+
+	@Test
+	void pausesForTheDefaultRetryAfterWhenA429HasNone() {
+		rateLimiter.init();
+
+		long start = System.nanoTime();
+		StepVerifier.create(rateLimiter.filter(REQUEST, responding(throttled(null), HttpStatus.OK)))
+				.expectNextCount(1).verifyComplete();
+
+		assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(250));
+		assertThat(sent).hasValue(2);
+	}
+
+	@Test
+	void acceptsARetryAfterDate() {
+		rateLimiter.init();
+		String past = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC).minusMinutes(1));
+
+		long start = System.nanoTime();
+		StepVerifier.create(rateLimiter.filter(REQUEST, responding(throttled(past), HttpStatus.OK)))
+				.expectNextCount(1).verifyComplete();
+
+		assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(250));
+		assertThat(sent).hasValue(2);
+	}
+
+	@Test
+	void returnsThe429OnceTheRetriesAreExhausted() {
+		ReflectionTestUtils.setField(rateLimiter, "maxThrottleRetries", 1);
+		rateLimiter.init();
+
+		StepVerifier.create(rateLimiter.filter(REQUEST, responding(throttled("0"), throttled("0"))))
+				.assertNext(response -> assertThat(response.statusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS))
+				.verifyComplete();
+
+		assertThat(sent).hasValue(2);
+		assertThat(meterRegistry.get("spotify.ratelimiter.throttled").counter().count()).isEqualTo(2);
+		assertThat(gauge("spotify.ratelimiter.rate")).isEqualTo(2.5, offset(1e-9));
+	}
+
+	@Test
+	void rejectsACallWhosePermitComesAfterTheMaximumWait() {
+		ReflectionTestUtils.setField(rateLimiter, "initialRate", 1d);
+		ReflectionTestUtils.setField(rateLimiter, "burst", 1d);
+		ReflectionTestUtils.setField(rateLimiter, "maxWait", Duration.ofMillis(100));
+		rateLimiter.init();
+		ExchangeFunction spotify = responding(HttpStatus.OK, HttpStatus.OK, HttpStatus.OK);
+
+		// the stored permit, then the next one, whose interval the following call waits for
+		StepVerifier.create(rateLimiter.filter(REQUEST, spotify)).expectNextCount(1).verifyComplete();
+		StepVerifier.create(rateLimiter.filter(REQUEST, spotify)).expectNextCount(1).verifyComplete();
+		StepVerifier.create(rateLimiter.filter(REQUEST, spotify)).verifyError(SpotifyRateLimitExceededException.class);
+
+		assertThat(sent).hasValue(2);
+		assertThat(meterRegistry.get("spotify.ratelimiter.rejected").counter().count()).isEqualTo(1);
+	}
+
+	@Test
+	void lets429sThroughWhenDisabled() {
+		ReflectionTestUtils.setField(rateLimiter, "enabled", false);
+		rateLimiter.init();
+
+		StepVerifier.create(rateLimiter.filter(REQUEST, responding(throttled("1"))))
+				.assertNext(response -> assertThat(response.statusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS))
+				.verifyComplete();
+
+		assertThat(sent).hasValue(1);
+	}
+
+	/**
+	 * Answers the calls with the given responses, in order.
+	 */
+	private ExchangeFunction responding(Object... responses) {
+		Deque<Object> remaining = new ArrayDeque<>(List.of(responses));
+		return request -> Mono.fromSupplier(() -> {
+			sent.incrementAndGet();
+			Object response = remaining.poll();
+			return response instanceof HttpStatus status ? ClientResponse.create(status).build()
+					: (ClientResponse) response;
+		});
+	}
+
+	private static ClientResponse throttled(String retryAfter) {
+		ClientResponse.Builder response = ClientResponse.create(HttpStatus.TOO_MANY_REQUESTS);
+		if (retryAfter != null) {
+			response.header(HttpHeaders.RETRY_AFTER, retryAfter);
+		}
+		return response.build();
+	}
+
+	private double gauge(String name) {
+		return meterRegistry.get(name).gauge().value();
+	}
+}
@@ -0,0 +1,115 @@
+package io.musicdiscovery.moodplaylist.infrastructure.adapters.output.client.spotify;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+class SpotifySearchResponseDecoderTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private SpotifySearchResponseDecoder decoder;
+	private byte[] payload;
+	private List<String> expectedTrackUris;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		decoder = new SpotifySearchResponseDecoder(objectMapper);
+		try (InputStream input = getClass().getResourceAsStream("/spotify/search-tracks.json")) {
+			payload = input.readAllBytes();
+		}
+		expectedTrackUris = new ArrayList<>();
+		for (JsonNode item : objectMapper.readTree(payload).path("tracks").path("items")) {
+			expectedTrackUris.add(item.path("uri").asText());
+		}
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = { 1, 7, 64, 8192, Integer.MAX_VALUE })
+	void decodesTheTrackUrisWhateverTheBufferSplits(int chunkSize) {
+		List<String> trackUris = decoder.decode(chunks(payload, chunkSize, false)).collectList().block();
+
+		assertThat(expectedTrackUris).isNotEmpty().allMatch(uri -> uri.startsWith("spotify:track:"));
+		assertThat(trackUris).isEqualTo(expectedTrackUris);
+	}
+
+	@Test
+	void decodesDirectBuffers() {
+		StepVerifier.create(decoder.decode(chunks(payload, 100, true)).collectList())
+				.expectNext(expectedTrackUris).verifyComplete();
+	}
+
+	@Test
+	void emitsTheTrackUrisOfEachBufferBeforeTheBodyEnds() {
+		String first = """
+				{"tracks":{"items":[{"uri":"spotify:track:a","album":{"uri":"spotify:album:x"}},""";
+		String second = """
+				{"uri":"spotify:track:b"}]}}""";
+
+		StepVerifier.create(decoder.decode(Flux.just(first, second).map(SpotifySearchResponseDecoderTest::buffer)), 1)
+				.expectNext("spotify:track:a").thenRequest(1).expectNext("spotify:track:b").verifyComplete();
+	}
+
+	@Test
+	void ignoresUrisOutsideThePath() {
+		String body = """
+				{"uri":"spotify:search","tracks":{"uri":"spotify:tracks","items":[
+				{"name":"uri","artists":[{"uri":"spotify:artist:a"}],"uri":"spotify:track:a"},
+				["spotify:track:nested"],{"uri":{"nested":"spotify:track:object"}},{"uri":"spotify:track:b"}]}}""";
+
+		StepVerifier.create(decoder.decode(Flux.just(buffer(body)))).expectNext("spotify:track:a", "spotify:track:b")
+				.verifyComplete();
+	}
+
+	@Test
+	void emptyBodyIsDecodedAsEmpty() {
+		StepVerifier.create(decoder.decode(Flux.empty())).verifyComplete();
+	}
+
+	@Test
+	void truncatedBodyIsSignalledAsDecodingException() {
+		byte[] truncated = new byte[payload.length / 2];
+		System.arraycopy(payload, 0, truncated, 0, truncated.length);
+
+		StepVerifier.create(decoder.decode(chunks(truncated, 8192, false))).thenConsumeWhile(uri -> true)
+				.verifyError(DecodingException.class);
+	}
+
+	@Test
+	void malformedBodyIsSignalledAsDecodingException() {
+		StepVerifier.create(decoder.decode(Flux.just(buffer("{\"tracks\":]")))).verifyError(DecodingException.class);
+	}
+
+	private static Flux<DataBuffer> chunks(byte[] bytes, int chunkSize, boolean direct) {
+		int size = Math.max(1, Math.min(chunkSize, bytes.length));
+		return Flux.range(0, (bytes.length + size - 1) / size).map(i -> {
+			int length = Math.min(size, bytes.length - i * size);
+			ByteBuffer chunk = direct ? ByteBuffer.allocateDirect(length) : ByteBuffer.allocate(length);
+			chunk.put(bytes, i * size, length).flip();
+			return DefaultDataBufferFactory.sharedInstance.wrap(chunk);
+		});
+	}
+
+	private static DataBuffer buffer(String content) {
+		return DefaultDataBufferFactory.sharedInstance.wrap(content.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,94 @@
+package io.musicdiscovery.moodplaylist.infrastructure.adapters.output.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class ListenerHistoryFilterTest {
+
+	private static final Instant NOW = Instant.parse("2024-09-01T10:00:00Z");
+
+	private final ListenerHistoryFilter.Shape shape = ListenerHistoryFilter.Shape.of(2, 1024, 2, Duration.ofHours(1));
+
+	@Test
+	void reportsTheAddedTracksOnly() {
+		ListenerHistoryFilter filter = shape.newFilter(NOW);
+
+		filter.addAll(List.of("spotify:track:a", "spotify:track:b"), NOW);
+
+		assertThat(filter.mightContain("spotify:track:a")).isTrue();
+		assertThat(filter.mightContain("spotify:track:b")).isTrue();
+		assertThat(filter.mightContain("spotify:track:c")).isFalse();
+	}
+
+	@Test
+	void readsBackTheFilterItWrote() {
+		ListenerHistoryFilter filter = shape.newFilter(NOW);
+		byte[] bytes = filter.addAll(List.of("spotify:track:a", "spotify:track:b", "spotify:track:c"), NOW);
+
+		ListenerHistoryFilter read = shape.read(bytes, NOW);
+
+		assertThat(bytes).hasSize(shape.bytes());
+		assertThat(read.write()).isEqualTo(bytes);
+		assertThat(read.mightContain("spotify:track:a")).isTrue();
+		assertThat(read.mightContain("spotify:track:c")).isTrue();
+		assertThat(read.mightContain("spotify:track:d")).isFalse();
+	}
+
+	@Test
+	void forgetsTheOldestGenerationOnceTheCurrentOneIsFull() {
+		ListenerHistoryFilter filter = shape.newFilter(NOW);
+
+		filter.addAll(List.of("spotify:track:a", "spotify:track:b", "spotify:track:c", "spotify:track:d"), NOW);
+		filter.addAll(List.of("spotify:track:e"), NOW);
+
+		assertThat(filter.mightContain("spotify:track:a")).isFalse();
+		assertThat(filter.mightContain("spotify:track:b")).isFalse();
+		assertThat(filter.mightContain("spotify:track:c")).isTrue();
+		assertThat(filter.mightContain("spotify:track:d")).isTrue();
+		assertThat(filter.mightContain("spotify:track:e")).isTrue();
+	}
+
+	@Test
+	void rotatesGenerationsOlderThanTheirMaxAge() {
+		ListenerHistoryFilter filter = shape.newFilter(NOW);
+		filter.addAll(List.of("spotify:track:a"), NOW);
+
+		filter.addAll(List.of("spotify:track:b"), NOW.plus(Duration.ofMinutes(90)));
+
+		assertThat(filter.mightContain("spotify:track:a")).isTrue();
+		assertThat(filter.mightContain("spotify:track:b")).isTrue();
+
+		filter.addAll(List.of("spotify:track:c"), NOW.plus(Duration.ofHours(5)));
+
+		assertThat(filter.mightContain("spotify:track:a")).isFalse();
+		assertThat(filter.mightContain("spotify:track:b")).isFalse();
+		assertThat(filter.mightContain("spotify:track:c")).isTrue();
+	}
+
+	@Test
+	void startsEmptyFromTheBytesOfAnotherShape() {
+		byte[] bytes = shape.newFilter(NOW).addAll(List.of("spotify:track:a"), NOW);
+		ListenerHistoryFilter.Shape other = ListenerHistoryFilter.Shape.of(3, 1024, 2, Duration.ofHours(1));
+
+		ListenerHistoryFilter read = other.read(bytes, NOW);
+
+		assertThat(read.mightContain("spotify:track:a")).isFalse();
+		assertThat(read.write()).hasSize(other.bytes());
+	}
+
+	@Test
+	void roundsTheBitsOfAGenerationUpToAPowerOfTwo() {
+		ListenerHistoryFilter.Shape rounded = ListenerHistoryFilter.Shape.of(3, 8000, 700, Duration.ofDays(7));
+
+		assertThat(rounded.bitsPerGeneration()).isEqualTo(8192);
+		assertThat(rounded.hashes()).isEqualTo(8);
+		assertThatThrownBy(() -> ListenerHistoryFilter.Shape.of(0, 8192, 700, Duration.ofDays(7)))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+}
@@ -0,0 +1,134 @@
+package io.musicdiscovery.moodplaylist.infrastructure.adapters.output.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.mongodb.client.result.UpdateResult;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.musicdiscovery.moodplaylist.config.PortMetrics;
+import io.musicdiscovery.moodplaylist.infrastructure.adapters.output.persistence.entity.ListenerHistoryEntity;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class ListenerHistoryPersistenceAdapterTest {
+
+	private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+	private final ReactiveMongoTemplate mongoTemplate = mock(ReactiveMongoTemplate.class);
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final ListenerHistoryFilter.Shape shape = ListenerHistoryFilter.Shape.of(2, 1024, 100,
+			Duration.ofDays(30));
+
+	private ListenerHistoryPersistenceAdapter adapter;
+
+	@BeforeEach
+	void setUp() {
+		PortMetrics portMetrics = new PortMetrics(meterRegistry);
+		ReflectionTestUtils.setField(portMetrics, "minimumExpected", Duration.ofMillis(1));
+		ReflectionTestUtils.setField(portMetrics, "maximumExpected", Duration.ofSeconds(30));
+		adapter = new ListenerHistoryPersistenceAdapter(mongoTemplate, meterRegistry, portMetrics);
+		ReflectionTestUtils.setField(adapter, "generations", 2);
+		ReflectionTestUtils.setField(adapter, "bitsPerGeneration", 1024);
+		ReflectionTestUtils.setField(adapter, "tracksPerGeneration", 100);
+		ReflectionTestUtils.setField(adapter, "generationMaxAge", Duration.ofDays(30));
+		ReflectionTestUtils.setField(adapter, "cacheMaximumSize", 100L);
+		ReflectionTestUtils.setField(adapter, "cacheExpireAfterAccess", Duration.ofMinutes(30));
+		ReflectionTestUtils.setField(adapter, "maxWriteConflicts", 2);
+		adapter.init();
+	}
+
+	@Test
+	void writesTheFilterOfANewListenerAtVersionZero() {
+		when(mongoTemplate.findById("listener", ListenerHistoryEntity.class)).thenReturn(Mono.empty());
+		when(upsert()).thenReturn(Mono.just(UpdateResult.acknowledged(0, 0L, null)));
+
+		StepVerifier.create(adapter.recordHeardTracks("listener", List.of("spotify:track:a"))).expectComplete()
+				.verify(TIMEOUT);
+		StepVerifier.create(adapter.recordHeardTracks("listener", List.of("spotify:track:b"))).expectComplete()
+				.verify(TIMEOUT);
+
+		ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+		ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+		verify(mongoTemplate, times(2)).upsert(queries.capture(), updates.capture(),
+				eq(ListenerHistoryEntity.class));
+		assertThat(queries.getAllValues().get(0).getQueryObject().get("version", Document.class).get("$in"))
+				.asList().containsExactly(0L, null);
+		assertThat(queries.getAllValues().get(1).getQueryObject().get("version")).isEqualTo(1L);
+		assertThat(updates.getValue().getUpdateObject().get("$inc", Document.class).get("version")).isEqualTo(1);
+		ListenerHistoryFilter written = writtenFilter(updates.getValue());
+		assertThat(written.mightContain("spotify:track:a")).isTrue();
+		assertThat(written.mightContain("spotify:track:b")).isTrue();
+	}
+
+	@Test
+	void mergesTheTracksOfAnotherInstanceOnAConflict() {
+		when(mongoTemplate.findById("listener", ListenerHistoryEntity.class))
+				.thenReturn(Mono.just(stored(2, "spotify:track:a")), Mono.just(stored(3, "spotify:track:b")));
+		when(upsert()).thenReturn(Mono.error(new DuplicateKeyException("listener")),
+				Mono.just(UpdateResult.acknowledged(1, 1L, null)));
+
+		StepVerifier.create(adapter.recordHeardTracks("listener", List.of("spotify:track:c"))).expectComplete()
+				.verify(TIMEOUT);
+
+		ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+		ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+		verify(mongoTemplate, times(2)).upsert(queries.capture(), updates.capture(),
+				eq(ListenerHistoryEntity.class));
+		assertThat(queries.getAllValues().get(0).getQueryObject().get("version")).isEqualTo(2L);
+		assertThat(queries.getAllValues().get(1).getQueryObject().get("version")).isEqualTo(3L);
+		ListenerHistoryFilter written = writtenFilter(updates.getValue());
+		assertThat(written.mightContain("spotify:track:b")).isTrue();
+		assertThat(written.mightContain("spotify:track:c")).isTrue();
+		StepVerifier.create(adapter.findHeardTracks("listener"))
+				.assertNext(heard -> assertThat(heard.test("spotify:track:b")).isTrue()).expectComplete()
+				.verify(TIMEOUT);
+	}
+
+	@Test
+	void givesUpAfterTooManyConflicts() {
+		when(mongoTemplate.findById("listener", ListenerHistoryEntity.class))
+				.thenReturn(Mono.just(stored(1, "spotify:track:a")));
+		when(upsert()).thenReturn(Mono.error(new DuplicateKeyException("listener")));
+
+		StepVerifier.create(adapter.recordHeardTracks("listener", List.of("spotify:track:c")))
+				.expectError(DuplicateKeyException.class).verify(TIMEOUT);
+
+		verify(mongoTemplate, times(3)).upsert(any(Query.class), any(Update.class), eq(ListenerHistoryEntity.class));
+	}
+
+	private Mono<UpdateResult> upsert() {
+		return mongoTemplate.upsert(any(Query.class), any(Update.class), eq(ListenerHistoryEntity.class));
+	}
+
+	private ListenerHistoryEntity stored(long version, String trackUri) {
+		ListenerHistoryFilter filter = shape.newFilter(Instant.now());
+		return new ListenerHistoryEntity("listener", filter.addAll(List.of(trackUri), Instant.now()), Instant.now(),
+				version);
+	}
+
+	private ListenerHistoryFilter writtenFilter(Update update) {
+		return shape.read((byte[]) update.getUpdateObject().get("$set", Document.class).get("filter"),
+				Instant.now());
+	}
+}
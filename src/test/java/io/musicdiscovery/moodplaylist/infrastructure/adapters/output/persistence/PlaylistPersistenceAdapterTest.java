@@ -0,0 +1,240 @@
+package io.musicdiscovery.moodplaylist.infrastructure.adapters.output.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.mongodb.bulk.BulkWriteResult;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.musicdiscovery.moodplaylist.config.PortMetrics;
+import io.musicdiscovery.moodplaylist.domain.exception.InvalidCursorException;
+import io.musicdiscovery.moodplaylist.domain.model.Playlist;
+import io.musicdiscovery.moodplaylist.domain.model.enums.Mood;
+import io.musicdiscovery.moodplaylist.infrastructure.adapters.output.persistence.entity.PlaylistEntity;
+import io.musicdiscovery.moodplaylist.infrastructure.adapters.output.persistence.mapper.PlaylistPersistenceMapperImpl;
+import io.musicdiscovery.moodplaylist.infrastructure.adapters.output.persistence.repository.PlaylistRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class PlaylistPersistenceAdapterTest {
+
+	private final ReactiveMongoTemplate mongoTemplate = mock(ReactiveMongoTemplate.class);
+	private final ReactiveBulkOperations bulk = mock(ReactiveBulkOperations.class);
+	private final PlaylistRepository repository = mock(PlaylistRepository.class);
+	private final PlaylistWriteBehindBuffer writeBehindBuffer = mock(PlaylistWriteBehindBuffer.class);
+
+	private PlaylistPersistenceAdapter adapter;
+
+	@BeforeEach
+	void setUp() {
+		PortMetrics portMetrics = new PortMetrics(new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(portMetrics, "minimumExpected", Duration.ofMillis(1));
+		ReflectionTestUtils.setField(portMetrics, "maximumExpected", Duration.ofSeconds(30));
+		adapter = new PlaylistPersistenceAdapter(mongoTemplate, repository, new PlaylistPersistenceMapperImpl(),
+				writeBehindBuffer, portMetrics);
+		adapter.init();
+	}
+
+	@Test
+	void upsertsAPlaylistByItsContentHash() {
+		PlaylistEntity stored = stored("a", "spotify:track:1");
+		when(findAndModify()).thenReturn(Mono.just(stored));
+
+		StepVerifier.create(adapter.save(playlist("spotify:track:1")).map(Playlist::getId)).expectNext("a")
+				.expectComplete().verify(Duration.ofSeconds(5));
+
+		ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+		verify(mongoTemplate).findAndModify(query.capture(), any(Update.class), any(FindAndModifyOptions.class),
+				eq(PlaylistEntity.class));
+		assertThat(query.getValue().getQueryObject().get("contentHash")).isEqualTo(stored.getContentHash());
+	}
+
+	@Test
+	void retriesAnUpsertThatLostTheRaceOnTheUniqueIndex() {
+		when(findAndModify()).thenReturn(Mono.error(new DuplicateKeyException("content_hash_unique")),
+				Mono.just(stored("a", "spotify:track:1")));
+
+		StepVerifier.create(adapter.save(playlist("spotify:track:1")).map(Playlist::getId)).expectNext("a")
+				.expectComplete().verify(Duration.ofSeconds(5));
+
+		verify(mongoTemplate, times(2)).findAndModify(any(Query.class), any(Update.class),
+				any(FindAndModifyOptions.class), eq(PlaylistEntity.class));
+	}
+
+	@Test
+	void retriesADuplicateKeyOnlyOnce() {
+		when(findAndModify()).thenReturn(Mono.error(new DuplicateKeyException("content_hash_unique")));
+
+		StepVerifier.create(adapter.save(playlist("spotify:track:1")))
+				.expectErrorMatches(error -> error.getCause() instanceof DuplicateKeyException)
+				.verify(Duration.ofSeconds(5));
+	}
+
+	@Test
+	void savesSeveralPlaylistsWithOneBulkWriteAndReadsThemBackByHash() {
+		when(mongoTemplate.bulkOps(BulkMode.UNORDERED, PlaylistEntity.class)).thenReturn(bulk);
+		when(bulk.upsert(any(Query.class), any(Update.class))).thenReturn(bulk);
+		when(bulk.execute()).thenReturn(Mono.just(BulkWriteResult.unacknowledged()));
+		when(mongoTemplate.find(any(Query.class), eq(PlaylistEntity.class)))
+				.thenReturn(Flux.just(stored("b", "spotify:track:2"), stored("a", "spotify:track:1")));
+
+		StepVerifier
+				.create(adapter.saveAll(List.of(playlist("spotify:track:1"), playlist("spotify:track:2"),
+						playlist("spotify:track:1"))).map(Playlist::getId))
+				.expectNext("a", "b", "a").expectComplete().verify(Duration.ofSeconds(5));
+
+		verify(bulk, times(3)).upsert(any(Query.class), any(Update.class));
+		verify(bulk, times(1)).execute();
+		ArgumentCaptor<Query> readBack = ArgumentCaptor.forClass(Query.class);
+		verify(mongoTemplate).find(readBack.capture(), eq(PlaylistEntity.class));
+		assertThat(readBack.getValue().getQueryObject().toJson()).contains(
+				PlaylistUpserts.contentHash(Mood.HAPPY, List.of("spotify:track:1")),
+				PlaylistUpserts.contentHash(Mood.HAPPY, List.of("spotify:track:2")));
+	}
+
+	@Test
+	void retriesABulkWriteThatLostTheRaceOnTheUniqueIndex() {
+		when(mongoTemplate.bulkOps(BulkMode.UNORDERED, PlaylistEntity.class)).thenReturn(bulk);
+		when(bulk.upsert(any(Query.class), any(Update.class))).thenReturn(bulk);
+		when(bulk.execute()).thenReturn(Mono.error(new DuplicateKeyException("content_hash_unique")),
+				Mono.just(BulkWriteResult.unacknowledged()));
+		when(mongoTemplate.find(any(Query.class), eq(PlaylistEntity.class)))
+				.thenReturn(Flux.just(stored("a", "spotify:track:1")));
+
+		StepVerifier.create(adapter.saveAll(List.of(playlist("spotify:track:1"))).map(Playlist::getId))
+				.expectNext("a").expectComplete().verify(Duration.ofSeconds(5));
+
+		verify(bulk, times(2)).execute();
+	}
+
+	@Test
+	void pagesThroughPlaylistsSeenAtTheSameInstantWithoutSkippingAny() {
+		Instant seenAt = Instant.parse("2026-10-01T10:00:00Z");
+		List<PlaylistEntity> playlists = List.of(seen(seenAt.minusSeconds(10)), seen(seenAt), seen(seenAt),
+				seen(seenAt), seen(null), seen(null));
+		pageFrom(playlists);
+
+		List<String> pages = new ArrayList<>();
+		String after = null;
+		List<Playlist> page;
+		do {
+			page = adapter.findByMood(Mood.HAPPY, after, 2).collectList().block(Duration.ofSeconds(5));
+			assertThat(page.size()).isLessThanOrEqualTo(2);
+			page.forEach(playlist -> pages.add(playlist.getId()));
+			after = page.isEmpty() ? null : page.get(page.size() - 1).getId();
+		} while (!page.isEmpty());
+
+		// most recently seen first, ties by identifier, never seen last
+		assertThat(pages).containsExactly(playlists.get(3).getId(), playlists.get(2).getId(),
+				playlists.get(1).getId(), playlists.get(0).getId(), playlists.get(5).getId(),
+				playlists.get(4).getId());
+		verify(repository).findByMoodAfter(Mood.HAPPY, seenAt, new ObjectId(playlists.get(2).getId()), Limit.of(2));
+		verify(repository).findUnseenByMoodAfter(Mood.HAPPY, new ObjectId(playlists.get(4).getId()), Limit.of(2));
+	}
+
+	@Test
+	void rejectsAMalformedCursor() {
+		StepVerifier.create(adapter.findByMood(Mood.HAPPY, "not-a-playlist", 10))
+				.expectError(InvalidCursorException.class).verify(Duration.ofSeconds(5));
+
+		verifyNoInteractions(repository);
+	}
+
+	@Test
+	void rejectsTheCursorOfAnUnknownPlaylist() {
+		when(repository.findLastSeenById(any(String.class))).thenReturn(Mono.empty());
+
+		StepVerifier.create(adapter.findByMood(Mood.HAPPY, new ObjectId().toHexString(), 10))
+				.expectError(InvalidCursorException.class).verify(Duration.ofSeconds(5));
+
+		verify(repository, never()).findByMoodAfter(any(), any(), any(), any());
+		verify(repository, never()).findUnseenByMoodAfter(any(), any(), any());
+	}
+
+	private Mono<PlaylistEntity> findAndModify() {
+		return mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+				eq(PlaylistEntity.class));
+	}
+
+	private static Playlist playlist(String trackUri) {
+		return new Playlist(null, Mood.HAPPY, List.of(trackUri));
+	}
+
+	private static PlaylistEntity stored(String id, String trackUri) {
+		PlaylistEntity entity = new PlaylistEntity();
+		entity.setId(id);
+		entity.setMood(Mood.HAPPY);
+		entity.setTrackUris(List.of(trackUri));
+		return PlaylistUpserts.withContentHash(entity);
+	}
+
+	/**
+	 * Answers the paging queries of the repository from the given playlists,
+	 * applying the same keyset and order as their {@code @Query}.
+	 */
+	private void pageFrom(List<PlaylistEntity> playlists) {
+		Comparator<PlaylistEntity> order = Comparator
+				.comparing(PlaylistEntity::getLastSeenAt, Comparator.nullsFirst(Comparator.<Instant>naturalOrder()))
+				.thenComparing(entity -> new ObjectId(entity.getId())).reversed();
+		when(repository.findByMoodOrderByLastSeenAtDescIdDesc(eq(Mood.HAPPY), any(Limit.class)))
+				.thenAnswer(invocation -> page(playlists, order, entity -> true, invocation.getArgument(1)));
+		when(repository.findLastSeenById(any(String.class))).thenAnswer(invocation -> Mono.justOrEmpty(
+				playlists.stream().filter(entity -> entity.getId().equals(invocation.getArgument(0))).findFirst()));
+		when(repository.findByMoodAfter(eq(Mood.HAPPY), any(Instant.class), any(ObjectId.class), any(Limit.class)))
+				.thenAnswer(invocation -> {
+					Instant lastSeenAt = invocation.getArgument(1);
+					ObjectId id = invocation.getArgument(2);
+					return page(playlists, order, entity -> entity.getLastSeenAt() == null
+							|| entity.getLastSeenAt().isBefore(lastSeenAt)
+							|| entity.getLastSeenAt().equals(lastSeenAt)
+									&& new ObjectId(entity.getId()).compareTo(id) < 0,
+							invocation.getArgument(3));
+				});
+		when(repository.findUnseenByMoodAfter(eq(Mood.HAPPY), any(ObjectId.class), any(Limit.class)))
+				.thenAnswer(invocation -> {
+					ObjectId id = invocation.getArgument(1);
+					return page(playlists, order, entity -> entity.getLastSeenAt() == null
+							&& new ObjectId(entity.getId()).compareTo(id) < 0, invocation.getArgument(2));
+				});
+	}
+
+	private static Flux<PlaylistEntity> page(List<PlaylistEntity> playlists, Comparator<PlaylistEntity> order,
+			Predicate<PlaylistEntity> after, Limit limit) {
+		return Flux.fromStream(playlists.stream().filter(after).sorted(order).limit(limit.max()));
+	}
+
+	private static PlaylistEntity seen(Instant lastSeenAt) {
+		PlaylistEntity entity = stored(new ObjectId().toHexString(), "spotify:track:" + lastSeenAt);
+		entity.setLastSeenAt(lastSeenAt);
+		return entity;
+	}
+}
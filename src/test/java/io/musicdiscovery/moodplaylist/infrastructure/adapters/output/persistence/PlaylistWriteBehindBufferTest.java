@@ -0,0 +1,128 @@
+package io.musicdiscovery.moodplaylist.infrastructure.adapters.output.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.mongodb.bulk.BulkWriteResult;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.musicdiscovery.moodplaylist.domain.model.enums.Mood;
+import io.musicdiscovery.moodplaylist.infrastructure.adapters.output.persistence.entity.PlaylistEntity;
+import reactor.core.publisher.Mono;
+
+class PlaylistWriteBehindBufferTest {
+
+	private final ReactiveMongoTemplate mongoTemplate = mock(ReactiveMongoTemplate.class);
+	private final ReactiveBulkOperations bulk = mock(ReactiveBulkOperations.class);
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private PlaylistWriteBehindBuffer buffer;
+
+	@AfterEach
+	void tearDown() {
+		ReflectionTestUtils.setField(buffer, "shutdownTimeout", Duration.ofMillis(100));
+		buffer.shutdown();
+	}
+
+	@Test
+	void flushesAFullBatchAtOnce() {
+		buffer = buffer(Mono.just(BulkWriteResult.unacknowledged()), 16, 2, Duration.ofHours(1));
+
+		assertThat(buffer.offer(playlist(1))).isTrue();
+		assertThat(buffer.offer(playlist(2))).isTrue();
+
+		verify(bulk, timeout(5000)).execute();
+		verify(bulk, times(2)).upsert(any(Query.class), any(Update.class));
+	}
+
+	@Test
+	void flushesAPartialBatchOnceTheIntervalElapses() {
+		buffer = buffer(Mono.just(BulkWriteResult.unacknowledged()), 16, 100, Duration.ofMillis(50));
+
+		buffer.offer(playlist(1));
+
+		verify(bulk, timeout(5000)).execute();
+		verify(bulk, times(1)).upsert(any(Query.class), any(Update.class));
+	}
+
+	@Test
+	void refusesPlaylistsOnceFullWhileTheDatabaseLags() {
+		buffer = buffer(Mono.never(), 4, 1, Duration.ofHours(1));
+
+		long refused = IntStream.range(0, 100).filter(i -> !buffer.offer(playlist(i))).count();
+
+		assertThat(refused).isPositive();
+		assertThat(meterRegistry.get("playlist.persistence.write-behind.overflow").counter().count())
+				.isEqualTo(refused);
+	}
+
+	@Test
+	void flushesTheBufferedPlaylistsOnShutdown() {
+		buffer = buffer(Mono.just(BulkWriteResult.unacknowledged()), 16, 100, Duration.ofHours(1));
+		buffer.offer(playlist(1));
+		buffer.offer(playlist(2));
+		buffer.offer(playlist(3));
+		verify(bulk, never()).execute();
+
+		buffer.shutdown();
+
+		verify(bulk, times(1)).execute();
+		verify(bulk, times(3)).upsert(any(Query.class), any(Update.class));
+		assertThat(buffer.offer(playlist(4))).isFalse();
+	}
+
+	@Test
+	void dropsABatchWhoseFlushKeepsFailing() {
+		buffer = buffer(Mono.error(new IllegalStateException("down")), 16, 100, Duration.ofHours(1));
+		ReflectionTestUtils.setField(buffer, "flushRetries", 1);
+		buffer.offer(playlist(1));
+		buffer.offer(playlist(2));
+
+		buffer.shutdown();
+
+		assertThat(meterRegistry.get("playlist.persistence.write-behind.dropped").counter().count()).isEqualTo(2);
+	}
+
+	private PlaylistWriteBehindBuffer buffer(Mono<BulkWriteResult> result, int capacity, int maxBatchSize,
+			Duration flushInterval) {
+		when(mongoTemplate.bulkOps(BulkMode.UNORDERED, PlaylistEntity.class)).thenReturn(bulk);
+		when(bulk.upsert(any(Query.class), any(Update.class))).thenReturn(bulk);
+		when(bulk.execute()).thenReturn(result);
+		PlaylistWriteBehindBuffer writeBehindBuffer = new PlaylistWriteBehindBuffer(mongoTemplate, meterRegistry);
+		ReflectionTestUtils.setField(writeBehindBuffer, "enabled", true);
+		ReflectionTestUtils.setField(writeBehindBuffer, "bufferCapacity", capacity);
+		ReflectionTestUtils.setField(writeBehindBuffer, "maxBatchSize", maxBatchSize);
+		ReflectionTestUtils.setField(writeBehindBuffer, "flushInterval", flushInterval);
+		ReflectionTestUtils.setField(writeBehindBuffer, "flushRetries", 0);
+		ReflectionTestUtils.setField(writeBehindBuffer, "shutdownTimeout", Duration.ofSeconds(5));
+		writeBehindBuffer.init();
+		return writeBehindBuffer;
+	}
+
+	private static PlaylistEntity playlist(int index) {
+		PlaylistEntity entity = new PlaylistEntity();
+		entity.setMood(Mood.HAPPY);
+		entity.setTrackUris(List.of("spotify:track:" + index));
+		return PlaylistUpserts.withContentHash(entity);
+	}
+}
@@ -0,0 +1,98 @@
+package io.musicdiscovery.moodplaylist.infrastructure.adapters.output.catalog;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link DistanceKernel} based on the JDK Vector API.
+ * 
+ * <p>
+ * Each iteration loads the features of as many tracks as the widest vector
+ * supported by the CPU holds, 8 with AVX2 or 16 with AVX-512, from each of the
+ * five feature columns, and computes their distances with one fused
+ * multiply-add per feature. The columns are unrolled and the slopes and offsets
+ * broadcast once per call, which keeps the loop free of anything but vector
+ * arithmetic. The tracks nearer than the threshold are found with one vector
+ * comparison, whose mask is almost always empty. The remaining tracks are
+ * processed one by one.
+ * </p>
+ * 
+ * <p>
+ * The class is kept out of the main sources, since compiling it needs the
+ * {@code jdk.incubator.vector} module, and is only compiled with the
+ * {@code vector} profile of {@code pom.xml}. It is loaded by name, and only
+ * when the module is resolved, see {@link DistanceKernel#preferred()}.
+ * </p>
+ */
+final class VectorDistanceKernel implements DistanceKernel {
+
+	private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+	@Override
+	public int select(float[][] columns, int length, MoodTarget target, float threshold, float[] distances,
+			int[] selected) {
+		float[] valences = columns[AudioFeature.VALENCE.ordinal()];
+		float[] energies = columns[AudioFeature.ENERGY.ordinal()];
+		float[] tempos = columns[AudioFeature.TEMPO.ordinal()];
+		float[] danceabilities = columns[AudioFeature.DANCEABILITY.ordinal()];
+		float[] acousticnesses = columns[AudioFeature.ACOUSTICNESS.ordinal()];
+		FloatVector valenceSlope = slope(target, AudioFeature.VALENCE);
+		FloatVector energySlope = slope(target, AudioFeature.ENERGY);
+		FloatVector tempoSlope = slope(target, AudioFeature.TEMPO);
+		FloatVector danceabilitySlope = slope(target, AudioFeature.DANCEABILITY);
+		FloatVector acousticnessSlope = slope(target, AudioFeature.ACOUSTICNESS);
+		FloatVector valenceOffset = offset(target, AudioFeature.VALENCE);
+		FloatVector energyOffset = offset(target, AudioFeature.ENERGY);
+		FloatVector tempoOffset = offset(target, AudioFeature.TEMPO);
+		FloatVector danceabilityOffset = offset(target, AudioFeature.DANCEABILITY);
+		FloatVector acousticnessOffset = offset(target, AudioFeature.ACOUSTICNESS);
+		int count = 0;
+		int track = 0;
+		for (int bound = SPECIES.loopBound(length); track < bound; track += SPECIES.length()) {
+			FloatVector valence = FloatVector.fromArray(SPECIES, valences, track).fma(valenceSlope, valenceOffset);
+			FloatVector energy = FloatVector.fromArray(SPECIES, energies, track).fma(energySlope, energyOffset);
+			FloatVector tempo = FloatVector.fromArray(SPECIES, tempos, track).fma(tempoSlope, tempoOffset);
+			FloatVector danceability = FloatVector.fromArray(SPECIES, danceabilities, track).fma(danceabilitySlope,
+					danceabilityOffset);
+			FloatVector acousticness = FloatVector.fromArray(SPECIES, acousticnesses, track).fma(acousticnessSlope,
+					acousticnessOffset);
+			// independent products summed pairwise, rather than a chain of dependent fma
+			FloatVector distance = valence.mul(valence).add(energy.mul(energy))
+					.add(tempo.fma(tempo, danceability.mul(danceability))).add(acousticness.mul(acousticness));
+			distance.intoArray(distances, track);
+			long nearer = distance.compare(VectorOperators.LT, threshold).toLong();
+			while (nearer != 0) {
+				selected[count++] = track + Long.numberOfTrailingZeros(nearer);
+				nearer &= nearer - 1;
+			}
+		}
+		float[] slopes = target.slopes();
+		float[] offsets = target.offsets();
+		for (; track < length; track++) {
+			float distance = 0;
+			for (int feature = 0; feature < columns.length; feature++) {
+				float difference = slopes[feature] * columns[feature][track] - offsets[feature];
+				distance += difference * difference;
+			}
+			distances[track] = distance;
+			if (distance < threshold) {
+				selected[count++] = track;
+			}
+		}
+		return count;
+	}
+
+	private static FloatVector slope(MoodTarget target, AudioFeature feature) {
+		return FloatVector.broadcast(SPECIES, target.slopes()[feature.ordinal()]);
+	}
+
+	private static FloatVector offset(MoodTarget target, AudioFeature feature) {
+		return FloatVector.broadcast(SPECIES, -target.offsets()[feature.ordinal()]);
+	}
+
+	@Override
+	public String name() {
+		return "vector-" + SPECIES.vectorBitSize();
+	}
+}